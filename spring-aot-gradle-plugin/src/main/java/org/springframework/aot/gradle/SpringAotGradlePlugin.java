@@ -144,10 +144,13 @@ public class SpringAotGradlePlugin implements Plugin<Project> {
 			aotProcessResources.setDuplicatesStrategy(DuplicatesStrategy.INCLUDE);
 		});
 
-		project.getTasks().named(SpringBootPlugin.BOOT_JAR_TASK_NAME, BootJar.class, (bootJar) ->
-				bootJar.classpath(aotSourceSet.getRuntimeClasspath()));
+		// The AOT output comes first, so that the classes it generates in place of the main ones, like enhanced entities, win
+		project.getTasks().named(SpringBootPlugin.BOOT_JAR_TASK_NAME, BootJar.class, (bootJar) -> {
+			bootJar.setClasspath(aotSourceSet.getOutput().plus(bootJar.getClasspath()).plus(aotSourceSet.getRuntimeClasspath()));
+			bootJar.setDuplicatesStrategy(DuplicatesStrategy.EXCLUDE);
+		});
 		project.getTasks().named("bootRun", BootRun.class, (bootRun) ->
-				bootRun.classpath(aotSourceSet.getRuntimeClasspath()));
+				bootRun.setClasspath(aotSourceSet.getOutput().plus(bootRun.getClasspath()).plus(aotSourceSet.getRuntimeClasspath())));
 	}
 
 	private SourceSet createAotTestSourceSet(SourceSetContainer sourceSets, File aotTestSourcesDirectory, File aotTestResourcesDirectory) {
@@ -49,6 +49,46 @@ public class SpringAotExtension {
 
 	private final Property<String[]> buildTimePropertiesChecks;
 
+	private final Property<Boolean> recordProvenance;
+
+	private final Property<Boolean> parallelAnalysis;
+
+	private final Property<Boolean> buildTimeBeanRegistration;
+
+	private final Property<Boolean> buildTimePropertiesBinding;
+
+	private final Property<Boolean> buildTimeAnnotationSynthesis;
+
+	private final Property<Boolean> buildTimeIsPresentChecks;
+
+	private final Property<Boolean> buildTimeInitializationAnalysis;
+
+	private final Property<Boolean> buildTimeLogbackConfiguration;
+
+	private final Property<Boolean> buildTimeApplicationProperties;
+
+	private final Property<Boolean> removeApplicationPropertiesFiles;
+
+	private final Property<Boolean> buildTimeRepositoryQueries;
+
+	private final Property<Boolean> buildTimeEntityEnhancement;
+
+	private final Property<Boolean> buildTimeValidationMetadata;
+
+	private final Property<Boolean> buildTimeJacksonSerializers;
+
+	private final Property<Boolean> buildTimeRequestMappings;
+
+	private final Property<Boolean> buildTimeTransactionAttributes;
+
+	private final Property<Boolean> buildTimeMethodSecurity;
+
+	private final Property<Boolean> buildTimeCacheOperations;
+
+	private final Property<Boolean> buildTimeKafkaListeners;
+
+	private final Property<Boolean> buildTimeScheduledAndEventListeners;
+
 	public SpringAotExtension(ObjectFactory objectFactory) {
 		this.mode = objectFactory.property(AotMode.class).convention(AotMode.NATIVE);
 		this.debugVerify = objectFactory.property(Boolean.class).convention(false);
@@ -61,6 +101,26 @@ public class SpringAotExtension {
 		this.failOnMissingSelectorHint = objectFactory.property(Boolean.class).convention(true);
 		this.buildTimePropertiesMatchIfMissing = objectFactory.property(Boolean.class).convention(true);
 		this.buildTimePropertiesChecks = objectFactory.property(String[].class).convention(new String[0]);
+		this.recordProvenance = objectFactory.property(Boolean.class).convention(false);
+		this.parallelAnalysis = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeBeanRegistration = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimePropertiesBinding = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeAnnotationSynthesis = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeIsPresentChecks = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeInitializationAnalysis = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeLogbackConfiguration = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeApplicationProperties = objectFactory.property(Boolean.class).convention(false);
+		this.removeApplicationPropertiesFiles = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeRepositoryQueries = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeEntityEnhancement = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeValidationMetadata = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeJacksonSerializers = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeRequestMappings = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeTransactionAttributes = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeMethodSecurity = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeCacheOperations = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeKafkaListeners = objectFactory.property(Boolean.class).convention(false);
+		this.buildTimeScheduledAndEventListeners = objectFactory.property(Boolean.class).convention(false);
 	}
 
 	/**
@@ -149,4 +209,144 @@ public class SpringAotExtension {
 		return this.buildTimePropertiesChecks;
 	}
 
+	/**
+	 * Record why each reflection, resource and proxy entry was computed and write that out as provenance.json (false by default).
+	 */
+	public Property<Boolean> getRecordProvenance() {
+		return this.recordProvenance;
+	}
+
+	/**
+	 * Analyze the configurations listed in spring.factories concurrently.
+	 */
+	public Property<Boolean> getParallelAnalysis() {
+		return this.parallelAnalysis;
+	}
+
+	/**
+	 * Generate bean registration code at build time for simple user configuration classes.
+	 */
+	public Property<Boolean> getBuildTimeBeanRegistration() {
+		return this.buildTimeBeanRegistration;
+	}
+
+	/**
+	 * Generate binder code at build time for user JavaBean style @ConfigurationProperties types.
+	 */
+	public Property<Boolean> getBuildTimePropertiesBinding() {
+		return this.buildTimePropertiesBinding;
+	}
+
+	/**
+	 * Determine whether concrete implementations of the annotations that Spring synthesizes are generated at build time.
+	 */
+	public Property<Boolean> getBuildTimeAnnotationSynthesis() {
+		return this.buildTimeAnnotationSynthesis;
+	}
+
+	/**
+	 * Determine whether Spring classes whose static initializer only makes ClassUtils.isPresent() checks are initialized at build time.
+	 */
+	public Property<Boolean> getBuildTimeIsPresentChecks() {
+		return this.buildTimeIsPresentChecks;
+	}
+
+	/**
+	 * Determine whether Spring classes whose static initializer is safe to run at build time are initialized at build time.
+	 */
+	public Property<Boolean> getBuildTimeInitializationAnalysis() {
+		return this.buildTimeInitializationAnalysis;
+	}
+
+	/**
+	 * Translate the Logback configuration file at build time into code configuring the logger context.
+	 */
+	public Property<Boolean> getBuildTimeLogbackConfiguration() {
+		return this.buildTimeLogbackConfiguration;
+	}
+
+	/**
+	 * Compile the packaged application.properties files at build time into code providing their properties.
+	 */
+	public Property<Boolean> getBuildTimeApplicationProperties() {
+		return this.buildTimeApplicationProperties;
+	}
+
+	/**
+	 * Remove the application.properties files compiled at build time from the native image resources.
+	 */
+	public Property<Boolean> getRemoveApplicationPropertiesFiles() {
+		return this.removeApplicationPropertiesFiles;
+	}
+
+	/**
+	 * Analyze the derived query methods of the Spring Data repositories at build time.
+	 */
+	public Property<Boolean> getBuildTimeRepositoryQueries() {
+		return this.buildTimeRepositoryQueries;
+	}
+
+	/**
+	 * Apply the Hibernate bytecode enhancer to the JPA entity classes at build time.
+	 */
+	public Property<Boolean> getBuildTimeEntityEnhancement() {
+		return this.buildTimeEntityEnhancement;
+	}
+
+	/**
+	 * Analyze the Bean Validation usage of the application at build time.
+	 */
+	public Property<Boolean> getBuildTimeValidationMetadata() {
+		return this.buildTimeValidationMetadata;
+	}
+
+	/**
+	 * Generate Jackson serializers and deserializers for the web payload types at build time.
+	 */
+	public Property<Boolean> getBuildTimeJacksonSerializers() {
+		return this.buildTimeJacksonSerializers;
+	}
+
+	/**
+	 * Read the request mappings of the controllers at build time.
+	 */
+	public Property<Boolean> getBuildTimeRequestMappings() {
+		return this.buildTimeRequestMappings;
+	}
+
+	/**
+	 * Compute the transaction attributes declared with @Transactional at build time.
+	 */
+	public Property<Boolean> getBuildTimeTransactionAttributes() {
+		return this.buildTimeTransactionAttributes;
+	}
+
+	/**
+	 * Determine whether method security attributes should be computed at build time.
+	 */
+	public Property<Boolean> getBuildTimeMethodSecurity() {
+		return this.buildTimeMethodSecurity;
+	}
+
+	/**
+	 * Determine whether the cache operations declared with @Cacheable, @CachePut and @CacheEvict should be computed at build time.
+	 */
+	public Property<Boolean> getBuildTimeCacheOperations() {
+		return this.buildTimeCacheOperations;
+	}
+
+	/**
+	 * Determine whether the classes declaring @KafkaListener methods should be found at build time.
+	 */
+	public Property<Boolean> getBuildTimeKafkaListeners() {
+		return this.buildTimeKafkaListeners;
+	}
+
+	/**
+	 * Determine whether the @Scheduled and @EventListener methods should be found at build time.
+	 */
+	public Property<Boolean> getBuildTimeScheduledAndEventListeners() {
+		return this.buildTimeScheduledAndEventListeners;
+	}
+
 }
@@ -54,6 +54,46 @@ public class GenerateAotOptions implements Serializable {
 
 	private final Property<String[]> buildTimePropertiesChecks;
 
+	private final Property<Boolean> recordProvenance;
+
+	private final Property<Boolean> parallelAnalysis;
+
+	private final Property<Boolean> buildTimeBeanRegistration;
+
+	private final Property<Boolean> buildTimePropertiesBinding;
+
+	private final Property<Boolean> buildTimeAnnotationSynthesis;
+
+	private final Property<Boolean> buildTimeIsPresentChecks;
+
+	private final Property<Boolean> buildTimeInitializationAnalysis;
+
+	private final Property<Boolean> buildTimeLogbackConfiguration;
+
+	private final Property<Boolean> buildTimeApplicationProperties;
+
+	private final Property<Boolean> removeApplicationPropertiesFiles;
+
+	private final Property<Boolean> buildTimeRepositoryQueries;
+
+	private final Property<Boolean> buildTimeEntityEnhancement;
+
+	private final Property<Boolean> buildTimeValidationMetadata;
+
+	private final Property<Boolean> buildTimeJacksonSerializers;
+
+	private final Property<Boolean> buildTimeRequestMappings;
+
+	private final Property<Boolean> buildTimeTransactionAttributes;
+
+	private final Property<Boolean> buildTimeMethodSecurity;
+
+	private final Property<Boolean> buildTimeCacheOperations;
+
+	private final Property<Boolean> buildTimeKafkaListeners;
+
+	private final Property<Boolean> buildTimeScheduledAndEventListeners;
+
 	public GenerateAotOptions(SpringAotExtension extension) {
 		this.mode = extension.getMode().map(aotMode -> aotMode.getSlug());
 		this.debugVerify = extension.getDebugVerify();
@@ -66,6 +106,26 @@ public class GenerateAotOptions implements Serializable {
 		this.failOnMissingSelectorHint = extension.getFailOnMissingSelectorHint();
 		this.buildTimePropertiesMatchIfMissing = extension.getBuildTimePropertiesMatchIfMissing();
 		this.buildTimePropertiesChecks = extension.getBuildTimePropertiesChecks();
+		this.recordProvenance = extension.getRecordProvenance();
+		this.parallelAnalysis = extension.getParallelAnalysis();
+		this.buildTimeBeanRegistration = extension.getBuildTimeBeanRegistration();
+		this.buildTimePropertiesBinding = extension.getBuildTimePropertiesBinding();
+		this.buildTimeAnnotationSynthesis = extension.getBuildTimeAnnotationSynthesis();
+		this.buildTimeIsPresentChecks = extension.getBuildTimeIsPresentChecks();
+		this.buildTimeInitializationAnalysis = extension.getBuildTimeInitializationAnalysis();
+		this.buildTimeLogbackConfiguration = extension.getBuildTimeLogbackConfiguration();
+		this.buildTimeApplicationProperties = extension.getBuildTimeApplicationProperties();
+		this.removeApplicationPropertiesFiles = extension.getRemoveApplicationPropertiesFiles();
+		this.buildTimeRepositoryQueries = extension.getBuildTimeRepositoryQueries();
+		this.buildTimeEntityEnhancement = extension.getBuildTimeEntityEnhancement();
+		this.buildTimeValidationMetadata = extension.getBuildTimeValidationMetadata();
+		this.buildTimeJacksonSerializers = extension.getBuildTimeJacksonSerializers();
+		this.buildTimeRequestMappings = extension.getBuildTimeRequestMappings();
+		this.buildTimeTransactionAttributes = extension.getBuildTimeTransactionAttributes();
+		this.buildTimeMethodSecurity = extension.getBuildTimeMethodSecurity();
+		this.buildTimeCacheOperations = extension.getBuildTimeCacheOperations();
+		this.buildTimeKafkaListeners = extension.getBuildTimeKafkaListeners();
+		this.buildTimeScheduledAndEventListeners = extension.getBuildTimeScheduledAndEventListeners();
 	}
 
 	@Input
@@ -123,6 +183,106 @@ public class GenerateAotOptions implements Serializable {
 		return this.buildTimePropertiesChecks;
 	}
 
+	@Input
+	public Property<Boolean> getRecordProvenance() {
+		return this.recordProvenance;
+	}
+
+	@Input
+	public Property<Boolean> getParallelAnalysis() {
+		return this.parallelAnalysis;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeBeanRegistration() {
+		return this.buildTimeBeanRegistration;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimePropertiesBinding() {
+		return this.buildTimePropertiesBinding;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeAnnotationSynthesis() {
+		return this.buildTimeAnnotationSynthesis;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeIsPresentChecks() {
+		return this.buildTimeIsPresentChecks;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeInitializationAnalysis() {
+		return this.buildTimeInitializationAnalysis;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeLogbackConfiguration() {
+		return this.buildTimeLogbackConfiguration;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeApplicationProperties() {
+		return this.buildTimeApplicationProperties;
+	}
+
+	@Input
+	public Property<Boolean> getRemoveApplicationPropertiesFiles() {
+		return this.removeApplicationPropertiesFiles;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeRepositoryQueries() {
+		return this.buildTimeRepositoryQueries;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeEntityEnhancement() {
+		return this.buildTimeEntityEnhancement;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeValidationMetadata() {
+		return this.buildTimeValidationMetadata;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeJacksonSerializers() {
+		return this.buildTimeJacksonSerializers;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeRequestMappings() {
+		return this.buildTimeRequestMappings;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeTransactionAttributes() {
+		return this.buildTimeTransactionAttributes;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeMethodSecurity() {
+		return this.buildTimeMethodSecurity;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeCacheOperations() {
+		return this.buildTimeCacheOperations;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeKafkaListeners() {
+		return this.buildTimeKafkaListeners;
+	}
+
+	@Input
+	public Property<Boolean> getBuildTimeScheduledAndEventListeners() {
+		return this.buildTimeScheduledAndEventListeners;
+	}
+
 	AotOptions toAotOptions() {
 		AotOptions options = new AotOptions();
 		options.setMode(this.mode.get());
@@ -136,6 +296,26 @@ public class GenerateAotOptions implements Serializable {
 		options.setFailOnMissingSelectorHint(this.failOnMissingSelectorHint.get());
 		options.setBuildTimePropertiesMatchIfMissing(this.buildTimePropertiesMatchIfMissing.get());
 		options.setBuildTimePropertiesChecks(this.buildTimePropertiesChecks.get());
+		options.setRecordProvenance(this.recordProvenance.get());
+		options.setParallelAnalysis(this.parallelAnalysis.get());
+		options.setBuildTimeBeanRegistration(this.buildTimeBeanRegistration.get());
+		options.setBuildTimePropertiesBinding(this.buildTimePropertiesBinding.get());
+		options.setBuildTimeAnnotationSynthesis(this.buildTimeAnnotationSynthesis.get());
+		options.setBuildTimeIsPresentChecks(this.buildTimeIsPresentChecks.get());
+		options.setBuildTimeInitializationAnalysis(this.buildTimeInitializationAnalysis.get());
+		options.setBuildTimeLogbackConfiguration(this.buildTimeLogbackConfiguration.get());
+		options.setBuildTimeApplicationProperties(this.buildTimeApplicationProperties.get());
+		options.setRemoveApplicationPropertiesFiles(this.removeApplicationPropertiesFiles.get());
+		options.setBuildTimeRepositoryQueries(this.buildTimeRepositoryQueries.get());
+		options.setBuildTimeEntityEnhancement(this.buildTimeEntityEnhancement.get());
+		options.setBuildTimeValidationMetadata(this.buildTimeValidationMetadata.get());
+		options.setBuildTimeJacksonSerializers(this.buildTimeJacksonSerializers.get());
+		options.setBuildTimeRequestMappings(this.buildTimeRequestMappings.get());
+		options.setBuildTimeTransactionAttributes(this.buildTimeTransactionAttributes.get());
+		options.setBuildTimeMethodSecurity(this.buildTimeMethodSecurity.get());
+		options.setBuildTimeCacheOperations(this.buildTimeCacheOperations.get());
+		options.setBuildTimeKafkaListeners(this.buildTimeKafkaListeners.get());
+		options.setBuildTimeScheduledAndEventListeners(this.buildTimeScheduledAndEventListeners.get());
 		return options;
 	}
 }
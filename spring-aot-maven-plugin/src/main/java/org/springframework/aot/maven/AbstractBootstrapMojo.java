@@ -111,6 +111,66 @@ abstract class AbstractBootstrapMojo extends AbstractMojo {
 	@Parameter
 	private boolean failOnMissingSelectorHint;
 
+	@Parameter
+	private boolean recordProvenance;
+
+	@Parameter
+	private boolean parallelAnalysis;
+
+	@Parameter
+	private boolean buildTimeBeanRegistration;
+
+	@Parameter
+	private boolean buildTimePropertiesBinding;
+
+	@Parameter
+	private boolean buildTimeAnnotationSynthesis;
+
+	@Parameter
+	private boolean buildTimeIsPresentChecks;
+
+	@Parameter
+	private boolean buildTimeInitializationAnalysis;
+
+	@Parameter
+	private boolean buildTimeLogbackConfiguration;
+
+	@Parameter
+	private boolean buildTimeApplicationProperties;
+
+	@Parameter
+	private boolean removeApplicationPropertiesFiles;
+
+	@Parameter
+	private boolean buildTimeRepositoryQueries;
+
+	@Parameter
+	private boolean buildTimeEntityEnhancement;
+
+	@Parameter
+	private boolean buildTimeValidationMetadata;
+
+	@Parameter
+	private boolean buildTimeJacksonSerializers;
+
+	@Parameter
+	private boolean buildTimeRequestMappings;
+
+	@Parameter
+	private boolean buildTimeTransactionAttributes;
+
+	@Parameter
+	private boolean buildTimeMethodSecurity;
+
+	@Parameter
+	private boolean buildTimeCacheOperations;
+
+	@Parameter
+	private boolean buildTimeKafkaListeners;
+
+	@Parameter
+	private boolean buildTimeScheduledAndEventListeners;
+
 
 	protected AotOptions getAotOptions() {
 		AotOptions aotOptions = new AotOptions();
@@ -126,6 +186,26 @@ abstract class AbstractBootstrapMojo extends AbstractMojo {
 		aotOptions.setBuildTimePropertiesMatchIfMissing(buildTimePropertiesMatchIfMissing);
 		aotOptions.setBuildTimePropertiesChecks(buildTimePropertiesChecks);
 		aotOptions.setFailOnMissingSelectorHint(failOnMissingSelectorHint);
+		aotOptions.setRecordProvenance(recordProvenance);
+		aotOptions.setParallelAnalysis(parallelAnalysis);
+		aotOptions.setBuildTimeBeanRegistration(buildTimeBeanRegistration);
+		aotOptions.setBuildTimePropertiesBinding(buildTimePropertiesBinding);
+		aotOptions.setBuildTimeAnnotationSynthesis(buildTimeAnnotationSynthesis);
+		aotOptions.setBuildTimeIsPresentChecks(buildTimeIsPresentChecks);
+		aotOptions.setBuildTimeInitializationAnalysis(buildTimeInitializationAnalysis);
+		aotOptions.setBuildTimeLogbackConfiguration(buildTimeLogbackConfiguration);
+		aotOptions.setBuildTimeApplicationProperties(buildTimeApplicationProperties);
+		aotOptions.setRemoveApplicationPropertiesFiles(removeApplicationPropertiesFiles);
+		aotOptions.setBuildTimeRepositoryQueries(buildTimeRepositoryQueries);
+		aotOptions.setBuildTimeEntityEnhancement(buildTimeEntityEnhancement);
+		aotOptions.setBuildTimeValidationMetadata(buildTimeValidationMetadata);
+		aotOptions.setBuildTimeJacksonSerializers(buildTimeJacksonSerializers);
+		aotOptions.setBuildTimeRequestMappings(buildTimeRequestMappings);
+		aotOptions.setBuildTimeTransactionAttributes(buildTimeTransactionAttributes);
+		aotOptions.setBuildTimeMethodSecurity(buildTimeMethodSecurity);
+		aotOptions.setBuildTimeCacheOperations(buildTimeCacheOperations);
+		aotOptions.setBuildTimeKafkaListeners(buildTimeKafkaListeners);
+		aotOptions.setBuildTimeScheduledAndEventListeners(buildTimeScheduledAndEventListeners);
 		return aotOptions;
 	}
 
@@ -167,8 +247,10 @@ abstract class AbstractBootstrapMojo extends AbstractMojo {
 
 	protected void processGeneratedResources(Path sourcePath, Path destinationPath) throws MojoExecutionException {
 		String resourcesVersion = this.project.getProperties().getProperty("maven-resources-plugin.version", "3.2.0");
+		// The output directory heads the Maven classpath, the generated files must win over the compiled classes
+		// they are generated in place of, like enhanced entities
 		Xpp3Dom resourceConfig = configuration(element("resources", element("resource", element("directory", sourcePath.toString()))),
-				element("outputDirectory", destinationPath.toString()));
+				element("outputDirectory", destinationPath.toString()), element("overwrite", "true"));
 		Resource resource = new Resource();
 		resource.setDirectory(sourcePath.toString());
 		project.addResource(resource);
@@ -0,0 +1,512 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Generate the code providing the properties of the {@code application.properties} files packaged with the
+ * application, so that Spring Boot does not read and parse them at runtime. The files keep their place in the
+ * environment: the runtime property source loader asks the generated
+ * {@code org.springframework.aot.StaticApplicationProperties} class for the documents of a classpath resource before
+ * reading it, so external files, environment variables and system properties still override them.
+ * <p>Only the files of the default locations ({@code classpath:/} and {@code classpath:/config/}) are compiled,
+ * files using the {@code key[]} list syntax or too large for a method are left to the runtime loader. Each value
+ * keeps the origin (line and column in the file) that the Spring Boot loader would give it.
+ */
+class ApplicationPropertiesCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(ApplicationPropertiesCodeGenerator.class);
+
+	static final String STATIC_APPLICATION_PROPERTIES = "org.springframework.aot.StaticApplicationProperties";
+
+	// The files of the default config name in the default classpath locations, including profile specific ones
+	private static final Pattern APPLICATION_PROPERTIES_PATH = Pattern.compile("(config/)?application(-[^/]+)?\\.properties");
+
+	// Keeps the generated methods well within the size limit of the class file format
+	private static final int MAX_PROPERTIES = 2000;
+
+	private static final TypeName DOCUMENTS = ParameterizedTypeName.get(ClassName.get(List.class),
+			ParameterizedTypeName.get(ClassName.get(Map.class), ClassName.get(String.class), WildcardTypeName.subtypeOf(Object.class)));
+
+	// Spring Boot is not a compile dependency of this module
+	private static final ClassName ORIGIN_TRACKED_VALUE = ClassName.get("org.springframework.boot.origin", "OriginTrackedValue");
+
+	private static final ClassName TEXT_RESOURCE_ORIGIN = ClassName.get("org.springframework.boot.origin", "TextResourceOrigin");
+
+	private final Map<String, List<Map<String, Value>>> documentsByPath = new LinkedHashMap<>();
+
+	/**
+	 * Find the application properties files on the classpath. As the class loader does, the first file found
+	 * for a path is the one loaded.
+	 * @param classpath the classpath of the application
+	 * @return the content of the files keyed by their path in the classpath
+	 */
+	static Map<String, byte[]> findApplicationPropertiesFiles(List<String> classpath) {
+		Map<String, byte[]> files = new LinkedHashMap<>();
+		for (String entry : classpath) {
+			File file = new File(entry);
+			try {
+				if (file.isDirectory()) {
+					for (String directory : new String[] { "", "config/" }) {
+						File[] candidates = new File(file, directory).listFiles();
+						if (candidates == null) {
+							continue;
+						}
+						for (File candidate : candidates) {
+							String path = directory + candidate.getName();
+							if (candidate.isFile() && APPLICATION_PROPERTIES_PATH.matcher(path).matches() && !files.containsKey(path)) {
+								files.put(path, Files.readAllBytes(candidate.toPath()));
+							}
+						}
+					}
+				}
+				else if (file.isFile() && file.getName().endsWith(".jar")) {
+					try (ZipFile zipFile = new ZipFile(file)) {
+						Enumeration<? extends ZipEntry> entries = zipFile.entries();
+						while (entries.hasMoreElements()) {
+							ZipEntry zipEntry = entries.nextElement();
+							String path = zipEntry.getName();
+							if (!zipEntry.isDirectory() && APPLICATION_PROPERTIES_PATH.matcher(path).matches() && !files.containsKey(path)) {
+								try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
+									files.put(path, FileCopyUtils.copyToByteArray(inputStream));
+								}
+							}
+						}
+					}
+				}
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Unable to read application properties files from " + entry, ex);
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Generate the code providing the properties of a file, if it is eligible.
+	 * @param path the path of the file in the classpath
+	 * @param content the content of the file
+	 * @return true if code was generated for the file
+	 */
+	public boolean addApplicationPropertiesFile(String path, byte[] content) {
+		List<Map<String, Value>> documents;
+		try {
+			documents = loadDocuments(content);
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			logger.debug("Not generating code for " + path + ", it cannot be parsed: " + ex.getMessage());
+			return false;
+		}
+		int count = 0;
+		for (Map<String, Value> document : documents) {
+			for (String key : document.keySet()) {
+				if (key.endsWith("[]")) {
+					logger.debug("Not generating code for " + path + ": property " + key + " uses the list syntax");
+					return false;
+				}
+			}
+			count += document.size();
+		}
+		if (count > MAX_PROPERTIES) {
+			logger.debug("Not generating code for " + path + ": it has " + count + " properties");
+			return false;
+		}
+		logger.debug("Generating code for the " + count + " properties of " + path);
+		this.documentsByPath.put(path, documents);
+		return true;
+	}
+
+	public boolean hasApplicationPropertiesFiles() {
+		return !this.documentsByPath.isEmpty();
+	}
+
+	/**
+	 * @return the classpath paths of the files code was generated for
+	 */
+	public Set<String> getApplicationPropertiesPaths() {
+		return this.documentsByPath.keySet();
+	}
+
+	/**
+	 * Load the documents of a properties file as the Spring Boot {@code OriginTrackedPropertiesLoader} does:
+	 * documents are separated by a {@code #---} line, empty documents are ignored and each value records the
+	 * line and column it starts at.
+	 */
+	static List<Map<String, Value>> loadDocuments(byte[] content) throws IOException {
+		List<Map<String, Value>> documents = new ArrayList<>();
+		Map<String, Value> document = new LinkedHashMap<>();
+		StringBuilder buffer = new StringBuilder();
+		try (CharacterReader reader = new CharacterReader(new String(content, StandardCharsets.ISO_8859_1))) {
+			while (reader.read()) {
+				if (reader.isPoundCharacter()) {
+					if (isNewDocument(reader)) {
+						if (!document.isEmpty()) {
+							documents.add(document);
+						}
+						document = new LinkedHashMap<>();
+					}
+					else {
+						if (document.isEmpty() && !documents.isEmpty()) {
+							document = documents.remove(documents.size() - 1);
+						}
+						reader.setLastLineComment(true);
+						reader.skipComment();
+					}
+				}
+				else {
+					reader.setLastLineComment(false);
+					String key = loadKey(buffer, reader).trim();
+					Value value = loadValue(buffer, reader);
+					if (!key.isEmpty()) {
+						document.put(key, value);
+					}
+				}
+			}
+		}
+		if (!document.isEmpty() && !documents.contains(document)) {
+			documents.add(document);
+		}
+		return documents;
+	}
+
+	private static boolean isNewDocument(CharacterReader reader) throws IOException {
+		if (reader.isLastLineComment()) {
+			return false;
+		}
+		boolean result = reader.getColumn() == 0 && reader.isPoundCharacter();
+		result = result && readAndExpectHyphen(reader);
+		result = result && readAndExpectHyphen(reader);
+		result = result && readAndExpectHyphen(reader);
+		if (!reader.isEndOfLine()) {
+			reader.read();
+			reader.skipWhitespace();
+		}
+		return result && reader.isEndOfLine();
+	}
+
+	private static boolean readAndExpectHyphen(CharacterReader reader) throws IOException {
+		reader.read();
+		return reader.getCharacter() == '-';
+	}
+
+	private static String loadKey(StringBuilder buffer, CharacterReader reader) throws IOException {
+		buffer.setLength(0);
+		boolean previousWhitespace = false;
+		while (!reader.isEndOfLine()) {
+			if (reader.isPropertyDelimiter()) {
+				reader.read();
+				return buffer.toString();
+			}
+			if (!reader.isWhiteSpace() && previousWhitespace) {
+				return buffer.toString();
+			}
+			previousWhitespace = reader.isWhiteSpace();
+			buffer.append(reader.getCharacter());
+			reader.read();
+		}
+		return buffer.toString();
+	}
+
+	private static Value loadValue(StringBuilder buffer, CharacterReader reader) throws IOException {
+		buffer.setLength(0);
+		while (reader.isWhiteSpace() && !reader.isEndOfLine()) {
+			reader.read();
+		}
+		int line = reader.getLine();
+		int column = reader.getColumn();
+		while (!reader.isEndOfLine()) {
+			buffer.append(reader.getCharacter());
+			reader.read();
+		}
+		return new Value(buffer.toString(), line, column);
+	}
+
+	public JavaFile generateStaticApplicationProperties() {
+		MethodSpec.Builder contains = MethodSpec.methodBuilder("contains")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(String.class, "path")
+				.addJavadoc("@param path the path of a resource in the classpath\n")
+				.addJavadoc("@return true if the properties of the resource were compiled at build time\n")
+				.beginControlFlow("switch (path)");
+		MethodSpec.Builder getDocuments = MethodSpec.methodBuilder("getDocuments")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.returns(DOCUMENTS)
+				.addParameter(String.class, "path")
+				.addParameter(Resource.class, "resource")
+				.addJavadoc("@param path the path of a resource in the classpath\n")
+				.addJavadoc("@param resource the resource the origins of the values refer to\n")
+				.addJavadoc("@return the properties of each document of the resource, or null if they were not compiled at build time\n")
+				.beginControlFlow("switch (path)");
+		List<MethodSpec> documentsMethods = new ArrayList<>();
+		Set<String> methodNames = new HashSet<>();
+		for (Map.Entry<String, List<Map<String, Value>>> entry : this.documentsByPath.entrySet()) {
+			MethodSpec documentsMethod = createDocumentsMethod(entry.getKey(), entry.getValue(), methodNames);
+			documentsMethods.add(documentsMethod);
+			contains.addCode("case $S:\n", entry.getKey());
+			getDocuments.addStatement("case $S: return $N(resource)", entry.getKey(), documentsMethod);
+		}
+		contains.addStatement("$>return true$<").addStatement("default: return false").endControlFlow();
+		getDocuments.addStatement("default: return null").endControlFlow();
+		TypeSpec staticApplicationProperties = TypeSpec.classBuilder(ClassName.bestGuess(STATIC_APPLICATION_PROPERTIES))
+				.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+				.addMethod(contains.build())
+				.addMethod(getDocuments.build())
+				.addMethods(documentsMethods)
+				.addMethod(createValueMethod())
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(ClassName.bestGuess(STATIC_APPLICATION_PROPERTIES).packageName(), staticApplicationProperties).build();
+	}
+
+	private MethodSpec createDocumentsMethod(String path, List<Map<String, Value>> documents, Set<String> methodNames) {
+		StringBuilder methodName = new StringBuilder();
+		for (String part : path.split("[^A-Za-z0-9]+")) {
+			methodName.append(methodName.length() == 0 ? part : StringUtils.capitalize(part));
+		}
+		while (!methodNames.add(methodName.toString())) {
+			methodName.append('_');
+		}
+		MethodSpec.Builder method = MethodSpec.methodBuilder(methodName.toString())
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(DOCUMENTS)
+				.addParameter(Resource.class, "resource")
+				.addStatement("$T documents = new $T<>($L)", DOCUMENTS, ArrayList.class, documents.size());
+		for (int i = 0; i < documents.size(); i++) {
+			String document = "document" + i;
+			method.addStatement("$T<$T, $T> $L = new $T<>($L)", Map.class, String.class, Object.class, document,
+					LinkedHashMap.class, (int) (documents.get(i).size() / 0.75f) + 1);
+			for (Map.Entry<String, Value> property : documents.get(i).entrySet()) {
+				Value value = property.getValue();
+				method.addStatement("$L.put($S, value($S, resource, $L, $L))", document, property.getKey(), value.value,
+						value.line, value.column);
+			}
+			method.addStatement("documents.add($L)", document);
+		}
+		return method.addStatement("return documents").build();
+	}
+
+	private MethodSpec createValueMethod() {
+		return MethodSpec.methodBuilder("value")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(Object.class)
+				.addParameter(String.class, "value")
+				.addParameter(Resource.class, "resource")
+				.addParameter(int.class, "line")
+				.addParameter(int.class, "column")
+				.addStatement("return $T.of(value, new $T(resource, new $T(line, column)))", ORIGIN_TRACKED_VALUE,
+						TEXT_RESOURCE_ORIGIN, TEXT_RESOURCE_ORIGIN.nestedClass("Location"))
+				.build();
+	}
+
+	/**
+	 * A property value and the zero based line and column it starts at, as {@code TextResourceOrigin.Location}
+	 * records them.
+	 */
+	static class Value {
+
+		final String value;
+
+		final int line;
+
+		final int column;
+
+		Value(String value, int line, int column) {
+			this.value = value;
+			this.line = line;
+			this.column = column;
+		}
+
+	}
+
+	/**
+	 * Reads the characters of a properties file, resolving escapes and line continuations, as the reader of the
+	 * Spring Boot loader does.
+	 */
+	private static class CharacterReader implements AutoCloseable {
+
+		private static final String ESCAPED = "trnf";
+
+		private static final String UNESCAPED = "\t\r\n\f";
+
+		private final LineNumberReader reader;
+
+		private int column = -1;
+
+		private boolean escaped;
+
+		private int character;
+
+		private boolean lastLineComment;
+
+		CharacterReader(String content) {
+			this.reader = new LineNumberReader(new StringReader(content));
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.reader.close();
+		}
+
+		boolean read() throws IOException {
+			return read(false);
+		}
+
+		private boolean read(boolean wrappedLine) throws IOException {
+			this.escaped = false;
+			this.character = this.reader.read();
+			this.column++;
+			if (this.column == 0) {
+				skipWhitespace();
+				if (!wrappedLine && this.character == '!') {
+					skipComment();
+				}
+			}
+			if (this.character == '\\') {
+				this.escaped = true;
+				readEscaped();
+			}
+			else if (this.character == '\n') {
+				this.column = -1;
+			}
+			return !isEndOfFile();
+		}
+
+		void skipWhitespace() throws IOException {
+			while (isWhiteSpace()) {
+				this.character = this.reader.read();
+				this.column++;
+			}
+		}
+
+		void setLastLineComment(boolean lastLineComment) {
+			this.lastLineComment = lastLineComment;
+		}
+
+		boolean isLastLineComment() {
+			return this.lastLineComment;
+		}
+
+		void skipComment() throws IOException {
+			while (this.character != '\n' && this.character != -1) {
+				this.character = this.reader.read();
+			}
+			this.column = -1;
+		}
+
+		private void readEscaped() throws IOException {
+			this.character = this.reader.read();
+			int escapeIndex = ESCAPED.indexOf(this.character);
+			if (escapeIndex != -1) {
+				this.character = UNESCAPED.charAt(escapeIndex);
+			}
+			else if (this.character == '\n') {
+				this.column = -1;
+				read(true);
+			}
+			else if (this.character == 'u') {
+				readUnicode();
+			}
+		}
+
+		private void readUnicode() throws IOException {
+			this.character = 0;
+			for (int i = 0; i < 4; i++) {
+				int digit = this.reader.read();
+				if (digit >= '0' && digit <= '9') {
+					this.character = (this.character << 4) + digit - '0';
+				}
+				else if (digit >= 'a' && digit <= 'f') {
+					this.character = (this.character << 4) + digit - 'a' + 10;
+				}
+				else if (digit >= 'A' && digit <= 'F') {
+					this.character = (this.character << 4) + digit - 'A' + 10;
+				}
+				else {
+					throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+				}
+			}
+		}
+
+		boolean isWhiteSpace() {
+			return !this.escaped && (this.character == ' ' || this.character == '\t' || this.character == '\f');
+		}
+
+		boolean isEndOfFile() {
+			return this.character == -1;
+		}
+
+		boolean isEndOfLine() {
+			return this.character == -1 || (!this.escaped && this.character == '\n');
+		}
+
+		boolean isPropertyDelimiter() {
+			return !this.escaped && (this.character == '=' || this.character == ':');
+		}
+
+		boolean isPoundCharacter() {
+			return this.character == '#';
+		}
+
+		char getCharacter() {
+			return (char) this.character;
+		}
+
+		int getLine() {
+			return this.reader.getLineNumber();
+		}
+
+		int getColumn() {
+			return this.column;
+		}
+
+	}
+
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.beans.Introspector;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.tree.AnnotationNode;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.MethodParameter;
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Generate bean registration code for user configuration classes so that
+ * {@code ConfigurationClassPostProcessor} does not have to parse them at runtime. Each configuration
+ * class and its {@code @Bean} methods are registered with direct constructor and factory method suppliers,
+ * in a {@code _BeanRegistrations} class generated in the package of the configuration. A
+ * {@code org.springframework.aot.StaticBeanRegistrations} post processor invokes all of them.
+ * <p>Only configurations that need nothing more than that are handled: anything carrying conditions, imports,
+ * inherited {@code @Bean} methods or other annotations the parser would act upon is left for runtime parsing.
+ */
+class BeanRegistrationCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(BeanRegistrationCodeGenerator.class);
+
+	static final String STATIC_BEAN_REGISTRATIONS = "org.springframework.aot.StaticBeanRegistrations";
+
+	static final String CONFIGURATION_CLASS_ATTRIBUTE = "org.springframework.context.annotation.ConfigurationClassPostProcessor.configurationClass";
+
+	private static final String AtPrimary = "Lorg/springframework/context/annotation/Primary;";
+
+	private static final String AtLazy = "Lorg/springframework/context/annotation/Lazy;";
+
+	// Types that are satisfied from the resolvable dependencies of the bean factory rather than from beans
+	private static final String[] RESOLVABLE_DEPENDENCY_TYPES = new String[] {
+			"org/springframework/beans/factory/BeanFactory", "org/springframework/core/io/ResourceLoader",
+			"org/springframework/context/ApplicationEventPublisher", "org/springframework/context/ApplicationContext" };
+
+	private final Map<String, List<MethodSpec>> registrationsByPackage = new LinkedHashMap<>();
+
+	// Packages whose registrations resolve factory method arguments
+	private final Set<String> packagesResolvingArguments = new HashSet<>();
+
+	/**
+	 * Generate the registration code for a configuration, if it is eligible.
+	 * @param configurationType the configuration type
+	 * @return true if registration code was generated for the configuration
+	 */
+	public boolean addConfiguration(Type configurationType) {
+		String ineligibility = checkEligibility(configurationType);
+		if (ineligibility != null) {
+			logger.debug("Not generating bean registration code for " + configurationType.getDottedName() + ": " + ineligibility);
+			return false;
+		}
+		logger.debug("Generating bean registration code for " + configurationType.getDottedName());
+		registrationsByPackage.computeIfAbsent(configurationType.getPackageName(), k -> new ArrayList<>())
+				.add(createRegistrationMethod(configurationType));
+		for (Method atBeanMethod : configurationType.getMethodsWithAtBean()) {
+			if (!atBeanMethod.getParameterTypes().isEmpty()) {
+				packagesResolvingArguments.add(configurationType.getPackageName());
+			}
+		}
+		return true;
+	}
+
+	public boolean hasRegistrations() {
+		return !registrationsByPackage.isEmpty();
+	}
+
+	public List<JavaFile> generateBeanRegistrationClasses() {
+		List<JavaFile> javaFiles = new ArrayList<>();
+		for (Map.Entry<String, List<MethodSpec>> entry : registrationsByPackage.entrySet()) {
+			MethodSpec.Builder registerAll = MethodSpec.methodBuilder("registerBeanDefinitions")
+					.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+					.addParameter(DefaultListableBeanFactory.class, "beanFactory");
+			for (MethodSpec registration : entry.getValue()) {
+				registerAll.addStatement("$N(beanFactory)", registration);
+			}
+			TypeSpec.Builder registrations = TypeSpec.classBuilder("_BeanRegistrations")
+					.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.addMethod(registerAll.build())
+					.addMethods(entry.getValue())
+					.addJavadoc("Class generated - do not edit this file");
+			if (packagesResolvingArguments.contains(entry.getKey())) {
+				registrations.addMethod(createResolveArgumentsMethod());
+			}
+			javaFiles.add(JavaFile.builder(entry.getKey(), registrations.build()).build());
+		}
+		return javaFiles;
+	}
+
+	public JavaFile generateStaticBeanRegistrations() {
+		MethodSpec.Builder postProcessRegistry = MethodSpec.methodBuilder("postProcessBeanDefinitionRegistry")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC)
+				.addParameter(BeanDefinitionRegistry.class, "registry")
+				.addStatement("$T beanFactory = ($T) registry", DefaultListableBeanFactory.class, DefaultListableBeanFactory.class);
+		for (String packageName : registrationsByPackage.keySet()) {
+			postProcessRegistry.addStatement("$T.registerBeanDefinitions(beanFactory)", ClassName.get(packageName, "_BeanRegistrations"));
+		}
+		MethodSpec postProcessBeanFactory = MethodSpec.methodBuilder("postProcessBeanFactory")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC)
+				.addParameter(ConfigurableListableBeanFactory.class, "beanFactory")
+				.build();
+		ClassName staticBeanRegistrations = ClassName.bestGuess(STATIC_BEAN_REGISTRATIONS);
+		TypeSpec type = TypeSpec.classBuilder(staticBeanRegistrations)
+				.addModifiers(Modifier.PUBLIC)
+				.addSuperinterface(BeanDefinitionRegistryPostProcessor.class)
+				.addMethod(postProcessRegistry.build())
+				.addMethod(postProcessBeanFactory)
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(staticBeanRegistrations.packageName(), type).build();
+	}
+
+	/**
+	 * @param configurationType the configuration type to check
+	 * @return why registration code cannot be generated for the configuration, or null if it can
+	 */
+	static String checkEligibility(Type configurationType) {
+		if (!configurationType.getDottedName().contains(".")) {
+			return "in the default package";
+		}
+		if (configurationType.getEnclosingType() != null) {
+			return "nested configurations are registered by their enclosing configuration";
+		}
+		if (configurationType.isAbstract() || configurationType.isInterface()) {
+			return "not a concrete class";
+		}
+		Type superclass = configurationType.getSuperclass();
+		if (superclass == null || !superclass.getName().equals("java/lang/Object")) {
+			return "extends another class that may declare @Bean methods";
+		}
+		for (Type itf : configurationType.getInterfaces()) {
+			if (itf == null || itf.hasMethodsWithAtBean()) {
+				return "implements an interface that may declare @Bean methods";
+			}
+		}
+		for (Type annotation : configurationType.getAnnotations()) {
+			if (!annotation.getDescriptor().equals(Type.AtConfiguration)) {
+				return "annotated with " + annotation.getDottedName();
+			}
+		}
+		if (configurationType.isConditional()) {
+			return "conditional";
+		}
+		for (Type nestedType : configurationType.getNestedTypes()) {
+			if (nestedType.isAtConfiguration() || nestedType.isComponent()) {
+				return "nested component " + nestedType.getDottedName();
+			}
+		}
+		Method defaultConstructor = configurationType.getDefaultConstructor();
+		if (defaultConstructor == null || defaultConstructor.isPrivate() || configurationType.getMethod("<init>").size() != 1) {
+			return "no single accessible default constructor";
+		}
+		Set<String> names = new HashSet<>();
+		for (Method atBeanMethod : configurationType.getMethodsWithAtBean()) {
+			if (!names.add(atBeanMethod.getName())) {
+				return "overloaded @Bean method " + atBeanMethod.getName();
+			}
+			String methodIneligibility = checkEligibility(configurationType, atBeanMethod);
+			if (methodIneligibility != null) {
+				return "@Bean method " + atBeanMethod.getName() + " " + methodIneligibility;
+			}
+		}
+		return null;
+	}
+
+	private static String checkEligibility(Type configurationType, Method atBeanMethod) {
+		if (atBeanMethod.isPrivate()) {
+			return "is private";
+		}
+		if (atBeanMethod.hasGenericSignature()) {
+			return "has a generic signature";
+		}
+		if (atBeanMethod.hasDeclaredExceptions()) {
+			return "declares exceptions";
+		}
+		for (Type annotation : atBeanMethod.getAnnotationTypes()) {
+			String descriptor = annotation.getDescriptor();
+			if (!(descriptor.equals(Type.AtBean) || descriptor.equals(AtPrimary) || descriptor.equals(AtLazy))) {
+				return "is annotated with " + annotation.getDottedName();
+			}
+		}
+		org.objectweb.asm.Type methodType = org.objectweb.asm.Type.getMethodType(atBeanMethod.getDesc());
+		if (methodType.getReturnType().getSort() != org.objectweb.asm.Type.OBJECT) {
+			return "does not return an object";
+		}
+		Type returnType = atBeanMethod.getReturnType();
+		if (returnType == null || !isAccessible(returnType, configurationType.getPackageName())) {
+			return "has a return type that is not accessible";
+		}
+		for (org.objectweb.asm.Type parameterType : methodType.getArgumentTypes()) {
+			if (parameterType.getSort() != org.objectweb.asm.Type.OBJECT) {
+				return "has a primitive or array parameter";
+			}
+		}
+		List<Type> parameterTypes = atBeanMethod.getParameterTypes();
+		for (int p = 0; p < parameterTypes.size(); p++) {
+			Type parameterType = parameterTypes.get(p);
+			if (parameterType == null || !isAccessible(parameterType, configurationType.getPackageName())) {
+				return "has a parameter type that is not accessible";
+			}
+			if (!atBeanMethod.getParameterAnnotationTypes(p).isEmpty()) {
+				return "has an annotated parameter";
+			}
+			for (String resolvableDependencyType : RESOLVABLE_DEPENDENCY_TYPES) {
+				if (parameterType.implementsInterface(resolvableDependencyType, true)) {
+					return "has a parameter that is not resolved from a bean";
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean isAccessible(Type type, String fromPackage) {
+		Type enclosingType = type.getEnclosingType();
+		if (enclosingType == null) {
+			return type.isPublic() || type.getPackageName().equals(fromPackage);
+		}
+		// Private nested types are package visible in the class file, only trust public ones
+		return type.isPublic() && isAccessible(enclosingType, fromPackage);
+	}
+
+	private MethodSpec createRegistrationMethod(Type configurationType) {
+		ClassName configurationClass = className(configurationType);
+		String configurationBeanName = getConfigurationBeanName(configurationType);
+		CodeBlock.Builder code = CodeBlock.builder();
+		code.addStatement("$T beanDefinition = new $T($T.class, $T::new)", RootBeanDefinition.class, RootBeanDefinition.class,
+				configurationClass, configurationClass);
+		// Marks the configuration as already processed for ConfigurationClassPostProcessor
+		code.addStatement("beanDefinition.setAttribute($S, $S)", CONFIGURATION_CLASS_ATTRIBUTE, "lite");
+		code.addStatement("beanFactory.registerBeanDefinition($S, beanDefinition)", configurationBeanName);
+		for (Method atBeanMethod : configurationType.getMethodsWithAtBean()) {
+			addBeanMethodRegistration(code, configurationClass, configurationBeanName, atBeanMethod);
+		}
+		return MethodSpec.methodBuilder("register" + configurationType.getSimpleName())
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.addParameter(DefaultListableBeanFactory.class, "beanFactory")
+				.addCode(code.build())
+				.build();
+	}
+
+	private void addBeanMethodRegistration(CodeBlock.Builder code, ClassName configurationClass, String configurationBeanName,
+			Method atBeanMethod) {
+		AnnotationNode atBean = atBeanMethod.getAnnotation(Type.AtBean);
+		List<String> names = getBeanNames(atBean);
+		String beanName = names.isEmpty() ? atBeanMethod.getName() : names.get(0);
+		code.addStatement("beanDefinition = new $T()", RootBeanDefinition.class);
+		code.addStatement("beanDefinition.setTargetType($T.class)", className(atBeanMethod.getReturnType()));
+		// Factory method metadata as set by ConfigurationClassBeanDefinitionReader, the instance supplier still creates the bean
+		if (atBeanMethod.isStatic()) {
+			code.addStatement("beanDefinition.setBeanClass($T.class)", configurationClass);
+		}
+		else {
+			code.addStatement("beanDefinition.setFactoryBeanName($S)", configurationBeanName);
+		}
+		code.addStatement("beanDefinition.setUniqueFactoryMethodName($S)", atBeanMethod.getName());
+		code.add("beanDefinition.setInstanceSupplier(() -> {\n$>");
+		// Same steps as ConstructorResolver.instantiateUsingFactoryMethod
+		CodeBlock target;
+		if (atBeanMethod.isStatic()) {
+			target = CodeBlock.of("$T", configurationClass);
+		}
+		else {
+			code.addStatement("$T configuration = beanFactory.getBean($S, $T.class)", configurationClass, configurationBeanName, configurationClass);
+			code.addStatement("beanFactory.registerDependentBean($S, $S)", configurationBeanName, beanName);
+			target = CodeBlock.of("configuration");
+		}
+		CodeBlock.Builder arguments = CodeBlock.builder();
+		List<Type> parameterTypes = atBeanMethod.getParameterTypes();
+		if (!parameterTypes.isEmpty()) {
+			CodeBlock.Builder lookup = CodeBlock.builder().add("$T.findMethod($T.class, $S", ReflectionUtils.class, configurationClass,
+					atBeanMethod.getName());
+			for (int p = 0; p < parameterTypes.size(); p++) {
+				ClassName parameterType = className(parameterTypes.get(p));
+				lookup.add(", $T.class", parameterType);
+				arguments.add(p == 0 ? "($T) arguments[$L]" : ", ($T) arguments[$L]", parameterType, p);
+			}
+			code.addStatement("Object[] arguments = resolveArguments(beanFactory, $S, $L))", beanName, lookup.build());
+		}
+		code.addStatement("return $L.$N($L)", target, atBeanMethod.getName(), arguments.build());
+		code.add("$<});\n");
+		Object autowireCandidate = getValue(atBean, "autowireCandidate");
+		if (Boolean.FALSE.equals(autowireCandidate)) {
+			code.addStatement("beanDefinition.setAutowireCandidate(false)");
+		}
+		Object initMethod = getValue(atBean, "initMethod");
+		if (initMethod instanceof String && !((String) initMethod).isEmpty()) {
+			code.addStatement("beanDefinition.setInitMethodName($S)", initMethod);
+		}
+		Object destroyMethod = getValue(atBean, "destroyMethod");
+		code.addStatement("beanDefinition.setDestroyMethodName($S)",
+				destroyMethod instanceof String ? destroyMethod : AbstractBeanDefinition.INFER_METHOD);
+		if (atBeanMethod.getAnnotation(AtPrimary) != null) {
+			code.addStatement("beanDefinition.setPrimary(true)");
+		}
+		AnnotationNode atLazy = atBeanMethod.getAnnotation(AtLazy);
+		if (atLazy != null) {
+			code.addStatement("beanDefinition.setLazyInit($L)", !Boolean.FALSE.equals(getValue(atLazy, "value")));
+		}
+		code.addStatement("beanFactory.registerBeanDefinition($S, beanDefinition)", beanName);
+		for (int i = 1; i < names.size(); i++) {
+			code.addStatement("beanFactory.registerAlias($S, $S)", beanName, names.get(i));
+		}
+	}
+
+	/**
+	 * Resolve the arguments of a factory method the way {@code ConstructorResolver} autowires them, including the
+	 * fallback on the parameter name when there are several candidates, and register the beans they come from as
+	 * dependencies of the created bean.
+	 */
+	private static MethodSpec createResolveArgumentsMethod() {
+		return MethodSpec.methodBuilder("resolveArguments")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(Object[].class)
+				.addParameter(DefaultListableBeanFactory.class, "beanFactory")
+				.addParameter(String.class, "beanName")
+				.addParameter(java.lang.reflect.Method.class, "factoryMethod")
+				.addStatement("Object[] arguments = new Object[factoryMethod.getParameterCount()]")
+				.addStatement("$T<String> autowiredBeanNames = new $T<>()", Set.class, LinkedHashSet.class)
+				.beginControlFlow("for (int i = 0; i < arguments.length; i++)")
+				.addStatement("$T descriptor = new $T(new $T(factoryMethod, i), true)", DependencyDescriptor.class,
+						DependencyDescriptor.class, MethodParameter.class)
+				.addStatement("arguments[i] = beanFactory.resolveDependency(descriptor, beanName, autowiredBeanNames, null)")
+				.endControlFlow()
+				.beginControlFlow("for (String autowiredBeanName : autowiredBeanNames)")
+				.addStatement("beanFactory.registerDependentBean(autowiredBeanName, beanName)")
+				.endControlFlow()
+				.addStatement("return arguments")
+				.build();
+	}
+
+	/**
+	 * Compute the bean name the same way {@code AnnotationBeanNameGenerator} would for the configuration.
+	 */
+	private static String getConfigurationBeanName(Type configurationType) {
+		Object value = getValue(configurationType.getAnnotation(Type.AtConfiguration), "value");
+		if (value instanceof String && !((String) value).isEmpty()) {
+			return (String) value;
+		}
+		return Introspector.decapitalize(configurationType.getSimpleName());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> getBeanNames(AnnotationNode atBean) {
+		Object names = getValue(atBean, "name");
+		if (names == null) {
+			names = getValue(atBean, "value");
+		}
+		return names == null ? new ArrayList<>() : (List<String>) names;
+	}
+
+	private static Object getValue(AnnotationNode annotation, String name) {
+		if (annotation != null && annotation.values != null) {
+			for (int i = 0; i < annotation.values.size(); i += 2) {
+				if (annotation.values.get(i).equals(name)) {
+					return annotation.values.get(i + 1);
+				}
+			}
+		}
+		return null;
+	}
+
+	private static ClassName className(Type type) {
+		String[] simpleNames = type.getSimpleName().split("\\$");
+		String[] nestedNames = new String[simpleNames.length - 1];
+		System.arraycopy(simpleNames, 1, nestedNames, 0, nestedNames.length);
+		return ClassName.get(type.getPackageName(), simpleNames[0], nestedNames);
+	}
+
+}
@@ -0,0 +1,688 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.LocalVariableNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.ParameterNode;
+
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+import org.springframework.util.StringUtils;
+
+/**
+ * Compute at build time the cache operations declared with {@code @Cacheable}, {@code @CachePut},
+ * {@code @CacheEvict} and {@code @Caching} by the classes of the application. The generated
+ * {@code org.springframework.aot.StaticCacheOperationSource} extends the {@code AnnotationCacheOperationSource}
+ * configured by {@code @EnableCaching} and returns these operations from a {@code switch} on the class and method
+ * names, instead of parsing the annotations of each method the first time it is invoked.
+ * <p>The keys only made of a parameter or of the method name are computed by generated key generators, registered
+ * as beans, instead of being evaluated with SpEL on every call.
+ */
+class CacheOperationCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(CacheOperationCodeGenerator.class);
+
+	static final String STATIC_CACHE_OPERATION_SOURCE = "org.springframework.aot.StaticCacheOperationSource";
+
+	static final String ANNOTATION_CACHE_OPERATION_SOURCE = "org.springframework.cache.annotation.AnnotationCacheOperationSource";
+
+	// The prefix of the names of the key generator beans
+	static final String KEY_GENERATOR_BEAN_NAME = "staticCacheKeyGenerator#";
+
+	private static final String[] CACHE_ANNOTATIONS = { Type.AtCacheable, Type.AtCacheEvict, Type.AtCachePut, Type.AtCaching, Type.AtCacheConfig };
+
+	// The variables a key expression cannot refer to as a parameter
+	private static final Set<String> RESERVED_VARIABLES = new TreeSet<>(Arrays.asList("root", "this", "result"));
+
+	private static final Pattern ARGUMENT_KEY = Pattern.compile("#[ap](\\d+)");
+
+	private static final Pattern PARAMETER_KEY = Pattern.compile("#([A-Za-z_$][A-Za-z_$0-9]*)");
+
+	private static final String METHOD_NAME_KEY = "#root.methodName";
+
+	private static final ClassName CACHE_OPERATION = ClassName.get("org.springframework.cache.interceptor", "CacheOperation");
+
+	private static final ClassName CACHEABLE_OPERATION = ClassName.get("org.springframework.cache.interceptor", "CacheableOperation");
+
+	private static final ClassName CACHE_EVICT_OPERATION = ClassName.get("org.springframework.cache.interceptor", "CacheEvictOperation");
+
+	private static final ClassName CACHE_PUT_OPERATION = ClassName.get("org.springframework.cache.interceptor", "CachePutOperation");
+
+	private static final ClassName KEY_GENERATOR = ClassName.get("org.springframework.cache.interceptor", "KeyGenerator");
+
+	private static final ClassName SINGLETON_BEAN_REGISTRY = ClassName.get("org.springframework.beans.factory.config", "SingletonBeanRegistry");
+
+	private static final ClassName ARGUMENT_KEY_GENERATOR = ClassName.bestGuess(STATIC_CACHE_OPERATION_SOURCE).nestedClass("ArgumentKeyGenerator");
+
+	private static final ClassName METHOD_NAME_KEY_GENERATOR = ClassName.bestGuess(STATIC_CACHE_OPERATION_SOURCE).nestedClass("MethodNameKeyGenerator");
+
+	private static final TypeName CLASS = ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+
+	private static final TypeName CACHE_OPERATIONS = ParameterizedTypeName.get(ClassName.get(Collection.class), CACHE_OPERATION);
+
+	private final Map<String, CachedType> cachedTypes = new TreeMap<>();
+
+	/**
+	 * @param type a type of the application
+	 * @return true if the type is a class annotated with a cache annotation or declaring annotated methods
+	 */
+	static boolean isCacheCandidate(Type type) {
+		if (type.isInterface() || type.isAnnotation()) {
+			return false;
+		}
+		for (String annotation : CACHE_ANNOTATIONS) {
+			if (!annotation.equals(Type.AtCacheConfig) && (type.isAnnotated(annotation) || !type.getMethodsWithAnnotation(annotation).isEmpty())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compute the cache operations of a class, if they only depend on the cache annotations it declares. A class is
+	 * not covered when it extends another class, when its interfaces declare cache annotations, when it uses composed
+	 * cache annotations, or when one of its operations is invalid.
+	 * @param type a cache candidate
+	 */
+	public void addType(Type type) {
+		if (!"java/lang/Object".equals(type.getSuperclassString())) {
+			logger.debug("Not computing the cache operations of " + type.getDottedName() + " ahead of time, it extends " + type.getSuperclassString());
+			return;
+		}
+		if (declaresCacheAnnotations(type.getInterfaces())) {
+			logger.debug("Not computing the cache operations of " + type.getDottedName() + " ahead of time, its interfaces declare cache annotations");
+			return;
+		}
+		if (usesComposedAnnotations(type.getAnnotations())) {
+			logger.debug("Not computing the cache operations of " + type.getDottedName() + " ahead of time, it uses composed cache annotations");
+			return;
+		}
+		CacheOperation defaults = new CacheOperation(null);
+		AnnotationNode cacheConfig = type.getAnnotation(Type.AtCacheConfig);
+		if (cacheConfig != null) {
+			setAttributes(defaults, cacheConfig);
+		}
+		CachedType cachedType = new CachedType(type);
+		cachedType.typeOperations = getCacheOperations(type::getAnnotation, defaults);
+		Map<String, List<String>> parameterNames = null;
+		for (Method method : type.getMethods()) {
+			if (method.getName().startsWith("<") || method.isSynthetic() || method.isStatic()) {
+				continue;
+			}
+			if (usesComposedAnnotations(method.getAnnotationTypes())) {
+				logger.debug("Not computing the cache operations of " + type.getDottedName() + " ahead of time, " + method.getName() + " uses composed cache annotations");
+				return;
+			}
+			List<CacheOperation> operations = getCacheOperations(method::getAnnotation, defaults);
+			if (operations.isEmpty()) {
+				continue;
+			}
+			if (parameterNames == null) {
+				parameterNames = getParameterNames(type);
+			}
+			for (CacheOperation operation : operations) {
+				compileKey(operation, method, parameterNames.get(method.getName() + method.getDesc()));
+			}
+			cachedType.methodOperations.put(getMethodKey(type, method), operations);
+		}
+		if (cachedType.typeOperations.isEmpty() && cachedType.methodOperations.isEmpty()) {
+			return;
+		}
+		List<CacheOperation> allOperations = new ArrayList<>(cachedType.typeOperations);
+		cachedType.methodOperations.values().forEach(allOperations::addAll);
+		for (CacheOperation operation : allOperations) {
+			// The parser reports the invalid operations
+			if ((StringUtils.hasText(operation.key) && StringUtils.hasText(operation.keyGenerator))
+					|| (StringUtils.hasText(operation.cacheManager) && StringUtils.hasText(operation.cacheResolver))) {
+				logger.debug("Not computing the cache operations of " + type.getDottedName() + " ahead of time, it declares an invalid " + operation.kind + " operation");
+				return;
+			}
+		}
+		this.cachedTypes.put(type.getDottedName(), cachedType);
+	}
+
+	public boolean hasCachedTypes() {
+		return !this.cachedTypes.isEmpty();
+	}
+
+	/**
+	 * @return the dotted names of the classes whose cache operations are computed ahead of time
+	 */
+	public Set<String> getCachedTypeNames() {
+		return Collections.unmodifiableSet(this.cachedTypes.keySet());
+	}
+
+	public JavaFile generateStaticCacheOperationSource() {
+		MethodSpec.Builder findTypeOperations = MethodSpec.methodBuilder("findCacheOperations")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PROTECTED)
+				.returns(CACHE_OPERATIONS)
+				.addParameter(CLASS, "clazz")
+				.beginControlFlow("switch (clazz.getName())");
+		MethodSpec.Builder isCachedType = MethodSpec.methodBuilder("isCachedType")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(CLASS, "clazz")
+				.beginControlFlow("switch (clazz.getName())");
+		Map<String, List<CacheOperation>> methodOperations = new TreeMap<>();
+		Set<String> keyGenerators = new TreeSet<>();
+		for (CachedType cachedType : this.cachedTypes.values()) {
+			findTypeOperations.addCode("case $S:\n$>", cachedType.type.getDottedName())
+					.addStatement("return $L", newOperations(cachedType.typeOperations, "clazz"))
+					.addCode("$<");
+			isCachedType.addCode("case $S:\n", cachedType.type.getDottedName());
+			methodOperations.putAll(cachedType.methodOperations);
+			cachedType.methodOperations.values().forEach(operations -> operations.stream()
+					.filter(operation -> operation.compiledKey != null)
+					.forEach(operation -> keyGenerators.add(operation.compiledKey)));
+		}
+		findTypeOperations.addCode("default:\n$>")
+				.addStatement("return super.findCacheOperations(clazz)")
+				.addCode("$<")
+				.endControlFlow();
+		isCachedType.addCode("$>")
+				.addStatement("return true")
+				.addCode("$<default:\n$>")
+				.addStatement("return false")
+				.addCode("$<")
+				.endControlFlow();
+		MethodSpec.Builder findMethodOperations = MethodSpec.methodBuilder("findCacheOperations")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PROTECTED)
+				.returns(CACHE_OPERATIONS)
+				.addParameter(java.lang.reflect.Method.class, "method")
+				// The operation source resolves the annotations of the bridged methods
+				.beginControlFlow("if (method.isBridge() || !isCachedType(method.getDeclaringClass()))")
+				.addStatement("return super.findCacheOperations(method)")
+				.endControlFlow();
+		if (methodOperations.isEmpty()) {
+			findMethodOperations.addStatement("return null");
+		}
+		else {
+			findMethodOperations.beginControlFlow("switch (getMethodKey(method))");
+			for (Map.Entry<String, List<CacheOperation>> entry : methodOperations.entrySet()) {
+				findMethodOperations.addCode("case $S:\n$>", entry.getKey())
+						.addStatement("return $L", newOperations(entry.getValue(), "method"))
+						.addCode("$<");
+			}
+			findMethodOperations.addCode("default:\n$>")
+					.addStatement("return null")
+					.addCode("$<")
+					.endControlFlow();
+		}
+		MethodSpec.Builder registerKeyGenerators = MethodSpec.methodBuilder("registerKeyGenerators")
+				.addJavadoc("Register the key generators computing the keys compiled at build time.\n")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.addParameter(SINGLETON_BEAN_REGISTRY, "registry");
+		for (String keyGenerator : keyGenerators) {
+			registerKeyGenerators.addStatement("registry.registerSingleton($S, $L)", KEY_GENERATOR_BEAN_NAME + keyGenerator,
+					keyGenerator.equals("methodName") ? CodeBlock.of("new $T()", METHOD_NAME_KEY_GENERATOR)
+							: CodeBlock.of("new $T($L)", ARGUMENT_KEY_GENERATOR, keyGenerator.substring(1)));
+		}
+		TypeSpec staticCacheOperationSource = TypeSpec.classBuilder(ClassName.bestGuess(STATIC_CACHE_OPERATION_SOURCE))
+				.addModifiers(Modifier.PUBLIC)
+				.superclass(ClassName.bestGuess(ANNOTATION_CACHE_OPERATION_SOURCE))
+				.addMethod(findTypeOperations.build())
+				.addMethod(findMethodOperations.build())
+				.addMethod(isCachedType.build())
+				.addMethod(MethodSpec.methodBuilder("getMethodKey")
+						.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+						.returns(String.class)
+						.addParameter(java.lang.reflect.Method.class, "method")
+						.addStatement("$T parameterTypes = new $T($S, $S, $S)", StringJoiner.class, StringJoiner.class, ",", "(", ")")
+						.beginControlFlow("for ($T parameterType : method.getParameterTypes())", CLASS)
+						.addStatement("parameterTypes.add(parameterType.getTypeName())")
+						.endControlFlow()
+						.addStatement("return method.getDeclaringClass().getName() + $S + method.getName() + parameterTypes", "#")
+						.build())
+				.addMethod(registerKeyGenerators.build())
+				.addMethod(generateCacheableFactory())
+				.addMethod(generateCacheEvictFactory())
+				.addMethod(generateCachePutFactory())
+				.addType(generateArgumentKeyGenerator())
+				.addType(generateMethodNameKeyGenerator())
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(ClassName.bestGuess(STATIC_CACHE_OPERATION_SOURCE).packageName(), staticCacheOperationSource).build();
+	}
+
+	// Creates the operations as SpringCacheAnnotationParser does, named after the annotated element
+	private static MethodSpec generateCacheableFactory() {
+		return operationFactory("cacheable", CACHEABLE_OPERATION)
+				.addParameter(String.class, "unless")
+				.addParameter(boolean.class, "sync")
+				.addStatement("builder.setUnless(unless)")
+				.addStatement("builder.setSync(sync)")
+				.addStatement("return builder.build()")
+				.build();
+	}
+
+	private static MethodSpec generateCacheEvictFactory() {
+		return operationFactory("cacheEvict", CACHE_EVICT_OPERATION)
+				.addParameter(boolean.class, "cacheWide")
+				.addParameter(boolean.class, "beforeInvocation")
+				.addStatement("builder.setCacheWide(cacheWide)")
+				.addStatement("builder.setBeforeInvocation(beforeInvocation)")
+				.addStatement("return builder.build()")
+				.build();
+	}
+
+	private static MethodSpec generateCachePutFactory() {
+		return operationFactory("cachePut", CACHE_PUT_OPERATION)
+				.addParameter(String.class, "unless")
+				.addStatement("builder.setUnless(unless)")
+				.addStatement("return builder.build()")
+				.build();
+	}
+
+	private static MethodSpec.Builder operationFactory(String name, ClassName operation) {
+		return MethodSpec.methodBuilder(name)
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(CACHE_OPERATION)
+				.addParameter(Object.class, "element")
+				.addParameter(String[].class, "cacheNames")
+				.addParameter(String.class, "key")
+				.addParameter(String.class, "keyGenerator")
+				.addParameter(String.class, "cacheManager")
+				.addParameter(String.class, "cacheResolver")
+				.addParameter(String.class, "condition")
+				.addStatement("$T builder = new $T()", operation.nestedClass("Builder"), operation.nestedClass("Builder"))
+				.addStatement("builder.setName(element.toString())")
+				.addStatement("builder.setCacheNames(cacheNames)")
+				.addStatement("builder.setKey(key)")
+				.addStatement("builder.setKeyGenerator(keyGenerator)")
+				.addStatement("builder.setCacheManager(cacheManager)")
+				.addStatement("builder.setCacheResolver(cacheResolver)")
+				.addStatement("builder.setCondition(condition)");
+	}
+
+	// The keys of the varargs methods are not compiled, so the arguments are the ones of the method
+	private static TypeSpec generateArgumentKeyGenerator() {
+		return TypeSpec.classBuilder(ARGUMENT_KEY_GENERATOR)
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.addSuperinterface(KEY_GENERATOR)
+				.addField(FieldSpec.builder(int.class, "index", Modifier.PRIVATE, Modifier.FINAL).build())
+				.addMethod(MethodSpec.constructorBuilder()
+						.addParameter(int.class, "index")
+						.addStatement("this.index = index")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("generate")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.returns(Object.class)
+						.addParameter(Object.class, "target")
+						.addParameter(java.lang.reflect.Method.class, "method")
+						.addParameter(Object[].class, "params")
+						.varargs()
+						.addStatement("return params[this.index]")
+						.build())
+				.build();
+	}
+
+	private static TypeSpec generateMethodNameKeyGenerator() {
+		return TypeSpec.classBuilder(METHOD_NAME_KEY_GENERATOR)
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.addSuperinterface(KEY_GENERATOR)
+				.addMethod(MethodSpec.methodBuilder("generate")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.returns(Object.class)
+						.addParameter(Object.class, "target")
+						.addParameter(java.lang.reflect.Method.class, "method")
+						.addParameter(Object[].class, "params")
+						.varargs()
+						.addStatement("return method.getName()")
+						.build())
+				.build();
+	}
+
+	private static CodeBlock newOperations(List<CacheOperation> operations, String element) {
+		if (operations.isEmpty()) {
+			return CodeBlock.of("null");
+		}
+		CodeBlock.Builder elements = CodeBlock.builder();
+		for (int i = 0; i < operations.size(); i++) {
+			elements.add(i == 0 ? "$L" : ",\n$L", newOperation(operations.get(i), element));
+		}
+		return CodeBlock.of("$T.asList($>\n$L$<)", Arrays.class, elements.build());
+	}
+
+	private static CodeBlock newOperation(CacheOperation operation, String element) {
+		String key = (operation.compiledKey != null ? "" : operation.key);
+		String keyGenerator = (operation.compiledKey != null ? KEY_GENERATOR_BEAN_NAME + operation.compiledKey : operation.keyGenerator);
+		CodeBlock common = CodeBlock.of("$L, $L, $S, $S, $S, $S, $S", element, stringArray(operation.cacheNames), key,
+				keyGenerator, operation.cacheManager, operation.cacheResolver, operation.condition);
+		switch (operation.kind) {
+		case "cacheable":
+			return CodeBlock.of("cacheable($L, $S, $L)", common, operation.unless, operation.sync);
+		case "cacheEvict":
+			return CodeBlock.of("cacheEvict($L, $L, $L)", common, operation.allEntries, operation.beforeInvocation);
+		default:
+			return CodeBlock.of("cachePut($L, $S)", common, operation.unless);
+		}
+	}
+
+	private static CodeBlock stringArray(List<String> values) {
+		if (values.isEmpty()) {
+			return CodeBlock.of("new $T[0]", String.class);
+		}
+		CodeBlock.Builder elements = CodeBlock.builder();
+		for (int i = 0; i < values.size(); i++) {
+			elements.add(i == 0 ? "$S" : ", $S", values.get(i));
+		}
+		return CodeBlock.of("new $T[] { $L }", String.class, elements.build());
+	}
+
+	/**
+	 * Compile the key of an operation when it is a parameter or the method name. As the evaluation context does, the
+	 * parameters can be referred to by index or, when the class retains them, by name.
+	 * @param operation the operation
+	 * @param method the cached method
+	 * @param parameterNames the names of the parameters of the method, or null if the class does not retain them
+	 */
+	private static void compileKey(CacheOperation operation, Method method, List<String> parameterNames) {
+		String key = operation.key.trim();
+		if (key.isEmpty() || method.isVarargs()) {
+			return;
+		}
+		int parameterCount = org.objectweb.asm.Type.getArgumentTypes(method.getDesc()).length;
+		if (key.equals(METHOD_NAME_KEY)) {
+			operation.compiledKey = "methodName";
+			return;
+		}
+		Matcher argument = ARGUMENT_KEY.matcher(key);
+		if (argument.matches()) {
+			int index = Integer.parseInt(argument.group(1));
+			// A parameter with the same name as the variable shadows it
+			if (index < parameterCount && (parameterNames == null || !parameterNames.contains(key.substring(1)) || parameterNames.indexOf(key.substring(1)) == index)) {
+				operation.compiledKey = "p" + index;
+			}
+			return;
+		}
+		Matcher parameter = PARAMETER_KEY.matcher(key);
+		if (parameter.matches() && parameterNames != null && !RESERVED_VARIABLES.contains(parameter.group(1))) {
+			int index = parameterNames.indexOf(parameter.group(1));
+			if (index >= 0) {
+				operation.compiledKey = "p" + index;
+			}
+		}
+	}
+
+	/**
+	 * Read the parameter names the class retains, from its {@code MethodParameters} attributes or else from its local
+	 * variable tables, as the {@code DefaultParameterNameDiscoverer} does at runtime.
+	 * @return the parameter names of the methods, keyed by method name and descriptor
+	 */
+	private static Map<String, List<String>> getParameterNames(Type type) {
+		Map<String, List<String>> parameterNames = new TreeMap<>();
+		byte[] bytes = type.getTypeSystem().find(type.getName());
+		if (bytes == null) {
+			return parameterNames;
+		}
+		ClassNode node = new ClassNode();
+		new ClassReader(bytes).accept(node, ClassReader.SKIP_FRAMES);
+		for (MethodNode method : node.methods) {
+			org.objectweb.asm.Type[] parameterTypes = org.objectweb.asm.Type.getArgumentTypes(method.desc);
+			List<String> names = new ArrayList<>();
+			if (method.parameters != null && method.parameters.size() == parameterTypes.length) {
+				for (ParameterNode parameter : method.parameters) {
+					names.add(parameter.name);
+				}
+			}
+			else if (method.localVariables != null) {
+				int slot = ((method.access & Opcodes.ACC_STATIC) != 0 ? 0 : 1);
+				for (org.objectweb.asm.Type parameterType : parameterTypes) {
+					names.add(getLocalVariableName(method.localVariables, slot));
+					slot += parameterType.getSize();
+				}
+			}
+			if (names.size() == parameterTypes.length && !names.contains(null)) {
+				parameterNames.put(method.name + method.desc, names);
+			}
+		}
+		return parameterNames;
+	}
+
+	private static String getLocalVariableName(List<LocalVariableNode> localVariables, int slot) {
+		for (LocalVariableNode localVariable : localVariables) {
+			if (localVariable.index == slot) {
+				return localVariable.name;
+			}
+		}
+		return null;
+	}
+
+	// As SpringCacheAnnotationParser does, the operations are ordered by annotation type
+	@SuppressWarnings("unchecked")
+	private static List<CacheOperation> getCacheOperations(Function<String, AnnotationNode> annotations, CacheOperation defaults) {
+		List<CacheOperation> operations = new ArrayList<>();
+		addCacheOperation(operations, "cacheable", annotations.apply(Type.AtCacheable), defaults);
+		addCacheOperation(operations, "cacheEvict", annotations.apply(Type.AtCacheEvict), defaults);
+		addCacheOperation(operations, "cachePut", annotations.apply(Type.AtCachePut), defaults);
+		AnnotationNode caching = annotations.apply(Type.AtCaching);
+		if (caching != null && caching.values != null) {
+			Map<String, List<AnnotationNode>> groups = new TreeMap<>();
+			for (int i = 0; i < caching.values.size(); i += 2) {
+				groups.put((String) caching.values.get(i), (List<AnnotationNode>) caching.values.get(i + 1));
+			}
+			for (String kind : new String[] { "cacheable", "evict", "put" }) {
+				for (AnnotationNode annotation : groups.getOrDefault(kind, Collections.emptyList())) {
+					addCacheOperation(operations, kind.equals("evict") ? "cacheEvict" : kind.equals("put") ? "cachePut" : kind, annotation, defaults);
+				}
+			}
+		}
+		return operations;
+	}
+
+	private static void addCacheOperation(List<CacheOperation> operations, String kind, AnnotationNode annotation, CacheOperation defaults) {
+		if (annotation == null) {
+			return;
+		}
+		CacheOperation operation = new CacheOperation(kind);
+		setAttributes(operation, annotation);
+		operation.applyDefaults(defaults);
+		operations.add(operation);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void setAttributes(CacheOperation operation, AnnotationNode annotation) {
+		if (annotation.values == null) {
+			return;
+		}
+		for (int i = 0; i < annotation.values.size(); i += 2) {
+			String name = (String) annotation.values.get(i);
+			Object value = annotation.values.get(i + 1);
+			switch (name) {
+			case "value":
+			case "cacheNames":
+				operation.cacheNames = (List<String>) value;
+				break;
+			case "key":
+				operation.key = (String) value;
+				break;
+			case "keyGenerator":
+				operation.keyGenerator = (String) value;
+				break;
+			case "cacheManager":
+				operation.cacheManager = (String) value;
+				break;
+			case "cacheResolver":
+				operation.cacheResolver = (String) value;
+				break;
+			case "condition":
+				operation.condition = (String) value;
+				break;
+			case "unless":
+				operation.unless = (String) value;
+				break;
+			case "sync":
+				operation.sync = (Boolean) value;
+				break;
+			case "allEntries":
+				operation.allEntries = (Boolean) value;
+				break;
+			case "beforeInvocation":
+				operation.beforeInvocation = (Boolean) value;
+				break;
+			}
+		}
+	}
+
+	private static boolean usesComposedAnnotations(List<Type> annotationTypes) {
+		for (Type annotationType : annotationTypes) {
+			if (!isCacheAnnotation(annotationType.getDescriptor()) && isComposedCacheAnnotation(annotationType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isCacheAnnotation(String descriptor) {
+		return Arrays.asList(CACHE_ANNOTATIONS).contains(descriptor);
+	}
+
+	private static boolean isComposedCacheAnnotation(Type annotationType) {
+		for (String annotation : CACHE_ANNOTATIONS) {
+			if (annotationType.isMetaAnnotated(Type.fromLdescriptorToSlashed(annotation))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// The operation source finds the annotations declared by the interfaces of a class and of their methods
+	private boolean declaresCacheAnnotations(Type[] interfaces) {
+		for (Type itf : interfaces) {
+			if (itf == null || itf.getAnnotations().stream().anyMatch(a -> isCacheAnnotation(a.getDescriptor()) || isComposedCacheAnnotation(a))) {
+				return true;
+			}
+			for (Method method : itf.getMethods()) {
+				if (method.getAnnotationTypes().stream().anyMatch(a -> isCacheAnnotation(a.getDescriptor()) || isComposedCacheAnnotation(a))) {
+					return true;
+				}
+			}
+			if (declaresCacheAnnotations(itf.getInterfaces())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String getMethodKey(Type type, Method method) {
+		StringJoiner parameterTypes = new StringJoiner(",", "(", ")");
+		for (org.objectweb.asm.Type parameterType : org.objectweb.asm.Type.getArgumentTypes(method.getDesc())) {
+			parameterTypes.add(parameterType.getClassName());
+		}
+		return type.getDottedName() + "#" + method.getName() + parameterTypes;
+	}
+
+	static class CachedType {
+
+		final Type type;
+
+		List<CacheOperation> typeOperations = Collections.emptyList();
+
+		final Map<String, List<CacheOperation>> methodOperations = new TreeMap<>();
+
+		CachedType(Type type) {
+			this.type = type;
+		}
+	}
+
+	static class CacheOperation {
+
+		final String kind;
+
+		List<String> cacheNames = Collections.emptyList();
+
+		String key = "";
+
+		String keyGenerator = "";
+
+		String cacheManager = "";
+
+		String cacheResolver = "";
+
+		String condition = "";
+
+		String unless = "";
+
+		boolean sync;
+
+		boolean allEntries;
+
+		boolean beforeInvocation;
+
+		// The key generator computing the key, if it could be compiled
+		String compiledKey;
+
+		CacheOperation(String kind) {
+			this.kind = kind;
+		}
+
+		// Applies the @CacheConfig defaults as DefaultCacheConfig does
+		void applyDefaults(CacheOperation defaults) {
+			if (this.cacheNames.isEmpty()) {
+				this.cacheNames = defaults.cacheNames;
+			}
+			if (!StringUtils.hasText(this.key) && !StringUtils.hasText(this.keyGenerator) && StringUtils.hasText(defaults.keyGenerator)) {
+				this.keyGenerator = defaults.keyGenerator;
+			}
+			if (StringUtils.hasText(this.cacheManager) || StringUtils.hasText(this.cacheResolver)) {
+				return;
+			}
+			if (StringUtils.hasText(defaults.cacheResolver)) {
+				this.cacheResolver = defaults.cacheResolver;
+			}
+			else if (StringUtils.hasText(defaults.cacheManager)) {
+				this.cacheManager = defaults.cacheManager;
+			}
+		}
+	}
+}
@@ -19,6 +19,7 @@ package org.springframework.aot.nativex;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
@@ -26,8 +27,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -37,14 +40,23 @@ import org.springframework.aop.framework.ProxyGenerator;
 import org.springframework.aot.BootstrapContributor;
 import org.springframework.aot.BuildContext;
 import org.springframework.aot.ResourceFile;
+import org.springframework.aot.SourceFiles;
 import org.springframework.boot.loader.tools.MainClassFinder;
 import org.springframework.nativex.AotOptions;
+import org.springframework.nativex.domain.init.InitializationDescriptor;
+import org.springframework.nativex.domain.provenance.ProvenanceJsonMarshaller;
 import org.springframework.nativex.domain.proxies.AotProxyDescriptor;
 import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
 import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
 import org.springframework.nativex.hint.Flag;
 import org.springframework.nativex.support.ConfigurationCollector;
 import org.springframework.nativex.support.SpringAnalyzer;
+import org.springframework.nativex.type.ClasspathScan;
+import org.springframework.nativex.type.ConstantPoolScanner;
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.StaticInitializerAnalyzer;
+import org.springframework.nativex.type.Type;
 import org.springframework.nativex.type.TypeSystem;
 
 import net.bytebuddy.description.type.TypeDescription;
@@ -69,6 +81,57 @@ public class ConfigurationContributor implements BootstrapContributor {
 		springAnalyzer.analyze();
 		ConfigurationCollector configurationCollector = springAnalyzer.getConfigurationCollector();
 		processBuildTimeClassProxyRequests(context, configurationCollector);
+		if (aotOptions.isBuildTimeBeanRegistration()) {
+			generateBeanRegistrations(context, configurationCollector);
+		}
+		if (aotOptions.isBuildTimePropertiesBinding()) {
+			generatePropertiesBinders(context, typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeAnnotationSynthesis()) {
+			generateSynthesizedAnnotations(context, typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeIsPresentChecks()) {
+			foldIsPresentChecks(typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeInitializationAnalysis()) {
+			analyzeStaticInitializers(context, typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeLogbackConfiguration()) {
+			generateLogbackConfiguration(context, typeSystem);
+		}
+		if (aotOptions.isBuildTimeApplicationProperties()) {
+			generateApplicationProperties(context, aotOptions);
+		}
+		if (aotOptions.isBuildTimeRepositoryQueries()) {
+			generateRepositoryQueries(context, typeSystem);
+		}
+		if (aotOptions.isBuildTimeEntityEnhancement()) {
+			enhanceEntities(context, typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeValidationMetadata()) {
+			generateValidationMetadata(context, typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeJacksonSerializers()) {
+			generateJacksonSerializers(context, typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeRequestMappings()) {
+			generateRequestMappings(context, typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeTransactionAttributes()) {
+			generateTransactionAttributes(context, typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeMethodSecurity()) {
+			generateMethodSecurity(context, typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeCacheOperations()) {
+			generateCacheOperations(context, typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeKafkaListeners()) {
+			generateKafkaListeners(context, typeSystem, configurationCollector);
+		}
+		if (aotOptions.isBuildTimeScheduledAndEventListeners()) {
+			generateScheduledAndEventListenerMethods(context, typeSystem, configurationCollector);
+		}
 		context.describeReflection(reflect -> reflect.merge(configurationCollector.getReflectionDescriptor()));
 		context.describeResources(resources -> resources.merge(configurationCollector.getResourcesDescriptors()));
 		context.describeProxies(proxies -> proxies.merge(configurationCollector.getProxyDescriptors()));
@@ -104,6 +167,19 @@ public class ConfigurationContributor implements BootstrapContributor {
 				}
 			}
 		});
+		if (configurationCollector.isRecordingProvenance()) {
+			logger.debug("Storing provenance for " + configurationCollector.getProvenanceDescriptor());
+			context.addResources(new ResourceFile() {
+				@Override
+				public void writeTo(Path rootPath) throws IOException {
+					Path nativeConfigFolder = rootPath.resolve(ResourceFile.NATIVE_CONFIG_PATH);
+					Files.createDirectories(nativeConfigFolder);
+					try (FileOutputStream fos = new FileOutputStream(nativeConfigFolder.resolve("provenance.json").toFile())) {
+						ProvenanceJsonMarshaller.write(configurationCollector.getProvenanceDescriptor(), fos);
+					}
+				}
+			});
+		}
 	}
 
 	private String getMainClass(BuildContext context) {
@@ -141,10 +217,452 @@ public class ConfigurationContributor implements BootstrapContributor {
 				classDescriptor.setFlag(Flag.allDeclaredMethods);
 				reflectionDescriptor.add(classDescriptor);
 			}
-			configurationCollector.addReflectionDescriptor(reflectionDescriptor, false);			
+			configurationCollector.addReflectionDescriptor(reflectionDescriptor, false, "build time class proxies");
 		}
 	}
 	
+	/**
+	 * Generate bean registration code for the user configurations that do not need to be parsed at runtime
+	 * and expose the generated post processor that invokes it.
+	 */
+	private void generateBeanRegistrations(BuildContext context, ConfigurationCollector configurationCollector) {
+		BeanRegistrationCodeGenerator codeGenerator = new BeanRegistrationCodeGenerator();
+		for (Type configurationType : configurationCollector.getBeanRegistrationCandidates()) {
+			codeGenerator.addConfiguration(configurationType);
+		}
+		if (!codeGenerator.hasRegistrations()) {
+			return;
+		}
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticBeanRegistrations()));
+		codeGenerator.generateBeanRegistrationClasses().forEach(javaFile -> {
+			context.addSourceFiles(SourceFiles.fromJavaFile(javaFile));
+		});
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		ClassDescriptor classDescriptor = ClassDescriptor.of(BeanRegistrationCodeGenerator.STATIC_BEAN_REGISTRATIONS);
+		classDescriptor.setFlag(Flag.allDeclaredConstructors);
+		reflectionDescriptor.add(classDescriptor);
+		configurationCollector.addReflectionDescriptor(reflectionDescriptor, false, "buildTimeBeanRegistration");
+	}
+
+	/**
+	 * Generate binder code for the user configuration properties types that use JavaBean binding. The
+	 * types bound by generated code no longer need their methods to be reflectively accessible.
+	 */
+	private void generatePropertiesBinders(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		PropertiesBinderCodeGenerator codeGenerator = new PropertiesBinderCodeGenerator();
+		for (Type propertiesType : typeSystem.scan(type -> type.hasAnnotationInHierarchy(Type.AtConfigurationProperties))) {
+			codeGenerator.addPropertiesType(propertiesType);
+		}
+		if (!codeGenerator.hasBinders()) {
+			return;
+		}
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticPropertiesBinders()));
+		codeGenerator.generatePropertiesBinderClasses().forEach(javaFile -> {
+			context.addSourceFiles(SourceFiles.fromJavaFile(javaFile));
+		});
+		for (String boundTypeName : codeGenerator.getBoundTypeNames()) {
+			ClassDescriptor classDescriptor = configurationCollector.getClassDescriptorFor(boundTypeName);
+			if (classDescriptor != null) {
+				classDescriptor.unsetFlag(Flag.allPublicMethods);
+				configurationCollector.restrictProvenance(boundTypeName);
+			}
+		}
+	}
+
+	/**
+	 * Generate implementations of the annotations that Spring synthesizes. The annotation types no implementation
+	 * can be generated for are given the JDK proxy configuration they would have had otherwise.
+	 */
+	private void generateSynthesizedAnnotations(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		SynthesizedAnnotationCodeGenerator codeGenerator = new SynthesizedAnnotationCodeGenerator();
+		for (String annotationTypename : configurationCollector.getSynthesizedAnnotationTypes()) {
+			Type annotationType = typeSystem.resolveDotted(annotationTypename, true);
+			if (annotationType == null || !codeGenerator.addAnnotationType(annotationType)) {
+				configurationCollector.addSynthesizedAnnotationProxy(annotationTypename);
+			}
+			else {
+				configurationCollector.removeSynthesizedAnnotationProxyProvenance(annotationTypename);
+			}
+		}
+		if (!codeGenerator.hasImplementations()) {
+			return;
+		}
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticSynthesizedAnnotations()));
+		codeGenerator.generateSynthesizedAnnotationClasses().forEach(javaFile -> {
+			context.addSourceFiles(SourceFiles.fromJavaFile(javaFile));
+		});
+	}
+
+	/**
+	 * Generate the code equivalent to the Logback configuration file of the application, which is applied instead
+	 * of parsing the file at runtime.
+	 */
+	private void generateLogbackConfiguration(BuildContext context, TypeSystem typeSystem) {
+		if (typeSystem.resolveDotted("ch.qos.logback.classic.LoggerContext", true) == null) {
+			return;
+		}
+		List<URL> urls = new ArrayList<>();
+		for (String entry : context.getClasspath()) {
+			try {
+				urls.add(new File(entry).toURI().toURL());
+			}
+			catch (MalformedURLException ex) {
+				throw new IllegalStateException("Invalid classpath entry " + entry, ex);
+			}
+		}
+		try (URLClassLoader resourceLoader = new URLClassLoader(urls.toArray(new URL[0]), null)) {
+			LogbackConfigurationCodeGenerator codeGenerator = new LogbackConfigurationCodeGenerator(typeSystem, resourceLoader);
+			for (String configurationFile : LogbackConfigurationCodeGenerator.CONFIGURATION_FILES) {
+				codeGenerator.addConfigurationFile(configurationFile);
+			}
+			if (codeGenerator.hasConfigurations()) {
+				context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticLogbackConfiguration()));
+			}
+		}
+		catch (IOException ex) {
+			logger.debug("Unable to close the classpath resource loader: " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Generate the code providing the properties of the packaged application properties files, optionally removing
+	 * the files themselves from the image resources.
+	 */
+	private void generateApplicationProperties(BuildContext context, AotOptions aotOptions) {
+		ApplicationPropertiesCodeGenerator codeGenerator = new ApplicationPropertiesCodeGenerator();
+		for (Map.Entry<String, byte[]> file : ApplicationPropertiesCodeGenerator.findApplicationPropertiesFiles(context.getClasspath()).entrySet()) {
+			codeGenerator.addApplicationPropertiesFile(file.getKey(), file.getValue());
+		}
+		if (!codeGenerator.hasApplicationPropertiesFiles()) {
+			return;
+		}
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticApplicationProperties()));
+		if (aotOptions.isRemoveApplicationPropertiesFiles()) {
+			context.describeResources(resources -> {
+				for (String path : codeGenerator.getApplicationPropertiesPaths()) {
+					resources.addExclude("^" + path.replace(".", "\\.") + "$");
+				}
+			});
+		}
+	}
+
+	/**
+	 * Analyze the derived query methods of the Spring Data repositories, failing on the ones Spring Data would not
+	 * be able to parse, and generate the code providing the property paths resolved at build time.
+	 */
+	private void generateRepositoryQueries(BuildContext context, TypeSystem typeSystem) {
+		if (typeSystem.resolveSlashed(RepositoryQueryCodeGenerator.REPOSITORY, true) == null) {
+			return;
+		}
+		RepositoryQueryCodeGenerator codeGenerator = new RepositoryQueryCodeGenerator(typeSystem);
+		for (Type repositoryType : typeSystem.scan(RepositoryQueryCodeGenerator::isRepository)) {
+			codeGenerator.addRepository(repositoryType);
+		}
+		if (!codeGenerator.getInvalidQueries().isEmpty()) {
+			throw new IllegalStateException("Invalid derived query methods:\n" + String.join("\n", codeGenerator.getInvalidQueries()));
+		}
+		if (codeGenerator.hasPropertyPaths()) {
+			context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticRepositoryQueries()));
+		}
+	}
+
+	/**
+	 * Apply the Hibernate bytecode enhancer to the JPA entity classes, adding the enhanced classes to the generated
+	 * resources, and restrict the reflective access requested for them to what Hibernate still needs.
+	 */
+	private void enhanceEntities(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		if (typeSystem.resolveDotted(HibernateEntityEnhancer.ENHANCER, true) == null) {
+			return;
+		}
+		List<Type> entityTypes = typeSystem.scan(HibernateEntityEnhancer::isEnhancementCandidate);
+		if (entityTypes.isEmpty()) {
+			return;
+		}
+		try (HibernateEntityEnhancer enhancer = new HibernateEntityEnhancer(context.getClasspath())) {
+			for (Type entityType : entityTypes) {
+				if (HibernateEntityEnhancer.isLoadedFromJar(context.getClasspath(), entityType)) {
+					logger.warn("Not enhancing entity class " + entityType.getDottedName()
+							+ " loaded from a jar, apply the Hibernate enhancer where it is built");
+					continue;
+				}
+				byte[] enhancedBytes = enhancer.enhance(entityType, typeSystem.find(entityType.getName()));
+				if (enhancedBytes == null) {
+					continue;
+				}
+				context.addResources(HibernateEntityEnhancer.enhancedClassFile(entityType, enhancedBytes));
+				logger.debug("Generated the enhanced version of entity class " + entityType.getDottedName());
+				ClassDescriptor classDescriptor = configurationCollector.getClassDescriptorFor(entityType.getDottedName());
+				if (classDescriptor != null) {
+					HibernateEntityEnhancer.restrictReflection(entityType, classDescriptor);
+					configurationCollector.restrictProvenance(entityType.getDottedName());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Generate the post processor loading the constraint metadata of the types validated by the application when
+	 * the validator is created, and remove the reflective access to the built-in constraints it does not use.
+	 */
+	private void generateValidationMetadata(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		if (typeSystem.resolveDotted(ValidationMetadataCodeGenerator.VALIDATOR, true) == null) {
+			return;
+		}
+		ValidationMetadataCodeGenerator codeGenerator = new ValidationMetadataCodeGenerator(typeSystem);
+		for (Type type : typeSystem.scan(codeGenerator::isValidationCandidate)) {
+			codeGenerator.addType(type);
+		}
+		List<String> removed = codeGenerator.restrictReflection(configurationCollector.getReflectionDescriptor());
+		removed.forEach(configurationCollector::restrictProvenance);
+		logger.debug("Constraints used by the application: " + codeGenerator.getUsedConstraints()
+				+ ", removed reflective access to the unused constraint types " + removed);
+		if (!codeGenerator.hasValidatedTypes()) {
+			return;
+		}
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticValidationMetadata()));
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		ClassDescriptor classDescriptor = ClassDescriptor.of(ValidationMetadataCodeGenerator.STATIC_VALIDATION_METADATA);
+		classDescriptor.setFlag(Flag.allDeclaredConstructors);
+		reflectionDescriptor.add(classDescriptor);
+		configurationCollector.addReflectionDescriptor(reflectionDescriptor, false, "buildTimeValidationMetadata");
+	}
+
+	/**
+	 * Generate the Jackson module providing serializers and deserializers that access the properties of the web
+	 * payload types directly.
+	 */
+	private void generateJacksonSerializers(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		if (typeSystem.resolveDotted(JacksonSerializerCodeGenerator.MODULE, true) == null) {
+			return;
+		}
+		JacksonSerializerCodeGenerator codeGenerator = new JacksonSerializerCodeGenerator(typeSystem);
+		for (Type type : typeSystem.scan(Type::isAtController)) {
+			codeGenerator.addType(type);
+		}
+		if (!codeGenerator.hasPayloadTypes()) {
+			return;
+		}
+		logger.debug("Generating Jackson serializers for " + codeGenerator.getSerializedTypeNames()
+				+ " and deserializers for " + codeGenerator.getDeserializedTypeNames());
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticJacksonModule()));
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		ClassDescriptor classDescriptor = ClassDescriptor.of(JacksonSerializerCodeGenerator.STATIC_JACKSON_MODULE);
+		classDescriptor.setFlag(Flag.allDeclaredConstructors);
+		reflectionDescriptor.add(classDescriptor);
+		configurationCollector.addReflectionDescriptor(reflectionDescriptor, false, "buildTimeJacksonSerializers");
+	}
+
+	/**
+	 * Generate the registrations of a handler mapping registering the request mappings of the controllers read at
+	 * build time, and restrict the reflective access to these controllers to their annotated methods.
+	 */
+	private void generateRequestMappings(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		if (typeSystem.resolveDotted(RequestMappingCodeGenerator.REQUEST_MAPPING_HANDLER_MAPPING, true) == null
+				|| typeSystem.resolveDotted(RequestMappingCodeGenerator.WEB_MVC_REGISTRATIONS, true) == null) {
+			return;
+		}
+		RequestMappingCodeGenerator codeGenerator = new RequestMappingCodeGenerator(typeSystem);
+		for (Type type : typeSystem.scan(Type::isAtController)) {
+			codeGenerator.addType(type);
+		}
+		if (!codeGenerator.hasControllers()) {
+			return;
+		}
+		logger.debug("Generating the request mappings of " + codeGenerator.getControllerNames());
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticRequestMappings()));
+		List<String> restricted = codeGenerator.restrictReflection(configurationCollector.getReflectionDescriptor());
+		restricted.forEach(configurationCollector::restrictProvenance);
+		logger.debug("Restricted the reflective access to the methods of " + restricted);
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		ClassDescriptor classDescriptor = ClassDescriptor.of(RequestMappingCodeGenerator.STATIC_REQUEST_MAPPINGS);
+		classDescriptor.setFlag(Flag.allDeclaredConstructors);
+		reflectionDescriptor.add(classDescriptor);
+		configurationCollector.addReflectionDescriptor(reflectionDescriptor, false, "buildTimeRequestMappings");
+	}
+
+	/**
+	 * Generate the transaction attribute source returning the attributes declared with {@code @Transactional}
+	 * computed at build time.
+	 */
+	private void generateTransactionAttributes(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		if (typeSystem.resolveDotted(TransactionAttributeCodeGenerator.ANNOTATION_TRANSACTION_ATTRIBUTE_SOURCE, true) == null) {
+			return;
+		}
+		TransactionAttributeCodeGenerator codeGenerator = new TransactionAttributeCodeGenerator();
+		for (Type type : typeSystem.scan(ConstantPoolScanner.Prefilter.anyOf(Type.AtTransactional), TransactionAttributeCodeGenerator::isTransactionalCandidate)) {
+			codeGenerator.addType(type);
+		}
+		if (!codeGenerator.hasTransactionalTypes()) {
+			return;
+		}
+		logger.debug("Generating the transaction attributes of " + codeGenerator.getTransactionalTypeNames());
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticTransactionAttributeSource()));
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		ClassDescriptor classDescriptor = ClassDescriptor.of(TransactionAttributeCodeGenerator.STATIC_TRANSACTION_ATTRIBUTE_SOURCE);
+		classDescriptor.setFlag(Flag.allDeclaredConstructors);
+		reflectionDescriptor.add(classDescriptor);
+		configurationCollector.addReflectionDescriptor(reflectionDescriptor, false, "buildTimeTransactionAttributes");
+	}
+
+	/**
+	 * Generate the method security metadata source returning the attributes declared with {@code @PreAuthorize} and
+	 * {@code @Secured} computed at build time.
+	 */
+	private void generateMethodSecurity(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		if (typeSystem.resolveDotted(MethodSecurityCodeGenerator.DELEGATING_METHOD_SECURITY_METADATA_SOURCE, true) == null) {
+			return;
+		}
+		MethodSecurityCodeGenerator codeGenerator = new MethodSecurityCodeGenerator();
+		for (Type type : typeSystem.scan(ConstantPoolScanner.Prefilter.anyOf(Type.AtPreAuthorize, Type.AtSecured), MethodSecurityCodeGenerator::isMethodSecurityCandidate)) {
+			codeGenerator.addType(type);
+		}
+		if (!codeGenerator.hasSecuredTypes()) {
+			return;
+		}
+		logger.debug("Generating the method security attributes of " + codeGenerator.getSecuredTypeNames());
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticMethodSecurityMetadataSource()));
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		ClassDescriptor classDescriptor = ClassDescriptor.of(MethodSecurityCodeGenerator.STATIC_METHOD_SECURITY_METADATA_SOURCE);
+		classDescriptor.setFlag(Flag.allDeclaredConstructors);
+		reflectionDescriptor.add(classDescriptor);
+		configurationCollector.addReflectionDescriptor(reflectionDescriptor, false, "buildTimeMethodSecurity");
+	}
+
+	/**
+	 * Generate the cache operation source returning the operations declared with the cache annotations computed at
+	 * build time, along with the key generators of the keys compiled at build time.
+	 */
+	private void generateCacheOperations(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		if (typeSystem.resolveDotted(CacheOperationCodeGenerator.ANNOTATION_CACHE_OPERATION_SOURCE, true) == null) {
+			return;
+		}
+		CacheOperationCodeGenerator codeGenerator = new CacheOperationCodeGenerator();
+		for (Type type : typeSystem.scan(ConstantPoolScanner.Prefilter.anyOf(Type.AtCacheable, Type.AtCacheEvict, Type.AtCachePut, Type.AtCaching), CacheOperationCodeGenerator::isCacheCandidate)) {
+			codeGenerator.addType(type);
+		}
+		if (!codeGenerator.hasCachedTypes()) {
+			return;
+		}
+		logger.debug("Generating the cache operations of " + codeGenerator.getCachedTypeNames());
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticCacheOperationSource()));
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		ClassDescriptor classDescriptor = ClassDescriptor.of(CacheOperationCodeGenerator.STATIC_CACHE_OPERATION_SOURCE);
+		classDescriptor.setFlag(Flag.allDeclaredConstructors);
+		classDescriptor.setFlag(Flag.allPublicMethods);
+		reflectionDescriptor.add(classDescriptor);
+		configurationCollector.addReflectionDescriptor(reflectionDescriptor, false, "buildTimeCacheOperations");
+	}
+
+	/**
+	 * Generate the Kafka listener bean post processor only introspecting the beans whose classes may declare
+	 * listeners, as found at build time.
+	 */
+	private void generateKafkaListeners(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		if (typeSystem.resolveDotted(KafkaListenerCodeGenerator.KAFKA_LISTENER_ANNOTATION_BEAN_POST_PROCESSOR, true) == null) {
+			return;
+		}
+		KafkaListenerCodeGenerator codeGenerator = new KafkaListenerCodeGenerator();
+		// Only the application classes are scanned, the composed listener annotations they use are resolved
+		// wherever they come from. Listeners are declared through annotations, whether composed or not
+		ClasspathScan scan = typeSystem.newClasspathScan();
+		scan.register(ClasspathScan.Scope.USER_CODE, ConstantPoolScanner.Prefilter.anyOf("RuntimeVisibleAnnotations"), codeGenerator::addType);
+		// The code generator only records into concurrent collections
+		scan.runInParallel();
+		if (!codeGenerator.hasListenerTypes()) {
+			return;
+		}
+		logger.debug("Generating the Kafka listener bean post processor for " + codeGenerator.getListenerTypeNames());
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticKafkaListenerAnnotationBeanPostProcessor()));
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		ClassDescriptor classDescriptor = ClassDescriptor.of(KafkaListenerCodeGenerator.STATIC_KAFKA_LISTENER_ANNOTATION_BEAN_POST_PROCESSOR);
+		classDescriptor.setFlag(Flag.allDeclaredConstructors);
+		reflectionDescriptor.add(classDescriptor);
+		configurationCollector.addReflectionDescriptor(reflectionDescriptor, false, "buildTimeKafkaListeners");
+	}
+
+	private void generateScheduledAndEventListenerMethods(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		ScheduledAndEventListenerMethodsCodeGenerator codeGenerator = new ScheduledAndEventListenerMethodsCodeGenerator();
+		// The Spring jars are scanned too, as they declare event listener methods and composed annotations
+		ClasspathScan scan = typeSystem.newClasspathScan();
+		scan.register(ClasspathScan.Scope.USER_CODE_AND_SPRING_JARS, codeGenerator::addType);
+		// The code generator only records into concurrent maps
+		scan.runInParallel();
+		logger.debug("Generating the @Scheduled methods " + codeGenerator.getScheduledMethods().keySet()
+				+ " and @EventListener methods " + codeGenerator.getEventListenerMethods().keySet());
+		context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticScheduledAndEventListenerMethods()));
+		// The methods are looked up by name at runtime
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		Map<String, List<Method>> annotatedMethods = new TreeMap<>(codeGenerator.getScheduledMethods());
+		codeGenerator.getEventListenerMethods().forEach((typeName, methods) -> annotatedMethods.merge(typeName, methods, (first, second) -> {
+			List<Method> merged = new ArrayList<>(first);
+			merged.addAll(second);
+			return merged;
+		}));
+		annotatedMethods.forEach((typeName, methods) -> {
+			ClassDescriptor classDescriptor = ClassDescriptor.of(typeName);
+			for (Method method : methods) {
+				classDescriptor.addMethodDescriptor(method.getMethodDescriptor());
+			}
+			reflectionDescriptor.add(classDescriptor);
+		});
+		ClassDescriptor generatedClassDescriptor = ClassDescriptor.of(ScheduledAndEventListenerMethodsCodeGenerator.STATIC_SCHEDULED_AND_EVENT_LISTENER_METHODS);
+		generatedClassDescriptor.addMethodDescriptor(MethodDescriptor.of("getScheduledMethods", "java.lang.Class"));
+		generatedClassDescriptor.addMethodDescriptor(MethodDescriptor.of("getEventListenerMethods", "java.lang.Class"));
+		reflectionDescriptor.add(generatedClassDescriptor);
+		configurationCollector.addReflectionDescriptor(reflectionDescriptor, false, "buildTimeScheduledAndEventListeners");
+	}
+
+	/**
+	 * Initialize at build time the Spring classes whose static initializer only makes isPresent() checks, so that
+	 * native-image sees their results as constants and removes the branches that depend on absent types.
+	 */
+	private void foldIsPresentChecks(TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		IsPresentChecksFolder folder = new IsPresentChecksFolder(typeSystem);
+		List<String> typenames = folder.selectBuildTimeInitializedTypes(typeSystem.getSpringClassesIsPresentChecks(),
+				configurationCollector.getInitializationDescriptor());
+		configurationCollector.initializeClassesAtBuildTime(typenames.toArray(new String[0]));
+	}
+
+	/**
+	 * Initialize at build time the Spring classes whose static initializer is safe to run at build time and report
+	 * why the other ones are not.
+	 */
+	private void analyzeStaticInitializers(BuildContext context, TypeSystem typeSystem, ConfigurationCollector configurationCollector) {
+		InitializationDescriptor initializationDescriptor = configurationCollector.getInitializationDescriptor();
+		StaticInitializerAnalyzer analyzer = new StaticInitializerAnalyzer(typeSystem,
+				initializationDescriptor::isInitializedAtBuildTime, initializationDescriptor::isInitializedAtRunTime);
+		List<String> safeTypenames = new ArrayList<>();
+		Map<String, String> blockingReasons = new TreeMap<>();
+		for (String typename : typeSystem.getSpringClassesWithStaticInitializers()) {
+			if (initializationDescriptor.isInitializedAtBuildTime(typename)) {
+				continue;
+			}
+			String blockingReason = analyzer.getBlockingReason(typename);
+			if (blockingReason == null) {
+				safeTypenames.add(typename);
+			}
+			else {
+				blockingReasons.put(typename, blockingReason);
+			}
+		}
+		logger.debug("Initializing " + safeTypenames.size() + " classes at build time, " + blockingReasons.size()
+				+ " cannot be initialized at build time");
+		Collections.sort(safeTypenames);
+		configurationCollector.initializeClassesAtBuildTime(safeTypenames.toArray(new String[0]));
+		context.addResources(new ResourceFile() {
+			@Override
+			public void writeTo(Path rootPath) throws IOException {
+				Path nativeConfigFolder = rootPath.resolve(ResourceFile.NATIVE_CONFIG_PATH);
+				Files.createDirectories(nativeConfigFolder);
+				try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(nativeConfigFolder.resolve("static-initializers.txt")))) {
+					writer.println("# Spring classes initialized at build time (+) and why the other ones are not (-)");
+					safeTypenames.forEach(typename -> writer.println("+ " + typename));
+					blockingReasons.forEach((typename, reason) -> writer.println("- " + typename + ": " + reason));
+				}
+			}
+		});
+	}
+
 	public List<String> generateBuildTimeClassProxies(ConfigurationCollector configurationCollector, BuildContext context) {
 		List<AotProxyDescriptor> classProxyDescriptors = configurationCollector.getClassProxyDescriptors();
 		List<String> classProxyNames = new ArrayList<>();
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.aot.ResourceFile;
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.FieldDescriptor;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+import org.springframework.nativex.hint.Flag;
+import org.springframework.nativex.type.Field;
+import org.springframework.nativex.type.Type;
+
+/**
+ * Apply the Hibernate bytecode enhancer to the JPA entity classes of the application at build time, as the
+ * {@code hibernate-enhance-maven-plugin} does with lazy initialization, dirty tracking and association management
+ * enabled. The enhancer of the Hibernate version on the application classpath is used, through a class loader
+ * isolated from the one of the build.
+ * <p>The enhanced classes are written with the generated resources, that the build plugins put ahead of the compiled
+ * classes of the application, the original class files are left untouched. Entity classes loaded from a jar are not
+ * enhanced, the Hibernate enhancer has to be applied where they are built. Hibernate accesses the members added by the enhancer through the interfaces it
+ * implements, so only the constructors, the persistent fields and the original methods of an enhanced class need to
+ * be reflectively accessible.
+ */
+class HibernateEntityEnhancer implements Closeable {
+
+	private static Log logger = LogFactory.getLog(HibernateEntityEnhancer.class);
+
+	static final String ENHANCER = "org.hibernate.bytecode.enhance.spi.Enhancer";
+
+	private static final String BYTECODE_PROVIDER = "org.hibernate.bytecode.internal.bytebuddy.BytecodeProviderImpl";
+
+	private static final String ENHANCEMENT_CONTEXT = "org.hibernate.bytecode.enhance.spi.EnhancementContext";
+
+	// The default enhancement context matches the configuration of the Hibernate build plugins
+	private static final String DEFAULT_ENHANCEMENT_CONTEXT = "org.hibernate.bytecode.enhance.spi.DefaultEnhancementContext";
+
+	// Implemented by the classes the enhancer has already been applied to
+	private static final String MANAGED = "org/hibernate/engine/spi/Managed";
+
+	private static final String[] PERSISTENT_TYPE_ANNOTATIONS = { "Ljavax/persistence/Entity;",
+			"Ljavax/persistence/Embeddable;", "Ljavax/persistence/MappedSuperclass;" };
+
+	private final URLClassLoader classLoader;
+
+	private final Object enhancer;
+
+	private final Method enhance;
+
+	/**
+	 * Create an enhancer using the Hibernate version of the application.
+	 * @param classpath the classpath of the application, including Hibernate and the entity classes
+	 */
+	HibernateEntityEnhancer(List<String> classpath) {
+		List<URL> urls = new ArrayList<>();
+		for (String entry : classpath) {
+			try {
+				urls.add(new File(entry).toURI().toURL());
+			}
+			catch (MalformedURLException ex) {
+				throw new IllegalStateException("Invalid classpath entry " + entry, ex);
+			}
+		}
+		this.classLoader = new URLClassLoader(urls.toArray(new URL[0]), null);
+		try {
+			Class<?> enhancementContextType = this.classLoader.loadClass(ENHANCEMENT_CONTEXT);
+			Object bytecodeProvider = this.classLoader.loadClass(BYTECODE_PROVIDER).getConstructor().newInstance();
+			Object enhancementContext = this.classLoader.loadClass(DEFAULT_ENHANCEMENT_CONTEXT).getConstructor().newInstance();
+			this.enhancer = bytecodeProvider.getClass().getMethod("getEnhancer", enhancementContextType)
+					.invoke(bytecodeProvider, enhancementContext);
+			this.enhance = this.classLoader.loadClass(ENHANCER).getMethod("enhance", String.class, byte[].class);
+		}
+		catch (ReflectiveOperationException | LinkageError ex) {
+			close();
+			throw new IllegalStateException("Unable to create the Hibernate bytecode enhancer", ex);
+		}
+	}
+
+	/**
+	 * @param type a type of the application
+	 * @return true if the type is a JPA persistent type the enhancer has not been applied to yet
+	 */
+	static boolean isEnhancementCandidate(Type type) {
+		for (String annotation : PERSISTENT_TYPE_ANNOTATIONS) {
+			if (type.hasAnnotation(annotation, false)) {
+				return !type.implementsInterface(MANAGED);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Enhance a persistent class.
+	 * @param type the type of the class
+	 * @param classBytes the bytecode of the class
+	 * @return the bytecode of the enhanced class, or null if the enhancer did not change the class
+	 */
+	public byte[] enhance(Type type, byte[] classBytes) {
+		try {
+			return (byte[]) this.enhance.invoke(this.enhancer, type.getDottedName(), classBytes);
+		}
+		catch (InvocationTargetException ex) {
+			logger.debug("Not enhancing " + type.getDottedName() + ", the enhancer failed: " + ex.getTargetException().getMessage());
+			return null;
+		}
+		catch (IllegalAccessException ex) {
+			throw new IllegalStateException("Unable to invoke the Hibernate bytecode enhancer", ex);
+		}
+	}
+
+	/**
+	 * Check if a class is loaded from a jar, like the classes of a dependency, searching the classpath entries in
+	 * order as a class loader does.
+	 * @param classpath the classpath of the application
+	 * @param type the type of the class
+	 * @return true if the first classpath entry containing the class is a jar
+	 */
+	static boolean isLoadedFromJar(List<String> classpath, Type type) {
+		String classFileName = type.getName() + ".class";
+		for (String entry : classpath) {
+			File file = new File(entry);
+			if (file.isDirectory()) {
+				if (new File(file, classFileName).isFile()) {
+					return false;
+				}
+			}
+			else if (file.isFile() && containsEntry(file, classFileName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean containsEntry(File jar, String name) {
+		try (ZipFile zipFile = new ZipFile(jar)) {
+			return zipFile.getEntry(name) != null;
+		}
+		catch (IOException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Create the class file of an enhanced class, written with the generated resources so that the build plugins
+	 * put it ahead of the original class.
+	 * @param type the type of the original class
+	 * @param enhancedBytes the bytecode of the enhanced class
+	 * @return the enhanced class file
+	 */
+	static ResourceFile enhancedClassFile(Type type, byte[] enhancedBytes) {
+		return rootPath -> {
+			Path classFile = rootPath.resolve(type.getName() + ".class");
+			Files.createDirectories(classFile.getParent());
+			Files.write(classFile, enhancedBytes);
+		};
+	}
+
+	/**
+	 * Restrict the reflective access requested for an enhanced class to its constructors and to the members of the
+	 * original class, that Hibernate accesses for field and property based access.
+	 * @param type the type of the original class
+	 * @param classDescriptor the reflection configuration of the class
+	 */
+	static void restrictReflection(Type type, ClassDescriptor classDescriptor) {
+		if (classDescriptor.getFlags() != null && classDescriptor.getFlags().contains(Flag.allDeclaredFields)) {
+			classDescriptor.unsetFlag(Flag.allDeclaredFields);
+			classDescriptor.unsetFlag(Flag.allPublicFields);
+			for (Field field : type.getFields()) {
+				if (!field.isStatic() && !field.isSynthetic() && classDescriptor.getFieldDescriptorNamed(field.getName()) == null) {
+					classDescriptor.addFieldDescriptor(FieldDescriptor.of(field.getName(), false, false));
+				}
+			}
+		}
+		if (classDescriptor.getFlags() != null && classDescriptor.getFlags().contains(Flag.allDeclaredMethods)) {
+			classDescriptor.unsetFlag(Flag.allDeclaredMethods);
+			classDescriptor.unsetFlag(Flag.allPublicMethods);
+			for (org.springframework.nativex.type.Method method : type.getMethods()) {
+				if (method.getName().startsWith("<") || method.isStatic() || method.isSynthetic()) {
+					continue;
+				}
+				org.objectweb.asm.Type[] parameterTypes = org.objectweb.asm.Type.getArgumentTypes(method.getDesc());
+				String[] parameterTypenames = new String[parameterTypes.length];
+				for (int i = 0; i < parameterTypes.length; i++) {
+					parameterTypenames[i] = parameterTypes[i].getClassName();
+				}
+				MethodDescriptor methodDescriptor = MethodDescriptor.of(method.getName(), parameterTypenames);
+				if (!classDescriptor.contains(methodDescriptor)) {
+					classDescriptor.addMethodDescriptor(methodDescriptor);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			this.classLoader.close();
+		}
+		catch (IOException ex) {
+			logger.debug("Unable to close the Hibernate class loader: " + ex.getMessage());
+		}
+	}
+}
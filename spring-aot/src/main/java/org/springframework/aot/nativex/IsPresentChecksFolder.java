@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.nativex.domain.init.InitializationDescriptor;
+import org.springframework.nativex.type.IsPresentChecks;
+import org.springframework.nativex.type.Type;
+import org.springframework.nativex.type.TypeSystem;
+
+/**
+ * Select the Spring classes whose {@code ClassUtils.isPresent()} checks can be folded into constants by initializing
+ * the classes at image build time. The image is built from the same classpath as the one analyzed here, so the
+ * values the static initializers compute at build time are those of the application. A class is only selected if
+ * its static initializer does nothing else (see {@link IsPresentChecks#isFoldable()}) and its superclasses can also
+ * be initialized at build time.
+ */
+class IsPresentChecksFolder {
+
+	private static Log logger = LogFactory.getLog(IsPresentChecksFolder.class);
+
+	private final TypeSystem typeSystem;
+
+	IsPresentChecksFolder(TypeSystem typeSystem) {
+		this.typeSystem = typeSystem;
+	}
+
+	/**
+	 * @param isPresentChecks the checks made by Spring classes, keyed by dotted type name
+	 * @param initializationDescriptor the initialization configuration computed so far
+	 * @return the dotted names of the classes to initialize at build time
+	 */
+	public List<String> selectBuildTimeInitializedTypes(Map<String, IsPresentChecks> isPresentChecks,
+			InitializationDescriptor initializationDescriptor) {
+		Map<String, IsPresentChecks> candidates = new LinkedHashMap<>();
+		for (IsPresentChecks checks : isPresentChecks.values()) {
+			if (checks.isFoldable() && !initializationDescriptor.isInitializedAtRunTime(checks.getTypename())) {
+				candidates.put(checks.getTypename(), checks);
+			}
+		}
+		// Superclasses are initialized first, a candidate may depend on another being selected
+		List<String> selected = new ArrayList<>();
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (IsPresentChecks checks : new ArrayList<>(candidates.values())) {
+				String superclassName = checks.getSuperclassName();
+				if (superclassName == null || canBeInitializedAtBuildTime(superclassName, initializationDescriptor, selected)) {
+					candidates.remove(checks.getTypename());
+					selected.add(checks.getTypename());
+					changed = true;
+					if (logger.isDebugEnabled()) {
+						logger.debug("Initializing " + checks.getTypename() + " at build time to fold its isPresent() checks: "
+								+ describe(checks));
+					}
+				}
+			}
+		}
+		for (String rejected : candidates.keySet()) {
+			logger.debug("Not initializing " + rejected + " at build time, a superclass needs to be initialized at run time");
+		}
+		return selected;
+	}
+
+	private boolean canBeInitializedAtBuildTime(String typename, InitializationDescriptor initializationDescriptor,
+			List<String> selected) {
+		if (typename.equals("java.lang.Object") || selected.contains(typename)
+				|| initializationDescriptor.isInitializedAtBuildTime(typename)) {
+			return true;
+		}
+		if (initializationDescriptor.isInitializedAtRunTime(typename)) {
+			return false;
+		}
+		// A superclass without a static initializer has nothing to run
+		Type type = typeSystem.resolveDotted(typename, true);
+		if (type == null || !type.getMethod("<clinit>").isEmpty()) {
+			return false;
+		}
+		Type superclass = type.getSuperclass();
+		return superclass == null || canBeInitializedAtBuildTime(superclass.getDottedName(), initializationDescriptor, selected);
+	}
+
+	private String describe(IsPresentChecks checks) {
+		StringBuilder description = new StringBuilder();
+		for (Map.Entry<String, List<String>> entry : checks.getCheckedTypesByField().entrySet()) {
+			if (description.length() > 0) {
+				description.append(", ");
+			}
+			description.append(entry.getKey()).append('=');
+			boolean present = !entry.getValue().isEmpty();
+			for (String checkedType : entry.getValue()) {
+				present &= typeSystem.resolveDotted(checkedType, true) != null;
+			}
+			description.append(present);
+		}
+		return description.toString();
+	}
+
+}
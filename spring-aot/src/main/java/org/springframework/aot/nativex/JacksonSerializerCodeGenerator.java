@@ -0,0 +1,848 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.nativex.type.Field;
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+import org.springframework.nativex.type.TypeSystem;
+
+/**
+ * Generate Jackson serializers for the types returned by the {@code @ResponseBody} controller methods and
+ * deserializers for their {@code @RequestBody} parameter types, following the types of their properties. The
+ * generated code calls the getters and setters directly and is registered through the
+ * {@code org.springframework.aot.StaticJacksonModule} module, so these types are not introspected on first use and
+ * their properties are not accessed reflectively.
+ * <p>Only plain JavaBeans without Jackson annotations are eligible. The generated module only provides its
+ * serializers while the {@code ObjectMapper} keeps the default naming, visibility, ordering and typing configuration
+ * they are written for, the regular bean serializers are used otherwise.
+ */
+class JacksonSerializerCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(JacksonSerializerCodeGenerator.class);
+
+	static final String STATIC_JACKSON_MODULE = "org.springframework.aot.StaticJacksonModule";
+
+	static final String MODULE = "com.fasterxml.jackson.databind.Module";
+
+	private static final String REQUEST_BODY = "Lorg/springframework/web/bind/annotation/RequestBody;";
+
+	// Types Jackson or its modules provide serializers for, the module would take precedence over them
+	private static final String[] EXCLUDED_PREFIXES = { "java.", "javax.", "jakarta.", "kotlin.", "scala.", "groovy.",
+			"com.fasterxml.", "org.joda." };
+
+	// Annotations that change how Jackson handles a type
+	private static final String[] EXCLUDED_ANNOTATION_PREFIXES = { "Lcom/fasterxml/jackson/", "Ljava/beans/",
+			"Lkotlin/" };
+
+	private static final String JACKSON_PACKAGE = "com.fasterxml.jackson.databind";
+
+	private static final ClassName SIMPLE_MODULE = ClassName.get(JACKSON_PACKAGE + ".module", "SimpleModule");
+
+	private static final ClassName SETUP_CONTEXT = ClassName.get(JACKSON_PACKAGE, "Module", "SetupContext");
+
+	private static final ClassName SERIALIZERS = ClassName.get(JACKSON_PACKAGE + ".ser", "Serializers", "Base");
+
+	private static final ClassName DESERIALIZERS = ClassName.get(JACKSON_PACKAGE + ".deser", "Deserializers", "Base");
+
+	private static final ClassName MAPPER_CONFIG = ClassName.get(JACKSON_PACKAGE + ".cfg", "MapperConfig");
+
+	private static final ClassName SERIALIZATION_CONFIG = ClassName.get(JACKSON_PACKAGE, "SerializationConfig");
+
+	private static final ClassName DESERIALIZATION_CONFIG = ClassName.get(JACKSON_PACKAGE, "DeserializationConfig");
+
+	private static final ClassName JAVA_TYPE = ClassName.get(JACKSON_PACKAGE, "JavaType");
+
+	private static final ClassName BEAN_DESCRIPTION = ClassName.get(JACKSON_PACKAGE, "BeanDescription");
+
+	private static final ClassName JSON_SERIALIZER = ClassName.get(JACKSON_PACKAGE, "JsonSerializer");
+
+	private static final ClassName JSON_DESERIALIZER = ClassName.get(JACKSON_PACKAGE, "JsonDeserializer");
+
+	private static final ClassName SERIALIZER_PROVIDER = ClassName.get(JACKSON_PACKAGE, "SerializerProvider");
+
+	private static final ClassName DESERIALIZATION_CONTEXT = ClassName.get(JACKSON_PACKAGE, "DeserializationContext");
+
+	private static final ClassName MAPPER_FEATURE = ClassName.get(JACKSON_PACKAGE, "MapperFeature");
+
+	private static final ClassName DESERIALIZATION_FEATURE = ClassName.get(JACKSON_PACKAGE, "DeserializationFeature");
+
+	private static final ClassName STD_SERIALIZER = ClassName.get(JACKSON_PACKAGE + ".ser.std", "StdSerializer");
+
+	private static final ClassName STD_DESERIALIZER = ClassName.get(JACKSON_PACKAGE + ".deser.std", "StdDeserializer");
+
+	private static final ClassName VISIBILITY_CHECKER = ClassName.get(JACKSON_PACKAGE + ".introspect", "VisibilityChecker", "Std");
+
+	private static final ClassName NAME_TRANSFORMER = ClassName.get(JACKSON_PACKAGE + ".util", "NameTransformer");
+
+	private static final ClassName TYPE_SERIALIZER = ClassName.get(JACKSON_PACKAGE + ".jsontype", "TypeSerializer");
+
+	private static final ClassName JSON_GENERATOR = ClassName.get("com.fasterxml.jackson.core", "JsonGenerator");
+
+	private static final ClassName JSON_PARSER = ClassName.get("com.fasterxml.jackson.core", "JsonParser");
+
+	private static final ClassName JSON_TOKEN = ClassName.get("com.fasterxml.jackson.core", "JsonToken");
+
+	private static final ClassName WRITABLE_TYPE_ID = ClassName.get("com.fasterxml.jackson.core.type", "WritableTypeId");
+
+	private static final ClassName INCLUDE = ClassName.get("com.fasterxml.jackson.annotation", "JsonInclude", "Include");
+
+	private static final ClassName NULLS = ClassName.get("com.fasterxml.jackson.annotation", "Nulls");
+
+	private static final ClassName PROPERTY_SERIALIZER = ClassName.bestGuess(STATIC_JACKSON_MODULE).nestedClass("PropertySerializer");
+
+	private static final ClassName PROPERTY_DESERIALIZER = ClassName.bestGuess(STATIC_JACKSON_MODULE).nestedClass("PropertyDeserializer");
+
+	private static final TypeVariableName T = TypeVariableName.get("T");
+
+	private final TypeSystem typeSystem;
+
+	// Null values record the types that are not eligible
+	private final Map<String, BeanType> serializedTypes = new LinkedHashMap<>();
+
+	private final Map<String, BeanType> deserializedTypes = new LinkedHashMap<>();
+
+	JacksonSerializerCodeGenerator(TypeSystem typeSystem) {
+		this.typeSystem = typeSystem;
+	}
+
+	/**
+	 * Record the payload types of the request mappings of a controller.
+	 * @param controllerType a type annotated with {@code @Controller}
+	 */
+	public void addType(Type controllerType) {
+		boolean responseBody = controllerType.isAtResponseBody();
+		for (Method mapping : controllerType.getMethods(Method::isAtMapping)) {
+			if (responseBody || mapping.hasAnnotation(Type.AtResponseBody, true)) {
+				sorted(mapping.getSignatureTypes(true)).forEach(this::addSerializedType);
+			}
+			List<Type> parameterTypes = mapping.getParameterTypes();
+			for (int i = 0; i < parameterTypes.size(); i++) {
+				for (Type annotationType : mapping.getParameterAnnotationTypes(i)) {
+					if (annotationType.getDescriptor().equals(REQUEST_BODY)) {
+						addDeserializedType(parameterTypes.get(i));
+					}
+				}
+			}
+		}
+	}
+
+	public boolean hasPayloadTypes() {
+		return !getSerializedTypeNames().isEmpty() || !getDeserializedTypeNames().isEmpty();
+	}
+
+	/**
+	 * @return the dotted names of the types a serializer is generated for
+	 */
+	public Set<String> getSerializedTypeNames() {
+		return eligibleTypeNames(this.serializedTypes);
+	}
+
+	/**
+	 * @return the dotted names of the types a deserializer is generated for
+	 */
+	public Set<String> getDeserializedTypeNames() {
+		return eligibleTypeNames(this.deserializedTypes);
+	}
+
+	private static Set<String> eligibleTypeNames(Map<String, BeanType> beanTypes) {
+		return beanTypes.entrySet().stream().filter(entry -> entry.getValue() != null).map(Map.Entry::getKey)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	private static List<Type> sorted(Set<Type> types) {
+		return types.stream().sorted(Comparator.comparing(Type::getDottedName)).collect(Collectors.toList());
+	}
+
+	private void addSerializedType(Type type) {
+		if (type == null || this.serializedTypes.containsKey(type.getDottedName())) {
+			return;
+		}
+		this.serializedTypes.put(type.getDottedName(), null);
+		String reason = checkEligibility(type);
+		List<Property> properties = new ArrayList<>();
+		if (reason == null) {
+			reason = collectGetters(type, properties);
+		}
+		if (reason != null) {
+			logger.debug("Not generating a Jackson serializer for " + type.getDottedName() + ": " + reason);
+			return;
+		}
+		this.serializedTypes.put(type.getDottedName(), new BeanType(type, properties));
+		for (Property property : properties) {
+			sorted(property.accessor.getSignatureTypes(true)).forEach(this::addSerializedType);
+		}
+	}
+
+	private void addDeserializedType(Type type) {
+		if (type == null || this.deserializedTypes.containsKey(type.getDottedName())) {
+			return;
+		}
+		this.deserializedTypes.put(type.getDottedName(), null);
+		String reason = checkEligibility(type);
+		List<Property> properties = new ArrayList<>();
+		if (reason == null) {
+			reason = checkCreators(type);
+		}
+		if (reason == null) {
+			reason = collectSetters(type, properties);
+		}
+		if (reason != null) {
+			logger.debug("Not generating a Jackson deserializer for " + type.getDottedName() + ": " + reason);
+			return;
+		}
+		this.deserializedTypes.put(type.getDottedName(), new BeanType(type, properties));
+		for (Property property : properties) {
+			property.valueTypes.forEach(this::addDeserializedType);
+		}
+	}
+
+	/**
+	 * @return the reason why a type cannot be handled as a plain JavaBean, or null if it can
+	 */
+	private static String checkEligibility(Type type) {
+		if (type.isArray() || type.isInterface() || type.isAbstract() || type.isEnum() || type.isAnnotation()) {
+			return "it is not a concrete class";
+		}
+		for (String excludedPrefix : EXCLUDED_PREFIXES) {
+			if (type.getDottedName().startsWith(excludedPrefix)) {
+				return "Jackson or one of its modules may handle it";
+			}
+		}
+		if (!PropertiesBinderCodeGenerator.isAccessible(type, ClassName.bestGuess(STATIC_JACKSON_MODULE).packageName())) {
+			return "it is not public";
+		}
+		if (type.hasTypeParameters()) {
+			return "it is generic";
+		}
+		if (!"java/lang/Object".equals(type.getSuperclassString())) {
+			return "it extends " + type.getSuperclassString().replace('/', '.');
+		}
+		for (String interfaceName : type.getInterfacesStrings()) {
+			if (!interfaceName.equals("java/io/Serializable")) {
+				return "it implements " + interfaceName.replace('/', '.');
+			}
+		}
+		for (String descriptor : type.getAnnotationDescriptorsInUse()) {
+			for (String excludedPrefix : EXCLUDED_ANNOTATION_PREFIXES) {
+				if (descriptor.startsWith(excludedPrefix)) {
+					return "it uses the " + Type.fromLdescriptorToSlashed(descriptor).replace('/', '.') + " annotation";
+				}
+			}
+		}
+		for (Field field : type.getFields()) {
+			if (!field.isStatic() && field.isPublic()) {
+				return "it has the public field " + field.getName();
+			}
+		}
+		return null;
+	}
+
+	// Jackson would use a single argument constructor or factory method for scalar values
+	private static String checkCreators(Type type) {
+		List<Method> constructors = type.getMethods(m -> m.getName().equals("<init>"));
+		if (constructors.size() != 1 || !constructors.get(0).isPublic() || !constructors.get(0).getDesc().equals("()V")) {
+			return "it does not only have a public default constructor";
+		}
+		if (!type.getMethods(m -> m.isStatic() && (m.getName().equals("valueOf") || m.getName().equals("fromString"))).isEmpty()) {
+			return "it has a factory method";
+		}
+		return null;
+	}
+
+	private static String collectGetters(Type type, List<Property> properties) {
+		Map<String, Property> getters = new LinkedHashMap<>();
+		for (Method method : type.getMethods(JacksonSerializerCodeGenerator::isGetter)) {
+			String name = getPropertyName(method);
+			if (getters.put(name, new Property(name, method)) != null) {
+				return "it has several getters for property " + name;
+			}
+		}
+		if (getters.isEmpty()) {
+			return "it has no getters";
+		}
+		// As Jackson does, the properties backed by a field come first, in the order of the fields
+		for (Field field : type.getFields()) {
+			Property property = field.isStatic() ? null : getters.remove(field.getName());
+			if (property != null) {
+				properties.add(property);
+			}
+		}
+		properties.addAll(getters.values());
+		return null;
+	}
+
+	private String collectSetters(Type type, List<Property> properties) {
+		Map<String, Property> setters = new LinkedHashMap<>();
+		for (Method method : type.getMethods(JacksonSerializerCodeGenerator::isSetter)) {
+			String name = getPropertyName(method);
+			String descriptor = org.objectweb.asm.Type.getArgumentTypes(method.getDesc())[0].getDescriptor();
+			Property property = new Property(name, method, descriptor);
+			String signature = method.hasGenericSignature() ? method.getSignature() : "(" + descriptor;
+			CodeBlock javaType = signature.startsWith("(") ? parseJavaType(signature, new int[] { 1 }, property) : null;
+			if (javaType == null) {
+				return "the type of property " + name + " is not supported";
+			}
+			// Raw types are given to Jackson as classes, generic types are described with the type factory
+			property.valueType = method.hasGenericSignature() ? javaType
+					: CodeBlock.of("$T.class", PropertiesBinderCodeGenerator.typeName(descriptor));
+			if (setters.put(name, property) != null) {
+				return "it has several setters for property " + name;
+			}
+		}
+		if (setters.isEmpty()) {
+			return "it has no setters";
+		}
+		// Jackson would otherwise set the field or update the collection returned by the getter
+		Set<String> fieldNames = type.getFields().stream().filter(field -> !field.isStatic()).map(Field::getName)
+				.collect(Collectors.toSet());
+		for (Method getter : type.getMethods(JacksonSerializerCodeGenerator::isGetter)) {
+			String name = getPropertyName(getter);
+			if (!setters.containsKey(name) && (fieldNames.contains(name) || isContainer(getter.getReturnType()))) {
+				return "property " + name + " has no setter";
+			}
+		}
+		properties.addAll(setters.values());
+		return null;
+	}
+
+	/**
+	 * Parse a type of a generic signature into the expression describing it to the Jackson type factory.
+	 * @param signature the generic signature
+	 * @param position the position of the type in the signature, moved after the type
+	 * @param property the property the type is used by, collecting the types it references
+	 * @return the expression, or null if the type is a type variable, uses a contravariant wildcard, is an inner
+	 * type of a parameterized type or is not accessible from the generated code
+	 */
+	private CodeBlock parseJavaType(String signature, int[] position, Property property) {
+		char c = signature.charAt(position[0]++);
+		if (c == '[') {
+			CodeBlock componentType = parseJavaType(signature, position, property);
+			return componentType != null ? CodeBlock.of("ctxt.getTypeFactory().constructArrayType($L)", componentType) : null;
+		}
+		if (c == 'T') {
+			return null;
+		}
+		if (c != 'L') {
+			return CodeBlock.of("ctxt.getTypeFactory().constructType($T.class)", PropertiesBinderCodeGenerator.typeName(String.valueOf(c)));
+		}
+		int start = position[0] - 1;
+		while (signature.charAt(position[0]) != '<' && signature.charAt(position[0]) != ';') {
+			position[0]++;
+		}
+		Type type = this.typeSystem.Lresolve(signature.substring(start, position[0]) + ";", true);
+		if (type == null || !PropertiesBinderCodeGenerator.isAccessible(type, ClassName.bestGuess(STATIC_JACKSON_MODULE).packageName())) {
+			return null;
+		}
+		property.valueTypes.add(type);
+		List<CodeBlock> typeArguments = new ArrayList<>();
+		if (signature.charAt(position[0]) == '<') {
+			position[0]++;
+			while (signature.charAt(position[0]) != '>') {
+				c = signature.charAt(position[0]);
+				CodeBlock typeArgument;
+				if (c == '*') {
+					position[0]++;
+					typeArgument = CodeBlock.of("ctxt.getTypeFactory().constructType($T.class)", Object.class);
+				}
+				else {
+					if (c == '+') {
+						position[0]++;
+					}
+					typeArgument = (c != '-') ? parseJavaType(signature, position, property) : null;
+				}
+				if (typeArgument == null) {
+					return null;
+				}
+				typeArguments.add(typeArgument);
+			}
+			position[0]++;
+		}
+		if (signature.charAt(position[0]++) != ';') {
+			return null;
+		}
+		ClassName className = PropertiesBinderCodeGenerator.className(type);
+		if (typeArguments.isEmpty()) {
+			return CodeBlock.of("ctxt.getTypeFactory().constructType($T.class)", className);
+		}
+		return CodeBlock.of("ctxt.getTypeFactory().constructParametricType($T.class, $L)", className,
+				CodeBlock.join(typeArguments, ", "));
+	}
+
+	private static boolean isGetter(Method method) {
+		if (!method.isPublic() || method.isStatic() || method.isSynthetic() || method.getParameterCount() != 0) {
+			return false;
+		}
+		String name = method.getName();
+		String returnDescriptor = org.objectweb.asm.Type.getReturnType(method.getDesc()).getDescriptor();
+		if (name.startsWith("get") && name.length() > 3) {
+			return !returnDescriptor.equals("V");
+		}
+		return name.startsWith("is") && name.length() > 2
+				&& (returnDescriptor.equals("Z") || returnDescriptor.equals("Ljava/lang/Boolean;"));
+	}
+
+	private static boolean isSetter(Method method) {
+		return method.isPublic() && !method.isStatic() && !method.isSynthetic() && method.getParameterCount() == 1
+				&& method.getName().startsWith("set") && method.getName().length() > 3;
+	}
+
+	private static boolean isContainer(Type type) {
+		return type != null && (type.implementsInterface("java/util/Collection", true)
+				|| type.implementsInterface("java/util/Map", true));
+	}
+
+	/**
+	 * Derive the name of a property from the name of its accessor as Jackson does by default: the leading upper
+	 * case characters are lower cased, {@code getURL} is the accessor of the {@code url} property.
+	 */
+	static String getPropertyName(Method accessor) {
+		String name = accessor.getName();
+		String basename = name.substring(name.startsWith("is") ? 2 : 3);
+		StringBuilder propertyName = new StringBuilder(basename.length());
+		for (int i = 0; i < basename.length(); i++) {
+			char c = basename.charAt(i);
+			char lowerCase = Character.toLowerCase(c);
+			if (c == lowerCase) {
+				propertyName.append(basename, i, basename.length());
+				break;
+			}
+			propertyName.append(lowerCase);
+		}
+		return propertyName.toString();
+	}
+
+	public JavaFile generateStaticJacksonModule() {
+		ClassName moduleName = ClassName.bestGuess(STATIC_JACKSON_MODULE);
+		TypeSpec.Builder module = TypeSpec.classBuilder(moduleName)
+				.addModifiers(Modifier.PUBLIC)
+				.superclass(SIMPLE_MODULE)
+				.addMethod(MethodSpec.constructorBuilder()
+						.addModifiers(Modifier.PUBLIC)
+						.addStatement("super($S)", moduleName.simpleName())
+						.build())
+				.addJavadoc("Class generated - do not edit this file");
+		MethodSpec.Builder setupModule = MethodSpec.methodBuilder("setupModule")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC)
+				.addParameter(SETUP_CONTEXT, "context")
+				.addStatement("super.setupModule(context)");
+		Set<String> classNames = new HashSet<>();
+		List<BeanType> serializedTypes = this.serializedTypes.values().stream().filter(beanType -> beanType != null)
+				.collect(Collectors.toList());
+		if (!serializedTypes.isEmpty()) {
+			module.addType(createPropertySerializer());
+			MethodSpec.Builder findSerializer = MethodSpec.methodBuilder("findSerializer")
+					.addAnnotation(Override.class)
+					.addModifiers(Modifier.PUBLIC)
+					.returns(ParameterizedTypeName.get(JSON_SERIALIZER, WildcardTypeName.subtypeOf(Object.class)))
+					.addParameter(SERIALIZATION_CONFIG, "config")
+					.addParameter(JAVA_TYPE, "type")
+					.addParameter(BEAN_DESCRIPTION, "beanDesc")
+					.beginControlFlow("if (!isDefaultConfiguration(config, type))")
+					.addStatement("return null")
+					.endControlFlow()
+					.addStatement("$T inclusion = config.getDefaultPropertyInclusion(type.getRawClass()).getValueInclusion()", INCLUDE)
+					.beginControlFlow("if (inclusion != $T.ALWAYS && inclusion != $T.USE_DEFAULTS && inclusion != $T.NON_NULL)", INCLUDE, INCLUDE, INCLUDE)
+					.addStatement("return null")
+					.endControlFlow()
+					.addStatement("boolean nonNull = (inclusion == $T.NON_NULL)", INCLUDE)
+					.addStatement("$T<?> rawClass = type.getRawClass()", Class.class);
+			for (BeanType beanType : serializedTypes) {
+				TypeSpec serializer = createSerializer(beanType, uniqueName(beanType.type, "Serializer", classNames));
+				module.addType(serializer);
+				findSerializer.beginControlFlow("if (rawClass == $T.class)", PropertiesBinderCodeGenerator.className(beanType.type))
+						.addStatement("return new $N(nonNull, null)", serializer)
+						.endControlFlow();
+			}
+			findSerializer.addStatement("return null");
+			module.addType(TypeSpec.classBuilder("StaticSerializers")
+					.addModifiers(Modifier.STATIC, Modifier.FINAL)
+					.superclass(SERIALIZERS)
+					.addMethod(findSerializer.build())
+					.build());
+			setupModule.addStatement("context.addSerializers(new StaticSerializers())");
+		}
+		List<BeanType> deserializedTypes = this.deserializedTypes.values().stream().filter(beanType -> beanType != null)
+				.collect(Collectors.toList());
+		if (!deserializedTypes.isEmpty()) {
+			module.addType(createPropertyDeserializer());
+			MethodSpec.Builder findBeanDeserializer = MethodSpec.methodBuilder("findBeanDeserializer")
+					.addAnnotation(Override.class)
+					.addModifiers(Modifier.PUBLIC)
+					.returns(ParameterizedTypeName.get(JSON_DESERIALIZER, WildcardTypeName.subtypeOf(Object.class)))
+					.addParameter(JAVA_TYPE, "type")
+					.addParameter(DESERIALIZATION_CONFIG, "config")
+					.addParameter(BEAN_DESCRIPTION, "beanDesc")
+					.beginControlFlow("if (!isDefaultConfiguration(config, type))")
+					.addStatement("return null")
+					.endControlFlow()
+					.beginControlFlow("if (config.isEnabled($T.FAIL_ON_NULL_FOR_PRIMITIVES) || config.getDefaultSetterInfo().getValueNulls() != $T.DEFAULT)",
+							DESERIALIZATION_FEATURE, NULLS)
+					.addStatement("return null")
+					.endControlFlow()
+					.addStatement("$T<?> rawClass = type.getRawClass()", Class.class);
+			for (BeanType beanType : deserializedTypes) {
+				TypeSpec deserializer = createDeserializer(beanType, uniqueName(beanType.type, "Deserializer", classNames));
+				module.addType(deserializer);
+				findBeanDeserializer.beginControlFlow("if (rawClass == $T.class)", PropertiesBinderCodeGenerator.className(beanType.type))
+						.addStatement("return new $N()", deserializer)
+						.endControlFlow();
+			}
+			findBeanDeserializer.addStatement("return null");
+			module.addType(TypeSpec.classBuilder("StaticDeserializers")
+					.addModifiers(Modifier.STATIC, Modifier.FINAL)
+					.superclass(DESERIALIZERS)
+					.addMethod(findBeanDeserializer.build())
+					.build());
+			setupModule.addStatement("context.addDeserializers(new StaticDeserializers())");
+		}
+		module.addMethod(setupModule.build());
+		module.addMethod(MethodSpec.methodBuilder("isDefaultConfiguration")
+				.addJavadoc("The generated code matches the default naming, visibility, ordering and typing configuration.\n")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(ParameterizedTypeName.get(MAPPER_CONFIG, WildcardTypeName.subtypeOf(Object.class)), "config")
+				.addParameter(JAVA_TYPE, "type")
+				.addStatement("return config.getPropertyNamingStrategy() == null\n"
+						+ "&& config.findMixInClassFor(type.getRawClass()) == null\n"
+						+ "&& !config.isEnabled($T.USE_STD_BEAN_NAMING)\n"
+						+ "&& !config.isEnabled($T.SORT_PROPERTIES_ALPHABETICALLY)\n"
+						+ "&& !config.isEnabled($T.ACCEPT_CASE_INSENSITIVE_PROPERTIES)\n"
+						+ "&& config.getDefaultVisibilityChecker() == $T.defaultInstance()\n"
+						+ "&& config.getDefaultTyper(type) == null", MAPPER_FEATURE, MAPPER_FEATURE, MAPPER_FEATURE,
+						VISIBILITY_CHECKER)
+				.build());
+		return JavaFile.builder(moduleName.packageName(), module.build()).build();
+	}
+
+	private static String uniqueName(Type type, String suffix, Set<String> classNames) {
+		StringBuilder name = new StringBuilder(type.getSimpleName().replace('$', '_'));
+		while (!classNames.add(name + suffix)) {
+			name.append('_');
+		}
+		return name + suffix;
+	}
+
+	/**
+	 * The base class of the generated serializers: it writes the object and type id markers and filters the null
+	 * values and the properties excluded by the active view, the generated subclasses write the properties.
+	 */
+	private static TypeSpec createPropertySerializer() {
+		TypeName typeSerializer = ParameterizedTypeName.get(PROPERTY_SERIALIZER, T);
+		return TypeSpec.classBuilder(PROPERTY_SERIALIZER)
+				.addModifiers(Modifier.ABSTRACT, Modifier.STATIC)
+				.addTypeVariable(T)
+				.superclass(ParameterizedTypeName.get(STD_SERIALIZER, T))
+				.addField(boolean.class, "nonNull", Modifier.PRIVATE, Modifier.FINAL)
+				.addField(NAME_TRANSFORMER, "unwrapper", Modifier.PRIVATE, Modifier.FINAL)
+				.addMethod(MethodSpec.constructorBuilder()
+						.addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), T), "type")
+						.addParameter(boolean.class, "nonNull")
+						.addParameter(NAME_TRANSFORMER, "unwrapper")
+						.addStatement("super(type)")
+						.addStatement("this.nonNull = nonNull")
+						.addStatement("this.unwrapper = unwrapper")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("serialize")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.addParameter(T, "value")
+						.addParameter(JSON_GENERATOR, "gen")
+						.addParameter(SERIALIZER_PROVIDER, "provider")
+						.addException(IOException.class)
+						.beginControlFlow("if (this.unwrapper != null)")
+						.addStatement("serializeIncludedProperties(value, gen, provider)")
+						.addStatement("return")
+						.endControlFlow()
+						.addStatement("gen.writeStartObject(value)")
+						.addStatement("serializeIncludedProperties(value, gen, provider)")
+						.addStatement("gen.writeEndObject()")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("serializeWithType")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.addParameter(T, "value")
+						.addParameter(JSON_GENERATOR, "gen")
+						.addParameter(SERIALIZER_PROVIDER, "provider")
+						.addParameter(TYPE_SERIALIZER, "typeSer")
+						.addException(IOException.class)
+						.addStatement("$T typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(value, $T.START_OBJECT))", WRITABLE_TYPE_ID, JSON_TOKEN)
+						.addStatement("serializeIncludedProperties(value, gen, provider)")
+						.addStatement("typeSer.writeTypeSuffix(gen, typeId)")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("isUnwrappingSerializer")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.returns(boolean.class)
+						.addStatement("return this.unwrapper != null")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("unwrappingSerializer")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.returns(ParameterizedTypeName.get(JSON_SERIALIZER, T))
+						.addParameter(NAME_TRANSFORMER, "unwrapper")
+						.addStatement("return create(this.nonNull, this.unwrapper != null ? $T.chainedTransformer(unwrapper, this.unwrapper) : unwrapper)", NAME_TRANSFORMER)
+						.build())
+				.addMethod(MethodSpec.methodBuilder("serializeIncludedProperties")
+						.addModifiers(Modifier.PRIVATE)
+						.addParameter(T, "value")
+						.addParameter(JSON_GENERATOR, "gen")
+						.addParameter(SERIALIZER_PROVIDER, "provider")
+						.addException(IOException.class)
+						.beginControlFlow("if (provider.getActiveView() == null || provider.isEnabled($T.DEFAULT_VIEW_INCLUSION))", MAPPER_FEATURE)
+						.addStatement("serializeProperties(value, gen, provider)")
+						.endControlFlow()
+						.build())
+				.addMethod(MethodSpec.methodBuilder("writeField")
+						.addModifiers(Modifier.PROTECTED)
+						.addParameter(String.class, "name")
+						.addParameter(Object.class, "value")
+						.addParameter(JSON_GENERATOR, "gen")
+						.addParameter(SERIALIZER_PROVIDER, "provider")
+						.addException(IOException.class)
+						.beginControlFlow("if (value != null || !this.nonNull)")
+						.addStatement("provider.defaultSerializeField(this.unwrapper != null ? this.unwrapper.transform(name) : name, value, gen)")
+						.endControlFlow()
+						.build())
+				.addMethod(MethodSpec.methodBuilder("create")
+						.addModifiers(Modifier.PROTECTED, Modifier.ABSTRACT)
+						.returns(typeSerializer)
+						.addParameter(boolean.class, "nonNull")
+						.addParameter(NAME_TRANSFORMER, "unwrapper")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("serializeProperties")
+						.addModifiers(Modifier.PROTECTED, Modifier.ABSTRACT)
+						.addParameter(T, "value")
+						.addParameter(JSON_GENERATOR, "gen")
+						.addParameter(SERIALIZER_PROVIDER, "provider")
+						.addException(IOException.class)
+						.build())
+				.build();
+	}
+
+	/**
+	 * The base class of the generated deserializers: it reads the object and reports the unknown properties, the
+	 * generated subclasses create the bean and set the properties.
+	 */
+	private static TypeSpec createPropertyDeserializer() {
+		return TypeSpec.classBuilder(PROPERTY_DESERIALIZER)
+				.addModifiers(Modifier.ABSTRACT, Modifier.STATIC)
+				.addTypeVariable(T)
+				.superclass(ParameterizedTypeName.get(STD_DESERIALIZER, T))
+				.addMethod(MethodSpec.constructorBuilder()
+						.addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), T), "type")
+						.addStatement("super(type)")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("deserialize")
+						.addAnnotation(Override.class)
+						.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build())
+						.addModifiers(Modifier.PUBLIC)
+						.returns(T)
+						.addParameter(JSON_PARSER, "p")
+						.addParameter(DESERIALIZATION_CONTEXT, "ctxt")
+						.addException(IOException.class)
+						.addStatement("$T token = p.currentToken()", JSON_TOKEN)
+						.beginControlFlow("if (token == $T.START_OBJECT)", JSON_TOKEN)
+						.addStatement("token = p.nextToken()")
+						.nextControlFlow("else if (token != $T.FIELD_NAME && token != $T.END_OBJECT)", JSON_TOKEN, JSON_TOKEN)
+						.addStatement("return ($T) ctxt.handleUnexpectedToken(handledType(), p)", T)
+						.endControlFlow()
+						.addStatement("$T bean = createBean()", T)
+						.beginControlFlow("for (; token == $T.FIELD_NAME; token = p.nextToken())", JSON_TOKEN)
+						.addStatement("String name = p.currentName()")
+						.addStatement("p.nextToken()")
+						.beginControlFlow("if (!deserializeProperty(bean, name, p, ctxt))")
+						.addStatement("ctxt.handleUnknownProperty(p, this, bean, name)")
+						.endControlFlow()
+						.endControlFlow()
+						.addStatement("return bean")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("createBean")
+						.addModifiers(Modifier.PROTECTED, Modifier.ABSTRACT)
+						.returns(T)
+						.build())
+				.addMethod(MethodSpec.methodBuilder("deserializeProperty")
+						.addModifiers(Modifier.PROTECTED, Modifier.ABSTRACT)
+						.returns(boolean.class)
+						.addParameter(T, "bean")
+						.addParameter(String.class, "name")
+						.addParameter(JSON_PARSER, "p")
+						.addParameter(DESERIALIZATION_CONTEXT, "ctxt")
+						.addException(IOException.class)
+						.build())
+				.build();
+	}
+
+	private static TypeSpec createSerializer(BeanType beanType, String name) {
+		ClassName typeName = PropertiesBinderCodeGenerator.className(beanType.type);
+		ClassName serializerName = ClassName.bestGuess(STATIC_JACKSON_MODULE).nestedClass(name);
+		CodeBlock.Builder serializeProperties = CodeBlock.builder();
+		for (Property property : beanType.properties) {
+			serializeProperties.addStatement("writeField($S, value.$N(), gen, provider)", property.name, property.accessor.getName());
+		}
+		return TypeSpec.classBuilder(serializerName)
+				.addModifiers(Modifier.STATIC, Modifier.FINAL)
+				.superclass(ParameterizedTypeName.get(PROPERTY_SERIALIZER, typeName))
+				.addMethod(MethodSpec.constructorBuilder()
+						.addParameter(boolean.class, "nonNull")
+						.addParameter(NAME_TRANSFORMER, "unwrapper")
+						.addStatement("super($T.class, nonNull, unwrapper)", typeName)
+						.build())
+				.addMethod(MethodSpec.methodBuilder("create")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PROTECTED)
+						.returns(ParameterizedTypeName.get(PROPERTY_SERIALIZER, typeName))
+						.addParameter(boolean.class, "nonNull")
+						.addParameter(NAME_TRANSFORMER, "unwrapper")
+						.addStatement("return new $T(nonNull, unwrapper)", serializerName)
+						.build())
+				.addMethod(MethodSpec.methodBuilder("serializeProperties")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PROTECTED)
+						.addParameter(typeName, "value")
+						.addParameter(JSON_GENERATOR, "gen")
+						.addParameter(SERIALIZER_PROVIDER, "provider")
+						.addException(IOException.class)
+						.addCode(serializeProperties.build())
+						.build())
+				.build();
+	}
+
+	private static TypeSpec createDeserializer(BeanType beanType, String name) {
+		ClassName typeName = PropertiesBinderCodeGenerator.className(beanType.type);
+		CodeBlock.Builder deserializeProperty = CodeBlock.builder().beginControlFlow("switch (name)");
+		for (Property property : beanType.properties) {
+			deserializeProperty.add("case $S:\n", property.name).indent()
+					.addStatement("bean.$N(p.hasToken($T.VALUE_NULL) ? $L : ctxt.readValue(p, $L))",
+							property.accessor.getName(), JSON_TOKEN, getNullValue(property.descriptor), property.valueType)
+					.addStatement("return true")
+					.unindent();
+		}
+		deserializeProperty.addStatement("default: return false").endControlFlow();
+		return TypeSpec.classBuilder(name)
+				.addModifiers(Modifier.STATIC, Modifier.FINAL)
+				.superclass(ParameterizedTypeName.get(PROPERTY_DESERIALIZER, typeName))
+				.addMethod(MethodSpec.constructorBuilder()
+						.addStatement("super($T.class)", typeName)
+						.build())
+				.addMethod(MethodSpec.methodBuilder("createBean")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PROTECTED)
+						.returns(typeName)
+						.addStatement("return new $T()", typeName)
+						.build())
+				.addMethod(MethodSpec.methodBuilder("deserializeProperty")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PROTECTED)
+						.returns(boolean.class)
+						.addParameter(typeName, "bean")
+						.addParameter(String.class, "name")
+						.addParameter(JSON_PARSER, "p")
+						.addParameter(DESERIALIZATION_CONTEXT, "ctxt")
+						.addException(IOException.class)
+						.addCode(deserializeProperty.build())
+						.build())
+				.build();
+	}
+
+	// Jackson sets primitive properties to their default value for null values
+	private static String getNullValue(String descriptor) {
+		switch (descriptor) {
+		case "Z":
+			return "false";
+		case "B":
+			return "(byte) 0";
+		case "C":
+			return "'\\0'";
+		case "S":
+			return "(short) 0";
+		case "I":
+			return "0";
+		case "J":
+			return "0L";
+		case "F":
+			return "0F";
+		case "D":
+			return "0D";
+		default:
+			return "null";
+		}
+	}
+
+	static class BeanType {
+
+		final Type type;
+
+		final List<Property> properties;
+
+		BeanType(Type type, List<Property> properties) {
+			this.type = type;
+			this.properties = properties;
+		}
+	}
+
+	static class Property {
+
+		final String name;
+
+		final Method accessor;
+
+		final String descriptor;
+
+		// The types referenced by the value type of the property
+		final List<Type> valueTypes = new ArrayList<>();
+
+		CodeBlock valueType;
+
+		Property(String name, Method accessor) {
+			this(name, accessor, null);
+		}
+
+		Property(String name, Method accessor, String descriptor) {
+			this.name = name;
+			this.accessor = accessor;
+			this.descriptor = descriptor;
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+
+/**
+ * Find at build time the classes of the application that declare {@code @KafkaListener} methods or are annotated
+ * with {@code @KafkaListener}, directly or through composed annotations. The generated
+ * {@code org.springframework.aot.StaticKafkaListenerAnnotationBeanPostProcessor} extends the
+ * {@code KafkaListenerAnnotationBeanPostProcessor} registered by {@code @EnableKafka} and only lets it look for
+ * listener methods in the beans whose class hierarchy may declare listeners, instead of introspecting the methods
+ * of every bean.
+ * <p>A bean is known to declare no listener when all its superclasses and interfaces are classes of the application
+ * that do not declare listeners, or JDK and Spring classes. The packages of the application are those of its
+ * annotated classes, the only ones that may declare listeners.
+ */
+class KafkaListenerCodeGenerator {
+
+	static final String STATIC_KAFKA_LISTENER_ANNOTATION_BEAN_POST_PROCESSOR = "org.springframework.aot.StaticKafkaListenerAnnotationBeanPostProcessor";
+
+	static final String KAFKA_LISTENER_ANNOTATION_BEAN_POST_PROCESSOR = "org.springframework.kafka.annotation.KafkaListenerAnnotationBeanPostProcessor";
+
+	static final String AT_KAFKA_LISTENER = "Lorg/springframework/kafka/annotation/KafkaListener;";
+
+	static final String AT_KAFKA_LISTENERS = "Lorg/springframework/kafka/annotation/KafkaListeners;";
+
+	// The packages whose classes are known not to declare listeners
+	private static final String[] LIBRARY_PACKAGES = { "java.", "javax.", "jdk.", "kotlin.", "org.springframework." };
+
+	private static final TypeName CLASS = ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+
+	private static final ClassName AOP_UTILS = ClassName.get("org.springframework.aop.support", "AopUtils");
+
+	private static final ClassName CLASS_UTILS = ClassName.get("org.springframework.util", "ClassUtils");
+
+	private static final ClassName BEANS_EXCEPTION = ClassName.get("org.springframework.beans", "BeansException");
+
+	private final Set<String> listenerTypes = new ConcurrentSkipListSet<>();
+
+	private final Set<String> applicationPackages = new ConcurrentSkipListSet<>();
+
+	// Whether each annotation type is a listener annotation, as the classes are visited concurrently
+	private final Map<String, Boolean> listenerAnnotations = new ConcurrentHashMap<>();
+
+	/**
+	 * Record an annotated class of the application, along with its package.
+	 * @param type an annotated type of the application
+	 * @return true if the type declares listeners
+	 */
+	public boolean addType(Type type) {
+		String dottedName = type.getDottedName();
+		int lastDot = dottedName.lastIndexOf('.');
+		this.applicationPackages.add(lastDot == -1 ? "" : dottedName.substring(0, lastDot));
+		if (type.isAnnotation() || !declaresListeners(type)) {
+			return false;
+		}
+		this.listenerTypes.add(dottedName);
+		return true;
+	}
+
+	public boolean hasListenerTypes() {
+		return !this.listenerTypes.isEmpty();
+	}
+
+	/**
+	 * @return the dotted names of the classes that declare listeners
+	 */
+	public Set<String> getListenerTypeNames() {
+		return Collections.unmodifiableSet(this.listenerTypes);
+	}
+
+	public JavaFile generateStaticKafkaListenerAnnotationBeanPostProcessor() {
+		MethodSpec.Builder isListenerType = MethodSpec.methodBuilder("isListenerType")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(String.class, "className");
+		if (!this.listenerTypes.isEmpty()) {
+			isListenerType.beginControlFlow("switch (className)");
+			for (String listenerType : this.listenerTypes) {
+				isListenerType.addCode("case $S:\n", listenerType);
+			}
+			isListenerType.addCode("$>")
+					.addStatement("return true")
+					.addCode("$<")
+					.endControlFlow();
+		}
+		isListenerType.addStatement("return false");
+		MethodSpec.Builder isApplicationPackage = MethodSpec.methodBuilder("isApplicationPackage")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(String.class, "packageName");
+		if (!this.applicationPackages.isEmpty()) {
+			isApplicationPackage.beginControlFlow("switch (packageName)");
+			for (String applicationPackage : new TreeSet<>(this.applicationPackages)) {
+				isApplicationPackage.addCode("case $S:\n", applicationPackage);
+			}
+			isApplicationPackage.addCode("$>")
+					.addStatement("return true")
+					.addCode("$<")
+					.endControlFlow();
+		}
+		isApplicationPackage.addStatement("return false");
+		MethodSpec.Builder isLibraryPackage = MethodSpec.methodBuilder("isLibraryPackage")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(String.class, "packageName");
+		for (String libraryPackage : LIBRARY_PACKAGES) {
+			isLibraryPackage.beginControlFlow("if (packageName.startsWith($S) || packageName.equals($S))", libraryPackage,
+					libraryPackage.substring(0, libraryPackage.length() - 1))
+					.addStatement("return true")
+					.endControlFlow();
+		}
+		isLibraryPackage.addStatement("return false");
+		TypeSpec staticKafkaListenerAnnotationBeanPostProcessor = TypeSpec.classBuilder(ClassName.bestGuess(STATIC_KAFKA_LISTENER_ANNOTATION_BEAN_POST_PROCESSOR))
+				.addModifiers(Modifier.PUBLIC)
+				.superclass(ParameterizedTypeName.get(ClassName.bestGuess(KAFKA_LISTENER_ANNOTATION_BEAN_POST_PROCESSOR), TypeName.OBJECT, TypeName.OBJECT))
+				.addMethod(MethodSpec.methodBuilder("postProcessAfterInitialization")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.returns(Object.class)
+						.addParameter(Object.class, "bean")
+						.addParameter(String.class, "beanName")
+						.addException(BEANS_EXCEPTION)
+						.beginControlFlow("if (declaresNoListeners($T.getUserClass($T.getTargetClass(bean))))", CLASS_UTILS, AOP_UTILS)
+						.addStatement("return bean")
+						.endControlFlow()
+						.addStatement("return super.postProcessAfterInitialization(bean, beanName)")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("declaresNoListeners")
+						.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+						.returns(boolean.class)
+						.addParameter(CLASS, "clazz")
+						.beginControlFlow("for ($T current = clazz; current != null; current = current.getSuperclass())", CLASS)
+						.beginControlFlow("if (!isKnownType(current))")
+						.addStatement("return false")
+						.endControlFlow()
+						.endControlFlow()
+						.beginControlFlow("for ($T itf : $T.getAllInterfacesForClassAsSet(clazz))", CLASS, CLASS_UTILS)
+						.beginControlFlow("if (!isKnownType(itf))")
+						.addStatement("return false")
+						.endControlFlow()
+						.endControlFlow()
+						.addStatement("return true")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("isKnownType")
+						.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+						.returns(boolean.class)
+						.addParameter(CLASS, "clazz")
+						.addStatement("String packageName = $T.getPackageName(clazz)", CLASS_UTILS)
+						// Application packages come first, an application may live under a library package
+						.addStatement("return isApplicationPackage(packageName) ? !isListenerType(clazz.getName()) : isLibraryPackage(packageName)")
+						.build())
+				.addMethod(isListenerType.build())
+				.addMethod(isApplicationPackage.build())
+				.addMethod(isLibraryPackage.build())
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(ClassName.bestGuess(STATIC_KAFKA_LISTENER_ANNOTATION_BEAN_POST_PROCESSOR).packageName(), staticKafkaListenerAnnotationBeanPostProcessor).build();
+	}
+
+	// The bean post processor finds the listener annotations on the class and on its methods, composed or repeated
+	private boolean declaresListeners(Type type) {
+		if (hasListenerAnnotation(type.getAnnotations())) {
+			return true;
+		}
+		for (Method method : type.getMethods()) {
+			if (hasListenerAnnotation(method.getAnnotationTypes())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasListenerAnnotation(List<Type> annotationTypes) {
+		for (Type annotationType : annotationTypes) {
+			if (annotationType != null && isListenerAnnotation(annotationType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isListenerAnnotation(Type annotationType) {
+		String descriptor = annotationType.getDescriptor();
+		if (descriptor.equals(AT_KAFKA_LISTENER) || descriptor.equals(AT_KAFKA_LISTENERS)) {
+			return true;
+		}
+		return this.listenerAnnotations.computeIfAbsent(descriptor,
+				key -> annotationType.isMetaAnnotated(Type.fromLdescriptorToSlashed(AT_KAFKA_LISTENER)));
+	}
+}
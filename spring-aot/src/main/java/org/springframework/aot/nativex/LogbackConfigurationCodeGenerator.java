@@ -0,0 +1,729 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.lang.model.element.Modifier;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+import org.springframework.nativex.type.TypeSystem;
+import org.springframework.util.StringUtils;
+
+/**
+ * Generate the code equivalent to a Logback configuration file, as Joran and the Spring Boot extensions
+ * would apply it: each appender and nested component is instantiated, configured through direct setter calls
+ * and started, loggers are given their level, additivity and appenders. Variable references are kept and resolved
+ * at runtime against the logger context, system properties and environment variables. The code is generated in
+ * a {@code org.springframework.aot.StaticLogbackConfiguration} class that the runtime tries before parsing the file.
+ * <p>Files are only handled when all their elements have a code equivalent: {@code <if>}, {@code <define>},
+ * {@code <jmxConfigurator>}, status listeners, turbo filters, configuration scanning, includes of files or URLs and
+ * properties loaded from files are left to Joran.
+ */
+class LogbackConfigurationCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(LogbackConfigurationCodeGenerator.class);
+
+	static final String STATIC_LOGBACK_CONFIGURATION = "org.springframework.aot.StaticLogbackConfiguration";
+
+	/**
+	 * The configuration files looked for at the root of the classpath, as Spring Boot and Logback do.
+	 */
+	static final String[] CONFIGURATION_FILES = new String[] { "logback-spring.xml", "logback.xml" };
+
+	// Logback is not a compile dependency of this module
+	private static final ClassName LOGGER_CONTEXT = ClassName.get("ch.qos.logback.classic", "LoggerContext");
+
+	private static final ClassName LOGGER = ClassName.get("ch.qos.logback.classic", "Logger");
+
+	private static final ClassName LEVEL = ClassName.get("ch.qos.logback.classic", "Level");
+
+	private static final ClassName APPENDER = ClassName.get("ch.qos.logback.core", "Appender");
+
+	private static final ClassName CORE_CONSTANTS = ClassName.get("ch.qos.logback.core", "CoreConstants");
+
+	private static final ClassName APPENDER_ATTACHABLE = ClassName.get("ch.qos.logback.core.spi", "AppenderAttachable");
+
+	private static final ClassName OPTION_HELPER = ClassName.get("ch.qos.logback.core.util", "OptionHelper");
+
+	private static final TypeName APPENDERS_MAP = ParameterizedTypeName.get(ClassName.get(Map.class), ClassName.get(String.class), APPENDER);
+
+	// Components are generic on the event type, which the configuration file does not give
+	private static final AnnotationSpec SUPPRESS_RAW_TYPES_AND_UNCHECKED = AnnotationSpec.builder(SuppressWarnings.class)
+			.addMember("value", "{$S, $S}", "rawtypes", "unchecked").build();
+
+	private static final String CONTEXT_AWARE = "ch/qos/logback/core/spi/ContextAware";
+
+	private static final String APPENDER_ATTACHABLE_TYPE = "ch/qos/logback/core/spi/AppenderAttachable";
+
+	private static final String LIFE_CYCLE = "ch/qos/logback/core/spi/LifeCycle";
+
+	private static final String APPENDER_TYPE = "ch/qos/logback/core/Appender";
+
+	private static final String NO_AUTO_START = "Lch/qos/logback/core/joran/spi/NoAutoStart;";
+
+	private static final String DEFAULT_CLASS = "Lch/qos/logback/core/joran/spi/DefaultClass;";
+
+	// The rules of DefaultNestedComponentRules that do not map to the concrete parameter type of the property
+	private static final String[][] DEFAULT_NESTED_COMPONENTS = new String[][] {
+			{ "ch/qos/logback/core/AppenderBase", "layout", "ch/qos/logback/classic/PatternLayout" },
+			{ "ch/qos/logback/core/UnsynchronizedAppenderBase", "layout", "ch/qos/logback/classic/PatternLayout" },
+			{ "ch/qos/logback/core/AppenderBase", "encoder", "ch/qos/logback/classic/encoder/PatternLayoutEncoder" },
+			{ "ch/qos/logback/core/UnsynchronizedAppenderBase", "encoder", "ch/qos/logback/classic/encoder/PatternLayoutEncoder" } };
+
+	private final TypeSystem typeSystem;
+
+	private final ClassLoader resourceLoader;
+
+	private final Map<String, MethodSpec> configureMethods = new LinkedHashMap<>();
+
+	/**
+	 * @param typeSystem the type system used to resolve the components of the configuration
+	 * @param resourceLoader the class loader used to load the configuration files and the resources they include
+	 */
+	LogbackConfigurationCodeGenerator(TypeSystem typeSystem, ClassLoader resourceLoader) {
+		this.typeSystem = typeSystem;
+		this.resourceLoader = resourceLoader;
+	}
+
+	/**
+	 * Generate the configuration code for a configuration file, if it exists and is eligible.
+	 * @param resourceName the name of the configuration file at the root of the classpath
+	 * @return true if configuration code was generated for the file
+	 */
+	public boolean addConfigurationFile(String resourceName) {
+		URL url = this.resourceLoader.getResource(resourceName);
+		if (url == null) {
+			return false;
+		}
+		try {
+			Element configuration = parse(url);
+			if (!configuration.getTagName().equalsIgnoreCase("configuration")) {
+				throw new IneligibleConfigurationException("the root element is <" + configuration.getTagName() + ">");
+			}
+			checkConfigurationAttributes(configuration);
+			Generation generation = new Generation();
+			generation.processConfiguration(configuration, new HashSet<>(), generation.code);
+			this.configureMethods.put(resourceName, createConfigureMethod(resourceName, generation.code.build()));
+		}
+		catch (IneligibleConfigurationException ex) {
+			logger.debug("Not generating configuration code for " + resourceName + ": " + ex.getMessage());
+			return false;
+		}
+		catch (IOException | ParserConfigurationException | SAXException ex) {
+			logger.debug("Not generating configuration code for " + resourceName + ", it cannot be parsed: " + ex.getMessage());
+			return false;
+		}
+		logger.debug("Generating configuration code for " + resourceName);
+		return true;
+	}
+
+	public boolean hasConfigurations() {
+		return !this.configureMethods.isEmpty();
+	}
+
+	public JavaFile generateStaticLogbackConfiguration() {
+		MethodSpec.Builder configure = MethodSpec.methodBuilder("configure")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(LOGGER_CONTEXT, "context")
+				.addParameter(URL.class, "url")
+				.addParameter(Environment.class, "environment")
+				.addJavadoc("Apply the configuration generated for the configuration file at the given URL, if any.\n")
+				.addJavadoc("@param environment the environment of the application, null when not configured by Spring Boot\n")
+				.addJavadoc("@return true if the configuration was applied\n");
+		// Only classpath resources of the native image are known to be the files the code was generated from
+		configure.beginControlFlow("if (!$S.equals(url.getProtocol()))", "resource")
+				.addStatement("return false")
+				.endControlFlow();
+		configure.addStatement("$T name = url.getPath().startsWith($S) ? url.getPath().substring(1) : url.getPath()", String.class, "/");
+		for (Map.Entry<String, MethodSpec> entry : this.configureMethods.entrySet()) {
+			configure.beginControlFlow("if ($S.equals(name))", entry.getKey())
+					.addStatement("$N(context, environment)", entry.getValue())
+					.addStatement("return true")
+					.endControlFlow();
+		}
+		configure.addStatement("return false");
+		TypeSpec staticLogbackConfiguration = TypeSpec.classBuilder(ClassName.bestGuess(STATIC_LOGBACK_CONFIGURATION))
+				.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+				.addMethod(configure.build())
+				.addMethods(this.configureMethods.values())
+				.addMethod(createToLevelMethod())
+				.addMethod(createAddConversionRuleMethod())
+				.addMethod(createAttachAppenderMethod())
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(ClassName.bestGuess(STATIC_LOGBACK_CONFIGURATION).packageName(), staticLogbackConfiguration).build();
+	}
+
+	private MethodSpec createConfigureMethod(String resourceName, CodeBlock body) {
+		StringBuilder methodName = new StringBuilder("configure");
+		for (String part : StringUtils.stripFilenameExtension(resourceName).split("[^A-Za-z0-9]+")) {
+			methodName.append(StringUtils.capitalize(part));
+		}
+		return MethodSpec.methodBuilder(methodName.toString())
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.addAnnotation(SUPPRESS_RAW_TYPES_AND_UNCHECKED)
+				.addParameter(LOGGER_CONTEXT, "context")
+				.addParameter(Environment.class, "environment")
+				.addStatement("$T appenders = new $T<>()", APPENDERS_MAP, HashMap.class)
+				.addCode(body)
+				.build();
+	}
+
+	// As Joran does, INHERITED and NULL unset the level of a logger
+	private MethodSpec createToLevelMethod() {
+		return MethodSpec.methodBuilder("toLevel")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(LEVEL)
+				.addParameter(String.class, "value")
+				.beginControlFlow("if ($S.equalsIgnoreCase(value) || $S.equalsIgnoreCase(value))", "INHERITED", "NULL")
+				.addStatement("return null")
+				.endControlFlow()
+				.addStatement("return $T.toLevel(value)", LEVEL)
+				.build();
+	}
+
+	private MethodSpec createAddConversionRuleMethod() {
+		TypeName ruleRegistryType = ParameterizedTypeName.get(Map.class, String.class, String.class);
+		return MethodSpec.methodBuilder("addConversionRule")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build())
+				.addParameter(LOGGER_CONTEXT, "context")
+				.addParameter(String.class, "conversionWord")
+				.addParameter(String.class, "converterClass")
+				.addStatement("$T ruleRegistry = ($T) context.getObject($T.PATTERN_RULE_REGISTRY)", ruleRegistryType, ruleRegistryType, CORE_CONSTANTS)
+				.beginControlFlow("if (ruleRegistry == null)")
+				.addStatement("ruleRegistry = new $T<>()", HashMap.class)
+				.addStatement("context.putObject($T.PATTERN_RULE_REGISTRY, ruleRegistry)", CORE_CONSTANTS)
+				.endControlFlow()
+				.addStatement("ruleRegistry.put(conversionWord, converterClass)")
+				.build();
+	}
+
+	private MethodSpec createAttachAppenderMethod() {
+		return MethodSpec.methodBuilder("attachAppender")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.addAnnotation(SUPPRESS_RAW_TYPES_AND_UNCHECKED)
+				.addParameter(APPENDER_ATTACHABLE, "target")
+				.addParameter(APPENDERS_MAP, "appenders")
+				.addParameter(String.class, "name")
+				.addStatement("$T appender = appenders.get(name)", APPENDER)
+				.beginControlFlow("if (appender == null)")
+				.addStatement("throw new $T(\"Could not find an appender named [\" + name + \"]\")", IllegalStateException.class)
+				.endControlFlow()
+				.addStatement("target.addAppender(appender)")
+				.build();
+	}
+
+	private Element parse(URL url) throws IOException, ParserConfigurationException, SAXException {
+		try (InputStream inputStream = url.openStream()) {
+			return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(inputStream).getDocumentElement();
+		}
+	}
+
+	private void checkConfigurationAttributes(Element configuration) {
+		NamedNodeMap attributes = configuration.getAttributes();
+		for (int i = 0; i < attributes.getLength(); i++) {
+			Node attribute = attributes.item(i);
+			String name = attribute.getNodeName();
+			if ((name.equals("debug") || name.equals("scan") || name.equals("packagingData"))
+					&& attribute.getNodeValue().trim().equalsIgnoreCase("false")) {
+				continue;
+			}
+			if (name.equals("xmlns") || name.startsWith("xmlns:") || name.contains(":")) {
+				continue;
+			}
+			throw new IneligibleConfigurationException("the " + name + " configuration attribute is not supported");
+		}
+	}
+
+	private static List<Element> childElements(Element element) {
+		List<Element> children = new ArrayList<>();
+		NodeList nodes = element.getChildNodes();
+		for (int i = 0; i < nodes.getLength(); i++) {
+			if (nodes.item(i) instanceof Element) {
+				children.add((Element) nodes.item(i));
+			}
+		}
+		return children;
+	}
+
+	private static String attribute(Element element, String name) {
+		return element.hasAttribute(name) ? element.getAttribute(name) : null;
+	}
+
+	private static String requiredAttribute(Element element, String name) {
+		String value = attribute(element, name);
+		if (!StringUtils.hasText(value)) {
+			throw new IneligibleConfigurationException("<" + element.getTagName() + "> has no " + name + " attribute");
+		}
+		return value;
+	}
+
+	private static String literalAttribute(Element element, String name) {
+		String value = requiredAttribute(element, name).trim();
+		if (value.contains("${")) {
+			throw new IneligibleConfigurationException("the " + name + " attribute of <" + element.getTagName() + "> uses variables");
+		}
+		return value;
+	}
+
+	/**
+	 * @return the code of the value of an attribute or element body, resolving the variables it references at runtime
+	 */
+	private static CodeBlock value(String value) {
+		if (value.contains("${")) {
+			return CodeBlock.of("$T.substVars($S, context)", OPTION_HELPER, value);
+		}
+		return CodeBlock.of("$S", value);
+	}
+
+	private static boolean isAssignableTo(TypeSystem typeSystem, Type type, String slashedName) {
+		if (type == null) {
+			return false;
+		}
+		if (type.getName().equals(slashedName)) {
+			return true;
+		}
+		for (String interfaceName : type.getInterfacesStrings()) {
+			if (isAssignableTo(typeSystem, typeSystem.resolveSlashed(interfaceName, true), slashedName)) {
+				return true;
+			}
+		}
+		String superclassName = type.getSuperclassString();
+		return superclassName != null && isAssignableTo(typeSystem, typeSystem.resolveSlashed(superclassName, true), slashedName);
+	}
+
+	/**
+	 * Tracks the code and variables generated for one configuration file.
+	 */
+	private class Generation {
+
+		private final CodeBlock.Builder code = CodeBlock.builder();
+
+		private final Set<String> appenderNames = new HashSet<>();
+
+		private int variableCount = 0;
+
+		private String newVariable(String simpleName) {
+			return Introspector.decapitalize(simpleName.substring(simpleName.lastIndexOf('$') + 1)) + (++this.variableCount);
+		}
+
+		void processConfiguration(Element parent, Set<String> includedResources, CodeBlock.Builder code) {
+			for (Element element : childElements(parent)) {
+				switch (element.getTagName().toLowerCase()) {
+				case "property":
+				case "variable":
+					processProperty(element, code);
+					break;
+				case "springproperty":
+					processSpringProperty(element, code);
+					break;
+				case "springprofile":
+					processSpringProfile(element, code, nested -> processConfiguration(element, includedResources, nested));
+					break;
+				case "conversionrule":
+					code.addStatement("addConversionRule(context, $S, $S)", literalAttribute(element, "conversionWord"),
+							literalAttribute(element, "converterClass"));
+					break;
+				case "contextname":
+					code.addStatement("context.setName($L)", value(element.getTextContent().trim()));
+					break;
+				case "appender":
+					processAppender(element, code);
+					break;
+				case "logger":
+					processLogger(element, false, code);
+					break;
+				case "root":
+					processLogger(element, true, code);
+					break;
+				case "include":
+					processInclude(element, includedResources, code);
+					break;
+				default:
+					throw new IneligibleConfigurationException("<" + element.getTagName() + "> is not supported");
+				}
+			}
+		}
+
+		private void processProperty(Element element, CodeBlock.Builder code) {
+			if (element.hasAttribute("file") || element.hasAttribute("resource")) {
+				throw new IneligibleConfigurationException("properties loaded from a file or resource are not supported");
+			}
+			String value = requiredAttribute(element, "value").trim();
+			if (value.indexOf('\\') != -1) {
+				throw new IneligibleConfigurationException("the value of property " + element.getAttribute("name") + " is escaped");
+			}
+			setProperty(element, value(value), code);
+		}
+
+		// As the Spring Boot SpringPropertyAction does, the default value is used when there is no environment
+		private void processSpringProperty(Element element, CodeBlock.Builder code) {
+			String source = literalAttribute(element, "source");
+			String defaultValue = attribute(element, "defaultValue");
+			CodeBlock defaultValueCode = (defaultValue != null) ? CodeBlock.of("$S", defaultValue) : CodeBlock.of("null");
+			setProperty(element, CodeBlock.of("(environment != null) ? environment.getProperty($S, $L) : $L", source,
+					defaultValueCode, defaultValueCode), code);
+		}
+
+		private void setProperty(Element element, CodeBlock value, CodeBlock.Builder code) {
+			String name = requiredAttribute(element, "name").trim();
+			String scope = attribute(element, "scope");
+			if (scope != null && scope.trim().equalsIgnoreCase("system")) {
+				code.addStatement("$T.setProperty($L, $L)", System.class, value(name), value);
+			}
+			else {
+				// Local properties are visible to the variables of the configuration through the context
+				code.addStatement("context.putProperty($L, $L)", value(name), value);
+			}
+		}
+
+		private void processSpringProfile(Element element, CodeBlock.Builder code, Consumer<CodeBlock.Builder> nested) {
+			String[] profiles = StringUtils.trimArrayElements(
+					StringUtils.commaDelimitedListToStringArray(literalAttribute(element, "name")));
+			if (profiles.length == 0) {
+				return;
+			}
+			CodeBlock profilesCode = CodeBlock.join(Arrays.stream(profiles).map(profile -> CodeBlock.of("$S", profile))
+					.collect(Collectors.toList()), ", ");
+			code.beginControlFlow("if (environment != null && environment.acceptsProfiles($T.of($L)))", Profiles.class, profilesCode);
+			nested.accept(code);
+			code.endControlFlow();
+		}
+
+		private void processInclude(Element element, Set<String> includedResources, CodeBlock.Builder code) {
+			if (element.hasAttribute("file") || element.hasAttribute("url")) {
+				throw new IneligibleConfigurationException("includes of files or URLs are not supported");
+			}
+			String resource = literalAttribute(element, "resource");
+			boolean optional = "true".equalsIgnoreCase(attribute(element, "optional"));
+			URL url = resourceLoader.getResource(resource);
+			if (url == null) {
+				if (optional) {
+					return;
+				}
+				throw new IneligibleConfigurationException("included resource " + resource + " cannot be found");
+			}
+			if (!includedResources.add(resource)) {
+				throw new IneligibleConfigurationException("resource " + resource + " is included recursively");
+			}
+			Element included;
+			try {
+				included = parse(url);
+			}
+			catch (IOException | ParserConfigurationException | SAXException ex) {
+				throw new IneligibleConfigurationException("included resource " + resource + " cannot be parsed: " + ex.getMessage());
+			}
+			if (!included.getTagName().equalsIgnoreCase("included")) {
+				throw new IneligibleConfigurationException("the root element of included resource " + resource + " is <" + included.getTagName() + ">");
+			}
+			processConfiguration(included, includedResources, code);
+			includedResources.remove(resource);
+		}
+
+		private void processAppender(Element element, CodeBlock.Builder code) {
+			String name = literalAttribute(element, "name");
+			Type appenderType = resolveInstantiableType(element, literalAttribute(element, "class"));
+			if (!isAssignableTo(typeSystem, appenderType, APPENDER_TYPE)) {
+				throw new IneligibleConfigurationException(appenderType.getDottedName() + " is not an appender");
+			}
+			String variable = newVariable(appenderType.getSimpleName());
+			code.add("// Appender $L\n", name);
+			code.addStatement("$T $L = new $T()", PropertiesBinderCodeGenerator.className(appenderType), variable,
+					PropertiesBinderCodeGenerator.className(appenderType));
+			code.addStatement("$L.setContext(context)", variable);
+			code.addStatement("$L.setName($S)", variable, name);
+			processComponent(element, variable, appenderType, code);
+			code.addStatement("$L.start()", variable);
+			code.addStatement("appenders.put($S, $L)", name, variable);
+			this.appenderNames.add(name);
+		}
+
+		private void processLogger(Element element, boolean root, CodeBlock.Builder code) {
+			String variable = newVariable(root ? "rootLogger" : "logger");
+			if (root) {
+				code.addStatement("$T $L = context.getLogger($T.ROOT_LOGGER_NAME)", LOGGER, variable, LOGGER);
+			}
+			else {
+				code.addStatement("$T $L = context.getLogger($L)", LOGGER, variable, value(requiredAttribute(element, "name").trim()));
+			}
+			String level = attribute(element, "level");
+			if (StringUtils.hasText(level)) {
+				if (root) {
+					code.addStatement("$L.setLevel($T.toLevel($L))", variable, LEVEL, value(level.trim()));
+				}
+				else {
+					code.addStatement("$L.setLevel(toLevel($L))", variable, value(level.trim()));
+				}
+			}
+			String additivity = attribute(element, "additivity");
+			if (!root && StringUtils.hasText(additivity)) {
+				code.addStatement("$L.setAdditive($T.toBoolean($L, true))", variable, OPTION_HELPER, value(additivity.trim()));
+			}
+			processLoggerChildren(element, variable, code);
+		}
+
+		private void processLoggerChildren(Element parent, String variable, CodeBlock.Builder code) {
+			for (Element element : childElements(parent)) {
+				switch (element.getTagName().toLowerCase()) {
+				case "level":
+					code.addStatement("$L.setLevel(toLevel($L))", variable, value(requiredAttribute(element, "value").trim()));
+					break;
+				case "appender-ref":
+					processAppenderRef(element, variable, code);
+					break;
+				case "springprofile":
+					processSpringProfile(element, code, nested -> processLoggerChildren(element, variable, nested));
+					break;
+				default:
+					throw new IneligibleConfigurationException("<" + element.getTagName() + "> is not supported in <" + parent.getTagName() + ">");
+				}
+			}
+		}
+
+		private void processAppenderRef(Element element, String variable, CodeBlock.Builder code) {
+			String ref = literalAttribute(element, "ref");
+			if (!this.appenderNames.contains(ref)) {
+				throw new IneligibleConfigurationException("appender " + ref + " is referenced before being defined");
+			}
+			code.addStatement("attachAppender($L, appenders, $S)", variable, ref);
+		}
+
+		/**
+		 * Configure a component from the nested elements of its element, as the Joran implicit actions do.
+		 */
+		private void processComponent(Element parent, String variable, Type type, CodeBlock.Builder code) {
+			for (Element element : childElements(parent)) {
+				String name = element.getTagName();
+				if (name.equalsIgnoreCase("springProfile")) {
+					processSpringProfile(element, code, nested -> processComponent(element, variable, type, nested));
+					continue;
+				}
+				if (name.equalsIgnoreCase("appender-ref")) {
+					if (!isAssignableTo(typeSystem, type, APPENDER_ATTACHABLE_TYPE)) {
+						throw new IneligibleConfigurationException(type.getDottedName() + " does not accept appenders");
+					}
+					processAppenderRef(element, variable, code);
+					continue;
+				}
+				// Joran uses an adder in preference to a setter
+				Method method = findPropertyMethod(type, "add" + StringUtils.capitalize(name));
+				if (method == null) {
+					method = findPropertyMethod(type, "set" + StringUtils.capitalize(name));
+				}
+				if (method == null) {
+					throw new IneligibleConfigurationException("no property " + name + " on " + type.getDottedName());
+				}
+				org.objectweb.asm.Type parameterType = org.objectweb.asm.Type.getArgumentTypes(method.getDesc())[0];
+				CodeBlock basicValue = basicValue(parameterType, element);
+				if (basicValue != null) {
+					if (!childElements(element).isEmpty()) {
+						throw new IneligibleConfigurationException("<" + name + "> of " + type.getDottedName() + " has nested elements");
+					}
+					code.addStatement("$L.$L($L)", variable, method.getName(), basicValue);
+				}
+				else {
+					processNestedComponent(element, variable, type, method, parameterType, code);
+				}
+			}
+		}
+
+		private void processNestedComponent(Element element, String hostVariable, Type hostType, Method method,
+				org.objectweb.asm.Type parameterType, CodeBlock.Builder code) {
+			String name = element.getTagName();
+			Type componentType;
+			String className = attribute(element, "class");
+			if (StringUtils.hasText(className)) {
+				componentType = resolveInstantiableType(element, literalAttribute(element, "class"));
+			}
+			else {
+				componentType = resolveInstantiableType(element, getDefaultComponentClassName(hostType, name, method, parameterType));
+			}
+			if (!isAssignableTo(typeSystem, componentType, parameterType.getInternalName())) {
+				throw new IneligibleConfigurationException(componentType.getDottedName() + " is not a valid " + name + " for " + hostType.getDottedName());
+			}
+			String variable = newVariable(componentType.getSimpleName());
+			code.addStatement("$T $L = new $T()", PropertiesBinderCodeGenerator.className(componentType), variable,
+					PropertiesBinderCodeGenerator.className(componentType));
+			if (isAssignableTo(typeSystem, componentType, CONTEXT_AWARE)) {
+				code.addStatement("$L.setContext(context)", variable);
+			}
+			Method parentSetter = findPropertyMethod(componentType, "setParent");
+			if (parentSetter != null) {
+				org.objectweb.asm.Type parentType = org.objectweb.asm.Type.getArgumentTypes(parentSetter.getDesc())[0];
+				if (parentType.getSort() == org.objectweb.asm.Type.OBJECT
+						&& isAssignableTo(typeSystem, hostType, parentType.getInternalName())) {
+					code.addStatement("$L.setParent($L)", variable, hostVariable);
+				}
+			}
+			processComponent(element, variable, componentType, code);
+			if (isAssignableTo(typeSystem, componentType, LIFE_CYCLE) && !componentType.isAnnotated(NO_AUTO_START)) {
+				code.addStatement("$L.start()", variable);
+			}
+			code.addStatement("$L.$L($L)", hostVariable, method.getName(), variable);
+		}
+
+		/**
+		 * @return the class of a nested component without a class attribute, following the order of the Joran implicit rules
+		 */
+		private String getDefaultComponentClassName(Type hostType, String name, Method method, org.objectweb.asm.Type parameterType) {
+			for (Type type = hostType; type != null; type = (type.getSuperclassString() == null) ? null
+					: typeSystem.resolveSlashed(type.getSuperclassString(), true)) {
+				for (String[] rule : DEFAULT_NESTED_COMPONENTS) {
+					if (rule[0].equals(type.getName()) && rule[1].equalsIgnoreCase(name)) {
+						return rule[2].replace('/', '.');
+					}
+				}
+			}
+			AnnotationNode defaultClass = method.getAnnotation(DEFAULT_CLASS);
+			if (defaultClass != null && defaultClass.values != null) {
+				return ((org.objectweb.asm.Type) defaultClass.values.get(1)).getClassName();
+			}
+			Type type = (parameterType.getSort() == org.objectweb.asm.Type.OBJECT) ? typeSystem.resolveSlashed(parameterType.getInternalName(), true) : null;
+			if (type == null || type.isInterface() || type.isAbstract()) {
+				throw new IneligibleConfigurationException("<" + name + "> of " + hostType.getDottedName() + " has no class attribute");
+			}
+			return type.getDottedName();
+		}
+
+		private Type resolveInstantiableType(Element element, String className) {
+			Type type = typeSystem.resolveDotted(className, true);
+			if (type == null) {
+				throw new IneligibleConfigurationException("class " + className + " of <" + element.getTagName() + "> cannot be found");
+			}
+			Method constructor = type.getDefaultConstructor();
+			if (!PropertiesBinderCodeGenerator.isAccessible(type, "org.springframework.aot") || !type.isPublic() || type.isAbstract()
+					|| constructor == null || !constructor.isPublic()) {
+				throw new IneligibleConfigurationException(className + " cannot be instantiated from generated code");
+			}
+			return type;
+		}
+
+		/**
+		 * @return the code converting the body of an element to the parameter type, as StringToObjectConverter does,
+		 * or null if the type cannot be converted from a string
+		 */
+		private CodeBlock basicValue(org.objectweb.asm.Type parameterType, Element element) {
+			String body = element.getTextContent().trim();
+			// Resolved variables are trimmed too, as the converted value is
+			CodeBlock value = body.contains("${") ? CodeBlock.of("$L.trim()", value(body)) : value(body);
+			switch (parameterType.getSort()) {
+			case org.objectweb.asm.Type.INT:
+				return CodeBlock.of("$T.parseInt($L)", Integer.class, value);
+			case org.objectweb.asm.Type.LONG:
+				return CodeBlock.of("$T.parseLong($L)", Long.class, value);
+			case org.objectweb.asm.Type.FLOAT:
+				return CodeBlock.of("$T.parseFloat($L)", Float.class, value);
+			case org.objectweb.asm.Type.DOUBLE:
+				return CodeBlock.of("$T.parseDouble($L)", Double.class, value);
+			case org.objectweb.asm.Type.BOOLEAN:
+				return CodeBlock.of("$T.parseBoolean($L)", Boolean.class, value);
+			case org.objectweb.asm.Type.OBJECT:
+				break;
+			default:
+				throw new IneligibleConfigurationException("<" + element.getTagName() + "> has an unsupported type");
+			}
+			if (parameterType.getInternalName().equals("java/lang/String")) {
+				return value;
+			}
+			if (parameterType.getInternalName().equals("java/nio/charset/Charset")) {
+				return CodeBlock.of("$T.forName($L)", Charset.class, value);
+			}
+			Type type = typeSystem.resolveSlashed(parameterType.getInternalName(), true);
+			if (type == null) {
+				throw new IneligibleConfigurationException("type of <" + element.getTagName() + "> cannot be found");
+			}
+			boolean valueOf = !type.getMethods(m -> m.getName().equals("valueOf") && m.isStatic() && m.isPublic()
+					&& m.getDesc().startsWith("(Ljava/lang/String;)")).isEmpty();
+			if (!type.isEnum() && !valueOf) {
+				if (type.getPackageName().equals("java.lang")) {
+					throw new IneligibleConfigurationException("<" + element.getTagName() + "> cannot be converted to " + type.getDottedName());
+				}
+				return null;
+			}
+			if (!PropertiesBinderCodeGenerator.isAccessible(type, "org.springframework.aot")) {
+				throw new IneligibleConfigurationException(type.getDottedName() + " is not accessible from generated code");
+			}
+			return CodeBlock.of("$T.valueOf($L)", PropertiesBinderCodeGenerator.className(type), value);
+		}
+
+		/**
+		 * @return the public single argument method with the given name of the type or its superclasses, as introspection finds it
+		 */
+		private Method findPropertyMethod(Type type, String methodName) {
+			Map<String, Method> methods = new LinkedHashMap<>();
+			for (Type current = type; current != null; current = (current.getSuperclassString() == null) ? null
+					: typeSystem.resolveSlashed(current.getSuperclassString(), true)) {
+				for (Method method : current.getMethod(methodName)) {
+					if (method.isPublic() && !method.isStatic() && !method.isSynthetic() && method.getParameterCount() == 1) {
+						methods.putIfAbsent(method.getDesc().substring(0, method.getDesc().indexOf(')') + 1), method);
+					}
+				}
+			}
+			if (methods.size() > 1) {
+				throw new IneligibleConfigurationException(type.getDottedName() + " has several " + methodName + " methods");
+			}
+			return methods.isEmpty() ? null : methods.values().iterator().next();
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static class IneligibleConfigurationException extends RuntimeException {
+
+		IneligibleConfigurationException(String message) {
+			super(message);
+		}
+	}
+}
@@ -0,0 +1,657 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.tree.AnnotationNode;
+
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+
+/**
+ * Compute at build time the method security attributes declared with {@code @PreAuthorize} and {@code @Secured} by
+ * the classes of the application. The generated {@code org.springframework.aot.StaticMethodSecurityMetadataSource}
+ * extends the {@code DelegatingMethodSecurityMetadataSource} configured by {@code @EnableGlobalMethodSecurity} and
+ * returns these attributes from a {@code switch} on the method names, instead of finding the annotations of each
+ * method the first time it is invoked.
+ * <p>Only the expressions that {@link ExpressionCompiler} can compile are covered: they are turned into direct calls
+ * on the security expression root, so that they are neither parsed nor evaluated with SpEL.
+ */
+class MethodSecurityCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(MethodSecurityCodeGenerator.class);
+
+	static final String STATIC_METHOD_SECURITY_METADATA_SOURCE = "org.springframework.aot.StaticMethodSecurityMetadataSource";
+
+	static final String DELEGATING_METHOD_SECURITY_METADATA_SOURCE = "org.springframework.security.access.method.DelegatingMethodSecurityMetadataSource";
+
+	// The annotations the pre/post metadata source parses along with @PreAuthorize, the classes using them are left to it
+	private static final String[] OTHER_PRE_POST_ANNOTATIONS = { Type.AtPreFilter, Type.AtPostAuthorize, Type.AtPostFilter };
+
+	private static final ClassName CONFIG_ATTRIBUTE = ClassName.get("org.springframework.security.access", "ConfigAttribute");
+
+	private static final ClassName SECURITY_CONFIG = ClassName.get("org.springframework.security.access", "SecurityConfig");
+
+	private static final ClassName METHOD_SECURITY_METADATA_SOURCE = ClassName.get("org.springframework.security.access.method", "MethodSecurityMetadataSource");
+
+	private static final ClassName PRE_POST_ANNOTATION_SECURITY_METADATA_SOURCE = ClassName.get("org.springframework.security.access.prepost", "PrePostAnnotationSecurityMetadataSource");
+
+	private static final ClassName SECURED_ANNOTATION_SECURITY_METADATA_SOURCE = ClassName.get("org.springframework.security.access.annotation", "SecuredAnnotationSecurityMetadataSource");
+
+	private static final ClassName PRE_POST_INVOCATION_ATTRIBUTE_FACTORY = ClassName.get("org.springframework.security.access.prepost", "PrePostInvocationAttributeFactory");
+
+	private static final ClassName EXPRESSION_BASED_ANNOTATION_ATTRIBUTE_FACTORY = ClassName.get("org.springframework.security.access.expression.method", "ExpressionBasedAnnotationAttributeFactory");
+
+	private static final ClassName DEFAULT_METHOD_SECURITY_EXPRESSION_HANDLER = ClassName.get("org.springframework.security.access.expression.method", "DefaultMethodSecurityExpressionHandler");
+
+	private static final ClassName SECURITY_EXPRESSION_OPERATIONS = ClassName.get("org.springframework.security.access.expression", "SecurityExpressionOperations");
+
+	private static final ClassName EXPRESSION = ClassName.get("org.springframework.expression", "Expression");
+
+	private static final ClassName EXPRESSION_PARSER = ClassName.get("org.springframework.expression", "ExpressionParser");
+
+	private static final ClassName PARSER_CONTEXT = ClassName.get("org.springframework.expression", "ParserContext");
+
+	private static final ClassName PARSE_EXCEPTION = ClassName.get("org.springframework.expression", "ParseException");
+
+	private static final ClassName EVALUATION_CONTEXT = ClassName.get("org.springframework.expression", "EvaluationContext");
+
+	private static final ClassName TYPED_VALUE = ClassName.get("org.springframework.expression", "TypedValue");
+
+	private static final ClassName LITERAL_EXPRESSION = ClassName.get("org.springframework.expression.common", "LiteralExpression");
+
+	private static final ClassName EXPRESSION_UTILS = ClassName.get("org.springframework.expression.common", "ExpressionUtils");
+
+	private static final ClassName METHOD_CLASS_KEY = ClassName.get("org.springframework.core", "MethodClassKey");
+
+	private static final ClassName CLASS_UTILS = ClassName.get("org.springframework.util", "ClassUtils");
+
+	private static final ClassName COMPILED_EXPRESSION = ClassName.bestGuess(STATIC_METHOD_SECURITY_METADATA_SOURCE).nestedClass("CompiledExpression");
+
+	private static final ClassName COMPILED_EXPRESSION_PARSER = ClassName.bestGuess(STATIC_METHOD_SECURITY_METADATA_SOURCE).nestedClass("CompiledExpressionParser");
+
+	private static final TypeName CLASS = ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+
+	private static final TypeName CONFIG_ATTRIBUTES = ParameterizedTypeName.get(ClassName.get(Collection.class), CONFIG_ATTRIBUTE);
+
+	private final Map<String, SecuredType> securedTypes = new TreeMap<>();
+
+	/**
+	 * @param type a type of the application
+	 * @return true if the type is a class annotated with {@code @PreAuthorize} or {@code @Secured} or declaring
+	 * annotated methods
+	 */
+	static boolean isMethodSecurityCandidate(Type type) {
+		return !type.isInterface() && !type.isAnnotation() && (type.isAnnotated(Type.AtPreAuthorize) || type.isAnnotated(Type.AtSecured)
+				|| !type.getMethodsWithAnnotation(Type.AtPreAuthorize).isEmpty() || !type.getMethodsWithAnnotation(Type.AtSecured).isEmpty());
+	}
+
+	/**
+	 * Compute the method security attributes of a class, if they only depend on the {@code @PreAuthorize} and
+	 * {@code @Secured} annotations it declares and if all its {@code @PreAuthorize} expressions can be compiled. A
+	 * class is not covered when it extends another class, when its interfaces declare security annotations, or when
+	 * it uses composed or other pre/post annotations.
+	 * @param type a method security candidate
+	 */
+	public void addType(Type type) {
+		if (!"java/lang/Object".equals(type.getSuperclassString())) {
+			logger.debug("Not computing the method security attributes of " + type.getDottedName() + " ahead of time, it extends " + type.getSuperclassString());
+			return;
+		}
+		if (declaresSecurityAnnotations(type.getInterfaces())) {
+			logger.debug("Not computing the method security attributes of " + type.getDottedName() + " ahead of time, its interfaces declare security annotations");
+			return;
+		}
+		if (usesUnsupportedAnnotations(type.getAnnotations())) {
+			logger.debug("Not computing the method security attributes of " + type.getDottedName() + " ahead of time, it uses other security annotations");
+			return;
+		}
+		SecurityAttributes typeAttributes = getSecurityAttributes(type.getAnnotation(Type.AtPreAuthorize), type.getAnnotation(Type.AtSecured), SecurityAttributes.NONE);
+		SecuredType securedType = new SecuredType(type);
+		for (Method method : type.getMethods()) {
+			if (method.getName().startsWith("<") || method.isSynthetic() || method.isStatic()) {
+				continue;
+			}
+			if (usesUnsupportedAnnotations(method.getAnnotationTypes())) {
+				logger.debug("Not computing the method security attributes of " + type.getDottedName() + " ahead of time, " + method.getName() + " uses other security annotations");
+				return;
+			}
+			// As the metadata sources do, the annotations of the method take precedence over the ones of its class
+			SecurityAttributes methodAttributes = getSecurityAttributes(method.getAnnotation(Type.AtPreAuthorize), method.getAnnotation(Type.AtSecured), typeAttributes);
+			if (methodAttributes.preAuthorize != null && ExpressionCompiler.compile(methodAttributes.preAuthorize) == null) {
+				logger.debug("Not computing the method security attributes of " + type.getDottedName() + " ahead of time, " + method.getName() + " uses an expression that cannot be compiled: " + methodAttributes.preAuthorize);
+				return;
+			}
+			if (methodAttributes != SecurityAttributes.NONE) {
+				securedType.methodAttributes.put(getMethodKey(type, method), methodAttributes);
+			}
+		}
+		if (securedType.methodAttributes.isEmpty()) {
+			return;
+		}
+		this.securedTypes.put(type.getDottedName(), securedType);
+	}
+
+	public boolean hasSecuredTypes() {
+		return !this.securedTypes.isEmpty();
+	}
+
+	/**
+	 * @return the dotted names of the classes whose method security attributes are computed ahead of time
+	 */
+	public Set<String> getSecuredTypeNames() {
+		return Collections.unmodifiableSet(this.securedTypes.keySet());
+	}
+
+	public JavaFile generateStaticMethodSecurityMetadataSource() {
+		Map<String, SecurityAttributes> methodAttributes = new TreeMap<>();
+		Map<String, CodeBlock> expressions = new TreeMap<>();
+		for (SecuredType securedType : this.securedTypes.values()) {
+			methodAttributes.putAll(securedType.methodAttributes);
+			for (SecurityAttributes attributes : securedType.methodAttributes.values()) {
+				if (attributes.preAuthorize != null) {
+					expressions.put(attributes.preAuthorize, ExpressionCompiler.compile(attributes.preAuthorize));
+				}
+			}
+		}
+		MethodSpec.Builder findAttributes = MethodSpec.methodBuilder("findAttributes")
+				.addModifiers(Modifier.PRIVATE)
+				.returns(CONFIG_ATTRIBUTES)
+				.addParameter(java.lang.reflect.Method.class, "method")
+				.addParameter(CLASS, "targetClass")
+				.beginControlFlow("if (method.getDeclaringClass() == $T.class)", Object.class)
+				.addStatement("return null")
+				.endControlFlow()
+				.addStatement("$T specificMethod = $T.getMostSpecificMethod(method, targetClass)", java.lang.reflect.Method.class, CLASS_UTILS)
+				// The metadata sources resolve the annotations of the bridged methods and of the subclasses
+				.beginControlFlow("if (specificMethod.isBridge() || (targetClass != null && targetClass != specificMethod.getDeclaringClass()))")
+				.addStatement("return null")
+				.endControlFlow()
+				.beginControlFlow("switch (getMethodKey(specificMethod))");
+		for (Map.Entry<String, SecurityAttributes> entry : methodAttributes.entrySet()) {
+			findAttributes.addCode("case $S:\n$>", entry.getKey())
+					.addStatement("return attributes($S, $L)", entry.getValue().preAuthorize, stringArray(entry.getValue().secured))
+					.addCode("$<");
+		}
+		findAttributes.addCode("default:\n$>")
+				.addStatement("return null")
+				.addCode("$<")
+				.endControlFlow();
+
+		MethodSpec.Builder compile = MethodSpec.methodBuilder("compile")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(EXPRESSION)
+				.addParameter(String.class, "expressionString");
+		if (!expressions.isEmpty()) {
+			compile.beginControlFlow("switch (expressionString)");
+			for (Map.Entry<String, CodeBlock> entry : expressions.entrySet()) {
+				compile.addCode("case $S:\n$>", entry.getKey())
+						.addStatement("return new $T(expressionString, root -> $L)", COMPILED_EXPRESSION, entry.getValue())
+						.addCode("$<");
+			}
+			compile.endControlFlow();
+		}
+		compile.addStatement("throw new $T(expressionString, 0, $S)", PARSE_EXCEPTION, "Expression not compiled at build time");
+
+		TypeSpec staticMethodSecurityMetadataSource = TypeSpec.classBuilder(ClassName.bestGuess(STATIC_METHOD_SECURITY_METADATA_SOURCE))
+				.addModifiers(Modifier.PUBLIC)
+				.superclass(ClassName.bestGuess(DELEGATING_METHOD_SECURITY_METADATA_SOURCE))
+				.addField(FieldSpec.builder(CONFIG_ATTRIBUTES, "NO_ATTRIBUTES", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+						.initializer("$T.emptyList()", Collections.class)
+						.build())
+				.addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(Map.class), METHOD_CLASS_KEY, CONFIG_ATTRIBUTES), "attributeCache", Modifier.PRIVATE, Modifier.FINAL)
+						.initializer("new $T<>()", java.util.concurrent.ConcurrentHashMap.class)
+						.build())
+				.addField(boolean.class, "prePostEnabled", Modifier.PRIVATE, Modifier.FINAL)
+				.addField(boolean.class, "securedEnabled", Modifier.PRIVATE, Modifier.FINAL)
+				.addField(PRE_POST_INVOCATION_ATTRIBUTE_FACTORY, "attributeFactory", Modifier.PRIVATE, Modifier.FINAL)
+				.addMethod(generateConstructor())
+				.addMethod(generateGetAttributes())
+				.addMethod(findAttributes.build())
+				.addMethod(generateAttributes())
+				.addMethod(MethodSpec.methodBuilder("getMethodKey")
+						.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+						.returns(String.class)
+						.addParameter(java.lang.reflect.Method.class, "method")
+						.addStatement("$T parameterTypes = new $T($S, $S, $S)", StringJoiner.class, StringJoiner.class, ",", "(", ")")
+						.beginControlFlow("for ($T parameterType : method.getParameterTypes())", CLASS)
+						.addStatement("parameterTypes.add(parameterType.getTypeName())")
+						.endControlFlow()
+						.addStatement("return method.getDeclaringClass().getName() + $S + method.getName() + parameterTypes", "#")
+						.build())
+				.addMethod(compile.build())
+				.addType(generateCompiledExpressionParser())
+				.addType(generateCompiledExpression())
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(ClassName.bestGuess(STATIC_METHOD_SECURITY_METADATA_SOURCE).packageName(), staticMethodSecurityMetadataSource).build();
+	}
+
+	// The attributes are only returned when no custom metadata source comes before the annotation ones
+	private static MethodSpec generateConstructor() {
+		return MethodSpec.constructorBuilder()
+				.addModifiers(Modifier.PUBLIC)
+				.addParameter(ClassName.bestGuess(DELEGATING_METHOD_SECURITY_METADATA_SOURCE), "metadataSource")
+				.addStatement("super(metadataSource.getMethodSecurityMetadataSources())")
+				.addStatement("$T<$T> sources = metadataSource.getMethodSecurityMetadataSources()", List.class, METHOD_SECURITY_METADATA_SOURCE)
+				.addStatement("boolean annotationSourcesFirst = !sources.isEmpty() && (sources.get(0) instanceof $T || sources.get(0) instanceof $T)",
+						PRE_POST_ANNOTATION_SECURITY_METADATA_SOURCE, SECURED_ANNOTATION_SECURITY_METADATA_SOURCE)
+				.addStatement("this.prePostEnabled = annotationSourcesFirst && sources.stream().anyMatch($T.class::isInstance)", PRE_POST_ANNOTATION_SECURITY_METADATA_SOURCE)
+				.addStatement("this.securedEnabled = annotationSourcesFirst && sources.stream().anyMatch($T.class::isInstance)", SECURED_ANNOTATION_SECURITY_METADATA_SOURCE)
+				// The handler only supplies the parser of the compiled expressions, the interceptor evaluates them with its own
+				.addStatement("$T expressionHandler = new $T()", DEFAULT_METHOD_SECURITY_EXPRESSION_HANDLER, DEFAULT_METHOD_SECURITY_EXPRESSION_HANDLER)
+				.addStatement("expressionHandler.setExpressionParser(new $T())", COMPILED_EXPRESSION_PARSER)
+				.addStatement("this.attributeFactory = new $T(expressionHandler)", EXPRESSION_BASED_ANNOTATION_ATTRIBUTE_FACTORY)
+				.build();
+	}
+
+	private static MethodSpec generateGetAttributes() {
+		return MethodSpec.methodBuilder("getAttributes")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC)
+				.returns(CONFIG_ATTRIBUTES)
+				.addParameter(java.lang.reflect.Method.class, "method")
+				.addParameter(CLASS, "targetClass")
+				.beginControlFlow("if (!this.prePostEnabled && !this.securedEnabled)")
+				.addStatement("return super.getAttributes(method, targetClass)")
+				.endControlFlow()
+				.addStatement("$T cacheKey = new $T(method, targetClass)", METHOD_CLASS_KEY, METHOD_CLASS_KEY)
+				.addStatement("$T attributes = this.attributeCache.get(cacheKey)", CONFIG_ATTRIBUTES)
+				.beginControlFlow("if (attributes == null)")
+				.addStatement("attributes = findAttributes(method, targetClass)")
+				.addStatement("this.attributeCache.put(cacheKey, (attributes != null ? attributes : NO_ATTRIBUTES))")
+				.endControlFlow()
+				.addStatement("return (attributes != null && attributes != NO_ATTRIBUTES ? attributes : super.getAttributes(method, targetClass))")
+				.build();
+	}
+
+	// As the delegating metadata source does, the pre/post attributes take precedence over the secured ones
+	private static MethodSpec generateAttributes() {
+		return MethodSpec.methodBuilder("attributes")
+				.addModifiers(Modifier.PRIVATE)
+				.returns(CONFIG_ATTRIBUTES)
+				.addParameter(String.class, "preAuthorize")
+				.addParameter(String[].class, "secured")
+				.beginControlFlow("if (this.prePostEnabled && preAuthorize != null)")
+				.addStatement("return $T.singletonList(this.attributeFactory.createPreInvocationAttribute(null, null, preAuthorize))", Collections.class)
+				.endControlFlow()
+				.beginControlFlow("if (this.securedEnabled && secured.length > 0)")
+				.addStatement("return $T.createList(secured)", SECURITY_CONFIG)
+				.endControlFlow()
+				.addStatement("return null")
+				.build();
+	}
+
+	private static TypeSpec generateCompiledExpressionParser() {
+		return TypeSpec.classBuilder(COMPILED_EXPRESSION_PARSER)
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.addSuperinterface(EXPRESSION_PARSER)
+				.addMethod(MethodSpec.methodBuilder("parseExpression")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.returns(EXPRESSION)
+						.addParameter(String.class, "expressionString")
+						.addStatement("return compile(expressionString)")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("parseExpression")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.returns(EXPRESSION)
+						.addParameter(String.class, "expressionString")
+						.addParameter(PARSER_CONTEXT, "context")
+						.addStatement("return compile(expressionString)")
+						.build())
+				.build();
+	}
+
+	// Evaluates the expression against the root object of the context created by the method security expression
+	// handler, the advice only asks for a boolean value
+	private static TypeSpec generateCompiledExpression() {
+		TypeVariableName t = TypeVariableName.get("T");
+		return TypeSpec.classBuilder(COMPILED_EXPRESSION)
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.superclass(LITERAL_EXPRESSION)
+				.addField(ParameterizedTypeName.get(ClassName.get(Predicate.class), SECURITY_EXPRESSION_OPERATIONS), "check", Modifier.PRIVATE, Modifier.FINAL)
+				.addMethod(MethodSpec.constructorBuilder()
+						.addParameter(String.class, "expressionString")
+						.addParameter(ParameterizedTypeName.get(ClassName.get(Predicate.class), SECURITY_EXPRESSION_OPERATIONS), "check")
+						.addStatement("super(expressionString)")
+						.addStatement("this.check = check")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("getValue")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.addTypeVariable(t)
+						.returns(t)
+						.addParameter(EVALUATION_CONTEXT, "context")
+						.addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), t), "expectedResultType")
+						.addStatement("boolean value = this.check.test(($T) context.getRootObject().getValue())", SECURITY_EXPRESSION_OPERATIONS)
+						.addStatement("return $T.convertTypedValue(context, new $T(value), expectedResultType)", EXPRESSION_UTILS, TYPED_VALUE)
+						.build())
+				.addMethod(MethodSpec.methodBuilder("getValueType")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.returns(CLASS)
+						.addParameter(EVALUATION_CONTEXT, "context")
+						.addStatement("return $T.class", Boolean.class)
+						.build())
+				.build();
+	}
+
+	private static CodeBlock stringArray(List<String> values) {
+		if (values.isEmpty()) {
+			return CodeBlock.of("new $T[0]", String.class);
+		}
+		CodeBlock.Builder elements = CodeBlock.builder();
+		for (int i = 0; i < values.size(); i++) {
+			elements.add(i == 0 ? "$S" : ", $S", values.get(i));
+		}
+		return CodeBlock.of("new $T[] { $L }", String.class, elements.build());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static SecurityAttributes getSecurityAttributes(AnnotationNode preAuthorize, AnnotationNode secured, SecurityAttributes defaults) {
+		if (preAuthorize == null && secured == null) {
+			return defaults;
+		}
+		SecurityAttributes attributes = new SecurityAttributes();
+		attributes.preAuthorize = (preAuthorize != null ? (String) getValue(preAuthorize) : defaults.preAuthorize);
+		attributes.secured = (secured != null ? (List<String>) getValue(secured) : defaults.secured);
+		return attributes;
+	}
+
+	private static Object getValue(AnnotationNode annotation) {
+		if (annotation.values != null) {
+			for (int i = 0; i < annotation.values.size(); i += 2) {
+				if ("value".equals(annotation.values.get(i))) {
+					return annotation.values.get(i + 1);
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean usesUnsupportedAnnotations(List<Type> annotationTypes) {
+		for (Type annotationType : annotationTypes) {
+			String descriptor = annotationType.getDescriptor();
+			if (descriptor.equals(Type.AtPreAuthorize) || descriptor.equals(Type.AtSecured)) {
+				continue;
+			}
+			if (isSecurityAnnotation(annotationType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isSecurityAnnotation(Type annotationType) {
+		String descriptor = annotationType.getDescriptor();
+		for (String other : OTHER_PRE_POST_ANNOTATIONS) {
+			if (descriptor.equals(other) || annotationType.isMetaAnnotated(Type.fromLdescriptorToSlashed(other))) {
+				return true;
+			}
+		}
+		return annotationType.isMetaAnnotated(Type.fromLdescriptorToSlashed(Type.AtPreAuthorize))
+				|| annotationType.isMetaAnnotated(Type.fromLdescriptorToSlashed(Type.AtSecured));
+	}
+
+	private static boolean isSecurityAnnotationOrComposed(Type annotationType) {
+		String descriptor = annotationType.getDescriptor();
+		return descriptor.equals(Type.AtPreAuthorize) || descriptor.equals(Type.AtSecured) || isSecurityAnnotation(annotationType);
+	}
+
+	// The metadata sources find the annotations declared by the interfaces of a class and of their methods
+	private boolean declaresSecurityAnnotations(Type[] interfaces) {
+		for (Type itf : interfaces) {
+			if (itf == null || itf.getAnnotations().stream().anyMatch(MethodSecurityCodeGenerator::isSecurityAnnotationOrComposed)) {
+				return true;
+			}
+			for (Method method : itf.getMethods()) {
+				if (method.getAnnotationTypes().stream().anyMatch(MethodSecurityCodeGenerator::isSecurityAnnotationOrComposed)) {
+					return true;
+				}
+			}
+			if (declaresSecurityAnnotations(itf.getInterfaces())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String getMethodKey(Type type, Method method) {
+		StringJoiner parameterTypes = new StringJoiner(",", "(", ")");
+		for (org.objectweb.asm.Type parameterType : org.objectweb.asm.Type.getArgumentTypes(method.getDesc())) {
+			parameterTypes.add(parameterType.getClassName());
+		}
+		return type.getDottedName() + "#" + method.getName() + parameterTypes;
+	}
+
+	static class SecuredType {
+
+		final Type type;
+
+		final Map<String, SecurityAttributes> methodAttributes = new TreeMap<>();
+
+		SecuredType(Type type) {
+			this.type = type;
+		}
+	}
+
+	static class SecurityAttributes {
+
+		static final SecurityAttributes NONE = new SecurityAttributes();
+
+		String preAuthorize;
+
+		List<String> secured = Collections.emptyList();
+	}
+
+	/**
+	 * Compile the {@code @PreAuthorize} expressions only made of calls to the authority checks of the security
+	 * expression root combined with {@code and}, {@code or} and {@code not}, to the equivalent Java expression on a
+	 * {@code root} variable.
+	 */
+	static class ExpressionCompiler {
+
+		private static final Set<String> NO_ARGUMENT_CHECKS = new HashSet<>(Arrays.asList("isAuthenticated",
+				"isFullyAuthenticated", "isAnonymous", "isRememberMe", "permitAll", "denyAll"));
+
+		private static final Set<String> SINGLE_ARGUMENT_CHECKS = new HashSet<>(Arrays.asList("hasRole", "hasAuthority"));
+
+		private static final Set<String> MULTIPLE_ARGUMENTS_CHECKS = new HashSet<>(Arrays.asList("hasAnyRole", "hasAnyAuthority"));
+
+		private final String expression;
+
+		private int position;
+
+		private ExpressionCompiler(String expression) {
+			this.expression = expression;
+		}
+
+		/**
+		 * @param expression a {@code @PreAuthorize} expression
+		 * @return the Java expression, or null if the expression cannot be compiled
+		 */
+		static CodeBlock compile(String expression) {
+			if (expression == null) {
+				return null;
+			}
+			try {
+				ExpressionCompiler compiler = new ExpressionCompiler(expression);
+				CodeBlock code = compiler.or();
+				compiler.skipWhitespace();
+				return (compiler.position == expression.length() ? code : null);
+			}
+			catch (IllegalArgumentException ex) {
+				return null;
+			}
+		}
+
+		private CodeBlock or() {
+			CodeBlock code = and();
+			while (acceptOperator("or", "||")) {
+				code = CodeBlock.of("$L || $L", code, and());
+			}
+			return code;
+		}
+
+		private CodeBlock and() {
+			CodeBlock code = unary();
+			while (acceptOperator("and", "&&")) {
+				code = CodeBlock.of("$L && $L", code, unary());
+			}
+			return code;
+		}
+
+		private CodeBlock unary() {
+			if (acceptOperator("not", "!")) {
+				return CodeBlock.of("!$L", unary());
+			}
+			if (accept('(')) {
+				CodeBlock code = or();
+				expect(')');
+				return CodeBlock.of("($L)", code);
+			}
+			return check();
+		}
+
+		private CodeBlock check() {
+			String name = identifier();
+			expect('(');
+			if (NO_ARGUMENT_CHECKS.contains(name)) {
+				expect(')');
+				return CodeBlock.of("root.$L()", name);
+			}
+			if (!SINGLE_ARGUMENT_CHECKS.contains(name) && !MULTIPLE_ARGUMENTS_CHECKS.contains(name)) {
+				throw new IllegalArgumentException("unsupported check " + name);
+			}
+			CodeBlock.Builder arguments = CodeBlock.builder().add("$S", string());
+			while (MULTIPLE_ARGUMENTS_CHECKS.contains(name) && accept(',')) {
+				arguments.add(", $S", string());
+			}
+			expect(')');
+			return CodeBlock.of("root.$L($L)", name, arguments.build());
+		}
+
+		// SpEL operator keywords are case insensitive and must not be followed by an identifier character
+		private boolean acceptOperator(String keyword, String symbol) {
+			skipWhitespace();
+			if (this.expression.startsWith(symbol, this.position)) {
+				if (!symbol.equals("!") || !this.expression.startsWith("!=", this.position)) {
+					this.position += symbol.length();
+					return true;
+				}
+			}
+			int end = this.position + keyword.length();
+			if (this.expression.regionMatches(true, this.position, keyword, 0, keyword.length())
+					&& (end == this.expression.length() || !Character.isJavaIdentifierPart(this.expression.charAt(end)))) {
+				this.position = end;
+				return true;
+			}
+			return false;
+		}
+
+		private String identifier() {
+			skipWhitespace();
+			int start = this.position;
+			while (this.position < this.expression.length() && Character.isJavaIdentifierPart(this.expression.charAt(this.position))) {
+				this.position++;
+			}
+			if (start == this.position) {
+				throw new IllegalArgumentException("identifier expected at " + start);
+			}
+			return this.expression.substring(start, this.position);
+		}
+
+		// SpEL string literals escape quotes by doubling them
+		private String string() {
+			skipWhitespace();
+			if (this.position >= this.expression.length()) {
+				throw new IllegalArgumentException("string expected at " + this.position);
+			}
+			char quote = this.expression.charAt(this.position);
+			if (quote != '\'' && quote != '"') {
+				throw new IllegalArgumentException("string expected at " + this.position);
+			}
+			StringBuilder value = new StringBuilder();
+			this.position++;
+			while (true) {
+				if (this.position >= this.expression.length()) {
+					throw new IllegalArgumentException("unterminated string");
+				}
+				char c = this.expression.charAt(this.position++);
+				if (c == quote) {
+					if (this.position < this.expression.length() && this.expression.charAt(this.position) == quote) {
+						value.append(quote);
+						this.position++;
+					}
+					else {
+						return value.toString();
+					}
+				}
+				else {
+					value.append(c);
+				}
+			}
+		}
+
+		private boolean accept(char c) {
+			skipWhitespace();
+			if (this.position < this.expression.length() && this.expression.charAt(this.position) == c) {
+				this.position++;
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(char c) {
+			if (!accept(c)) {
+				throw new IllegalArgumentException("'" + c + "' expected at " + this.position);
+			}
+		}
+
+		private void skipWhitespace() {
+			while (this.position < this.expression.length() && Character.isWhitespace(this.expression.charAt(this.position))) {
+				this.position++;
+			}
+		}
+	}
+}
@@ -0,0 +1,534 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.beans.Introspector;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+
+/**
+ * Generate binder code for {@code @ConfigurationProperties} types that use JavaBean binding. Each property
+ * is bound with a direct setter call, the conversion of its value is left to the {@code Binder} which does not
+ * need to introspect the properties type to do it. The bind methods are generated in a {@code _PropertiesBinders}
+ * class in the package of each type, a {@code org.springframework.aot.StaticPropertiesBinders} class dispatches
+ * to them and is what the runtime binder delegates to.
+ * <p>Only types whose properties are all value types (strings, primitives, enums, durations, ...) or other such
+ * types are handled: constructor binding, validation, collections, maps and generic properties are left to
+ * the introspection based binding.
+ * <p>Each property is bound from the top level of the {@code Binder}, so the generated code must not be given a
+ * handler that acts on the whole bean: the runtime only delegates to it when the bean is not validated and
+ * neither unknown nor invalid fields are checked. A failure to bind a property is never ignored as the top level
+ * handler of {@code ConfigurationPropertiesBinder} would do, it is reported like the introspection based binding
+ * reports it.
+ */
+class PropertiesBinderCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(PropertiesBinderCodeGenerator.class);
+
+	static final String STATIC_PROPERTIES_BINDERS = "org.springframework.aot.StaticPropertiesBinders";
+
+	private static final String BINDERS_CLASS = "_PropertiesBinders";
+
+	// Packages and types that the Binder converts from a single value rather than binding as a bean
+	private static final String[] VALUE_TYPE_PREFIXES = new String[] { "Ljava/lang/", "Ljava/nio/", "Ljava/io/", "Ljava/net/",
+			"Ljava/time/", "Lorg/springframework/util/unit/", "Lorg/springframework/core/io/", "Ljava/util/Locale;",
+			"Ljava/util/UUID;", "Ljava/util/Currency;", "Ljava/util/TimeZone;", "Ljava/util/regex/Pattern;" };
+
+	// Spring Boot is not a compile dependency of this module
+	private static final ClassName BINDER = ClassName.get("org.springframework.boot.context.properties.bind", "Binder");
+
+	private static final ClassName BIND_HANDLER = ClassName.get("org.springframework.boot.context.properties.bind", "BindHandler");
+
+	private static final ClassName ABSTRACT_BIND_HANDLER = ClassName.get("org.springframework.boot.context.properties.bind", "AbstractBindHandler");
+
+	private static final ClassName BIND_CONTEXT = ClassName.get("org.springframework.boot.context.properties.bind", "BindContext");
+
+	private static final ClassName BIND_RESULT = ClassName.get("org.springframework.boot.context.properties.bind", "BindResult");
+
+	private static final ClassName BINDABLE = ClassName.get("org.springframework.boot.context.properties.bind", "Bindable");
+
+	private static final ClassName CONFIGURATION_PROPERTY_NAME = ClassName.get("org.springframework.boot.context.properties.source", "ConfigurationPropertyName");
+
+	private final Map<String, BeanType> beanTypes = new LinkedHashMap<>();
+
+	private final List<Type> rootTypes = new ArrayList<>();
+
+	/**
+	 * Generate the binder code for a properties type, if it is eligible.
+	 * @param propertiesType the {@code @ConfigurationProperties} type
+	 * @return true if binder code was generated for the type
+	 */
+	public boolean addPropertiesType(Type propertiesType) {
+		Map<String, BeanType> collector = new LinkedHashMap<>();
+		String ineligibility = analyze(propertiesType, collector, new HashSet<>());
+		if (ineligibility != null) {
+			logger.debug("Not generating binder code for " + propertiesType.getDottedName() + ": " + ineligibility);
+			return false;
+		}
+		logger.debug("Generating binder code for " + propertiesType.getDottedName());
+		beanTypes.putAll(collector);
+		rootTypes.add(propertiesType);
+		return true;
+	}
+
+	public boolean hasBinders() {
+		return !rootTypes.isEmpty();
+	}
+
+	/**
+	 * @return the dotted names of all the types bound by generated code, including nested property types
+	 */
+	public Set<String> getBoundTypeNames() {
+		return beanTypes.keySet();
+	}
+
+	/**
+	 * @param propertiesType the {@code @ConfigurationProperties} type to check
+	 * @return why binder code cannot be generated for the type, or null if it can
+	 */
+	static String checkEligibility(Type propertiesType) {
+		return analyze(propertiesType, new LinkedHashMap<>(), new HashSet<>());
+	}
+
+	public List<JavaFile> generatePropertiesBinderClasses() {
+		Map<String, List<MethodSpec>> methodsByPackage = new LinkedHashMap<>();
+		for (BeanType beanType : beanTypes.values()) {
+			methodsByPackage.computeIfAbsent(beanType.type.getPackageName(), k -> new ArrayList<>())
+					.add(createBindMethod(beanType));
+		}
+		List<JavaFile> javaFiles = new ArrayList<>();
+		for (Map.Entry<String, List<MethodSpec>> entry : methodsByPackage.entrySet()) {
+			TypeSpec binders = TypeSpec.classBuilder(BINDERS_CLASS)
+					.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.addMethods(entry.getValue())
+					.addMethod(createBindHelperMethod())
+					.addJavadoc("Class generated - do not edit this file")
+					.build();
+			javaFiles.add(JavaFile.builder(entry.getKey(), binders).build());
+		}
+		return javaFiles;
+	}
+
+	public JavaFile generateStaticPropertiesBinders() {
+		MethodSpec isSupported = MethodSpec.methodBuilder("isSupported")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)), "type")
+				.addStatement("return bind(null, null, null, type.getName(), null)")
+				.build();
+		MethodSpec bind = MethodSpec.methodBuilder("bind")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(BINDER, "binder")
+				.addParameter(CONFIGURATION_PROPERTY_NAME, "name")
+				.addParameter(BIND_HANDLER, "handler")
+				.addParameter(Object.class, "target")
+				.addStatement("return bind(binder, name, new PropertyBindHandler(handler), target.getClass().getName(), target)")
+				.build();
+		CodeBlock.Builder dispatch = CodeBlock.builder().beginControlFlow("switch (typename)");
+		for (Type rootType : rootTypes) {
+			dispatch.add("case $S:\n", rootType.getDottedName()).indent()
+					.addStatement("return target == null || $T.$N(binder, name, handler, target)",
+							ClassName.get(rootType.getPackageName(), BINDERS_CLASS), getBindMethodName(rootType))
+					.unindent();
+		}
+		dispatch.add("default:\n").indent().addStatement("return false").unindent().endControlFlow();
+		MethodSpec dispatchMethod = MethodSpec.methodBuilder("bind")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(BINDER, "binder")
+				.addParameter(CONFIGURATION_PROPERTY_NAME, "name")
+				.addParameter(BIND_HANDLER, "handler")
+				.addParameter(String.class, "typename")
+				.addParameter(Object.class, "target")
+				.addCode(dispatch.build())
+				.build();
+		ClassName staticPropertiesBinders = ClassName.bestGuess(STATIC_PROPERTIES_BINDERS);
+		TypeSpec type = TypeSpec.classBuilder(staticPropertiesBinders)
+				.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+				.addMethod(isSupported)
+				.addMethod(bind)
+				.addMethod(dispatchMethod)
+				.addType(createPropertyBindHandler())
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(staticPropertiesBinders.packageName(), type).build();
+	}
+
+	/**
+	 * The properties are bound one by one from the top level of the binder, where failures would be ignored by the
+	 * handler meant for the whole bean. Rethrow them as the binder does for the properties of a bean.
+	 */
+	private TypeSpec createPropertyBindHandler() {
+		MethodSpec constructor = MethodSpec.constructorBuilder()
+				.addParameter(BIND_HANDLER, "parent")
+				.addStatement("super(parent)")
+				.build();
+		MethodSpec onFailure = MethodSpec.methodBuilder("onFailure")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC)
+				.returns(Object.class)
+				.addParameter(CONFIGURATION_PROPERTY_NAME, "name")
+				.addParameter(ParameterizedTypeName.get(BINDABLE, WildcardTypeName.subtypeOf(Object.class)), "target")
+				.addParameter(BIND_CONTEXT, "context")
+				.addParameter(Exception.class, "error")
+				.addException(Exception.class)
+				.addStatement("throw error")
+				.build();
+		return TypeSpec.classBuilder("PropertyBindHandler")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.superclass(ABSTRACT_BIND_HANDLER)
+				.addMethod(constructor)
+				.addMethod(onFailure)
+				.build();
+	}
+
+	private static String analyze(Type type, Map<String, BeanType> collector, Set<String> visiting) {
+		if (collector.containsKey(type.getDottedName())) {
+			return null;
+		}
+		if (!visiting.add(type.getDottedName())) {
+			return "properties type " + type.getDottedName() + " is recursive";
+		}
+		if (!type.getDottedName().contains(".")) {
+			return "in the default package";
+		}
+		if (type.isInterface() || type.isAbstract()) {
+			return "not a concrete class";
+		}
+		Type superclass = type.getSuperclass();
+		if (superclass == null || !superclass.getName().equals("java/lang/Object")) {
+			return "extends another class that may declare properties";
+		}
+		if (type.isAtValidated()) {
+			return "is validated";
+		}
+		if (type.implementsInterface("org/springframework/validation/Validator", true)) {
+			return "is a validator";
+		}
+		if (type.isAtConstructorBinding()) {
+			return "uses constructor binding";
+		}
+		for (Method constructor : type.getMethod("<init>")) {
+			if (constructor.hasAnnotation(Type.AtConstructorBinding, false)) {
+				return "uses constructor binding";
+			}
+		}
+		Map<String, Property> properties = new LinkedHashMap<>();
+		for (Method method : type.getMethods(PropertiesBinderCodeGenerator::isCandidate)) {
+			String name = method.getName();
+			int parameterCount = method.getParameterCount();
+			if (name.startsWith("set") && name.length() > 3 && parameterCount == 1) {
+				Property property = properties.computeIfAbsent(Introspector.decapitalize(name.substring(3)), Property::new);
+				if (property.setter != null) {
+					return "has overloaded setters for property " + property.name;
+				}
+				property.setter = method;
+			}
+			else if (parameterCount == 0 && ((name.startsWith("get") && name.length() > 3) || (name.startsWith("is") && name.length() > 2))) {
+				int prefixLength = name.startsWith("get") ? 3 : 2;
+				Property property = properties.computeIfAbsent(Introspector.decapitalize(name.substring(prefixLength)), Property::new);
+				property.getter = method;
+			}
+		}
+		BeanType beanType = new BeanType(type);
+		Set<String> dashedNames = new HashSet<>();
+		for (Property property : properties.values()) {
+			String ineligibility = analyze(type, property, collector, visiting);
+			if (ineligibility != null) {
+				return "property " + property.name + " " + ineligibility;
+			}
+			if (property.kind != null) {
+				if (!dashedNames.add(property.getDashedName())) {
+					return "has more than one property named " + property.getDashedName();
+				}
+				beanType.properties.add(property);
+			}
+		}
+		visiting.remove(type.getDottedName());
+		collector.put(type.getDottedName(), beanType);
+		return null;
+	}
+
+	private static String analyze(Type owner, Property property, Map<String, BeanType> collector, Set<String> visiting) {
+		if ((property.setter != null && property.setter.hasGenericSignature())
+				|| (property.getter != null && property.getter.hasGenericSignature())) {
+			return "has a generic type";
+		}
+		String descriptor = property.setter != null ? getParameterDescriptor(property.setter) : getReturnDescriptor(property.getter);
+		if (property.setter != null && property.getter != null && !descriptor.equals(getReturnDescriptor(property.getter))) {
+			return "has a getter and a setter of different types";
+		}
+		if (isValueType(owner, descriptor)) {
+			// Read only value properties are not bound
+			if (property.setter != null) {
+				property.kind = Kind.VALUE;
+				property.descriptor = descriptor;
+			}
+			return null;
+		}
+		if (descriptor.startsWith("[") || descriptor.length() == 1) {
+			return "is an array of non value types";
+		}
+		Type propertyType = property.setter != null ? property.setter.getParameterTypes().get(0) : property.getter.getReturnType();
+		if (propertyType == null) {
+			return "has a type that is not on the classpath";
+		}
+		if (!isAccessible(propertyType, owner.getPackageName())) {
+			return "has a type that is not accessible";
+		}
+		if (property.getter == null || property.setter != null) {
+			// The nested value may have to be created, inner (non static) classes have no default constructor
+			Method defaultConstructor = propertyType.getDefaultConstructor();
+			if (defaultConstructor == null || defaultConstructor.isPrivate()
+					|| (!propertyType.getPackageName().equals(owner.getPackageName()) && !defaultConstructor.isPublic())) {
+				return "has a type that cannot be instantiated";
+			}
+		}
+		String nestedIneligibility = analyze(propertyType, collector, visiting);
+		if (nestedIneligibility != null) {
+			return "has a type that cannot be bound: " + nestedIneligibility;
+		}
+		property.kind = Kind.NESTED;
+		property.descriptor = descriptor;
+		property.type = propertyType;
+		return null;
+	}
+
+	private static boolean isCandidate(Method method) {
+		return !method.isPrivate() && !method.isProtected() && !method.isStatic() && !method.isSynthetic()
+				&& !method.getName().startsWith("<");
+	}
+
+	private static boolean isValueType(Type owner, String descriptor) {
+		String elementDescriptor = descriptor;
+		while (elementDescriptor.startsWith("[")) {
+			elementDescriptor = elementDescriptor.substring(1);
+		}
+		if (elementDescriptor.length() == 1) {
+			return true;
+		}
+		for (String valueTypePrefix : VALUE_TYPE_PREFIXES) {
+			if (elementDescriptor.startsWith(valueTypePrefix)) {
+				return true;
+			}
+		}
+		Type type = owner.getTypeSystem().Lresolve(elementDescriptor, true);
+		return type != null && type.isEnum() && isAccessible(type, owner.getPackageName());
+	}
+
+	static boolean isAccessible(Type type, String fromPackage) {
+		Type enclosingType = type.getEnclosingType();
+		if (enclosingType == null) {
+			return type.isPublic() || type.getPackageName().equals(fromPackage);
+		}
+		// Private nested types are package visible in the class file, only trust public ones
+		return type.isPublic() && isAccessible(enclosingType, fromPackage);
+	}
+
+	private static String getParameterDescriptor(Method method) {
+		return org.objectweb.asm.Type.getArgumentTypes(method.getDesc())[0].getDescriptor();
+	}
+
+	private static String getReturnDescriptor(Method method) {
+		return org.objectweb.asm.Type.getReturnType(method.getDesc()).getDescriptor();
+	}
+
+	private MethodSpec createBindMethod(BeanType beanType) {
+		ClassName typeName = className(beanType.type);
+		CodeBlock.Builder code = CodeBlock.builder();
+		code.addStatement("$T target = ($T) instance", typeName, typeName);
+		code.addStatement("boolean bound = false");
+		for (Property property : beanType.properties) {
+			if (property.kind == Kind.VALUE) {
+				code.addStatement("bound |= bind(binder.bind(name.append($S), $T.of($T.class), handler), target::$N)",
+						property.getDashedName(), BINDABLE, typeName(property.descriptor), property.setter.getName());
+			}
+			else {
+				ClassName nestedName = className(property.type);
+				CodeBlock bindNested = CodeBlock.of("$T.$N(binder, name.append($S), handler, nested)",
+						ClassName.get(property.type.getPackageName(), BINDERS_CLASS), getBindMethodName(property.type),
+						property.getDashedName());
+				code.add("{\n").indent();
+				if (property.getter != null) {
+					code.addStatement("$T nested = target.$N()", nestedName, property.getter.getName());
+				}
+				if (property.setter == null) {
+					code.beginControlFlow("if (nested != null)");
+					code.addStatement("bound |= $L", bindNested);
+					code.endControlFlow();
+				}
+				else {
+					if (property.getter != null) {
+						code.beginControlFlow("if (nested != null)");
+						code.addStatement("bound |= $L", bindNested);
+						code.nextControlFlow("else");
+						code.addStatement("nested = new $T()", nestedName);
+					}
+					else {
+						code.addStatement("$T nested = new $T()", nestedName, nestedName);
+					}
+					code.beginControlFlow("if ($L)", bindNested);
+					code.addStatement("target.$N(nested)", property.setter.getName());
+					code.addStatement("bound = true");
+					code.endControlFlow();
+					if (property.getter != null) {
+						code.endControlFlow();
+					}
+				}
+				code.unindent().add("}\n");
+			}
+		}
+		code.addStatement("return bound");
+		return MethodSpec.methodBuilder(getBindMethodName(beanType.type))
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(BINDER, "binder")
+				.addParameter(CONFIGURATION_PROPERTY_NAME, "name")
+				.addParameter(BIND_HANDLER, "handler")
+				.addParameter(Object.class, "instance")
+				.addCode(code.build())
+				.build();
+	}
+
+	private MethodSpec createBindHelperMethod() {
+		TypeVariableName t = TypeVariableName.get("T");
+		return MethodSpec.methodBuilder("bind")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.addTypeVariable(t)
+				.returns(boolean.class)
+				.addParameter(ParameterizedTypeName.get(BIND_RESULT, t), "result")
+				.addParameter(ParameterizedTypeName.get(ClassName.get(Consumer.class), WildcardTypeName.supertypeOf(t)), "setter")
+				.addStatement("result.ifBound(setter)")
+				.addStatement("return result.isBound()")
+				.build();
+	}
+
+	private static String getBindMethodName(Type type) {
+		return "bind" + type.getSimpleName().replace('$', '_');
+	}
+
+	static TypeName typeName(String descriptor) {
+		org.objectweb.asm.Type type = org.objectweb.asm.Type.getType(descriptor);
+		switch (type.getSort()) {
+		case org.objectweb.asm.Type.BOOLEAN:
+			return TypeName.BOOLEAN;
+		case org.objectweb.asm.Type.BYTE:
+			return TypeName.BYTE;
+		case org.objectweb.asm.Type.CHAR:
+			return TypeName.CHAR;
+		case org.objectweb.asm.Type.SHORT:
+			return TypeName.SHORT;
+		case org.objectweb.asm.Type.INT:
+			return TypeName.INT;
+		case org.objectweb.asm.Type.LONG:
+			return TypeName.LONG;
+		case org.objectweb.asm.Type.FLOAT:
+			return TypeName.FLOAT;
+		case org.objectweb.asm.Type.DOUBLE:
+			return TypeName.DOUBLE;
+		case org.objectweb.asm.Type.ARRAY:
+			return com.squareup.javapoet.ArrayTypeName.of(typeName(descriptor.substring(1)));
+		default:
+			String dottedName = type.getClassName();
+			int lastDot = dottedName.lastIndexOf('.');
+			String[] simpleNames = dottedName.substring(lastDot + 1).split("\\$");
+			String[] nestedNames = new String[simpleNames.length - 1];
+			System.arraycopy(simpleNames, 1, nestedNames, 0, nestedNames.length);
+			return ClassName.get(lastDot == -1 ? "" : dottedName.substring(0, lastDot), simpleNames[0], nestedNames);
+		}
+	}
+
+	static ClassName className(Type type) {
+		return (ClassName) typeName(type.getDescriptor());
+	}
+
+	enum Kind {
+		VALUE, NESTED
+	}
+
+	static class BeanType {
+
+		final Type type;
+
+		final List<Property> properties = new ArrayList<>();
+
+		BeanType(Type type) {
+			this.type = type;
+		}
+
+	}
+
+	static class Property {
+
+		final String name;
+
+		Method getter;
+
+		Method setter;
+
+		Kind kind;
+
+		String descriptor;
+
+		Type type;
+
+		Property(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @return the canonical form of the property name, as {@code DataObjectPropertyName.toDashedForm} computes it
+		 */
+		String getDashedName() {
+			StringBuilder result = new StringBuilder(name.length());
+			for (int i = 0; i < name.length(); i++) {
+				char ch = name.charAt(i);
+				ch = (ch != '_') ? ch : '-';
+				if (Character.isUpperCase(ch) && result.length() > 0 && result.charAt(result.length() - 1) != '-') {
+					result.append('-');
+				}
+				result.append(Character.toLowerCase(ch));
+			}
+			return result.toString();
+		}
+
+	}
+
+}
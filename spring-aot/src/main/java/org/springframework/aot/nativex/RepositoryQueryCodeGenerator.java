@@ -0,0 +1,516 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.nativex.type.Field;
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.MissingTypeException;
+import org.springframework.nativex.type.Type;
+import org.springframework.nativex.type.TypeSystem;
+import org.springframework.util.StringUtils;
+
+/**
+ * Analyze the derived query methods of the Spring Data repositories at build time, as {@code PartTree} would parse
+ * them at startup, and validate their property references against the repository domain type. Property references
+ * that Spring Data can only resolve by trying the possible splits of a camel case name (like {@code customerName}
+ * for {@code customer.name}) are recorded in a generated {@code org.springframework.aot.StaticRepositoryQueries}
+ * class, so that the runtime resolves them directly instead of going through the failed attempts.
+ * <p>Methods with a declared query, methods implemented by a custom implementation and repositories whose domain
+ * type has named queries are not analyzed, nor are the property references the type system cannot fully resolve.
+ */
+class RepositoryQueryCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(RepositoryQueryCodeGenerator.class);
+
+	static final String STATIC_REPOSITORY_QUERIES = "org.springframework.aot.StaticRepositoryQueries";
+
+	static final String REPOSITORY = "org/springframework/data/repository/Repository";
+
+	private static final String NO_REPOSITORY_BEAN = "Lorg/springframework/data/repository/NoRepositoryBean;";
+
+	private static final String QUERY_ANNOTATION = "Lorg/springframework/data/annotation/QueryAnnotation;";
+
+	private static final String PROCEDURE = "Lorg/springframework/data/jpa/repository/query/Procedure;";
+
+	private static final List<String> NAMED_QUERY_ANNOTATIONS = Arrays.asList("Ljavax/persistence/NamedQuery;",
+			"Ljavax/persistence/NamedQueries;", "Ljavax/persistence/NamedNativeQuery;", "Ljavax/persistence/NamedNativeQueries;");
+
+	// The patterns below mirror the ones of PartTree, OrderBySource, Part and PropertyPath
+	private static final Pattern PREFIX_TEMPLATE = Pattern.compile("^(find|read|get|query|search|stream|count|exists|delete|remove)((\\p{Lu}.*?))??By");
+
+	private static final String KEYWORD_TEMPLATE = "(%s)(?=(\\p{Lu}|\\P{InBASIC_LATIN}))";
+
+	private static final Pattern ALL_IGNORE_CASE = Pattern.compile("AllIgnor(ing|e)Case");
+
+	private static final Pattern IGNORE_CASE = Pattern.compile("Ignor(ing|e)Case");
+
+	private static final String ORDER_BY_BLOCK_SPLIT = "(?<=Asc|Desc)(?=\\p{Lu})";
+
+	private static final Pattern ORDER_BY_DIRECTION_SPLIT = Pattern.compile("(.+?)(Asc|Desc)?$");
+
+	private static final Pattern CAMEL_CASE_TAIL = Pattern.compile("\\p{Lu}\\p{Ll}*$");
+
+	// The keywords of each Part.Type, in the order they are tried
+	private static final List<List<String>> PART_TYPE_KEYWORDS = Arrays.asList(
+			Arrays.asList("IsNotNull", "NotNull"),
+			Arrays.asList("IsNull", "Null"),
+			Arrays.asList("IsBetween", "Between"),
+			Arrays.asList("IsLessThan", "LessThan"),
+			Arrays.asList("IsLessThanEqual", "LessThanEqual"),
+			Arrays.asList("IsGreaterThan", "GreaterThan"),
+			Arrays.asList("IsGreaterThanEqual", "GreaterThanEqual"),
+			Arrays.asList("IsBefore", "Before"),
+			Arrays.asList("IsAfter", "After"),
+			Arrays.asList("IsNotLike", "NotLike"),
+			Arrays.asList("IsLike", "Like"),
+			Arrays.asList("IsStartingWith", "StartingWith", "StartsWith"),
+			Arrays.asList("IsEndingWith", "EndingWith", "EndsWith"),
+			Arrays.asList("IsNotEmpty", "NotEmpty"),
+			Arrays.asList("IsEmpty", "Empty"),
+			Arrays.asList("IsNotContaining", "NotContaining", "NotContains"),
+			Arrays.asList("IsContaining", "Containing", "Contains"),
+			Arrays.asList("IsNotIn", "NotIn"),
+			Arrays.asList("IsIn", "In"),
+			Arrays.asList("IsNear", "Near"),
+			Arrays.asList("IsWithin", "Within"),
+			Arrays.asList("MatchesRegex", "Matches", "Regex"),
+			Arrays.asList("Exists"),
+			Arrays.asList("IsTrue", "True"),
+			Arrays.asList("IsFalse", "False"),
+			Arrays.asList("IsNot", "Not"),
+			Arrays.asList("Is", "Equals"));
+
+	private static final List<String> NULLABLE_WRAPPERS = Arrays.asList("java/util/Optional", "com/google/common/base/Optional",
+			"scala/Option", "io/vavr/control/Option");
+
+	private final TypeSystem typeSystem;
+
+	private final Set<String> namedQueries = new HashSet<>();
+
+	private final Map<String, Map<String, String>> propertyPathsByDomainType = new LinkedHashMap<>();
+
+	private final List<String> invalidQueries = new ArrayList<>();
+
+	RepositoryQueryCodeGenerator(TypeSystem typeSystem) {
+		this.typeSystem = typeSystem;
+		// The META-INF/<store>-named-queries.properties files of all stores
+		for (byte[] content : typeSystem.getResources("-named-queries.properties")) {
+			Properties properties = new Properties();
+			try {
+				properties.load(new StringReader(new String(content, StandardCharsets.ISO_8859_1)));
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Unable to read named queries", ex);
+			}
+			this.namedQueries.addAll(properties.stringPropertyNames());
+		}
+	}
+
+	/**
+	 * @param type a type of the application
+	 * @return true if the type is a repository interface whose queries can be analyzed
+	 */
+	static boolean isRepository(Type type) {
+		return type.isInterface() && !type.isPartOfDomain("org.springframework.data.")
+				&& !type.hasAnnotation(NO_REPOSITORY_BEAN, false) && type.implementsInterface(REPOSITORY, true);
+	}
+
+	/**
+	 * Analyze the derived query methods of a repository.
+	 * @param repositoryType the repository interface
+	 * @return true if the derived query methods of the repository were analyzed
+	 */
+	public boolean addRepository(Type repositoryType) {
+		Type domainType = findDomainType(repositoryType);
+		if (domainType == null) {
+			logger.debug("Not analyzing the queries of " + repositoryType.getDottedName() + ": unable to determine its domain type");
+			return false;
+		}
+		for (String namedQueryAnnotation : NAMED_QUERY_ANNOTATIONS) {
+			if (domainType.hasAnnotation(namedQueryAnnotation, false)) {
+				logger.debug("Not analyzing the queries of " + repositoryType.getDottedName() + ": " + domainType.getDottedName() + " declares named queries");
+				return false;
+			}
+		}
+		Set<String> skippedMethodNames;
+		try {
+			skippedMethodNames = getImplementedMethodNames(repositoryType);
+			for (Method declaredQueryMethod : repositoryType.getMethodsWithAnnotation(QUERY_ANNOTATION, true)) {
+				skippedMethodNames.add(declaredQueryMethod.getName());
+			}
+		}
+		catch (MissingTypeException ex) {
+			logger.debug("Not analyzing the queries of " + repositoryType.getDottedName() + ": " + ex.getMessage());
+			return false;
+		}
+		Map<String, String> propertyPaths = this.propertyPathsByDomainType.computeIfAbsent(domainType.getDottedName(), key -> new LinkedHashMap<>());
+		int count = 0;
+		for (Method method : repositoryType.getMethods()) {
+			if (!isDerivedQueryMethod(method, domainType, skippedMethodNames)) {
+				continue;
+			}
+			try {
+				analyzeQueryMethod(method.getName(), domainType, propertyPaths);
+				count++;
+			}
+			catch (IneligibleQueryException ex) {
+				logger.debug("Not analyzing " + repositoryType.getDottedName() + "." + method.getName() + ": " + ex.getMessage());
+			}
+			catch (InvalidQueryException ex) {
+				this.invalidQueries.add(repositoryType.getDottedName() + "." + method.getName() + ": " + ex.getMessage());
+			}
+		}
+		if (propertyPaths.isEmpty()) {
+			this.propertyPathsByDomainType.remove(domainType.getDottedName());
+		}
+		logger.debug("Analyzed " + count + " derived query methods of " + repositoryType.getDottedName());
+		return true;
+	}
+
+	public boolean hasPropertyPaths() {
+		return !this.propertyPathsByDomainType.isEmpty();
+	}
+
+	/**
+	 * @return the derived query methods that Spring Data would fail to parse, with the reason why
+	 */
+	public List<String> getInvalidQueries() {
+		return Collections.unmodifiableList(this.invalidQueries);
+	}
+
+	/**
+	 * @return the property paths of each domain type, keyed by the property reference of the query methods
+	 */
+	Map<String, Map<String, String>> getPropertyPaths() {
+		return this.propertyPathsByDomainType;
+	}
+
+	private Type findDomainType(Type repositoryType) {
+		for (Type repositoryInterface : repositoryType.getInterfaces()) {
+			if (repositoryInterface == null) {
+				continue;
+			}
+			if (repositoryInterface.isPartOfDomain("org.springframework.data.")) {
+				String domainTypeName = repositoryType.findTypeParameterInSupertype(repositoryInterface.getDottedName(), 0);
+				return StringUtils.hasText(domainTypeName) ? this.typeSystem.resolveDotted(domainTypeName, true) : null;
+			}
+		}
+		return null;
+	}
+
+	// The methods Spring Data implements itself or through a custom implementation of the repository
+	private Set<String> getImplementedMethodNames(Type repositoryType) {
+		Set<String> names = new HashSet<>();
+		collectSpringDataMethodNames(repositoryType, names, new HashSet<>());
+		Type customImplementation = this.typeSystem.resolveSlashed(repositoryType.getName() + "Impl", true);
+		if (customImplementation != null) {
+			for (Method method : customImplementation.getMethods()) {
+				names.add(method.getName());
+			}
+		}
+		return names;
+	}
+
+	private void collectSpringDataMethodNames(Type type, Set<String> names, Set<String> visited) {
+		for (Type superInterface : type.getInterfaces()) {
+			if (superInterface == null || !visited.add(superInterface.getName())) {
+				continue;
+			}
+			if (superInterface.isPartOfDomain("org.springframework.data.")) {
+				for (Method method : superInterface.getMethods()) {
+					names.add(method.getName());
+				}
+			}
+			collectSpringDataMethodNames(superInterface, names, visited);
+		}
+	}
+
+	private boolean isDerivedQueryMethod(Method method, Type domainType, Set<String> skippedMethodNames) {
+		String name = method.getName();
+		return !method.isStatic() && !method.isSynthetic() && method.isAbstract()
+				&& PREFIX_TEMPLATE.matcher(name).find()
+				&& !skippedMethodNames.contains(name) && !method.hasAnnotation(PROCEDURE, false)
+				&& !this.namedQueries.contains(domainType.getSimpleName() + "." + name);
+	}
+
+	/**
+	 * Parse a query method name as {@code PartTree} does and resolve its property references.
+	 */
+	private void analyzeQueryMethod(String methodName, Type domainType, Map<String, String> propertyPaths) {
+		Matcher matcher = PREFIX_TEMPLATE.matcher(methodName);
+		String predicate = matcher.find() ? methodName.substring(matcher.group().length()) : methodName;
+		boolean alwaysIgnoreCase = false;
+		Matcher allIgnoreCase = ALL_IGNORE_CASE.matcher(predicate);
+		if (allIgnoreCase.find()) {
+			predicate = predicate.substring(0, allIgnoreCase.start()) + predicate.substring(allIgnoreCase.end());
+		}
+		String[] parts = split(predicate, "OrderBy");
+		if (parts.length > 2) {
+			throw new InvalidQueryException("OrderBy must not be used more than once in a method name");
+		}
+		Map<String, String> resolved = new LinkedHashMap<>();
+		for (String orPart : split(parts[0], "Or")) {
+			if (!StringUtils.hasText(orPart)) {
+				continue;
+			}
+			for (String andPart : split(orPart, "And")) {
+				if (StringUtils.hasText(andPart)) {
+					resolveProperty(extractProperty(andPart), domainType, resolved);
+				}
+			}
+		}
+		if (parts.length == 2) {
+			for (String orderPart : parts[1].split(ORDER_BY_BLOCK_SPLIT)) {
+				Matcher directionMatcher = ORDER_BY_DIRECTION_SPLIT.matcher(orderPart);
+				if (!directionMatcher.find()) {
+					throw new InvalidQueryException("Invalid order syntax for part " + orderPart);
+				}
+				String property = directionMatcher.group(1);
+				if ((property.equals("Asc") || property.equals("Desc")) && directionMatcher.group(2) == null) {
+					throw new InvalidQueryException("Invalid order syntax for part " + orderPart);
+				}
+				resolveProperty(property, domainType, resolved);
+			}
+		}
+		propertyPaths.putAll(resolved);
+	}
+
+	private static String[] split(String text, String keyword) {
+		return Pattern.compile(String.format(KEYWORD_TEMPLATE, keyword)).split(text);
+	}
+
+	private static String extractProperty(String part) {
+		Matcher ignoreCase = IGNORE_CASE.matcher(part);
+		String partToUse = ignoreCase.find() ? part.substring(0, ignoreCase.start()) + part.substring(ignoreCase.end()) : part;
+		String candidate = Introspector.decapitalize(partToUse);
+		for (List<String> keywords : PART_TYPE_KEYWORDS) {
+			if (keywords.stream().anyMatch(partToUse::endsWith)) {
+				for (String keyword : keywords) {
+					if (candidate.endsWith(keyword)) {
+						return candidate.substring(0, candidate.length() - keyword.length());
+					}
+				}
+				return candidate;
+			}
+		}
+		return candidate;
+	}
+
+	/**
+	 * Resolve a property reference as {@code PropertyPath} does, recording it when its path has several segments.
+	 */
+	private void resolveProperty(String source, Type domainType, Map<String, String> resolved) {
+		if (!StringUtils.hasText(source)) {
+			throw new InvalidQueryException("Empty property reference");
+		}
+		if (source.contains("_") || source.contains(".") || source.contains("\\")) {
+			throw new IneligibleQueryException("property " + source + " uses explicit traversal");
+		}
+		List<String> segments = new ArrayList<>();
+		resolveProperty(source, domainType, "", segments);
+		if (segments.size() > 1) {
+			resolved.put(source, String.join(".", segments));
+		}
+	}
+
+	private void resolveProperty(String source, Type type, String tail, List<String> segments) {
+		String propertyName = Introspector.decapitalize(source);
+		List<String> propertyType = findPropertyType(type, propertyName);
+		if (propertyType != null) {
+			segments.add(propertyName);
+			if (StringUtils.hasText(tail)) {
+				resolveProperty(tail, getActualType(type, propertyName, propertyType), "", segments);
+			}
+			return;
+		}
+		Matcher matcher = CAMEL_CASE_TAIL.matcher(source);
+		if (matcher.find() && matcher.start() != 0) {
+			resolveProperty(source.substring(0, matcher.start()), type, source.substring(matcher.start()) + tail, segments);
+			return;
+		}
+		throw new InvalidQueryException("No property " + Introspector.decapitalize(source + tail) + " found for type " + type.getSimpleName());
+	}
+
+	/**
+	 * Find a property as {@code TypeInformation} does: a field of the type or its superclasses, or else a JavaBean
+	 * property of the type or its interfaces.
+	 * @return the types of the property signature, or null if the type has no such property
+	 */
+	private List<String> findPropertyType(Type type, String propertyName) {
+		try {
+			for (Type current = type; current != null && !current.getName().equals("java/lang/Object"); current = current.getSuperclass()) {
+				Field field = current.getField(propertyName);
+				if (field != null) {
+					return field.getSignature();
+				}
+			}
+			return findBeanPropertyType(type, propertyName, new HashSet<>());
+		}
+		catch (MissingTypeException ex) {
+			throw new IneligibleQueryException("unable to resolve the hierarchy of " + type.getDottedName());
+		}
+	}
+
+	private List<String> findBeanPropertyType(Type type, String propertyName, Set<String> visited) {
+		for (Type current = type; current != null; current = current.getSuperclass()) {
+			if (!visited.add(current.getName())) {
+				continue;
+			}
+			for (Method method : current.getMethods()) {
+				if (!method.isPublic() || method.isStatic() || !isAccessor(method, propertyName)) {
+					continue;
+				}
+				if (method.hasGenericSignature()) {
+					return Collections.emptyList();
+				}
+				org.objectweb.asm.Type accessorType = (method.getParameterCount() == 1)
+						? org.objectweb.asm.Type.getArgumentTypes(method.getDesc())[0] : org.objectweb.asm.Type.getReturnType(method.getDesc());
+				return (accessorType.getSort() == org.objectweb.asm.Type.OBJECT)
+						? Collections.singletonList(accessorType.getInternalName()) : Collections.emptyList();
+			}
+			for (Type superInterface : current.getInterfaces()) {
+				if (superInterface != null) {
+					List<String> propertyType = findBeanPropertyType(superInterface, propertyName, visited);
+					if (propertyType != null) {
+						return propertyType;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean isAccessor(Method method, String propertyName) {
+		String name = method.getName();
+		String desc = method.getDesc();
+		if (method.getParameterCount() == 0 && !desc.endsWith(")V")) {
+			return (name.startsWith("get") && name.length() > 3 && Introspector.decapitalize(name.substring(3)).equals(propertyName))
+					|| (name.startsWith("is") && name.length() > 2 && desc.endsWith(")Z")
+					&& Introspector.decapitalize(name.substring(2)).equals(propertyName));
+		}
+		return method.getParameterCount() == 1 && name.startsWith("set") && name.length() > 3
+				&& Introspector.decapitalize(name.substring(3)).equals(propertyName);
+	}
+
+	/**
+	 * Determine the type that the nested properties of a property are resolved against: the element type of a
+	 * collection or array, the value type of a map, the property type otherwise.
+	 */
+	private Type getActualType(Type owner, String propertyName, List<String> propertyType) {
+		if (propertyType.isEmpty()) {
+			throw new IneligibleQueryException("unable to determine the type of " + owner.getSimpleName() + "." + propertyName);
+		}
+		Type rawType = this.typeSystem.resolveSlashed(propertyType.get(0), true);
+		if (rawType == null || NULLABLE_WRAPPERS.contains(rawType.getName())) {
+			throw new IneligibleQueryException("unable to determine the type of " + owner.getSimpleName() + "." + propertyName);
+		}
+		String actualTypeName = propertyType.get(0);
+		if (rawType.implementsInterface("java/util/Map", true)) {
+			actualTypeName = (propertyType.size() == 3) ? propertyType.get(2) : null;
+		}
+		else if (rawType.getName().equals("java/lang/Iterable") || rawType.implementsInterface("java/util/Collection", true)) {
+			actualTypeName = (propertyType.size() == 2) ? propertyType.get(1) : null;
+		}
+		Type actualType = (actualTypeName != null) ? this.typeSystem.resolveSlashed(actualTypeName, true) : null;
+		if (actualType == null) {
+			throw new IneligibleQueryException("unable to determine the element type of " + owner.getSimpleName() + "." + propertyName);
+		}
+		return actualType;
+	}
+
+	public JavaFile generateStaticRepositoryQueries() {
+		MethodSpec.Builder getPropertyPath = MethodSpec.methodBuilder("getPropertyPath")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.returns(String.class)
+				.addParameter(ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class)), "domainType")
+				.addParameter(String.class, "source")
+				.addJavadoc("@param domainType the domain type of a repository\n")
+				.addJavadoc("@param source a property reference of a derived query method of the repository\n")
+				.addJavadoc("@return the path of the property with its segments separated by dots, or null if it was not resolved at build time\n")
+				.beginControlFlow("switch (domainType.getName())");
+		List<MethodSpec> domainTypeMethods = new ArrayList<>();
+		for (Map.Entry<String, Map<String, String>> entry : this.propertyPathsByDomainType.entrySet()) {
+			StringBuilder methodName = new StringBuilder();
+			for (String part : entry.getKey().split("[^A-Za-z0-9]+")) {
+				methodName.append(methodName.length() == 0 ? part : StringUtils.capitalize(part));
+			}
+			MethodSpec.Builder domainTypeMethod = MethodSpec.methodBuilder(methodName.toString())
+					.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+					.returns(String.class)
+					.addParameter(String.class, "source")
+					.beginControlFlow("switch (source)");
+			for (Map.Entry<String, String> propertyPath : entry.getValue().entrySet()) {
+				domainTypeMethod.addStatement("case $S: return $S", propertyPath.getKey(), propertyPath.getValue());
+			}
+			domainTypeMethod.addStatement("default: return null").endControlFlow();
+			MethodSpec method = domainTypeMethod.build();
+			domainTypeMethods.add(method);
+			getPropertyPath.addStatement("case $S: return $N(source)", entry.getKey(), method);
+		}
+		getPropertyPath.addStatement("default: return null").endControlFlow();
+		TypeSpec staticRepositoryQueries = TypeSpec.classBuilder(ClassName.bestGuess(STATIC_REPOSITORY_QUERIES))
+				.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+				.addMethod(getPropertyPath.build())
+				.addMethods(domainTypeMethods)
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(ClassName.bestGuess(STATIC_REPOSITORY_QUERIES).packageName(), staticRepositoryQueries).build();
+	}
+
+	@SuppressWarnings("serial")
+	private static class IneligibleQueryException extends RuntimeException {
+
+		IneligibleQueryException(String message) {
+			super(message);
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static class InvalidQueryException extends RuntimeException {
+
+		InvalidQueryException(String message) {
+			super(message);
+		}
+	}
+}
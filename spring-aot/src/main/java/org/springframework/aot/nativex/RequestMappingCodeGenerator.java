@@ -0,0 +1,490 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.tree.AnnotationNode;
+
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
+import org.springframework.nativex.hint.Flag;
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+import org.springframework.nativex.type.TypeSystem;
+
+/**
+ * Analyze the request mappings of the controllers of the application at build time. The generated
+ * {@code org.springframework.aot.StaticRequestMappings} registrations provide a {@code RequestMappingHandlerMapping}
+ * that registers the handler methods of these controllers in one pass, with the mapping attributes read at build time,
+ * instead of introspecting every method of the controllers and merging their annotations on startup.
+ * <p>The handler mapping still creates the mapping infos, so that the path prefixes, the embedded values and the
+ * custom conditions of the application apply as usual. Only the annotated methods of the covered controllers need to
+ * be reflectively accessible.
+ */
+class RequestMappingCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(RequestMappingCodeGenerator.class);
+
+	static final String STATIC_REQUEST_MAPPINGS = "org.springframework.aot.StaticRequestMappings";
+
+	static final String REQUEST_MAPPING_HANDLER_MAPPING = "org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping";
+
+	static final String WEB_MVC_REGISTRATIONS = "org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations";
+
+	private static final String REQUEST_MAPPING = "Lorg/springframework/web/bind/annotation/RequestMapping;";
+
+	// The composed annotations provided by Spring MVC, with the request method they map
+	private static final Map<String, String> SHORTCUT_MAPPINGS = new HashMap<>();
+
+	static {
+		SHORTCUT_MAPPINGS.put("Lorg/springframework/web/bind/annotation/GetMapping;", "GET");
+		SHORTCUT_MAPPINGS.put("Lorg/springframework/web/bind/annotation/PostMapping;", "POST");
+		SHORTCUT_MAPPINGS.put("Lorg/springframework/web/bind/annotation/PutMapping;", "PUT");
+		SHORTCUT_MAPPINGS.put("Lorg/springframework/web/bind/annotation/DeleteMapping;", "DELETE");
+		SHORTCUT_MAPPINGS.put("Lorg/springframework/web/bind/annotation/PatchMapping;", "PATCH");
+	}
+
+	private static final ClassName HANDLER_MAPPING = ClassName.bestGuess(REQUEST_MAPPING_HANDLER_MAPPING);
+
+	private static final ClassName REQUEST_MAPPING_INFO = ClassName.get("org.springframework.web.servlet.mvc.method", "RequestMappingInfo");
+
+	private static final ClassName REQUEST_MAPPING_ANNOTATION = ClassName.get("org.springframework.web.bind.annotation", "RequestMapping");
+
+	private static final ClassName REQUEST_METHOD = ClassName.get("org.springframework.web.bind.annotation", "RequestMethod");
+
+	private static final ClassName CLASS_UTILS = ClassName.get("org.springframework.util", "ClassUtils");
+
+	private static final ClassName AOP_UTILS = ClassName.get("org.springframework.aop.support", "AopUtils");
+
+	private static final TypeName CLASS = ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+
+	private final TypeSystem typeSystem;
+
+	private final Map<String, Controller> controllers = new TreeMap<>();
+
+	RequestMappingCodeGenerator(TypeSystem typeSystem) {
+		this.typeSystem = typeSystem;
+	}
+
+	/**
+	 * Record the request mappings of a controller, if they can all be read at build time. A controller is not covered
+	 * when it inherits methods or mappings, or when it uses composed mapping annotations Spring MVC does not provide.
+	 * @param type a controller of the application
+	 */
+	public void addType(Type type) {
+		if (type.isInterface() || type.isAbstract()) {
+			return;
+		}
+		if (!"java/lang/Object".equals(type.getSuperclassString())) {
+			logger.debug("Not registering the request mappings of " + type.getDottedName() + " ahead of time, it extends " + type.getSuperclassString());
+			return;
+		}
+		if (declaresMappings(type.getInterfaces())) {
+			logger.debug("Not registering the request mappings of " + type.getDottedName() + " ahead of time, it inherits mappings from its interfaces");
+			return;
+		}
+		Controller controller = new Controller(type);
+		for (Type annotationType : type.getAnnotations()) {
+			if (annotationType.getDescriptor().equals(REQUEST_MAPPING)) {
+				controller.typeMapping = getMappingAttributes(type.getAnnotation(REQUEST_MAPPING), null);
+			}
+			else if (isComposedMapping(annotationType)) {
+				logger.debug("Not registering the request mappings of " + type.getDottedName() + " ahead of time, it is annotated with " + annotationType.getDottedName());
+				return;
+			}
+		}
+		for (Method method : type.getMethods()) {
+			if (method.getName().startsWith("<") || method.isSynthetic()) {
+				continue;
+			}
+			MappingAttributes methodMapping = null;
+			for (Type annotationType : method.getAnnotationTypes()) {
+				String descriptor = annotationType.getDescriptor();
+				if (descriptor.equals(REQUEST_MAPPING) || SHORTCUT_MAPPINGS.containsKey(descriptor)) {
+					if (methodMapping != null) {
+						logger.debug("Not registering the request mappings of " + type.getDottedName() + " ahead of time, " + method.getName() + " has several mapping annotations");
+						return;
+					}
+					methodMapping = getMappingAttributes(method.getAnnotation(descriptor), SHORTCUT_MAPPINGS.get(descriptor));
+				}
+				else if (isComposedMapping(annotationType)) {
+					logger.debug("Not registering the request mappings of " + type.getDottedName() + " ahead of time, " + method.getName() + " is annotated with " + annotationType.getDottedName());
+					return;
+				}
+			}
+			if (methodMapping != null) {
+				controller.handlerMethods.add(new HandlerMethod(method, methodMapping));
+			}
+		}
+		if (!controller.handlerMethods.isEmpty()) {
+			this.controllers.put(type.getDottedName(), controller);
+		}
+	}
+
+	public boolean hasControllers() {
+		return !this.controllers.isEmpty();
+	}
+
+	/**
+	 * @return the dotted names of the controllers whose request mappings are registered ahead of time
+	 */
+	public Set<String> getControllerNames() {
+		return Collections.unmodifiableSet(this.controllers.keySet());
+	}
+
+	/**
+	 * Restrict the reflective access to the methods of the covered controllers to their annotated methods, that
+	 * include the handler methods, the exception handlers and the other methods Spring MVC invokes.
+	 * @param reflectionDescriptor the reflection configuration of the application
+	 * @return the dotted names of the controllers whose reflective access has been restricted
+	 */
+	public List<String> restrictReflection(ReflectionDescriptor reflectionDescriptor) {
+		List<String> restricted = new ArrayList<>();
+		for (ClassDescriptor classDescriptor : reflectionDescriptor.getClassDescriptors()) {
+			Controller controller = this.controllers.get(classDescriptor.getName());
+			Set<Flag> flags = classDescriptor.getFlags();
+			if (controller == null || flags == null || !(flags.contains(Flag.allDeclaredMethods) || flags.contains(Flag.allPublicMethods))) {
+				continue;
+			}
+			classDescriptor.unsetFlag(Flag.allDeclaredMethods);
+			classDescriptor.unsetFlag(Flag.allPublicMethods);
+			for (Method method : controller.type.getMethods()) {
+				if (method.getName().startsWith("<") || method.isSynthetic() || !method.hasAnnotations()) {
+					continue;
+				}
+				org.objectweb.asm.Type[] parameterTypes = org.objectweb.asm.Type.getArgumentTypes(method.getDesc());
+				String[] parameterTypenames = new String[parameterTypes.length];
+				for (int i = 0; i < parameterTypes.length; i++) {
+					parameterTypenames[i] = parameterTypes[i].getClassName();
+				}
+				MethodDescriptor methodDescriptor = MethodDescriptor.of(method.getName(), parameterTypenames);
+				if (!classDescriptor.contains(methodDescriptor)) {
+					classDescriptor.addMethodDescriptor(methodDescriptor);
+				}
+			}
+			restricted.add(classDescriptor.getName());
+		}
+		return restricted;
+	}
+
+	public JavaFile generateStaticRequestMappings() {
+		ClassName staticRequestMappings = ClassName.bestGuess(STATIC_REQUEST_MAPPINGS);
+		ClassName handlerMappingName = staticRequestMappings.nestedClass("HandlerMapping");
+		ClassName mappingName = staticRequestMappings.nestedClass("Mapping");
+		TypeSpec.Builder handlerMapping = TypeSpec.classBuilder(handlerMappingName)
+				.addModifiers(Modifier.STATIC)
+				.superclass(HANDLER_MAPPING);
+		MethodSpec.Builder detectHandlerMethods = MethodSpec.methodBuilder("detectHandlerMethods")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PROTECTED)
+				.addParameter(Object.class, "handler")
+				.addStatement("$T handlerType = (handler instanceof $T ? obtainApplicationContext().getType(($T) handler) : handler.getClass())",
+						CLASS, String.class, String.class)
+				.beginControlFlow("if (handlerType != null)")
+				.addStatement("$T userType = $T.getUserClass(handlerType)", CLASS, CLASS_UTILS)
+				.beginControlFlow("switch (userType.getName())");
+		Set<String> registerMethodNames = new HashSet<>();
+		List<MethodSpec> registerMethods = new ArrayList<>();
+		for (Controller controller : this.controllers.values()) {
+			String registerMethodName = "register" + controller.type.getSimpleName().replace('$', '_');
+			for (int i = 2; !registerMethodNames.add(registerMethodName); i++) {
+				registerMethodName = "register" + controller.type.getSimpleName().replace('$', '_') + i;
+			}
+			detectHandlerMethods.addCode("case $S:\n$>", controller.type.getDottedName())
+					.addStatement("$N(handler, userType)", registerMethodName)
+					.addStatement("return")
+					.addCode("$<");
+			registerMethods.add(generateRegisterMethod(registerMethodName, controller, mappingName));
+		}
+		detectHandlerMethods.endControlFlow()
+				.endControlFlow()
+				.addStatement("super.detectHandlerMethods(handler)");
+		handlerMapping.addMethod(detectHandlerMethods.build())
+				.addMethods(registerMethods)
+				.addMethod(MethodSpec.methodBuilder("register")
+						.addModifiers(Modifier.PRIVATE)
+						.addParameter(Object.class, "handler")
+						.addParameter(CLASS, "userType")
+						.addParameter(REQUEST_MAPPING_INFO, "typeInfo")
+						.addParameter(java.lang.reflect.Method.class, "method")
+						.addParameter(REQUEST_MAPPING_ANNOTATION, "methodMapping")
+						.addStatement("$T info = createRequestMappingInfo(methodMapping, getCustomMethodCondition(method))", REQUEST_MAPPING_INFO)
+						.beginControlFlow("if (typeInfo != null)")
+						.addStatement("info = typeInfo.combine(info)")
+						.endControlFlow()
+						.beginControlFlow("for ($T<$T, $T<$T>> entry : getPathPrefixes().entrySet())", Map.Entry.class, String.class, Predicate.class, CLASS)
+						.beginControlFlow("if (entry.getValue().test(userType))")
+						.addStatement("$T prefixMapping = new $T($S, new $T[] { entry.getKey() }, new $T[0], new $T[0], new $T[0], new $T[0], new $T[0])",
+								mappingName, mappingName, "", String.class, REQUEST_METHOD, String.class, String.class, String.class, String.class)
+						.addStatement("info = createRequestMappingInfo(prefixMapping, null).combine(info)")
+						.addStatement("break")
+						.endControlFlow()
+						.endControlFlow()
+						.addStatement("registerHandlerMethod(handler, $T.selectInvocableMethod(method, userType), info)", AOP_UTILS)
+						.build())
+				.addMethod(MethodSpec.methodBuilder("method")
+						.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+						.returns(java.lang.reflect.Method.class)
+						.addParameter(CLASS, "type")
+						.addParameter(String.class, "name")
+						.addParameter(ArrayTypeName.of(CLASS), "parameterTypes")
+						.varargs()
+						.beginControlFlow("try")
+						.addStatement("return type.getDeclaredMethod(name, parameterTypes)")
+						.nextControlFlow("catch ($T ex)", NoSuchMethodException.class)
+						.addStatement("throw new $T($S + name + $S + type.getName(), ex)", IllegalStateException.class,
+								"Unable to find the handler method ", " of ")
+						.endControlFlow()
+						.build());
+		TypeSpec staticRequestMappingsType = TypeSpec.classBuilder(staticRequestMappings)
+				.addModifiers(Modifier.PUBLIC)
+				.addSuperinterface(ClassName.bestGuess(WEB_MVC_REGISTRATIONS))
+				.addMethod(MethodSpec.methodBuilder("getRequestMappingHandlerMapping")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.returns(HANDLER_MAPPING)
+						.addStatement("return new $T()", handlerMappingName)
+						.build())
+				.addType(handlerMapping.build())
+				.addType(generateMapping(mappingName))
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(staticRequestMappings.packageName(), staticRequestMappingsType).build();
+	}
+
+	private MethodSpec generateRegisterMethod(String name, Controller controller, ClassName mappingName) {
+		MethodSpec.Builder register = MethodSpec.methodBuilder(name)
+				.addModifiers(Modifier.PRIVATE)
+				.addParameter(Object.class, "handler")
+				.addParameter(CLASS, "userType");
+		if (controller.typeMapping != null) {
+			register.addStatement("$T typeInfo = createRequestMappingInfo($L, getCustomTypeCondition(userType))",
+					REQUEST_MAPPING_INFO, newMapping(controller.typeMapping, mappingName));
+		}
+		else {
+			register.addStatement("$T typeInfo = null", REQUEST_MAPPING_INFO);
+		}
+		for (HandlerMethod handlerMethod : controller.handlerMethods) {
+			CodeBlock.Builder lookup = CodeBlock.builder().add("method(userType, $S", handlerMethod.method.getName());
+			for (org.objectweb.asm.Type parameterType : org.objectweb.asm.Type.getArgumentTypes(handlerMethod.method.getDesc())) {
+				lookup.add(", $L", classReference(parameterType));
+			}
+			register.addStatement("register(handler, userType, typeInfo, $L), $L)", lookup.build(),
+					newMapping(handlerMethod.mapping, mappingName));
+		}
+		return register.build();
+	}
+
+	// The parameter types the generated class cannot refer to are loaded by name
+	private CodeBlock classReference(org.objectweb.asm.Type parameterType) {
+		org.objectweb.asm.Type elementType = parameterType.getSort() == org.objectweb.asm.Type.ARRAY ? parameterType.getElementType() : parameterType;
+		if (elementType.getSort() == org.objectweb.asm.Type.OBJECT) {
+			Type type = this.typeSystem.Lresolve(elementType.getDescriptor(), true);
+			if (type == null || !PropertiesBinderCodeGenerator.isAccessible(type, ClassName.bestGuess(STATIC_REQUEST_MAPPINGS).packageName())) {
+				return CodeBlock.of("$T.resolveClassName($S, userType.getClassLoader())", CLASS_UTILS, parameterType.getClassName());
+			}
+		}
+		return CodeBlock.of("$T.class", PropertiesBinderCodeGenerator.typeName(parameterType.getDescriptor()));
+	}
+
+	private CodeBlock newMapping(MappingAttributes attributes, ClassName mappingName) {
+		CodeBlock methods = CodeBlock.of("new $T[0]", REQUEST_METHOD);
+		if (!attributes.methods.isEmpty()) {
+			CodeBlock.Builder elements = CodeBlock.builder();
+			for (int i = 0; i < attributes.methods.size(); i++) {
+				elements.add(i == 0 ? "$T.$L" : ", $T.$L", REQUEST_METHOD, attributes.methods.get(i));
+			}
+			methods = CodeBlock.of("new $T[] { $L }", REQUEST_METHOD, elements.build());
+		}
+		return CodeBlock.of("new $T($S, $L, $L, $L, $L, $L, $L)", mappingName, attributes.name,
+				stringArray(attributes.path), methods, stringArray(attributes.params),
+				stringArray(attributes.headers), stringArray(attributes.consumes), stringArray(attributes.produces));
+	}
+
+	private static CodeBlock stringArray(List<String> values) {
+		if (values.isEmpty()) {
+			return CodeBlock.of("new $T[0]", String.class);
+		}
+		CodeBlock.Builder elements = CodeBlock.builder();
+		for (int i = 0; i < values.size(); i++) {
+			elements.add(i == 0 ? "$S" : ", $S", values.get(i));
+		}
+		return CodeBlock.of("new $T[] { $L }", String.class, elements.build());
+	}
+
+	// The request mapping the generated mapping infos are created from, with the attributes read at build time
+	private static TypeSpec generateMapping(ClassName mappingName) {
+		TypeName stringArray = ArrayTypeName.of(String.class);
+		TypeName requestMethodArray = ArrayTypeName.of(REQUEST_METHOD);
+		String[] names = { "name", "path", "method", "params", "headers", "consumes", "produces" };
+		TypeName[] types = { ClassName.get(String.class), stringArray, requestMethodArray, stringArray, stringArray, stringArray, stringArray };
+		TypeSpec.Builder mapping = TypeSpec.classBuilder(mappingName)
+				.addModifiers(Modifier.STATIC)
+				.addSuperinterface(REQUEST_MAPPING_ANNOTATION)
+				.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "all").build());
+		MethodSpec.Builder constructor = MethodSpec.constructorBuilder();
+		for (int i = 0; i < names.length; i++) {
+			mapping.addField(types[i], names[i], Modifier.PRIVATE, Modifier.FINAL);
+			constructor.addParameter(types[i], names[i]).addStatement("this.$N = $N", names[i], names[i]);
+			mapping.addMethod(MethodSpec.methodBuilder(names[i])
+					.addAnnotation(Override.class)
+					.addModifiers(Modifier.PUBLIC)
+					.returns(types[i])
+					.addStatement("return this.$N", names[i])
+					.build());
+		}
+		return mapping.addMethod(constructor.build())
+				.addMethod(MethodSpec.methodBuilder("value")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.returns(stringArray)
+						.addStatement("return this.path")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("annotationType")
+						.addAnnotation(Override.class)
+						.addModifiers(Modifier.PUBLIC)
+						.returns(ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Annotation.class)))
+						.addStatement("return $T.class", REQUEST_MAPPING_ANNOTATION)
+						.build())
+				.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MappingAttributes getMappingAttributes(AnnotationNode annotation, String requestMethod) {
+		MappingAttributes attributes = new MappingAttributes();
+		if (requestMethod != null) {
+			attributes.methods.add(requestMethod);
+		}
+		if (annotation.values == null) {
+			return attributes;
+		}
+		for (int i = 0; i < annotation.values.size(); i += 2) {
+			String name = (String) annotation.values.get(i);
+			Object value = annotation.values.get(i + 1);
+			switch (name) {
+			case "name":
+				attributes.name = (String) value;
+				break;
+			case "value":
+			case "path":
+				// Aliases, only one of them is set or both have the same value
+				attributes.path = (List<String>) value;
+				break;
+			case "method":
+				for (Object enumValue : (List<Object>) value) {
+					attributes.methods.add(((String[]) enumValue)[1]);
+				}
+				break;
+			case "params":
+				attributes.params = (List<String>) value;
+				break;
+			case "headers":
+				attributes.headers = (List<String>) value;
+				break;
+			case "consumes":
+				attributes.consumes = (List<String>) value;
+				break;
+			case "produces":
+				attributes.produces = (List<String>) value;
+				break;
+			}
+		}
+		return attributes;
+	}
+
+	// Spring MVC finds the mappings declared on the methods of the interfaces of a controller
+	private boolean declaresMappings(Type[] interfaces) {
+		for (Type itf : interfaces) {
+			if (itf == null || isComposedMapping(itf) || !itf.getMethods(Method::isAtMapping).isEmpty()
+					|| declaresMappings(itf.getInterfaces())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isComposedMapping(Type annotationType) {
+		return annotationType.isMetaAnnotated(Type.fromLdescriptorToSlashed(REQUEST_MAPPING));
+	}
+
+	static class Controller {
+
+		final Type type;
+
+		MappingAttributes typeMapping;
+
+		final List<HandlerMethod> handlerMethods = new ArrayList<>();
+
+		Controller(Type type) {
+			this.type = type;
+		}
+	}
+
+	static class HandlerMethod {
+
+		final Method method;
+
+		final MappingAttributes mapping;
+
+		HandlerMethod(Method method, MappingAttributes mapping) {
+			this.method = method;
+			this.mapping = mapping;
+		}
+	}
+
+	static class MappingAttributes {
+
+		String name = "";
+
+		List<String> path = Collections.emptyList();
+
+		final List<String> methods = new ArrayList<>();
+
+		List<String> params = Collections.emptyList();
+
+		List<String> headers = Collections.emptyList();
+
+		List<String> consumes = Collections.emptyList();
+
+		List<String> produces = Collections.emptyList();
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+
+/**
+ * Find at build time the {@code @Scheduled} and {@code @EventListener} methods, directly annotated or through
+ * composed annotations such as {@code @TransactionalEventListener}. The generated
+ * {@code org.springframework.aot.StaticScheduledAndEventListenerMethods} class returns the annotated methods of a
+ * class and of its supertypes, so that the scheduled annotation bean post processor and the event listener method
+ * processor only look at those methods instead of introspecting every method of every bean.
+ * <p>The methods of a class are only known if all its supertypes are in packages that were scanned, or are JDK
+ * classes: {@code null} is returned otherwise and the processors introspect the class as usual.
+ */
+class ScheduledAndEventListenerMethodsCodeGenerator {
+
+	static final String STATIC_SCHEDULED_AND_EVENT_LISTENER_METHODS = "org.springframework.aot.StaticScheduledAndEventListenerMethods";
+
+	static final String AT_SCHEDULED = "Lorg/springframework/scheduling/annotation/Scheduled;";
+
+	static final String AT_SCHEDULES = "Lorg/springframework/scheduling/annotation/Schedules;";
+
+	static final String AT_EVENT_LISTENER = "Lorg/springframework/context/event/EventListener;";
+
+	// The packages whose classes are known not to declare annotated methods
+	private static final String[] LIBRARY_PACKAGES = { "java.", "javax.", "jdk.", "kotlin." };
+
+	private static final TypeName CLASS = ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+
+	private static final TypeName METHOD_LIST = ParameterizedTypeName.get(ClassName.get(List.class), ClassName.get(java.lang.reflect.Method.class));
+
+	private static final ClassName CLASS_UTILS = ClassName.get("org.springframework.util", "ClassUtils");
+
+	private static final ClassName REFLECTION_UTILS = ClassName.get("org.springframework.util", "ReflectionUtils");
+
+	private final Map<String, List<Method>> scheduledMethods = new ConcurrentHashMap<>();
+
+	private final Map<String, List<Method>> eventListenerMethods = new ConcurrentHashMap<>();
+
+	private final Set<String> scannedPackages = new ConcurrentSkipListSet<>();
+
+	// Whether each annotation type is meta-annotated, as the classes are visited concurrently
+	private final Map<String, Boolean> scheduledAnnotations = new ConcurrentHashMap<>();
+
+	private final Map<String, Boolean> eventListenerAnnotations = new ConcurrentHashMap<>();
+
+	/**
+	 * Record the annotated methods declared by a class, along with its package.
+	 * @param type a scanned type
+	 * @return true if the type declares annotated methods
+	 */
+	public boolean addType(Type type) {
+		String dottedName = type.getDottedName();
+		int lastDot = dottedName.lastIndexOf('.');
+		this.scannedPackages.add(lastDot == -1 ? "" : dottedName.substring(0, lastDot));
+		if (type.isAnnotation()) {
+			return false;
+		}
+		List<Method> scheduled = new ArrayList<>();
+		List<Method> eventListeners = new ArrayList<>();
+		for (Method method : type.getMethods()) {
+			// Bridge methods carry the annotations of the methods they bridge to
+			if (method.isSynthetic() || method.isStatic()) {
+				continue;
+			}
+			List<Type> annotationTypes = method.getAnnotationTypes();
+			if (hasAnnotation(annotationTypes, this.scheduledAnnotations, AT_SCHEDULED, AT_SCHEDULES)) {
+				scheduled.add(method);
+			}
+			if (hasAnnotation(annotationTypes, this.eventListenerAnnotations, AT_EVENT_LISTENER)) {
+				eventListeners.add(method);
+			}
+		}
+		if (!scheduled.isEmpty()) {
+			this.scheduledMethods.put(dottedName, scheduled);
+		}
+		if (!eventListeners.isEmpty()) {
+			this.eventListenerMethods.put(dottedName, eventListeners);
+		}
+		return !scheduled.isEmpty() || !eventListeners.isEmpty();
+	}
+
+	/**
+	 * @return the {@code @Scheduled} methods, by dotted name of their declaring class
+	 */
+	public Map<String, List<Method>> getScheduledMethods() {
+		return new TreeMap<>(this.scheduledMethods);
+	}
+
+	/**
+	 * @return the {@code @EventListener} methods, by dotted name of their declaring class
+	 */
+	public Map<String, List<Method>> getEventListenerMethods() {
+		return new TreeMap<>(this.eventListenerMethods);
+	}
+
+	public JavaFile generateStaticScheduledAndEventListenerMethods() {
+		MethodSpec.Builder isScannedPackage = MethodSpec.methodBuilder("isScannedPackage")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(String.class, "packageName");
+		if (!this.scannedPackages.isEmpty()) {
+			isScannedPackage.beginControlFlow("switch (packageName)");
+			for (String scannedPackage : new TreeSet<>(this.scannedPackages)) {
+				isScannedPackage.addCode("case $S:\n", scannedPackage);
+			}
+			isScannedPackage.addCode("$>")
+					.addStatement("return true")
+					.addCode("$<")
+					.endControlFlow();
+		}
+		isScannedPackage.addStatement("return false");
+		MethodSpec.Builder isLibraryPackage = MethodSpec.methodBuilder("isLibraryPackage")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(String.class, "packageName");
+		for (String libraryPackage : LIBRARY_PACKAGES) {
+			isLibraryPackage.beginControlFlow("if (packageName.startsWith($S))", libraryPackage)
+					.addStatement("return true")
+					.endControlFlow();
+		}
+		isLibraryPackage.addStatement("return false");
+		TypeSpec staticScheduledAndEventListenerMethods = TypeSpec.classBuilder(ClassName.bestGuess(STATIC_SCHEDULED_AND_EVENT_LISTENER_METHODS))
+				.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+				.addMethod(MethodSpec.methodBuilder("getScheduledMethods")
+						.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+						.returns(java.lang.reflect.Method[].class)
+						.addParameter(CLASS, "clazz")
+						.addStatement("return getMethods(clazz, false)")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("getEventListenerMethods")
+						.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+						.returns(java.lang.reflect.Method[].class)
+						.addParameter(CLASS, "clazz")
+						.addStatement("return getMethods(clazz, true)")
+						.build())
+				.addMethod(MethodSpec.methodBuilder("getMethods")
+						.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+						.returns(java.lang.reflect.Method[].class)
+						.addParameter(CLASS, "clazz")
+						.addParameter(boolean.class, "eventListeners")
+						.addStatement("$T methods = new $T<>()", METHOD_LIST, ArrayList.class)
+						.beginControlFlow("for ($T current = clazz; current != null; current = current.getSuperclass())", CLASS)
+						.beginControlFlow("if (!addMethods(current, eventListeners, methods))")
+						.addStatement("return null")
+						.endControlFlow()
+						.endControlFlow()
+						.beginControlFlow("for ($T itf : $T.getAllInterfacesForClassAsSet(clazz))", CLASS, CLASS_UTILS)
+						.beginControlFlow("if (!addMethods(itf, eventListeners, methods))")
+						.addStatement("return null")
+						.endControlFlow()
+						.endControlFlow()
+						.addStatement("return methods.toArray(new $T[0])", java.lang.reflect.Method.class)
+						.build())
+				.addMethod(MethodSpec.methodBuilder("addMethods")
+						.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+						.returns(boolean.class)
+						.addParameter(CLASS, "clazz")
+						.addParameter(boolean.class, "eventListeners")
+						.addParameter(METHOD_LIST, "methods")
+						.addStatement("String packageName = $T.getPackageName(clazz)", CLASS_UTILS)
+						.beginControlFlow("if (isLibraryPackage(packageName))")
+						.addStatement("return true")
+						.endControlFlow()
+						.beginControlFlow("if (!isScannedPackage(packageName))")
+						.addStatement("return false")
+						.endControlFlow()
+						.beginControlFlow("if (eventListeners)")
+						.addStatement("addEventListenerMethods(clazz, methods)")
+						.nextControlFlow("else")
+						.addStatement("addScheduledMethods(clazz, methods)")
+						.endControlFlow()
+						.addStatement("return true")
+						.build())
+				.addMethod(generateAddMethods("addScheduledMethods", getScheduledMethods()))
+				.addMethod(generateAddMethods("addEventListenerMethods", getEventListenerMethods()))
+				.addMethod(MethodSpec.methodBuilder("findMethod")
+						.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+						.varargs()
+						.returns(java.lang.reflect.Method.class)
+						.addParameter(CLASS, "clazz")
+						.addParameter(String.class, "name")
+						.addParameter(String[].class, "parameterTypeNames")
+						.addStatement("$T[] parameterTypes = new $T[parameterTypeNames.length]", CLASS, Class.class)
+						.beginControlFlow("for (int i = 0; i < parameterTypeNames.length; i++)")
+						.addStatement("parameterTypes[i] = $T.resolveClassName(parameterTypeNames[i], clazz.getClassLoader())", CLASS_UTILS)
+						.endControlFlow()
+						.addStatement("$T method = $T.findMethod(clazz, name, parameterTypes)", java.lang.reflect.Method.class, REFLECTION_UTILS)
+						.beginControlFlow("if (method == null)")
+						.addStatement("throw new $T(\"Method \" + name + \" found at build time is missing from \" + clazz.getName())", IllegalStateException.class)
+						.endControlFlow()
+						.addStatement("return method")
+						.build())
+				.addMethod(isScannedPackage.build())
+				.addMethod(isLibraryPackage.build())
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(ClassName.bestGuess(STATIC_SCHEDULED_AND_EVENT_LISTENER_METHODS).packageName(), staticScheduledAndEventListenerMethods).build();
+	}
+
+	private MethodSpec generateAddMethods(String name, Map<String, List<Method>> methodsByType) {
+		MethodSpec.Builder addMethods = MethodSpec.methodBuilder(name)
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.addParameter(CLASS, "clazz")
+				.addParameter(METHOD_LIST, "methods");
+		if (!methodsByType.isEmpty()) {
+			addMethods.beginControlFlow("switch (clazz.getName())");
+			for (Map.Entry<String, List<Method>> entry : methodsByType.entrySet()) {
+				addMethods.addCode("case $S:\n", entry.getKey()).addCode("$>");
+				for (Method method : entry.getValue()) {
+					addMethods.addStatement("methods.add(findMethod(clazz, $S$L))", method.getName(), parameterTypeNames(method));
+				}
+				addMethods.addStatement("break").addCode("$<");
+			}
+			addMethods.endControlFlow();
+		}
+		return addMethods.build();
+	}
+
+	// The names are the ones Class.getName() returns, that ClassUtils resolves at runtime
+	private static CodeBlock parameterTypeNames(Method method) {
+		CodeBlock.Builder code = CodeBlock.builder();
+		for (org.objectweb.asm.Type parameterType : org.objectweb.asm.Type.getArgumentTypes(method.getDesc())) {
+			code.add(", $S", parameterType.getClassName());
+		}
+		return code.build();
+	}
+
+	private static boolean hasAnnotation(List<Type> annotationTypes, Map<String, Boolean> metaAnnotations, String... descriptors) {
+		for (Type annotationType : annotationTypes) {
+			if (annotationType == null) {
+				continue;
+			}
+			String descriptor = annotationType.getDescriptor();
+			for (String candidate : descriptors) {
+				if (descriptor.equals(candidate)) {
+					return true;
+				}
+			}
+			boolean metaAnnotated = metaAnnotations.computeIfAbsent(descriptor,
+					key -> annotationType.isMetaAnnotated(Type.fromLdescriptorToSlashed(descriptors[0])));
+			if (metaAnnotated) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
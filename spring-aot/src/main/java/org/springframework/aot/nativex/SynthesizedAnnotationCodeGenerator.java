@@ -0,0 +1,408 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.SynthesizedAnnotation;
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+
+/**
+ * Generate concrete implementations of the annotations that Spring synthesizes to honor {@code @AliasFor}
+ * declarations. The attribute values are read once from the {@link MergedAnnotation} being synthesized, the
+ * generated class then behaves as the JDK proxy that {@code SynthesizedMergedAnnotationInvocationHandler} would
+ * otherwise create, which saves the proxy configuration and the reflective invocation of every attribute access.
+ * The implementations are nested in a {@code _SynthesizedAnnotations} class in the package of each annotation,
+ * a {@code org.springframework.aot.StaticSynthesizedAnnotations} class dispatches to them.
+ */
+class SynthesizedAnnotationCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(SynthesizedAnnotationCodeGenerator.class);
+
+	static final String STATIC_SYNTHESIZED_ANNOTATIONS = "org.springframework.aot.StaticSynthesizedAnnotations";
+
+	private static final String SYNTHESIZED_ANNOTATIONS_CLASS = "_SynthesizedAnnotations";
+
+	private static final TypeName MERGED_ANNOTATION = ParameterizedTypeName.get(ClassName.get(MergedAnnotation.class),
+			WildcardTypeName.subtypeOf(Object.class));
+
+	private final Map<String, List<Attribute>> annotationTypes = new LinkedHashMap<>();
+
+	private final Map<String, Type> types = new LinkedHashMap<>();
+
+	/**
+	 * Generate an implementation for an annotation type, if it is eligible.
+	 * @param annotationType the annotation type
+	 * @return true if an implementation was generated for the annotation type
+	 */
+	public boolean addAnnotationType(Type annotationType) {
+		List<Attribute> attributes = new ArrayList<>();
+		String ineligibility = analyze(annotationType, attributes);
+		if (ineligibility != null) {
+			logger.debug("Not generating a synthesized implementation of " + annotationType.getDottedName() + ": " + ineligibility);
+			return false;
+		}
+		logger.debug("Generating a synthesized implementation of " + annotationType.getDottedName());
+		annotationTypes.put(annotationType.getDottedName(), attributes);
+		types.put(annotationType.getDottedName(), annotationType);
+		return true;
+	}
+
+	public boolean hasImplementations() {
+		return !annotationTypes.isEmpty();
+	}
+
+	/**
+	 * @param annotationType the annotation type to check
+	 * @return why no implementation can be generated for the annotation type, or null if it can
+	 */
+	static String checkEligibility(Type annotationType) {
+		return analyze(annotationType, new ArrayList<>());
+	}
+
+	public List<JavaFile> generateSynthesizedAnnotationClasses() {
+		Map<String, List<TypeSpec>> implementationsByPackage = new LinkedHashMap<>();
+		for (Map.Entry<String, List<Attribute>> entry : annotationTypes.entrySet()) {
+			Type annotationType = types.get(entry.getKey());
+			implementationsByPackage.computeIfAbsent(annotationType.getPackageName(), k -> new ArrayList<>())
+					.add(createImplementation(annotationType, entry.getValue()));
+		}
+		List<JavaFile> javaFiles = new ArrayList<>();
+		for (Map.Entry<String, List<TypeSpec>> entry : implementationsByPackage.entrySet()) {
+			TypeSpec synthesizedAnnotations = TypeSpec.classBuilder(SYNTHESIZED_ANNOTATIONS_CLASS)
+					.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+					.addTypes(entry.getValue())
+					.addJavadoc("Class generated - do not edit this file")
+					.build();
+			javaFiles.add(JavaFile.builder(entry.getKey(), synthesizedAnnotations).build());
+		}
+		return javaFiles;
+	}
+
+	public JavaFile generateStaticSynthesizedAnnotations() {
+		CodeBlock.Builder dispatch = CodeBlock.builder().beginControlFlow("switch (annotation.getType().getName())");
+		for (Type annotationType : types.values()) {
+			dispatch.add("case $S:\n", annotationType.getDottedName()).indent()
+					.addStatement("return new $T(annotation)", getImplementationName(annotationType))
+					.unindent();
+		}
+		dispatch.add("default:\n").indent().addStatement("return null").unindent().endControlFlow();
+		MethodSpec synthesize = MethodSpec.methodBuilder("synthesize")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.returns(Annotation.class)
+				.addParameter(MERGED_ANNOTATION, "annotation")
+				.addCode(dispatch.build())
+				.build();
+		ClassName staticSynthesizedAnnotations = ClassName.bestGuess(STATIC_SYNTHESIZED_ANNOTATIONS);
+		TypeSpec type = TypeSpec.classBuilder(staticSynthesizedAnnotations)
+				.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+				.addMethod(synthesize)
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(staticSynthesizedAnnotations.packageName(), type).build();
+	}
+
+	private static String analyze(Type annotationType, List<Attribute> attributes) {
+		if (!annotationType.isAnnotation()) {
+			return "not an annotation type";
+		}
+		String packageName = annotationType.getPackageName();
+		if (!annotationType.getDottedName().contains(".")) {
+			return "in the default package";
+		}
+		if (!PropertiesBinderCodeGenerator.isAccessible(annotationType, packageName)) {
+			return "not accessible";
+		}
+		for (Method method : annotationType.getMethods(m -> !m.isStatic() && !m.isSynthetic() && !m.getName().startsWith("<"))) {
+			String descriptor = org.objectweb.asm.Type.getReturnType(method.getDesc()).getDescriptor();
+			Attribute attribute = new Attribute(method.getName(), descriptor);
+			String elementDescriptor = attribute.getElementDescriptor();
+			if (elementDescriptor.length() > 1 && !elementDescriptor.equals("Ljava/lang/String;")
+					&& !elementDescriptor.equals("Ljava/lang/Class;")) {
+				Type elementType = annotationType.getTypeSystem().Lresolve(elementDescriptor, true);
+				if (elementType == null) {
+					return "attribute " + attribute.name + " has a type that is not on the classpath";
+				}
+				if (!elementType.isEnum() && !elementType.isAnnotation()) {
+					return "attribute " + attribute.name + " has an unsupported type";
+				}
+				if (!PropertiesBinderCodeGenerator.isAccessible(elementType, packageName)) {
+					return "attribute " + attribute.name + " has a type that is not accessible";
+				}
+				attribute.annotation = elementType.isAnnotation();
+				attribute.enumeration = elementType.isEnum();
+			}
+			attributes.add(attribute);
+		}
+		return null;
+	}
+
+	private static ClassName getImplementationName(Type annotationType) {
+		return ClassName.get(annotationType.getPackageName(), SYNTHESIZED_ANNOTATIONS_CLASS,
+				"Synthesized" + annotationType.getSimpleName().replace('$', '_'));
+	}
+
+	private TypeSpec createImplementation(Type annotationType, List<Attribute> attributes) {
+		ClassName annotationName = PropertiesBinderCodeGenerator.className(annotationType);
+		TypeSpec.Builder implementation = TypeSpec.classBuilder(getImplementationName(annotationType))
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+				.addSuperinterface(annotationName)
+				.addSuperinterface(SynthesizedAnnotation.class);
+		if (attributes.stream().anyMatch(Attribute::isClass)) {
+			// Class attributes are usually declared with a bounded wildcard, the raw type overrides them
+			implementation.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+					.addMember("value", "{$S, $S}", "rawtypes", "unchecked").build());
+		}
+		CodeBlock.Builder constructorCode = CodeBlock.builder();
+		for (Attribute attribute : attributes) {
+			TypeName attributeType = attribute.getTypeName();
+			implementation.addField(attributeType, attribute.name, Modifier.PRIVATE, Modifier.FINAL);
+			addValueStatement(constructorCode, attribute);
+			MethodSpec.Builder accessor = MethodSpec.methodBuilder(attribute.name)
+					.addAnnotation(Override.class)
+					.addModifiers(Modifier.PUBLIC)
+					.returns(attributeType);
+			if (attribute.isArray()) {
+				accessor.addStatement("return this.$N.clone()", attribute.name);
+			}
+			else {
+				accessor.addStatement("return this.$N", attribute.name);
+			}
+			implementation.addMethod(accessor.build());
+		}
+		implementation.addMethod(MethodSpec.constructorBuilder()
+				.addModifiers(Modifier.PUBLIC)
+				.addParameter(MERGED_ANNOTATION, "annotation")
+				.addCode(constructorCode.build())
+				.build());
+		implementation.addMethod(MethodSpec.methodBuilder("annotationType")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC)
+				.returns(ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Annotation.class)))
+				.addStatement("return $T.class", annotationName)
+				.build());
+		implementation.addMethod(createEqualsMethod(annotationName, attributes));
+		implementation.addMethod(createHashCodeMethod(attributes));
+		implementation.addMethod(createToStringMethod(annotationName, attributes));
+		return implementation.build();
+	}
+
+	private void addValueStatement(CodeBlock.Builder code, Attribute attribute) {
+		String name = attribute.name;
+		if (attribute.annotation) {
+			TypeName elementType = PropertiesBinderCodeGenerator.typeName(attribute.getElementDescriptor());
+			if (attribute.isArray()) {
+				String mergedName = name + "Annotations";
+				code.addStatement("$T[] $N = annotation.getAnnotationArray($S, $T.class)",
+						ParameterizedTypeName.get(ClassName.get(MergedAnnotation.class), elementType), mergedName, name, elementType);
+				code.addStatement("this.$N = new $T[$N.length]", name, elementType, mergedName);
+				code.beginControlFlow("for (int i = 0; i < $N.length; i++)", mergedName);
+				code.addStatement("this.$N[i] = $N[i].synthesize()", name, mergedName);
+				code.endControlFlow();
+			}
+			else {
+				code.addStatement("this.$N = annotation.getAnnotation($S, $T.class).synthesize()", name, name, elementType);
+			}
+		}
+		else if (attribute.enumeration) {
+			TypeName elementType = PropertiesBinderCodeGenerator.typeName(attribute.getElementDescriptor());
+			code.addStatement("this.$N = annotation.$N($S, $T.class)", name, attribute.isArray() ? "getEnumArray" : "getEnum",
+					name, elementType);
+		}
+		else {
+			code.addStatement("this.$N = annotation.$N($S)", name, attribute.getAccessorName(), name);
+		}
+	}
+
+	private MethodSpec createEqualsMethod(ClassName annotationName, List<Attribute> attributes) {
+		CodeBlock.Builder code = CodeBlock.builder();
+		code.beginControlFlow("if (this == other)").addStatement("return true").endControlFlow();
+		code.beginControlFlow("if (!(other instanceof $T))", annotationName).addStatement("return false").endControlFlow();
+		if (attributes.isEmpty()) {
+			code.addStatement("return true");
+		}
+		else {
+			code.addStatement("$T that = ($T) other", annotationName, annotationName);
+			List<CodeBlock> comparisons = new ArrayList<>();
+			for (Attribute attribute : attributes) {
+				String name = attribute.name;
+				if (attribute.isArray()) {
+					comparisons.add(CodeBlock.of("$T.equals(this.$N, that.$N())", Arrays.class, name, name));
+				}
+				else if (attribute.descriptor.equals("F")) {
+					comparisons.add(CodeBlock.of("Float.floatToIntBits(this.$N) == Float.floatToIntBits(that.$N())", name, name));
+				}
+				else if (attribute.descriptor.equals("D")) {
+					comparisons.add(CodeBlock.of("Double.doubleToLongBits(this.$N) == Double.doubleToLongBits(that.$N())", name, name));
+				}
+				else if (attribute.descriptor.length() == 1) {
+					comparisons.add(CodeBlock.of("this.$N == that.$N()", name, name));
+				}
+				else {
+					comparisons.add(CodeBlock.of("this.$N.equals(that.$N())", name, name));
+				}
+			}
+			code.addStatement("return $L", CodeBlock.join(comparisons, "\n && "));
+		}
+		return MethodSpec.methodBuilder("equals")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC)
+				.returns(boolean.class)
+				.addParameter(Object.class, "other")
+				.addCode(code.build())
+				.build();
+	}
+
+	/**
+	 * The hash code is computed as {@link Annotation#hashCode()} specifies, the member name part of it is
+	 * a constant computed here.
+	 */
+	private MethodSpec createHashCodeMethod(List<Attribute> attributes) {
+		List<CodeBlock> hashes = new ArrayList<>();
+		for (Attribute attribute : attributes) {
+			CodeBlock valueHash;
+			if (attribute.isArray()) {
+				valueHash = CodeBlock.of("$T.hashCode(this.$N)", Arrays.class, attribute.name);
+			}
+			else if (attribute.descriptor.length() == 1) {
+				valueHash = CodeBlock.of("$T.hashCode(this.$N)", attribute.getTypeName().box(), attribute.name);
+			}
+			else {
+				valueHash = CodeBlock.of("this.$N.hashCode()", attribute.name);
+			}
+			hashes.add(CodeBlock.of("($L ^ $L)", 127 * attribute.name.hashCode(), valueHash));
+		}
+		return MethodSpec.methodBuilder("hashCode")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC)
+				.returns(int.class)
+				.addStatement("return $L", hashes.isEmpty() ? CodeBlock.of("0") : CodeBlock.join(hashes, "\n + "))
+				.build();
+	}
+
+	private MethodSpec createToStringMethod(ClassName annotationName, List<Attribute> attributes) {
+		CodeBlock.Builder code = CodeBlock.builder();
+		code.addStatement("$T builder = new $T(\"@\").append($T.class.getName()).append('(')", StringBuilder.class,
+				StringBuilder.class, annotationName);
+		for (int i = 0; i < attributes.size(); i++) {
+			Attribute attribute = attributes.get(i);
+			String prefix = (i == 0 ? "" : ", ") + attribute.name + "=";
+			if (attribute.isArray()) {
+				code.addStatement("builder.append($S).append($T.toString(this.$N))", prefix, Arrays.class, attribute.name);
+			}
+			else {
+				code.addStatement("builder.append($S).append(this.$N)", prefix, attribute.name);
+			}
+		}
+		code.addStatement("return builder.append(')').toString()");
+		return MethodSpec.methodBuilder("toString")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC)
+				.returns(String.class)
+				.addCode(code.build())
+				.build();
+	}
+
+	static class Attribute {
+
+		final String name;
+
+		final String descriptor;
+
+		boolean annotation;
+
+		boolean enumeration;
+
+		Attribute(String name, String descriptor) {
+			this.name = name;
+			this.descriptor = descriptor;
+		}
+
+		boolean isArray() {
+			return descriptor.startsWith("[");
+		}
+
+		boolean isClass() {
+			return getElementDescriptor().equals("Ljava/lang/Class;");
+		}
+
+		String getElementDescriptor() {
+			return isArray() ? descriptor.substring(1) : descriptor;
+		}
+
+		TypeName getTypeName() {
+			if (isClass()) {
+				TypeName raw = ClassName.get(Class.class);
+				return isArray() ? ArrayTypeName.of(raw) : raw;
+			}
+			return PropertiesBinderCodeGenerator.typeName(descriptor);
+		}
+
+		/**
+		 * @return the {@link MergedAnnotation} method that returns the value of a primitive, string or class attribute
+		 */
+		String getAccessorName() {
+			String suffix = isArray() ? "Array" : "";
+			switch (getElementDescriptor()) {
+			case "Z":
+				return "getBoolean" + suffix;
+			case "B":
+				return "getByte" + suffix;
+			case "C":
+				return "getChar" + suffix;
+			case "S":
+				return "getShort" + suffix;
+			case "I":
+				return "getInt" + suffix;
+			case "J":
+				return "getLong" + suffix;
+			case "F":
+				return "getFloat" + suffix;
+			case "D":
+				return "getDouble" + suffix;
+			case "Ljava/lang/String;":
+				return "getString" + suffix;
+			default:
+				return "getClass" + suffix;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.tree.AnnotationNode;
+
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+import org.springframework.util.StringUtils;
+
+/**
+ * Compute at build time the transaction attributes declared with {@code @Transactional} by the classes of the
+ * application. The generated {@code org.springframework.aot.StaticTransactionAttributeSource} extends the
+ * {@code AnnotationTransactionAttributeSource} configured by {@code @EnableTransactionManagement} and returns these
+ * attributes from a {@code switch} on the class and method names, instead of finding and merging the annotations of
+ * each method the first time it is checked.
+ * <p>The attribute source keeps handling the public method restriction, the fallback from the method to its class,
+ * the embedded values and the caching of the attributes, as well as the classes that are not covered.
+ */
+class TransactionAttributeCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(TransactionAttributeCodeGenerator.class);
+
+	static final String STATIC_TRANSACTION_ATTRIBUTE_SOURCE = "org.springframework.aot.StaticTransactionAttributeSource";
+
+	static final String ANNOTATION_TRANSACTION_ATTRIBUTE_SOURCE = "org.springframework.transaction.annotation.AnnotationTransactionAttributeSource";
+
+	// The other annotations the attribute source parses, the classes using them are left to it
+	private static final String[] OTHER_TRANSACTION_ANNOTATIONS = { Type.AtJavaxTransactional, "Ljavax/ejb/TransactionAttribute;" };
+
+	private static final ClassName TRANSACTION_ATTRIBUTE = ClassName.get("org.springframework.transaction.interceptor", "TransactionAttribute");
+
+	private static final ClassName RULE_BASED_TRANSACTION_ATTRIBUTE = ClassName.get("org.springframework.transaction.interceptor", "RuleBasedTransactionAttribute");
+
+	private static final ClassName ROLLBACK_RULE_ATTRIBUTE = ClassName.get("org.springframework.transaction.interceptor", "RollbackRuleAttribute");
+
+	private static final ClassName NO_ROLLBACK_RULE_ATTRIBUTE = ClassName.get("org.springframework.transaction.interceptor", "NoRollbackRuleAttribute");
+
+	private static final ClassName PROPAGATION = ClassName.get("org.springframework.transaction.annotation", "Propagation");
+
+	private static final ClassName ISOLATION = ClassName.get("org.springframework.transaction.annotation", "Isolation");
+
+	// Marks the elements whose annotations the attribute source has to resolve
+	private static final AnnotationNode INELIGIBLE = new AnnotationNode("");
+
+	private static final TypeName CLASS = ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+
+	private final Map<String, TransactionalType> transactionalTypes = new TreeMap<>();
+
+	/**
+	 * @param type a type of the application
+	 * @return true if the type is a class annotated with {@code @Transactional} or declaring annotated methods
+	 */
+	static boolean isTransactionalCandidate(Type type) {
+		return !type.isInterface() && !type.isAnnotation() && (type.isTransactional() || type.hasTransactionalMethods());
+	}
+
+	/**
+	 * Compute the transaction attributes of a class, if they only depend on the {@code @Transactional} annotations it
+	 * declares. A class is not covered when it extends another class, when its interfaces declare transaction
+	 * annotations, or when it uses composed or other transaction annotations.
+	 * @param type a transactional candidate
+	 */
+	public void addType(Type type) {
+		if (!"java/lang/Object".equals(type.getSuperclassString())) {
+			logger.debug("Not computing the transaction attributes of " + type.getDottedName() + " ahead of time, it extends " + type.getSuperclassString());
+			return;
+		}
+		if (declaresTransactionAnnotations(type.getInterfaces())) {
+			logger.debug("Not computing the transaction attributes of " + type.getDottedName() + " ahead of time, its interfaces declare transaction annotations");
+			return;
+		}
+		TransactionalType transactionalType = new TransactionalType(type);
+		AnnotationNode typeAnnotation = getTransactional(type.getAnnotations(), type::getAnnotation);
+		if (typeAnnotation == INELIGIBLE) {
+			logger.debug("Not computing the transaction attributes of " + type.getDottedName() + " ahead of time, it uses other transaction annotations");
+			return;
+		}
+		if (typeAnnotation != null) {
+			transactionalType.typeAttribute = getTransactionAttribute(typeAnnotation);
+		}
+		for (Method method : type.getMethods()) {
+			if (method.getName().startsWith("<") || method.isSynthetic()) {
+				continue;
+			}
+			AnnotationNode methodAnnotation = getTransactional(method.getAnnotationTypes(), method::getAnnotation);
+			if (methodAnnotation == INELIGIBLE) {
+				logger.debug("Not computing the transaction attributes of " + type.getDottedName() + " ahead of time, " + method.getName() + " uses other transaction annotations");
+				return;
+			}
+			if (methodAnnotation != null) {
+				transactionalType.methodAttributes.put(getMethodKey(type, method), getTransactionAttribute(methodAnnotation));
+			}
+		}
+		if (hasTimeoutConflict(transactionalType.typeAttribute) || transactionalType.methodAttributes.values().stream().anyMatch(this::hasTimeoutConflict)) {
+			// The attribute source reports the conflict
+			logger.debug("Not computing the transaction attributes of " + type.getDottedName() + " ahead of time, it specifies both timeout and timeoutString");
+			return;
+		}
+		this.transactionalTypes.put(type.getDottedName(), transactionalType);
+	}
+
+	public boolean hasTransactionalTypes() {
+		return !this.transactionalTypes.isEmpty();
+	}
+
+	/**
+	 * @return the dotted names of the classes whose transaction attributes are computed ahead of time
+	 */
+	public Set<String> getTransactionalTypeNames() {
+		return Collections.unmodifiableSet(this.transactionalTypes.keySet());
+	}
+
+	public JavaFile generateStaticTransactionAttributeSource() {
+		MethodSpec.Builder findTypeAttribute = MethodSpec.methodBuilder("findTransactionAttribute")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PROTECTED)
+				.returns(TRANSACTION_ATTRIBUTE)
+				.addParameter(CLASS, "clazz")
+				.beginControlFlow("switch (clazz.getName())");
+		MethodSpec.Builder isTransactionalType = MethodSpec.methodBuilder("isTransactionalType")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(CLASS, "clazz")
+				.beginControlFlow("switch (clazz.getName())");
+		Map<String, TransactionAttribute> methodAttributes = new TreeMap<>();
+		for (TransactionalType transactionalType : this.transactionalTypes.values()) {
+			findTypeAttribute.addCode("case $S:\n$>", transactionalType.type.getDottedName())
+					.addStatement("return $L", transactionalType.typeAttribute != null ? newAttribute(transactionalType.typeAttribute) : "null")
+					.addCode("$<");
+			isTransactionalType.addCode("case $S:\n", transactionalType.type.getDottedName());
+			methodAttributes.putAll(transactionalType.methodAttributes);
+		}
+		findTypeAttribute.addCode("default:\n$>")
+				.addStatement("return super.findTransactionAttribute(clazz)")
+				.addCode("$<")
+				.endControlFlow();
+		isTransactionalType.addCode("$>")
+				.addStatement("return true")
+				.addCode("$<default:\n$>")
+				.addStatement("return false")
+				.addCode("$<")
+				.endControlFlow();
+		MethodSpec.Builder findMethodAttribute = MethodSpec.methodBuilder("findTransactionAttribute")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PROTECTED)
+				.returns(TRANSACTION_ATTRIBUTE)
+				.addParameter(java.lang.reflect.Method.class, "method")
+				// The attribute source resolves the annotations of the bridged methods
+				.beginControlFlow("if (method.isBridge() || !isTransactionalType(method.getDeclaringClass()))")
+				.addStatement("return super.findTransactionAttribute(method)")
+				.endControlFlow();
+		if (methodAttributes.isEmpty()) {
+			findMethodAttribute.addStatement("return null");
+		}
+		else {
+			findMethodAttribute.beginControlFlow("switch (getMethodKey(method))");
+			for (Map.Entry<String, TransactionAttribute> entry : methodAttributes.entrySet()) {
+				findMethodAttribute.addCode("case $S:\n$>", entry.getKey())
+						.addStatement("return $L", newAttribute(entry.getValue()))
+						.addCode("$<");
+			}
+			findMethodAttribute.addCode("default:\n$>")
+					.addStatement("return null")
+					.addCode("$<")
+					.endControlFlow();
+		}
+		TypeSpec staticTransactionAttributeSource = TypeSpec.classBuilder(ClassName.bestGuess(STATIC_TRANSACTION_ATTRIBUTE_SOURCE))
+				.addModifiers(Modifier.PUBLIC)
+				.superclass(ClassName.bestGuess(ANNOTATION_TRANSACTION_ATTRIBUTE_SOURCE))
+				.addMethod(findTypeAttribute.build())
+				.addMethod(findMethodAttribute.build())
+				.addMethod(isTransactionalType.build())
+				.addMethod(MethodSpec.methodBuilder("getMethodKey")
+						.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+						.returns(String.class)
+						.addParameter(java.lang.reflect.Method.class, "method")
+						.addStatement("$T parameterTypes = new $T($S, $S, $S)", StringJoiner.class, StringJoiner.class, ",", "(", ")")
+						.beginControlFlow("for ($T parameterType : method.getParameterTypes())", CLASS)
+						.addStatement("parameterTypes.add(parameterType.getTypeName())")
+						.endControlFlow()
+						.addStatement("return method.getDeclaringClass().getName() + $S + method.getName() + parameterTypes", "#")
+						.build())
+				.addMethod(generateAttributeFactory())
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(ClassName.bestGuess(STATIC_TRANSACTION_ATTRIBUTE_SOURCE).packageName(), staticTransactionAttributeSource).build();
+	}
+
+	// Creates the attributes as SpringTransactionAnnotationParser does, the attribute source customizes the instances it gets
+	private static MethodSpec generateAttributeFactory() {
+		return MethodSpec.methodBuilder("attribute")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(TRANSACTION_ATTRIBUTE)
+				.addParameter(PROPAGATION, "propagation")
+				.addParameter(ISOLATION, "isolation")
+				.addParameter(int.class, "timeout")
+				.addParameter(String.class, "timeoutString")
+				.addParameter(boolean.class, "readOnly")
+				.addParameter(String.class, "qualifier")
+				.addParameter(String[].class, "labels")
+				.addParameter(String[].class, "rollbackFor")
+				.addParameter(String[].class, "noRollbackFor")
+				.addStatement("$T attribute = new $T()", RULE_BASED_TRANSACTION_ATTRIBUTE, RULE_BASED_TRANSACTION_ATTRIBUTE)
+				.addStatement("attribute.setPropagationBehavior(propagation.value())")
+				.addStatement("attribute.setIsolationLevel(isolation.value())")
+				.addStatement("attribute.setTimeout(timeout)")
+				.addStatement("attribute.setTimeoutString(timeoutString)")
+				.addStatement("attribute.setReadOnly(readOnly)")
+				.addStatement("attribute.setQualifier(qualifier)")
+				.addStatement("attribute.setLabels($T.asList(labels))", Arrays.class)
+				.addStatement("$T<$T> rollbackRules = new $T<>()", List.class, ROLLBACK_RULE_ATTRIBUTE, ArrayList.class)
+				.beginControlFlow("for ($T exceptionName : rollbackFor)", String.class)
+				.addStatement("rollbackRules.add(new $T(exceptionName))", ROLLBACK_RULE_ATTRIBUTE)
+				.endControlFlow()
+				.beginControlFlow("for ($T exceptionName : noRollbackFor)", String.class)
+				.addStatement("rollbackRules.add(new $T(exceptionName))", NO_ROLLBACK_RULE_ATTRIBUTE)
+				.endControlFlow()
+				.addStatement("attribute.setRollbackRules(rollbackRules)")
+				.addStatement("return attribute")
+				.build();
+	}
+
+	private static CodeBlock newAttribute(TransactionAttribute attribute) {
+		return CodeBlock.of("attribute($T.$L, $T.$L, $L, $S, $L, $S, $L, $L, $L)", PROPAGATION, attribute.propagation,
+				ISOLATION, attribute.isolation, attribute.timeout, attribute.timeoutString, attribute.readOnly,
+				attribute.qualifier, stringArray(attribute.labels), stringArray(attribute.rollbackFor),
+				stringArray(attribute.noRollbackFor));
+	}
+
+	private static CodeBlock stringArray(List<String> values) {
+		if (values.isEmpty()) {
+			return CodeBlock.of("new $T[0]", String.class);
+		}
+		CodeBlock.Builder elements = CodeBlock.builder();
+		for (int i = 0; i < values.size(); i++) {
+			elements.add(i == 0 ? "$S" : ", $S", values.get(i));
+		}
+		return CodeBlock.of("new $T[] { $L }", String.class, elements.build());
+	}
+
+	private static AnnotationNode getTransactional(List<Type> annotationTypes, Function<String, AnnotationNode> annotations) {
+		AnnotationNode transactional = null;
+		for (Type annotationType : annotationTypes) {
+			String descriptor = annotationType.getDescriptor();
+			if (descriptor.equals(Type.AtTransactional)) {
+				transactional = annotations.apply(descriptor);
+			}
+			else if (isTransactionAnnotation(annotationType)) {
+				return INELIGIBLE;
+			}
+		}
+		return transactional;
+	}
+
+	private static boolean isTransactionAnnotation(Type annotationType) {
+		for (String other : OTHER_TRANSACTION_ANNOTATIONS) {
+			if (annotationType.getDescriptor().equals(other) || annotationType.isMetaAnnotated(Type.fromLdescriptorToSlashed(other))) {
+				return true;
+			}
+		}
+		return annotationType.isMetaAnnotated(Type.fromLdescriptorToSlashed(Type.AtTransactional));
+	}
+
+	// The attribute source finds the annotations declared by the interfaces of a class and of their methods
+	private boolean declaresTransactionAnnotations(Type[] interfaces) {
+		for (Type itf : interfaces) {
+			if (itf == null || itf.getAnnotations().stream().anyMatch(a -> a.getDescriptor().equals(Type.AtTransactional) || isTransactionAnnotation(a))) {
+				return true;
+			}
+			for (Method method : itf.getMethods()) {
+				if (method.getAnnotationTypes().stream().anyMatch(a -> a.getDescriptor().equals(Type.AtTransactional) || isTransactionAnnotation(a))) {
+					return true;
+				}
+			}
+			if (declaresTransactionAnnotations(itf.getInterfaces())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String getMethodKey(Type type, Method method) {
+		StringJoiner parameterTypes = new StringJoiner(",", "(", ")");
+		for (org.objectweb.asm.Type parameterType : org.objectweb.asm.Type.getArgumentTypes(method.getDesc())) {
+			parameterTypes.add(parameterType.getClassName());
+		}
+		return type.getDottedName() + "#" + method.getName() + parameterTypes;
+	}
+
+	private boolean hasTimeoutConflict(TransactionAttribute attribute) {
+		return attribute != null && StringUtils.hasText(attribute.timeoutString) && attribute.timeout >= 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static TransactionAttribute getTransactionAttribute(AnnotationNode annotation) {
+		TransactionAttribute attribute = new TransactionAttribute();
+		if (annotation.values == null) {
+			return attribute;
+		}
+		for (int i = 0; i < annotation.values.size(); i += 2) {
+			String name = (String) annotation.values.get(i);
+			Object value = annotation.values.get(i + 1);
+			switch (name) {
+			case "value":
+			case "transactionManager":
+				attribute.qualifier = (String) value;
+				break;
+			case "label":
+				attribute.labels = (List<String>) value;
+				break;
+			case "propagation":
+				attribute.propagation = ((String[]) value)[1];
+				break;
+			case "isolation":
+				attribute.isolation = ((String[]) value)[1];
+				break;
+			case "timeout":
+				attribute.timeout = (Integer) value;
+				break;
+			case "timeoutString":
+				attribute.timeoutString = (String) value;
+				break;
+			case "readOnly":
+				attribute.readOnly = (Boolean) value;
+				break;
+			case "rollbackFor":
+				for (org.objectweb.asm.Type exceptionType : (List<org.objectweb.asm.Type>) value) {
+					attribute.rollbackFor.add(exceptionType.getClassName());
+				}
+				break;
+			case "rollbackForClassName":
+				attribute.rollbackForClassNames = (List<String>) value;
+				break;
+			case "noRollbackFor":
+				for (org.objectweb.asm.Type exceptionType : (List<org.objectweb.asm.Type>) value) {
+					attribute.noRollbackFor.add(exceptionType.getClassName());
+				}
+				break;
+			case "noRollbackForClassName":
+				attribute.noRollbackForClassNames = (List<String>) value;
+				break;
+			}
+		}
+		// The rules for the classes come first, as the parser adds them
+		attribute.rollbackFor.addAll(attribute.rollbackForClassNames);
+		attribute.noRollbackFor.addAll(attribute.noRollbackForClassNames);
+		return attribute;
+	}
+
+	static class TransactionalType {
+
+		final Type type;
+
+		TransactionAttribute typeAttribute;
+
+		final Map<String, TransactionAttribute> methodAttributes = new TreeMap<>();
+
+		TransactionalType(Type type) {
+			this.type = type;
+		}
+	}
+
+	static class TransactionAttribute {
+
+		String propagation = "REQUIRED";
+
+		String isolation = "DEFAULT";
+
+		int timeout = -1;
+
+		String timeoutString = "";
+
+		boolean readOnly;
+
+		String qualifier = "";
+
+		List<String> labels = Collections.emptyList();
+
+		final List<String> rollbackFor = new ArrayList<>();
+
+		List<String> rollbackForClassNames = Collections.emptyList();
+
+		final List<String> noRollbackFor = new ArrayList<>();
+
+		List<String> noRollbackForClassNames = Collections.emptyList();
+	}
+}
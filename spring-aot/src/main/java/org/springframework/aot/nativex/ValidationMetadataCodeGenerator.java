@@ -0,0 +1,300 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
+import org.springframework.nativex.type.Field;
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+import org.springframework.nativex.type.TypeSystem;
+
+/**
+ * Analyze the Bean Validation usage of the application: the types validated by the controllers and the
+ * {@code @Validated} components, and the constraints declared by the application types. The generated
+ * {@code org.springframework.aot.StaticValidationMetadata} bean post processor loads the constraint metadata of
+ * the validated types when the validator is created, instead of on their first validation.
+ * <p>The built-in constraints the application does not use, and their validators, no longer need to be
+ * reflectively accessible.
+ */
+class ValidationMetadataCodeGenerator {
+
+	private static Log logger = LogFactory.getLog(ValidationMetadataCodeGenerator.class);
+
+	static final String STATIC_VALIDATION_METADATA = "org.springframework.aot.StaticValidationMetadata";
+
+	static final String VALIDATOR = "javax.validation.Validator";
+
+	private static final String CONSTRAINT = "Ljavax/validation/Constraint;";
+
+	private static final String VALID = "Ljavax/validation/Valid;";
+
+	private static final String CONSTRAINT_VALIDATOR = "javax/validation/ConstraintValidator";
+
+	// Only the reflective access to the constraints and validators provided by these packages is restricted
+	private static final String[] BUILT_IN_PACKAGES = { "javax.validation.constraints.", "org.hibernate.validator." };
+
+	private static final ClassName BEAN_POST_PROCESSOR = ClassName.get("org.springframework.beans.factory.config", "BeanPostProcessor");
+
+	private final TypeSystem typeSystem;
+
+	private final Map<String, Boolean> constraintDescriptors = new ConcurrentHashMap<>();
+
+	private final Map<String, Type> validatedTypes = new LinkedHashMap<>();
+
+	private final Set<String> usedConstraints = new TreeSet<>();
+
+	ValidationMetadataCodeGenerator(TypeSystem typeSystem) {
+		this.typeSystem = typeSystem;
+	}
+
+	/**
+	 * @param type a type of the application
+	 * @return true if the type validates other types or declares constraints
+	 */
+	public boolean isValidationCandidate(Type type) {
+		return type.isAtController() || type.isAtValidated() || isConstrained(type);
+	}
+
+	/**
+	 * Record the types validated by a type of the application and the constraints it declares.
+	 * @param type a validation candidate
+	 */
+	public void addType(Type type) {
+		if (type.isAtController()) {
+			for (Method mapping : type.getMethods(Method::isAtMapping)) {
+				addValidatedParameters(mapping, true);
+			}
+		}
+		if (type.isAtValidated()) {
+			if (type.hasAnnotation(Type.AtConfigurationProperties, false)) {
+				addValidatedType(type);
+			}
+			for (Method method : type.getMethods(m -> !m.isStatic() && !m.isPrivate())) {
+				addValidatedParameters(method, false);
+				if (method.hasAnnotation(VALID, false)) {
+					addValidatedType(method.getReturnType());
+				}
+			}
+		}
+		for (String descriptor : type.getAnnotationDescriptorsInUse()) {
+			if (isConstraint(descriptor)) {
+				addUsedConstraint(this.typeSystem.Lresolve(descriptor, true));
+			}
+		}
+	}
+
+	public boolean hasValidatedTypes() {
+		return !this.validatedTypes.isEmpty();
+	}
+
+	/**
+	 * @return the dotted names of the types validated by the application
+	 */
+	public Set<String> getValidatedTypeNames() {
+		return this.validatedTypes.keySet();
+	}
+
+	/**
+	 * @return the dotted names of the constraints used by the application, including the ones composing them
+	 */
+	public Set<String> getUsedConstraints() {
+		return Collections.unmodifiableSet(this.usedConstraints);
+	}
+
+	/**
+	 * Remove the reflective access to the built-in constraints the application does not use and to their validators.
+	 * @param reflectionDescriptor the reflection configuration of the application
+	 * @return the dotted names of the types no longer reflectively accessible
+	 */
+	public List<String> restrictReflection(ReflectionDescriptor reflectionDescriptor) {
+		List<String> removed = new ArrayList<>();
+		reflectionDescriptor.getClassDescriptors().removeIf(classDescriptor -> {
+			String constraint = getSupportedConstraint(classDescriptor.getName());
+			if (constraint != null && !this.usedConstraints.contains(constraint)) {
+				removed.add(classDescriptor.getName());
+				return true;
+			}
+			return false;
+		});
+		return removed;
+	}
+
+	public JavaFile generateStaticValidationMetadata() {
+		MethodSpec.Builder postProcess = MethodSpec.methodBuilder("postProcessAfterInitialization")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC)
+				.returns(Object.class)
+				.addParameter(Object.class, "bean")
+				.addParameter(String.class, "beanName")
+				.beginControlFlow("if (bean instanceof $T)", ClassName.bestGuess(VALIDATOR))
+				.addStatement("$T validator = ($T) bean", ClassName.bestGuess(VALIDATOR), ClassName.bestGuess(VALIDATOR));
+		for (Type validatedType : this.validatedTypes.values()) {
+			if (!PropertiesBinderCodeGenerator.isAccessible(validatedType, ClassName.bestGuess(STATIC_VALIDATION_METADATA).packageName())) {
+				logger.debug("Not loading the constraint metadata of " + validatedType.getDottedName() + " ahead of time, it is not public");
+				continue;
+			}
+			postProcess.addStatement("validator.getConstraintsForClass($T.class)", PropertiesBinderCodeGenerator.className(validatedType));
+		}
+		postProcess.endControlFlow().addStatement("return bean");
+		TypeSpec staticValidationMetadata = TypeSpec.classBuilder(ClassName.bestGuess(STATIC_VALIDATION_METADATA))
+				.addModifiers(Modifier.PUBLIC)
+				.addSuperinterface(BEAN_POST_PROCESSOR)
+				.addMethod(postProcess.build())
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(ClassName.bestGuess(STATIC_VALIDATION_METADATA).packageName(), staticValidationMetadata).build();
+	}
+
+	private void addValidatedParameters(Method method, boolean includeValidated) {
+		List<Type> parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.size(); i++) {
+			for (Type annotationType : method.getParameterAnnotationTypes(i)) {
+				if (annotationType.getDescriptor().equals(VALID)
+						|| (includeValidated && annotationType.getDescriptor().equals(Type.AtValidated))) {
+					addValidatedType(parameterTypes.get(i));
+				}
+			}
+		}
+	}
+
+	// A validated type cascades the validation to the types of its members annotated with @Valid
+	private void addValidatedType(Type type) {
+		if (type == null || type.getDottedName().startsWith("java.") || this.validatedTypes.containsKey(type.getDottedName())) {
+			return;
+		}
+		this.validatedTypes.put(type.getDottedName(), type);
+		for (Field field : type.getFields()) {
+			if (field.getAnnotationTypes().stream().anyMatch(annotationType -> annotationType.getDescriptor().equals(VALID))) {
+				for (String typename : field.getTypesInSignature()) {
+					addValidatedType(this.typeSystem.resolveSlashed(typename, true));
+				}
+			}
+		}
+		for (Method method : type.getMethods(m -> m.hasAnnotation(VALID, false))) {
+			for (Type signatureType : method.getSignatureTypes(true)) {
+				addValidatedType(signatureType);
+			}
+		}
+	}
+
+	private boolean isConstrained(Type type) {
+		if (type.isAnnotation()) {
+			return false;
+		}
+		for (String descriptor : type.getAnnotationDescriptorsInUse()) {
+			if (isConstraint(descriptor)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// A constraint is annotated with @Constraint, the nested List annotations hold repeated constraints
+	private boolean isConstraint(String descriptor) {
+		Boolean constraint = this.constraintDescriptors.get(descriptor);
+		if (constraint == null) {
+			Type annotationType = this.typeSystem.Lresolve(descriptor, true);
+			if (annotationType == null) {
+				constraint = false;
+			}
+			else if (annotationType.hasAnnotation(CONSTRAINT, false)) {
+				constraint = true;
+			}
+			else {
+				constraint = descriptor.endsWith("$List;") && isConstraint(descriptor.substring(0, descriptor.length() - "$List;".length()) + ";");
+			}
+			this.constraintDescriptors.put(descriptor, constraint);
+		}
+		return constraint;
+	}
+
+	// A composed constraint uses the constraints it is annotated with
+	private void addUsedConstraint(Type constraintType) {
+		String descriptor = constraintType.getDescriptor();
+		if (descriptor.endsWith("$List;")) {
+			constraintType = this.typeSystem.Lresolve(descriptor.substring(0, descriptor.length() - "$List;".length()) + ";", true);
+			if (constraintType == null) {
+				return;
+			}
+		}
+		if (!this.usedConstraints.add(constraintType.getDottedName())) {
+			return;
+		}
+		for (Type annotationType : constraintType.getAnnotations()) {
+			if (isConstraint(annotationType.getDescriptor())) {
+				addUsedConstraint(annotationType);
+			}
+		}
+	}
+
+	/**
+	 * @return the dotted name of the built-in constraint a type is, or provides the validator of, if any
+	 */
+	private String getSupportedConstraint(String typename) {
+		boolean builtIn = false;
+		for (String builtInPackage : BUILT_IN_PACKAGES) {
+			builtIn |= typename.startsWith(builtInPackage);
+		}
+		Type type = builtIn ? this.typeSystem.resolveDotted(typename, true) : null;
+		if (type == null) {
+			return null;
+		}
+		if (type.isAnnotation()) {
+			return isConstraint(type.getDescriptor()) ? type.getDottedName() : null;
+		}
+		if (!type.implementsInterface(CONSTRAINT_VALIDATOR)) {
+			return null;
+		}
+		// The constraint is a type argument of ConstraintValidator, or of a generic validator superclass
+		for (Type validatorType = type; validatorType != null; validatorType = validatorType.getSuperclass()) {
+			List<String> typeArguments = new ArrayList<>();
+			typeArguments.add(validatorType.findTypeParameterInSupertype(CONSTRAINT_VALIDATOR, 0));
+			Type superclass = validatorType.getSuperclass();
+			if (superclass != null) {
+				String typeArgument;
+				for (int i = 0; (typeArgument = validatorType.findTypeParameterInSupertype(superclass.getName(), i)) != null; i++) {
+					typeArguments.add(typeArgument);
+				}
+			}
+			for (String typeArgument : typeArguments) {
+				Type constraintType = typeArgument != null ? this.typeSystem.resolveDotted(typeArgument, true) : null;
+				if (constraintType != null && isConstraint(constraintType.getDescriptor())) {
+					return constraintType.getDottedName();
+				}
+			}
+		}
+		return null;
+	}
+}
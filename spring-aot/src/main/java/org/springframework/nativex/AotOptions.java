@@ -126,6 +126,130 @@ public class AotOptions {
 	 */
 	private String[] buildTimePropertiesChecks;
 
+	/**
+	 * Determine whether to record, for each computed reflection, resource and proxy entry, why it was added
+	 * (the triggering type, the hint that requested it, the chain of types followed to reach it and the
+	 * access requested). When set the records are written out alongside the other configuration files
+	 * as <tt>provenance.json</tt>, which can help when diagnosing why an image contains some piece of configuration.
+	 */
+	private boolean recordProvenance;
+
+	/**
+	 * Determine whether the configurations listed in spring.factories are analyzed concurrently.
+	 * The computed configuration is the same as with sequential analysis.
+	 */
+	private boolean parallelAnalysis;
+
+	/**
+	 * Determine whether bean registration code is generated at build time for the user @Configuration classes
+	 * that do not need configuration class parsing at runtime (no conditions, imports or inherited @Bean methods).
+	 * The generated registrations are used instead of parsing those classes unless
+	 * <tt>spring.native.build-time-bean-registration</tt> is set to <tt>false</tt>.
+	 */
+	private boolean buildTimeBeanRegistration;
+
+	/**
+	 * Determine whether binder code is generated at build time for the user @ConfigurationProperties types
+	 * that use JavaBean binding, so that properties are bound through direct setter calls rather than
+	 * through introspection. Reflective method access is not registered for the types handled this way.
+	 */
+	private boolean buildTimePropertiesBinding;
+
+	/**
+	 * Determine whether concrete implementations of the annotations that Spring synthesizes are generated at build time,
+	 * replacing the JDK proxies otherwise configured for them.
+	 */
+	private boolean buildTimeAnnotationSynthesis;
+
+	/**
+	 * Determine whether Spring classes whose static initializer only stores ClassUtils.isPresent() checks results are
+	 * initialized at build time, turning those results into constants computed from the classpath.
+	 */
+	private boolean buildTimeIsPresentChecks;
+
+	/**
+	 * Determine whether the static initializers of Spring classes are analyzed so that those safe to run at build time are
+	 * initialized at build time. A report of the reason the others are not is generated as well.
+	 */
+	private boolean buildTimeInitializationAnalysis;
+
+	/**
+	 * Determine if the Logback configuration file of the application should be translated at build time into code
+	 * configuring the logger context, so that it is applied without parsing XML at runtime.
+	 */
+	private boolean buildTimeLogbackConfiguration;
+
+	/**
+	 * Determine if the application.properties files packaged with the application should be compiled at build time into
+	 * code providing their properties, so that they are not read and parsed at runtime.
+	 */
+	private boolean buildTimeApplicationProperties;
+
+	/**
+	 * Determine if the application.properties files compiled at build time should be removed from the native image resources.
+	 */
+	private boolean removeApplicationPropertiesFiles;
+
+	/**
+	 * Determine if the derived query methods of the Spring Data repositories should be analyzed at build time, failing the
+	 * build on invalid ones and resolving their property references ahead of time.
+	 */
+	private boolean buildTimeRepositoryQueries;
+
+	/**
+	 * Determine if the Hibernate bytecode enhancer should be applied to the JPA entity classes at build time, replacing
+	 * the entity classes packaged in the native image with their enhanced version.
+	 */
+	private boolean buildTimeEntityEnhancement;
+
+	/**
+	 * Determine if the Bean Validation usage of the application should be analyzed at build time, loading the constraint
+	 * metadata of the validated types at startup and restricting the reflective access to the constraints it uses.
+	 */
+	private boolean buildTimeValidationMetadata;
+
+	/**
+	 * Determine if serializers and deserializers accessing the properties of the web payload types directly should be
+	 * generated at build time and registered with Jackson through a module.
+	 */
+	private boolean buildTimeJacksonSerializers;
+
+	/**
+	 * Determine if the request mappings of the controllers should be read at build time and registered in one pass by
+	 * the handler mapping, restricting the reflective access to the controllers to their annotated methods.
+	 */
+	private boolean buildTimeRequestMappings;
+
+	/**
+	 * Determine if the transaction attributes declared with {@code @Transactional} should be computed at build time and
+	 * returned by a generated transaction attribute source.
+	 */
+	private boolean buildTimeTransactionAttributes;
+
+	/**
+	 * Determine whether method security attributes declared with {@code @PreAuthorize} and {@code @Secured} should
+	 * be computed at build time, with simple expressions compiled to direct authority checks.
+	 */
+	private boolean buildTimeMethodSecurity;
+
+	/**
+	 * Determine whether the cache operations declared with {@code @Cacheable}, {@code @CachePut} and {@code @CacheEvict}
+	 * should be computed at build time, with simple key expressions compiled to key generators.
+	 */
+	private boolean buildTimeCacheOperations;
+
+	/**
+	 * Determine whether the classes declaring {@code @KafkaListener} methods should be found at build time, so that
+	 * the methods of the other beans are not introspected.
+	 */
+	private boolean buildTimeKafkaListeners;
+
+	/**
+	 * Determine whether the {@code @Scheduled} and {@code @EventListener} methods should be found at build time, so
+	 * that the methods of every bean are not introspected.
+	 */
+	private boolean buildTimeScheduledAndEventListeners;
+
 	public String getMode() {
 		return mode;
 	}
@@ -222,6 +346,166 @@ public class AotOptions {
 		this.failOnMissingSelectorHint = failOnMissingSelectorHint;
 	}
 
+	public boolean isRecordProvenance() {
+		return recordProvenance;
+	}
+
+	public void setRecordProvenance(boolean recordProvenance) {
+		this.recordProvenance = recordProvenance;
+	}
+
+	public boolean isParallelAnalysis() {
+		return parallelAnalysis;
+	}
+
+	public void setParallelAnalysis(boolean parallelAnalysis) {
+		this.parallelAnalysis = parallelAnalysis;
+	}
+
+	public boolean isBuildTimeBeanRegistration() {
+		return buildTimeBeanRegistration;
+	}
+
+	public void setBuildTimeBeanRegistration(boolean buildTimeBeanRegistration) {
+		this.buildTimeBeanRegistration = buildTimeBeanRegistration;
+	}
+
+	public boolean isBuildTimePropertiesBinding() {
+		return buildTimePropertiesBinding;
+	}
+
+	public void setBuildTimePropertiesBinding(boolean buildTimePropertiesBinding) {
+		this.buildTimePropertiesBinding = buildTimePropertiesBinding;
+	}
+
+	public boolean isBuildTimeAnnotationSynthesis() {
+		return buildTimeAnnotationSynthesis;
+	}
+
+	public void setBuildTimeAnnotationSynthesis(boolean buildTimeAnnotationSynthesis) {
+		this.buildTimeAnnotationSynthesis = buildTimeAnnotationSynthesis;
+	}
+
+	public boolean isBuildTimeIsPresentChecks() {
+		return buildTimeIsPresentChecks;
+	}
+
+	public void setBuildTimeIsPresentChecks(boolean buildTimeIsPresentChecks) {
+		this.buildTimeIsPresentChecks = buildTimeIsPresentChecks;
+	}
+
+	public boolean isBuildTimeInitializationAnalysis() {
+		return buildTimeInitializationAnalysis;
+	}
+
+	public void setBuildTimeInitializationAnalysis(boolean buildTimeInitializationAnalysis) {
+		this.buildTimeInitializationAnalysis = buildTimeInitializationAnalysis;
+	}
+
+	public boolean isBuildTimeLogbackConfiguration() {
+		return buildTimeLogbackConfiguration;
+	}
+
+	public void setBuildTimeLogbackConfiguration(boolean buildTimeLogbackConfiguration) {
+		this.buildTimeLogbackConfiguration = buildTimeLogbackConfiguration;
+	}
+
+	public boolean isBuildTimeApplicationProperties() {
+		return buildTimeApplicationProperties;
+	}
+
+	public void setBuildTimeApplicationProperties(boolean buildTimeApplicationProperties) {
+		this.buildTimeApplicationProperties = buildTimeApplicationProperties;
+	}
+
+	public boolean isRemoveApplicationPropertiesFiles() {
+		return removeApplicationPropertiesFiles;
+	}
+
+	public void setRemoveApplicationPropertiesFiles(boolean removeApplicationPropertiesFiles) {
+		this.removeApplicationPropertiesFiles = removeApplicationPropertiesFiles;
+	}
+
+	public boolean isBuildTimeRepositoryQueries() {
+		return buildTimeRepositoryQueries;
+	}
+
+	public void setBuildTimeRepositoryQueries(boolean buildTimeRepositoryQueries) {
+		this.buildTimeRepositoryQueries = buildTimeRepositoryQueries;
+	}
+
+	public boolean isBuildTimeEntityEnhancement() {
+		return buildTimeEntityEnhancement;
+	}
+
+	public void setBuildTimeEntityEnhancement(boolean buildTimeEntityEnhancement) {
+		this.buildTimeEntityEnhancement = buildTimeEntityEnhancement;
+	}
+
+	public boolean isBuildTimeValidationMetadata() {
+		return buildTimeValidationMetadata;
+	}
+
+	public void setBuildTimeValidationMetadata(boolean buildTimeValidationMetadata) {
+		this.buildTimeValidationMetadata = buildTimeValidationMetadata;
+	}
+
+	public boolean isBuildTimeJacksonSerializers() {
+		return buildTimeJacksonSerializers;
+	}
+
+	public void setBuildTimeJacksonSerializers(boolean buildTimeJacksonSerializers) {
+		this.buildTimeJacksonSerializers = buildTimeJacksonSerializers;
+	}
+
+	public boolean isBuildTimeRequestMappings() {
+		return buildTimeRequestMappings;
+	}
+
+	public void setBuildTimeRequestMappings(boolean buildTimeRequestMappings) {
+		this.buildTimeRequestMappings = buildTimeRequestMappings;
+	}
+
+	public boolean isBuildTimeTransactionAttributes() {
+		return buildTimeTransactionAttributes;
+	}
+
+	public void setBuildTimeTransactionAttributes(boolean buildTimeTransactionAttributes) {
+		this.buildTimeTransactionAttributes = buildTimeTransactionAttributes;
+	}
+
+	public boolean isBuildTimeMethodSecurity() {
+		return buildTimeMethodSecurity;
+	}
+
+	public void setBuildTimeMethodSecurity(boolean buildTimeMethodSecurity) {
+		this.buildTimeMethodSecurity = buildTimeMethodSecurity;
+	}
+
+	public boolean isBuildTimeCacheOperations() {
+		return buildTimeCacheOperations;
+	}
+
+	public void setBuildTimeCacheOperations(boolean buildTimeCacheOperations) {
+		this.buildTimeCacheOperations = buildTimeCacheOperations;
+	}
+
+	public boolean isBuildTimeKafkaListeners() {
+		return buildTimeKafkaListeners;
+	}
+
+	public void setBuildTimeKafkaListeners(boolean buildTimeKafkaListeners) {
+		this.buildTimeKafkaListeners = buildTimeKafkaListeners;
+	}
+
+	public boolean isBuildTimeScheduledAndEventListeners() {
+		return buildTimeScheduledAndEventListeners;
+	}
+
+	public void setBuildTimeScheduledAndEventListeners(boolean buildTimeScheduledAndEventListeners) {
+		this.buildTimeScheduledAndEventListeners = buildTimeScheduledAndEventListeners;
+	}
+
 	public Mode toMode() {
 		if (this.mode == null || this.mode.equals(Mode.NATIVE.toString())) {
 			return Mode.NATIVE;
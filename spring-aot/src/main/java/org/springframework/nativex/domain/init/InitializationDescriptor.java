@@ -78,6 +78,33 @@ public class InitializationDescriptor {
 		this.runtimePackages.add(pkg);
 	}
 	
+	/**
+	 * @param typename a dotted type name
+	 * @return true if the type is configured for build time initialization, by name or through its package
+	 */
+	public boolean isInitializedAtBuildTime(String typename) {
+		return this.buildtimeClasses.contains(typename)
+				|| (!this.runtimeClasses.contains(typename) && isInPackage(typename, this.buildtimePackages));
+	}
+
+	/**
+	 * @param typename a dotted type name
+	 * @return true if the type is configured for run time initialization, by name or through its package
+	 */
+	public boolean isInitializedAtRunTime(String typename) {
+		return this.runtimeClasses.contains(typename)
+				|| (!this.buildtimeClasses.contains(typename) && isInPackage(typename, this.runtimePackages));
+	}
+
+	private static boolean isInPackage(String typename, Set<String> packageNames) {
+		for (String packageName : packageNames) {
+			if (typename.startsWith(packageName + ".")) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	public String toDetailedString() {
 		StringBuilder result = new StringBuilder();
 		result.append(toString()).append("\n");
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.domain.provenance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.nativex.domain.provenance.ProvenanceRecord.Kind;
+
+/**
+ * Collection of {@link ProvenanceRecord} instances, indexed by the kind and name of the entry they
+ * describe. An entry may have multiple records if it was requested more than once.
+ */
+public class ProvenanceDescriptor {
+
+	private final Map<String, List<ProvenanceRecord>> records = new LinkedHashMap<>();
+
+	public synchronized void add(ProvenanceRecord record) {
+		records.computeIfAbsent(key(record.getKind(), record.getName()), k -> new ArrayList<>()).add(record);
+	}
+
+	public synchronized void merge(ProvenanceDescriptor other) {
+		for (ProvenanceRecord record: other.getRecords()) {
+			add(record);
+		}
+	}
+
+	public synchronized List<ProvenanceRecord> getRecords() {
+		return records.values().stream().flatMap(List::stream).collect(Collectors.toList());
+	}
+
+	public synchronized List<ProvenanceRecord> getRecords(Kind kind) {
+		return getRecords().stream().filter(r -> r.getKind() == kind).collect(Collectors.toList());
+	}
+
+	/**
+	 * @param kind the kind of entry
+	 * @param name the entry name (type name, resource pattern or comma separated proxy interfaces)
+	 * @return the provenance records for that entry, empty if there are none
+	 */
+	public synchronized List<ProvenanceRecord> getRecords(Kind kind, String name) {
+		List<ProvenanceRecord> result = records.get(key(kind, name));
+		return result == null ? Collections.emptyList() : new ArrayList<>(result);
+	}
+
+	/**
+	 * @param trigger the triggering type name
+	 * @return all records caused by analysis of the specified type
+	 */
+	public synchronized List<ProvenanceRecord> getRecordsTriggeredBy(String trigger) {
+		return getRecords().stream().filter(r -> trigger.equals(r.getTrigger())).collect(Collectors.toList());
+	}
+
+	/**
+	 * Narrow the access of the records of an entry whose access was restricted after it was requested.
+	 * @param kind the kind of entry
+	 * @param name the entry name
+	 * @param accessBits the access the entry still has
+	 */
+	public synchronized void restrict(Kind kind, String name, int accessBits) {
+		List<ProvenanceRecord> entryRecords = records.get(key(kind, name));
+		if (entryRecords != null) {
+			entryRecords.replaceAll(record -> record.restrictTo(accessBits));
+		}
+	}
+
+	/**
+	 * Remove the records of an entry that was removed from the configuration.
+	 * @param kind the kind of entry
+	 * @param name the entry name
+	 */
+	public synchronized void remove(Kind kind, String name) {
+		records.remove(key(kind, name));
+	}
+
+	public synchronized boolean isEmpty() {
+		return records.isEmpty();
+	}
+
+	public synchronized int size() {
+		return records.values().stream().mapToInt(List::size).sum();
+	}
+
+	private static String key(Kind kind, String name) {
+		return kind + ":" + name;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ProvenanceDescriptor #%s", size());
+	}
+
+}
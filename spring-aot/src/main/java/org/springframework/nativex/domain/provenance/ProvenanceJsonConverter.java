@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.domain.provenance;
+
+import org.springframework.nativex.hint.AccessBits;
+import org.springframework.nativex.json.JSONArray;
+import org.springframework.nativex.json.JSONObject;
+
+/**
+ * Converter to change {@link ProvenanceDescriptor} objects into JSON objects
+ */
+class ProvenanceJsonConverter {
+
+	public JSONArray toJsonArray(ProvenanceDescriptor pd) throws Exception {
+		JSONArray jsonArray = new JSONArray();
+		for (ProvenanceRecord record: pd.getRecords()) {
+			JSONObject jo = new JSONObject();
+			jo.put("kind", record.getKind().name().toLowerCase());
+			jo.put("name", record.getName());
+			if (record.getTrigger() != null) {
+				jo.put("trigger", record.getTrigger());
+			}
+			if (record.getSource() != null) {
+				jo.put("source", record.getSource());
+			}
+			if (!record.getReachedBy().isEmpty()) {
+				JSONArray reachedBy = new JSONArray();
+				for (String step: record.getReachedBy()) {
+					reachedBy.put(step);
+				}
+				jo.put("reachedBy", reachedBy);
+			}
+			if (record.getAccessBits() != AccessBits.NONE) {
+				jo.put("access", record.getAccessBits());
+				jo.put("accessDescription", AccessBits.toString(record.getAccessBits()));
+			}
+			jsonArray.put(jo);
+		}
+		return jsonArray;
+	}
+
+}
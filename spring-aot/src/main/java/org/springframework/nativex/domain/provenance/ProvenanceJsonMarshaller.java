@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.domain.provenance;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.nativex.domain.provenance.ProvenanceRecord.Kind;
+import org.springframework.nativex.hint.AccessBits;
+import org.springframework.nativex.json.JSONArray;
+import org.springframework.nativex.json.JSONObject;
+
+/**
+ * Marshaller to write {@link ProvenanceDescriptor} as JSON.
+ */
+public class ProvenanceJsonMarshaller {
+
+	private static final int BUFFER_SIZE = 4098;
+
+	public static void write(ProvenanceDescriptor descriptor, OutputStream outputStream)
+			throws IOException {
+		try {
+			ProvenanceJsonConverter converter = new ProvenanceJsonConverter();
+			JSONArray jsonArray = converter.toJsonArray(descriptor);
+			outputStream.write(jsonArray.toString(2).getBytes(StandardCharsets.UTF_8));
+		}
+		catch (Exception ex) {
+			if (ex instanceof IOException) {
+				throw (IOException) ex;
+			}
+			if (ex instanceof RuntimeException) {
+				throw (RuntimeException) ex;
+			}
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	public static ProvenanceDescriptor read(String input) throws Exception {
+		try (ByteArrayInputStream bais = new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))) {
+			return read(bais);
+		}
+	}
+
+	public static ProvenanceDescriptor read(InputStream inputStream) {
+		try {
+			return toProvenanceDescriptor(new JSONArray(toString(inputStream)));
+		} catch (Exception e) {
+			throw new IllegalStateException("Unable to read ProvenanceDescriptor from inputstream", e);
+		}
+	}
+
+	private static ProvenanceDescriptor toProvenanceDescriptor(JSONArray array) throws Exception {
+		ProvenanceDescriptor descriptor = new ProvenanceDescriptor();
+		for (int i=0;i<array.length();i++) {
+			JSONObject object = (JSONObject) array.get(i);
+			Kind kind = Kind.valueOf(object.getString("kind").toUpperCase());
+			String trigger = object.has("trigger") ? object.getString("trigger") : null;
+			String source = object.has("source") ? object.getString("source") : null;
+			List<String> reachedBy = new ArrayList<>();
+			if (object.has("reachedBy")) {
+				JSONArray steps = object.getJSONArray("reachedBy");
+				for (int s=0;s<steps.length();s++) {
+					reachedBy.add(steps.getString(s));
+				}
+			}
+			int access = object.has("access") ? object.getInt("access") : AccessBits.NONE;
+			descriptor.add(ProvenanceRecord.of(kind, object.getString("name"), trigger, source, reachedBy, access));
+		}
+		return descriptor;
+	}
+
+	private static String toString(InputStream inputStream) throws IOException {
+		StringBuilder out = new StringBuilder();
+		InputStreamReader reader = new InputStreamReader(inputStream,
+				StandardCharsets.UTF_8);
+		char[] buffer = new char[BUFFER_SIZE];
+		int bytesRead;
+		while ((bytesRead = reader.read(buffer)) != -1) {
+			out.append(buffer, 0, bytesRead);
+		}
+		return out.toString();
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.domain.provenance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.nativex.hint.AccessBits;
+
+/**
+ * Records why an entry (reflection, JNI, resource or proxy) ended up in the computed configuration: which
+ * type triggered it, which hint (or other source) requested it, the route the analysis took to reach
+ * that point and the access that was requested.
+ */
+public class ProvenanceRecord {
+
+	public enum Kind {
+		REFLECTION, JNI, RESOURCE, PROXY;
+	}
+
+	private final Kind kind;
+
+	private final String name;
+
+	private final String trigger;
+
+	private final String source;
+
+	private final List<String> reachedBy;
+
+	private final int accessBits;
+
+	public ProvenanceRecord(Kind kind, String name, String trigger, String source, List<String> reachedBy, int accessBits) {
+		this.kind = kind;
+		this.name = name;
+		this.trigger = trigger;
+		this.source = source;
+		this.reachedBy = reachedBy == null ? Collections.emptyList() : new ArrayList<>(reachedBy);
+		this.accessBits = accessBits;
+	}
+
+	public static ProvenanceRecord of(Kind kind, String name, String trigger, String source, List<String> reachedBy, int accessBits) {
+		return new ProvenanceRecord(kind, name, trigger, source, reachedBy, accessBits);
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * @return the type name for reflection entries, the pattern for resource entries or the comma separated
+	 * interface list for proxy entries
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the type whose analysis caused this entry to be requested (may be null if not known)
+	 */
+	public String getTrigger() {
+		return trigger;
+	}
+
+	/**
+	 * @return a short description of where the request came from, e.g. the hint annotation chain
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the chain of processing steps (outermost first) that led to this entry being requested
+	 */
+	public List<String> getReachedBy() {
+		return reachedBy;
+	}
+
+	public int getAccessBits() {
+		return accessBits;
+	}
+
+	/**
+	 * @param accessBits the access the entry still has
+	 * @return a record of the same request, only keeping the access the entry still has
+	 */
+	public ProvenanceRecord restrictTo(int accessBits) {
+		return new ProvenanceRecord(kind, name, trigger, source, reachedBy, this.accessBits & accessBits);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append(kind).append(":").append(name);
+		if (accessBits != AccessBits.NONE) {
+			s.append(" ").append(AccessBits.toString(accessBits));
+		}
+		s.append(" trigger=").append(trigger);
+		s.append(" source=").append(source);
+		if (!reachedBy.isEmpty()) {
+			s.append(" reachedBy=").append(reachedBy);
+		}
+		return s.toString();
+	}
+
+}
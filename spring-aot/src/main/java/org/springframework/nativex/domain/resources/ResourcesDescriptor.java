@@ -27,15 +27,18 @@ import java.util.TreeSet;
 public class ResourcesDescriptor {
 
 	private final Set<String> patterns;
+	private final Set<String> excludes;
 	private final Set<String> bundles;
 
 	public ResourcesDescriptor() {
 		this.patterns = new TreeSet<>();
+		this.excludes = new TreeSet<>();
 		this.bundles = new TreeSet<>();
 	}
 
 	public ResourcesDescriptor(ResourcesDescriptor metadata) {
 		this.patterns = new TreeSet<>(metadata.patterns);
+		this.excludes = new TreeSet<>(metadata.excludes);
 		this.bundles = new TreeSet<>(metadata.bundles);
 	}
 
@@ -47,6 +50,17 @@ public class ResourcesDescriptor {
 		this.patterns.add(pattern);
 	}
 
+	/**
+	 * @return the patterns of the resources excluded from the image even if they match an included pattern
+	 */
+	public Set<String> getExcludes() {
+		return this.excludes;
+	}
+
+	public void addExclude(String pattern) {
+		this.excludes.add(pattern);
+	}
+
 	public Set<String> getBundles() {
 		return this.bundles;
 	}
@@ -60,6 +74,10 @@ public class ResourcesDescriptor {
 		StringBuilder result = new StringBuilder();
 		result.append(String.format("ResourcesDescriptors Resources: #%s\n",patterns.size()));
 		this.patterns.forEach(cd -> result.append(String.format("%s: \n",cd)));
+		if (!excludes.isEmpty()) {
+			result.append(String.format("ResourcesDescriptors Excludes: #%s\n",excludes.size()));
+			this.excludes.forEach(cd -> result.append(String.format("%s: \n",cd)));
+		}
 		result.append(String.format("ResourcesDescriptors Bundles: #%s\n",bundles.size()));
 		this.bundles.forEach(cd -> result.append(String.format("%s: \n",cd)));
 		return result.toString();
@@ -87,6 +105,7 @@ public class ResourcesDescriptor {
 		Set<String> patterns = resourcesDescriptor.getPatterns();
 		Set<String> bundles = resourcesDescriptor.getBundles();
 		this.patterns.addAll(patterns);
+		this.excludes.addAll(resourcesDescriptor.getExcludes());
 		this.bundles.addAll(bundles);
 	}
 
@@ -36,6 +36,13 @@ class ResourcesJsonConverter {
 		}
 		JSONObject includes = new JSONObject();
 		includes.put("includes", jsonArray);
+		if (!metadata.getExcludes().isEmpty()) {
+			JSONArray excludesArray = new JSONArray();
+			for (String p : metadata.getExcludes()) {
+				excludesArray.put(toPatternJsonObject(p));
+			}
+			includes.put("excludes", excludesArray);
+		}
 		object.put("resources", includes);
 		JSONArray bundleArray = null;
 		if (metadata.getBundles() != null) {
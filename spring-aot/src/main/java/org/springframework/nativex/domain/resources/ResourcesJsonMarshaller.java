@@ -96,6 +96,12 @@ public class ResourcesJsonMarshaller {
 			} catch (Exception ex) {
 				// Support for GraalVM 20.3 format introduced by https://github.com/oracle/graal/commit/5b0a7453bcfb09918d8f615e64bf0430c8abbbfc#diff-14b5d0463c9666d011e03cc880ba3ca4a1da754f51e8fd8af5dabbfc6fd64476
 				array = object.getJSONObject("resources").getJSONArray("includes");
+				if (object.getJSONObject("resources").has("excludes")) {
+					JSONArray excludes = object.getJSONObject("resources").getJSONArray("excludes");
+					for (int i=0;i<excludes.length();i++) {
+						rd.addExclude(excludes.getJSONObject(i).getString("pattern"));
+					}
+				}
 			}
 			for (int i=0;i<array.length();i++) {
 				rd.add(array.getJSONObject(i).getString("pattern"));
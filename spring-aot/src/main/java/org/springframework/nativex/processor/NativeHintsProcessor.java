@@ -0,0 +1,301 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.nativex.processor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.SimpleAnnotationValueVisitor8;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.objectweb.asm.tree.AnnotationNode;
+import org.springframework.nativex.hint.AccessBits;
+import org.springframework.nativex.type.HintCatalogue;
+
+/**
+ * Validates the hint annotations ({@code @NativeHint}, {@code @TypeHint}, etc) on the types being compiled
+ * and writes them to a {@link HintCatalogue} so that analysis does not need to dig them out of the class files.
+ * Problems that would otherwise only surface when an application using the hints is analyzed are reported as
+ * compilation errors. Enable it on a library of hints by listing it in the compiler
+ * {@code annotationProcessors} configuration.
+ * 
+ */
+@SupportedAnnotationTypes({
+	"org.springframework.nativex.hint.NativeHint", "org.springframework.nativex.hint.NativeHints",
+	"org.springframework.nativex.hint.TypeHint", "org.springframework.nativex.hint.TypeHints",
+	"org.springframework.nativex.hint.JdkProxyHint", "org.springframework.nativex.hint.JdkProxyHints",
+	"org.springframework.nativex.hint.AotProxyHint", "org.springframework.nativex.hint.AotProxyHints",
+	"org.springframework.nativex.hint.SerializationHint", "org.springframework.nativex.hint.SerializationHints",
+	"org.springframework.nativex.hint.ResourceHint", "org.springframework.nativex.hint.ResourcesHints",
+	"org.springframework.nativex.hint.InitializationHint", "org.springframework.nativex.hint.InitializationHints" })
+public class NativeHintsProcessor extends AbstractProcessor {
+
+	private static final String HINT_PACKAGE = "org.springframework.nativex.hint.";
+
+	private static final Set<String> HINT_ANNOTATIONS = new HashSet<>(Arrays.asList("NativeHint", "NativeHints",
+			"TypeHint", "TypeHints", "JdkProxyHint", "JdkProxyHints", "AotProxyHint", "AotProxyHints", "SerializationHint",
+			"SerializationHints", "ResourceHint", "ResourcesHints", "InitializationHint", "InitializationHints"));
+
+	private final Map<String, List<AnnotationNode>> catalogued = new LinkedHashMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<TypeElement> hosts = new HashSet<>();
+		for (TypeElement annotation: annotations) {
+			for (Element element: roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element instanceof TypeElement) {
+					hosts.add((TypeElement) element);
+				}
+			}
+		}
+		for (TypeElement host: hosts) {
+			List<AnnotationNode> hintAnnotations = new ArrayList<>();
+			for (AnnotationMirror mirror: host.getAnnotationMirrors()) {
+				if (isHintAnnotation(mirror.getAnnotationType())) {
+					validate(host, mirror);
+					hintAnnotations.add(toAnnotationNode(host, mirror));
+				}
+			}
+			catalogued.put(processingEnv.getElementUtils().getBinaryName(host).toString(), hintAnnotations);
+		}
+		if (roundEnv.processingOver() && !roundEnv.errorRaised()) {
+			writeCatalogue();
+		}
+		return false;
+	}
+
+	private boolean isHintAnnotation(DeclaredType annotationType) {
+		String name = ((TypeElement) annotationType.asElement()).getQualifiedName().toString();
+		return name.startsWith(HINT_PACKAGE) && HINT_ANNOTATIONS.contains(name.substring(HINT_PACKAGE.length()));
+	}
+
+	private void writeCatalogue() {
+		if (catalogued.isEmpty()) {
+			return;
+		}
+		HintCatalogue catalogue = new HintCatalogue();
+		catalogued.forEach(catalogue::add);
+		try {
+			FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+					HintCatalogue.CATALOGUE_LOCATION);
+			try (OutputStream os = resource.openOutputStream()) {
+				catalogue.write(os);
+			}
+		} catch (IOException ioe) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write hint catalogue: " + ioe.getMessage());
+		}
+	}
+
+	/**
+	 * Check the constraints that are otherwise only verified when the hints are unpacked during analysis.
+	 */
+	private void validate(TypeElement host, AnnotationMirror mirror) {
+		String name = simpleName(mirror);
+		if (name.endsWith("Hints")) {
+			for (AnnotationMirror repeated: annotations(mirror, "value")) {
+				validate(host, repeated);
+			}
+			return;
+		}
+		if (name.equals("NativeHint")) {
+			for (String attribute: new String[] { "types", "jdkProxies", "aotProxies", "serializables", "resources", "initialization" }) {
+				for (AnnotationMirror nested: annotations(mirror, attribute)) {
+					validate(host, nested);
+				}
+			}
+		} else if (name.equals("TypeHint")) {
+			validateTypeHint(host, mirror);
+		} else if (name.equals("JdkProxyHint")) {
+			if (value(mirror, "types") != null && value(mirror, "typeNames") != null) {
+				error(host, mirror, "[Limitation] Don't mix typeNames and explicit type references in a @JdkProxyHint");
+			}
+		}
+		if (name.endsWith("Hint")) {
+			for (AnnotationValue typeName: values(mirror, "typeNames")) {
+				if (((String) typeName.getValue()).contains("/")) {
+					error(host, mirror, "Type names must be dotted (e.g. java.lang.String) but found '" + typeName.getValue() + "'");
+				}
+			}
+		}
+	}
+
+	private void validateTypeHint(TypeElement host, AnnotationMirror mirror) {
+		if (value(mirror, "types") == null && value(mirror, "typeNames") == null) {
+			processingEnv.getMessager().printMessage(Kind.WARNING, "@TypeHint does not specify any types or typeNames", host, mirror);
+		}
+		AnnotationValue access = value(mirror, "access");
+		if (access != null && AccessBits.isSet((Integer) access.getValue(), AccessBits.DECLARED_METHODS | AccessBits.PUBLIC_METHODS)) {
+			for (AnnotationMirror method: annotations(mirror, "methods")) {
+				AnnotationValue methodName = value(method, "name");
+				if (methodName != null && (methodName.getValue().equals("<init>") || methodName.getValue().equals("<clinit>"))) {
+					error(host, mirror, "Do not include global method reflection access when specifying individual methods");
+				}
+			}
+		}
+	}
+
+	private void error(TypeElement host, AnnotationMirror mirror, String message) {
+		Messager messager = processingEnv.getMessager();
+		messager.printMessage(Kind.ERROR, message, host, mirror);
+	}
+
+	private String simpleName(AnnotationMirror mirror) {
+		return mirror.getAnnotationType().asElement().getSimpleName().toString();
+	}
+
+	private AnnotationValue value(AnnotationMirror mirror, String attribute) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry: mirror.getElementValues().entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<? extends AnnotationValue> values(AnnotationMirror mirror, String attribute) {
+		AnnotationValue value = value(mirror, attribute);
+		if (value == null) {
+			return new ArrayList<>();
+		}
+		if (value.getValue() instanceof List) {
+			return (List<? extends AnnotationValue>) value.getValue();
+		}
+		return Arrays.asList(value);
+	}
+
+	private List<AnnotationMirror> annotations(AnnotationMirror mirror, String attribute) {
+		List<AnnotationMirror> annotations = new ArrayList<>();
+		for (AnnotationValue value: values(mirror, attribute)) {
+			annotations.add((AnnotationMirror) value.getValue());
+		}
+		return annotations;
+	}
+
+	/**
+	 * Build the ASM representation of the annotation, as it would be read from the class file.
+	 */
+	private AnnotationNode toAnnotationNode(TypeElement host, AnnotationMirror mirror) {
+		AnnotationNode node = new AnnotationNode(descriptor(mirror.getAnnotationType()));
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry: mirror.getElementValues().entrySet()) {
+			if (node.values == null) {
+				node.values = new ArrayList<>();
+			}
+			node.values.add(entry.getKey().getSimpleName().toString());
+			node.values.add(toValue(host, entry.getValue()));
+		}
+		return node;
+	}
+
+	private Object toValue(TypeElement host, AnnotationValue value) {
+		return value.accept(new SimpleAnnotationValueVisitor8<Object, Void>() {
+
+			@Override
+			public Object visitBoolean(boolean b, Void p) {
+				return b;
+			}
+
+			@Override
+			public Object visitInt(int i, Void p) {
+				return i;
+			}
+
+			@Override
+			public Object visitString(String s, Void p) {
+				return s;
+			}
+
+			@Override
+			public Object visitType(TypeMirror t, Void p) {
+				return org.objectweb.asm.Type.getType(descriptor(t));
+			}
+
+			@Override
+			public Object visitEnumConstant(VariableElement c, Void p) {
+				return new String[] { descriptor(c.asType()), c.getSimpleName().toString() };
+			}
+
+			@Override
+			public Object visitAnnotation(AnnotationMirror a, Void p) {
+				return toAnnotationNode(host, a);
+			}
+
+			@Override
+			public Object visitArray(List<? extends AnnotationValue> values, Void p) {
+				List<Object> list = new ArrayList<>();
+				for (AnnotationValue value: values) {
+					list.add(value.accept(this, p));
+				}
+				return list;
+			}
+
+			@Override
+			protected Object defaultAction(Object o, Void p) {
+				processingEnv.getMessager().printMessage(Kind.ERROR, "Unsupported hint annotation value: " + o, host);
+				return null;
+			}
+		}, null);
+	}
+
+	private String descriptor(TypeMirror type) {
+		switch (type.getKind()) {
+		case BOOLEAN: return "Z";
+		case BYTE: return "B";
+		case CHAR: return "C";
+		case SHORT: return "S";
+		case INT: return "I";
+		case LONG: return "J";
+		case FLOAT: return "F";
+		case DOUBLE: return "D";
+		case VOID: return "V";
+		case ARRAY: return "[" + descriptor(((ArrayType) type).getComponentType());
+		default:
+			TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement(type);
+			return "L" + processingEnv.getElementUtils().getBinaryName(element).toString().replace('.', '/') + ";";
+		}
+	}
+
+}
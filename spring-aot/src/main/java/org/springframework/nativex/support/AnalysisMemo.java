@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.nativex.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.nativex.hint.AccessBits;
+
+/**
+ * Memoizes the outcome of analysis steps whose result only depends on the type being analyzed and the
+ * access requested for it. Types reached from many configurations (shared hierarchies, common properties
+ * types) are then walked once and the recorded outcome is merged on later visits. Results handed out
+ * are shared so must not be modified by the caller.
+ * 
+ */
+public class AnalysisMemo {
+
+	private final Map<Key, Object> results = new ConcurrentHashMap<>();
+
+	private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+	/**
+	 * Return the memoized result for the step, computing it if this is the first request. The computation
+	 * may itself use the memo, so if two threads race to compute the same entry both compute it and the
+	 * first one stored wins.
+	 * @param step the analysis step, e.g. <tt>hierarchy</tt>
+	 * @param typename the dotted name of the type being analyzed
+	 * @param accessBits the access requested for the type
+	 * @param computation computes the result on a miss
+	 * @return the result of the step
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String step, String typename, int accessBits, Supplier<T> computation) {
+		Key key = new Key(step, typename, accessBits);
+		Statistics stats = statistics.computeIfAbsent(step, Statistics::new);
+		Object result = results.get(key);
+		if (result != null) {
+			stats.hits.incrementAndGet();
+			return (T) result;
+		}
+		stats.misses.incrementAndGet();
+		result = computation.get();
+		Object existing = results.putIfAbsent(key, result);
+		return (T) (existing == null ? result : existing);
+	}
+
+	public Statistics getStatistics(String step) {
+		return statistics.computeIfAbsent(step, Statistics::new);
+	}
+
+	public List<Statistics> getStatistics() {
+		List<Statistics> all = new ArrayList<>(statistics.values());
+		all.sort((s1, s2) -> s1.getStep().compareTo(s2.getStep()));
+		return all;
+	}
+
+	public int size() {
+		return results.size();
+	}
+
+	/**
+	 * Hit/miss counts for one analysis step.
+	 */
+	public static class Statistics {
+
+		private final String step;
+
+		private final AtomicLong hits = new AtomicLong();
+
+		private final AtomicLong misses = new AtomicLong();
+
+		Statistics(String step) {
+			this.step = step;
+		}
+
+		public String getStep() {
+			return step;
+		}
+
+		public long getHits() {
+			return hits.get();
+		}
+
+		public long getMisses() {
+			return misses.get();
+		}
+
+		public String toString() {
+			long h = getHits();
+			long total = h + getMisses();
+			return step + ": " + h + " hits, " + getMisses() + " misses" + (total == 0 ? "" : " (" + (h * 100 / total) + "% hit rate)");
+		}
+	}
+
+	private static class Key {
+
+		private final String step;
+
+		private final String typename;
+
+		private final int accessBits;
+
+		Key(String step, String typename, int accessBits) {
+			this.step = step;
+			this.typename = typename;
+			this.accessBits = accessBits;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key that = (Key) o;
+			return accessBits == that.accessBits && step.equals(that.step) && typename.equals(that.typename);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(step, typename, accessBits);
+		}
+
+		public String toString() {
+			return step + ":" + typename + ":" + AccessBits.toString(accessBits);
+		}
+	}
+
+}
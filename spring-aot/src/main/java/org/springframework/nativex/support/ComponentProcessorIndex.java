@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.nativex.type.ComponentProcessor;
+import org.springframework.nativex.type.ComponentProcessor.Interest;
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+
+/**
+ * Index of {@link ComponentProcessor component processors} by their declared {@link Interest}.
+ * Rather than asking every processor about every component, the features of a component
+ * (classifiers, annotations, method annotations, interfaces) are computed once and looked
+ * up in the index to find the processors that could want it. Also keeps track of the time
+ * spent in each processor.
+ */
+public class ComponentProcessorIndex {
+
+	private static Log logger = LogFactory.getLog(ComponentProcessorIndex.class);
+
+	private final List<ComponentProcessor> processors;
+
+	private final BitSet anyProcessors = new BitSet();
+
+	private final Map<String, BitSet> byClassifier = new HashMap<>();
+
+	private final Map<String, BitSet> byTypeAnnotation = new HashMap<>();
+
+	private final Map<String, BitSet> byTypeAnnotationPrefix = new HashMap<>();
+
+	private final Map<String, BitSet> byMethodAnnotation = new HashMap<>();
+
+	private final Map<String, BitSet> byInterface = new HashMap<>();
+
+	private final AtomicLongArray nanos;
+
+	private final AtomicLongArray offered;
+
+	public ComponentProcessorIndex(List<ComponentProcessor> processors) {
+		this.processors = new ArrayList<>(processors);
+		this.nanos = new AtomicLongArray(processors.size());
+		this.offered = new AtomicLongArray(processors.size());
+		for (int p = 0; p < processors.size(); p++) {
+			Interest interest = processors.get(p).getInterest();
+			logger.debug("Component processor " + processors.get(p).getClass().getName() + " interest: " + interest);
+			if (interest == null || interest.isAny()) {
+				anyProcessors.set(p);
+				continue;
+			}
+			index(byClassifier, interest.getClassifiers(), p);
+			index(byTypeAnnotation, interest.getTypeAnnotations(), p);
+			index(byTypeAnnotationPrefix, interest.getTypeAnnotationPrefixes(), p);
+			index(byMethodAnnotation, interest.getMethodAnnotations(), p);
+			index(byInterface, interest.getInterfaces(), p);
+		}
+	}
+
+	private static void index(Map<String, BitSet> index, Set<String> keys, int processor) {
+		for (String key : keys) {
+			index.computeIfAbsent(key, k -> new BitSet()).set(processor);
+		}
+	}
+
+	/**
+	 * Find the processors that may be interested in a component, in the order the processors were registered.
+	 * @param type the resolved component type
+	 * @param classifiers the classifiers of the component
+	 * @return the candidate processors, each still needs to confirm via its {@code handle} method
+	 */
+	public List<ComponentProcessor> getCandidates(Type type, List<String> classifiers) {
+		BitSet candidates = (BitSet) anyProcessors.clone();
+		try {
+			for (String classifier : classifiers) {
+				or(candidates, byClassifier.get(classifier));
+			}
+			if (!byTypeAnnotation.isEmpty() || !byTypeAnnotationPrefix.isEmpty() || !byMethodAnnotation.isEmpty()
+					|| !byInterface.isEmpty()) {
+				Set<Type> hierarchy = new LinkedHashSet<>();
+				collectHierarchy(type, hierarchy);
+				if (!byTypeAnnotation.isEmpty() || !byTypeAnnotationPrefix.isEmpty()) {
+					Set<Type> annotations = new LinkedHashSet<>();
+					for (Type t : hierarchy) {
+						collectAnnotations(t.getAnnotations(), annotations);
+					}
+					for (Type annotation : annotations) {
+						or(candidates, byTypeAnnotation.get(annotation.getDescriptor()));
+						String dottedName = annotation.getDottedName();
+						for (Map.Entry<String, BitSet> entry : byTypeAnnotationPrefix.entrySet()) {
+							if (dottedName.startsWith(entry.getKey())) {
+								candidates.or(entry.getValue());
+							}
+						}
+					}
+				}
+				if (!byMethodAnnotation.isEmpty()) {
+					Set<Type> annotations = new LinkedHashSet<>();
+					for (Type t : hierarchy) {
+						for (Method method : t.getMethods()) {
+							collectAnnotations(method.getAnnotationTypes(), annotations);
+						}
+					}
+					for (Type annotation : annotations) {
+						or(candidates, byMethodAnnotation.get(annotation.getDescriptor()));
+					}
+				}
+				for (Type t : hierarchy) {
+					or(candidates, byInterface.get(t.getName()));
+				}
+			}
+		} catch (RuntimeException e) {
+			// Not everything could be resolved, let the processors decide
+			logger.debug("Unable to compute features of component " + type.getDottedName() + ", offering it to all processors: " + e.getMessage());
+			return Collections.unmodifiableList(processors);
+		}
+		List<ComponentProcessor> result = new ArrayList<>(candidates.cardinality());
+		for (int p = candidates.nextSetBit(0); p >= 0; p = candidates.nextSetBit(p + 1)) {
+			offered.incrementAndGet(p);
+			result.add(processors.get(p));
+		}
+		return result;
+	}
+
+	private static void or(BitSet candidates, BitSet processors) {
+		if (processors != null) {
+			candidates.or(processors);
+		}
+	}
+
+	private static void collectHierarchy(Type type, Set<Type> hierarchy) {
+		if (type == null || !hierarchy.add(type)) {
+			return;
+		}
+		collectHierarchy(type.getSuperclass(), hierarchy);
+		for (Type intface : type.getInterfaces()) {
+			collectHierarchy(intface, hierarchy);
+		}
+	}
+
+	private static void collectAnnotations(List<Type> annotations, Set<Type> collector) {
+		for (Type annotation : annotations) {
+			if (!collector.contains(annotation)) {
+				annotation.collectAnnotations(collector, t -> true);
+			}
+		}
+	}
+
+	/**
+	 * Record time spent in a processor (checking and processing a component).
+	 * @param processor the processor
+	 * @param elapsedNanos the time spent
+	 */
+	public void recordTime(ComponentProcessor processor, long elapsedNanos) {
+		int p = processors.indexOf(processor);
+		if (p >= 0) {
+			nanos.addAndGet(p, elapsedNanos);
+		}
+	}
+
+	/**
+	 * @return one line per processor: components offered to it and the time spent in it
+	 */
+	public List<String> getTimings() {
+		List<String> timings = new ArrayList<>();
+		for (int p = 0; p < processors.size(); p++) {
+			timings.add(processors.get(p).getClass().getSimpleName() + " offered " + offered.get(p) + " components, took "
+					+ (nanos.get(p) / 1000000) + "ms");
+		}
+		return timings;
+	}
+
+}
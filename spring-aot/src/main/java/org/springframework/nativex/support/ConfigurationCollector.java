@@ -26,6 +26,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +37,9 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.nativex.AotOptions;
 import org.springframework.nativex.domain.init.InitializationDescriptor;
+import org.springframework.nativex.domain.provenance.ProvenanceDescriptor;
+import org.springframework.nativex.domain.provenance.ProvenanceRecord;
+import org.springframework.nativex.domain.provenance.ProvenanceRecord.Kind;
 import org.springframework.nativex.domain.proxies.AotProxyDescriptor;
 import org.springframework.nativex.domain.proxies.ProxiesDescriptor;
 import org.springframework.nativex.domain.proxies.JdkProxyDescriptor;
@@ -44,6 +49,7 @@ import org.springframework.nativex.domain.reflect.MethodDescriptor;
 import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
 import org.springframework.nativex.domain.resources.ResourcesDescriptor;
 import org.springframework.nativex.domain.serialization.SerializationDescriptor;
+import org.springframework.nativex.hint.AccessBits;
 import org.springframework.nativex.hint.Flag;
 import org.springframework.nativex.type.Type;
 import org.springframework.nativex.type.TypeSystem;
@@ -59,6 +65,8 @@ public class ConfigurationCollector {
 	
 	private static Log logger = LogFactory.getLog(ConfigurationCollector.class);
 
+	private static final String SYNTHESIZED_ANNOTATION = "org.springframework.core.annotation.SynthesizedAnnotation";
+
 	private ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
 
 	private ResourcesDescriptor resourcesDescriptor = new ResourcesDescriptor();
@@ -76,6 +84,14 @@ public class ConfigurationCollector {
 	private Set<String> options = new HashSet<>();
 
 	private Map<String,byte[]> newResourceFiles = new HashMap<>();
+
+	private ProvenanceDescriptor provenanceDescriptor = new ProvenanceDescriptor();
+
+	private Map<String, Type> beanRegistrationCandidates = new LinkedHashMap<>();
+
+	private Set<String> importedConfigurations = new HashSet<>();
+
+	private Set<String> synthesizedAnnotationTypes = new LinkedHashSet<>();
 	
 	private TypeSystem ts;
 
@@ -114,7 +130,91 @@ public class ConfigurationCollector {
 	public InitializationDescriptor getInitializationDescriptor() {
 		return initializationDescriptor;
 	}
+
+	/**
+	 * @return true if provenance records are being kept for computed configuration entries
+	 */
+	public boolean isRecordingProvenance() {
+		return aotOptions != null && aotOptions.isRecordProvenance();
+	}
+
+	/**
+	 * Record why an entry was added to the configuration. Does nothing unless provenance recording is active.
+	 * @param provenanceRecord the record to keep
+	 */
+	public void recordProvenance(ProvenanceRecord provenanceRecord) {
+		if (isRecordingProvenance()) {
+			provenanceDescriptor.add(provenanceRecord);
+		}
+	}
+
+	public ProvenanceDescriptor getProvenanceDescriptor() {
+		return provenanceDescriptor;
+	}
+
+	/**
+	 * Narrow the access recorded in the provenance of a reflection entry to the access that entry still has, once it
+	 * has been restricted or removed after the analysis.
+	 * @param typename the dotted type name of the entry
+	 */
+	public void restrictProvenance(String typename) {
+		if (isRecordingProvenance()) {
+			ClassDescriptor classDescriptor = getClassDescriptorFor(typename);
+			if (classDescriptor == null) {
+				provenanceDescriptor.remove(Kind.REFLECTION, typename);
+			}
+			else {
+				provenanceDescriptor.restrict(Kind.REFLECTION, typename, AccessBits.RESOURCE | getAccessBits(classDescriptor));
+			}
+		}
+	}
+
+	// Members listed one by one are not reflected in the access bits, that only describe type wide access
+	private static int getAccessBits(ClassDescriptor classDescriptor) {
+		Set<Flag> flags = classDescriptor.getFlags();
+		return AccessBits.CLASS | (flags == null ? AccessBits.NONE : AccessBits.fromFlags(flags.toArray(new Flag[0])).getValue());
+	}
+
+	/**
+	 * @param kind the kind of configuration entry
+	 * @param name the type name, resource pattern or comma separated list of proxy interfaces
+	 * @return the recorded reasons why that entry exists, empty if none were recorded
+	 */
+	public List<ProvenanceRecord> getProvenance(Kind kind, String name) {
+		return provenanceDescriptor.getRecords(kind, name);
+	}
 	
+	/**
+	 * Record a user configuration that passed analysis with all its @Bean methods valid, its bean
+	 * registration code may be generated at build time.
+	 * @param configurationType the configuration type
+	 */
+	public synchronized void addBeanRegistrationCandidate(Type configurationType) {
+		beanRegistrationCandidates.put(configurationType.getDottedName(), configurationType);
+	}
+
+	/**
+	 * Record a configuration reached through an @Import, configuration class parsing at runtime will
+	 * register it so no bean registration code should be generated for it.
+	 * @param typename the dotted configuration type name
+	 */
+	public synchronized void recordImportedConfiguration(String typename) {
+		importedConfigurations.add(typename);
+	}
+
+	/**
+	 * @return the candidates for build time bean registration, excluding any that are also imported
+	 */
+	public synchronized List<Type> getBeanRegistrationCandidates() {
+		List<Type> candidates = new ArrayList<>();
+		for (Map.Entry<String, Type> entry : beanRegistrationCandidates.entrySet()) {
+			if (!importedConfigurations.contains(entry.getKey())) {
+				candidates.add(entry.getValue());
+			}
+		}
+		return candidates;
+	}
+
 	public void setTypeSystem(TypeSystem ts) {
 		this.ts = ts;
 	}
@@ -136,10 +236,50 @@ public class ConfigurationCollector {
 				return false;
 			}
 		}
+		if (aotOptions != null && aotOptions.isBuildTimeAnnotationSynthesis() && isSynthesizedAnnotationProxy(interfaceNames)) {
+			recordSynthesizedAnnotationType(interfaceNames.get(0));
+			return true;
+		}
 		proxiesDescriptor.add(JdkProxyDescriptor.of(interfaceNames));
 		return true;
 	}
 
+	private static boolean isSynthesizedAnnotationProxy(List<String> interfaceNames) {
+		return interfaceNames.size() == 2 && interfaceNames.get(1).equals(SYNTHESIZED_ANNOTATION);
+	}
+
+	private synchronized void recordSynthesizedAnnotationType(String annotationTypename) {
+		synthesizedAnnotationTypes.add(annotationTypename);
+	}
+
+	/**
+	 * @return the dotted names of the annotation types that Spring synthesizes, recorded instead of
+	 * their proxies when build time annotation synthesis is on
+	 */
+	public synchronized List<String> getSynthesizedAnnotationTypes() {
+		return new ArrayList<>(synthesizedAnnotationTypes);
+	}
+
+	/**
+	 * Register the JDK proxy that Spring would create to synthesize an annotation, used for the recorded
+	 * annotation types that no implementation could be generated for.
+	 * @param annotationTypename the dotted annotation type name
+	 */
+	public void addSynthesizedAnnotationProxy(String annotationTypename) {
+		proxiesDescriptor.add(JdkProxyDescriptor.of(Arrays.asList(annotationTypename, SYNTHESIZED_ANNOTATION)));
+	}
+
+	/**
+	 * Forget the provenance of the JDK proxy requested to synthesize an annotation, for the annotation types whose
+	 * implementation is generated so that no proxy is registered.
+	 * @param annotationTypename the dotted annotation type name
+	 */
+	public void removeSynthesizedAnnotationProxyProvenance(String annotationTypename) {
+		if (isRecordingProvenance()) {
+			provenanceDescriptor.remove(Kind.PROXY, annotationTypename + "," + SYNTHESIZED_ANNOTATION);
+		}
+	}
+
 	public boolean addClassProxy(AotProxyDescriptor cpd, boolean verify) {
 		if (verify) {
 			if (ts.resolveName(cpd.getTargetClassType(), true)==null) {
@@ -233,6 +373,21 @@ public class ConfigurationCollector {
 		this.reflectionDescriptor.merge(filteredReflectionDescriptor);
 		return filteredReflectionDescriptor;
 	}
+
+	/**
+	 * Add reflection entries computed outside of the analysis, recording where they come from.
+	 * @param reflectionDescriptor the entries to add
+	 * @param verify whether the entries should be verified before being added
+	 * @param source what requested the entries, e.g. the build time option generating code
+	 * @return the entries that were added
+	 */
+	public ReflectionDescriptor addReflectionDescriptor(ReflectionDescriptor reflectionDescriptor, boolean verify, String source) {
+		ReflectionDescriptor added = addReflectionDescriptor(reflectionDescriptor, verify);
+		for (ClassDescriptor classDescriptor : added.getClassDescriptors()) {
+			recordProvenance(ProvenanceRecord.of(Kind.REFLECTION, classDescriptor.getName(), null, source, null, getAccessBits(classDescriptor)));
+		}
+		return added;
+	}
 	
 	public boolean addSerializationType(String className, boolean verify) {
 		if (verify) {
@@ -353,14 +508,16 @@ public class ConfigurationCollector {
 		return bundles.size()!=0;
 	}
 	
-	public void addResource(String pattern, boolean isBundle) {
+	public boolean addResource(String pattern, boolean isBundle) {
 		if (isBundle) {
-			if (verifyBundle(pattern)) {
-				resourcesDescriptor.addBundle(pattern);
+			if (!verifyBundle(pattern)) {
+				return false;
 			}
+			resourcesDescriptor.addBundle(pattern);
 		} else {
 			resourcesDescriptor.add(pattern);
 		}
+		return true;
 	}
 
 	public void initializeClassesAtBuildTime(String... typenames) {
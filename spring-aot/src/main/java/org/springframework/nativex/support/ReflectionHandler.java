@@ -22,6 +22,8 @@ import java.util.List;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.nativex.AotOptions;
+import org.springframework.nativex.domain.provenance.ProvenanceRecord;
+import org.springframework.nativex.domain.provenance.ProvenanceRecord.Kind;
 import org.springframework.nativex.domain.reflect.ClassDescriptor;
 import org.springframework.nativex.domain.reflect.FieldDescriptor;
 import org.springframework.nativex.domain.reflect.MethodDescriptor;
@@ -58,18 +60,25 @@ public class ReflectionHandler extends Handler {
 		if (ts.resolveDotted("org.springframework.web.reactive.DispatcherHandler", true) !=null && 
 			ts.resolveDotted("org.springframework.web.servlet.DispatcherServlet", true) == null && 
 			ts.resolveDotted("org.glassfish.jersey.servlet.ServletContainer", true) == null) {
-			addAccess("org.springframework.web.reactive.DispatcherHandler");
+			addFixedAccess("org.springframework.web.reactive.DispatcherHandler", "web application type");
 		} else if (ts.resolveDotted("javax.servlet.Servlet", true) !=null && 
 			ts.resolveDotted("org.springframework.web.context.ConfigurableWebApplicationContext", true) != null) {
-			addAccess("javax.servlet.Servlet");
-			addAccess("org.springframework.web.context.ConfigurableWebApplicationContext");
+			addFixedAccess("javax.servlet.Servlet", "web application type");
+			addFixedAccess("org.springframework.web.context.ConfigurableWebApplicationContext", "web application type");
 		}
 	}
 
 	public void register() {
 		registerWebApplicationTypeClasses();
 		if (!aotOptions.isRemoveYamlSupport()) {
-			addAccess("org.yaml.snakeyaml.Yaml", Flag.allDeclaredConstructors, Flag.allDeclaredMethods);
+			addFixedAccess("org.yaml.snakeyaml.Yaml", "yaml support", Flag.allDeclaredConstructors, Flag.allDeclaredMethods);
+		}
+	}
+
+	private void addFixedAccess(String typename, String source, Flag... flags) {
+		if (addAccess(typename, flags)) {
+			collector.recordProvenance(ProvenanceRecord.of(Kind.REFLECTION, typename, null, source, null,
+					AccessBits.CLASS | AccessBits.fromFlags(flags).getValue()));
 		}
 	}
 
@@ -86,13 +95,13 @@ public class ReflectionHandler extends Handler {
 	 * @param typename the dotted type name for which to add reflective access
 	 * @param flags    any members that should be accessible via reflection
 	 */
-	public void addAccess(String typename, Flag...flags) {
-		addAccess(typename, null, null, false, flags);
+	public boolean addAccess(String typename, Flag...flags) {
+		return addAccess(typename, null, null, false, flags);
 	}
 	
-	public void addAccess(String typename, boolean silent, AccessDescriptor ad) {
+	public boolean addAccess(String typename, boolean silent, AccessDescriptor ad) {
 		if (ad.noMembersSpecified()) {
-			addAccess(typename, null, null, silent, AccessBits.getFlags(ad.getAccessBits()));
+			return addAccess(typename, null, null, silent, AccessBits.getFlags(ad.getAccessBits()));
 		} else {
 			List<org.springframework.nativex.type.MethodDescriptor> mds = ad.getMethodDescriptors();
 			String[][] methodsAndConstructors = new String[mds.size()][];
@@ -111,7 +120,7 @@ public class ReflectionHandler extends Handler {
 				FieldDescriptor fd = fds.get(f);
 				fields[f] = FieldDescriptor.toStringArray(fd.getName(), fd.isAllowUnsafeAccess(), fd.isAllowWrite());
 			}
-			addAccess(typename, methodsAndConstructors, fields, silent, AccessBits.getFlags(ad.getAccessBits()));
+			return addAccess(typename, methodsAndConstructors, fields, silent, AccessBits.getFlags(ad.getAccessBits()));
 		}
 	}
 	
@@ -123,7 +132,7 @@ public class ReflectionHandler extends Handler {
 		}
 	}
 
-	public void addAccess(String typename, String[][] methodsAndConstructors, String[][] fields, boolean silent, Flag... flags) {
+	public boolean addAccess(String typename, String[][] methodsAndConstructors, String[][] fields, boolean silent, Flag... flags) {
 		if (!silent) {
 			logger.debug("Registering reflective access to " + typename+": "+(flags==null?"":Arrays.asList(flags)));
 		}
@@ -132,7 +141,7 @@ public class ReflectionHandler extends Handler {
 			boolean isOK = accessChecker.check(ts, typename);
 			if (!isOK) {
 				logger.debug(typename+" discarded due to access check by "+accessChecker.getClass().getName());
-				return;
+				return false;
 			}
 		}
 		// This can return null if, for example, the supertype of the specified type is
@@ -172,6 +181,7 @@ public class ReflectionHandler extends Handler {
 			}
 		}
 		collector.addClassDescriptor(cd);
+		return true;
 	}
 	
 	public ClassDescriptor getClassDescriptor(String typename) {
@@ -177,6 +177,23 @@ public class RequestedConfigurationManager {
 		requestJniTypes(incomingRCM.getJNITypes());
 	}
 
+	/**
+	 * Unlike {@link #mergeIn(RequestedConfigurationManager)} this also merges any method and field
+	 * level access requested for the types.
+	 */
+	public void mergeInIncludingMembers(RequestedConfigurationManager incomingRCM) {
+		for (Entry<String, Integer> entry : incomingRCM.getRequestedTypeAccesses()) {
+			String type = entry.getKey();
+			requestTypeAccess(type, entry.getValue(), incomingRCM.getMethodAccessRequestedFor(type), incomingRCM.getFieldAccessRequestedFor(type));
+		}
+		requestInitializationDescriptors(incomingRCM.getRequestedInitializations());
+		requestProxyDescriptors(incomingRCM.getRequestedProxies());
+		requestResourcesDescriptors(incomingRCM.getRequestedResources());
+		requestOptions(incomingRCM.getRequestedOptions());
+		requestSerializationTypes(incomingRCM.getSerializationTypes());
+		requestJniTypes(incomingRCM.getJNITypes());
+	}
+
 	public void addMethodDescriptors(String type, String[][] methods) {
 		requestedMethodAccesses.put(type, MethodDescriptor.of(methods));
 	}
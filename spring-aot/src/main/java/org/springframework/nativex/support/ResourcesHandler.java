@@ -24,9 +24,11 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -37,6 +39,13 @@ import java.util.Set;
 import java.util.Stack;
 import java.util.StringTokenizer;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -45,6 +54,8 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.nativex.AotOptions;
 import org.springframework.nativex.domain.init.InitializationDescriptor;
 import org.springframework.nativex.domain.proxies.AotProxyDescriptor;
+import org.springframework.nativex.domain.provenance.ProvenanceRecord;
+import org.springframework.nativex.domain.provenance.ProvenanceRecord.Kind;
 import org.springframework.nativex.domain.proxies.JdkProxyDescriptor;
 import org.springframework.nativex.domain.reflect.FieldDescriptor;
 import org.springframework.nativex.domain.reflect.MethodDescriptor;
@@ -89,7 +100,18 @@ public class ResourcesHandler extends Handler {
 
 	private final AotOptions aotOptions;
 	
-	private final Set<String> followed = new HashSet<>();
+	// Types followed by the analyses registered so far, only updated in configuration order (see claimFollowedTypes)
+	private final Set<String> followed = ConcurrentHashMap.newKeySet();
+
+	// Followed types that failed validation, access to them is reduced when the requests are registered
+	private final Set<String> failedFollowedTypes = ConcurrentHashMap.newKeySet();
+
+	private final AnalysisMemo analysisMemo = new AnalysisMemo();
+
+	// Only non-null whilst spring.factories are being processed with parallel analysis enabled
+	private ExecutorService analysisExecutor;
+
+	private ComponentProcessorIndex componentProcessorIndex;
 
 	public ResourcesHandler(ConfigurationCollector collector, ReflectionHandler reflectionHandler, 
 			DynamicProxiesHandler dynamicProxiesHandler, InitializationHandler initializationHandler,
@@ -111,13 +133,30 @@ public class ResourcesHandler extends Handler {
 	public void register() {
 		if (aotOptions.toMode() == Mode.NATIVE ||
 				aotOptions.toMode() == Mode.NATIVE_AGENT) {
-			processSpringFactories();
+			if (aotOptions.isParallelAnalysis()) {
+				analysisExecutor = createAnalysisExecutor();
+			}
+			try {
+				processSpringFactories();
+			} finally {
+				if (analysisExecutor != null) {
+					analysisExecutor.shutdownNow();
+					analysisExecutor = null;
+				}
+			}
 		}
 		handleConstantHints(aotOptions.toMode() == Mode.NATIVE_INIT);
 		if (aotOptions.toMode() == Mode.NATIVE ||
 				aotOptions.toMode() == Mode.NATIVE_AGENT) {
 			handleSpringComponents();
 		}
+		for (AnalysisMemo.Statistics statistics: analysisMemo.getStatistics()) {
+			logger.debug("Analysis memo - " + statistics);
+		}
+	}
+
+	public AnalysisMemo getAnalysisMemo() {
+		return analysisMemo;
 	}
 
 	private void registerPatterns(ResourcesDescriptor rd) {
@@ -125,16 +164,16 @@ public class ResourcesHandler extends Handler {
 			if (pattern.equals("META-INF/spring.factories")) {
 				continue; // leave to special handling which may trim these files...
 			}
-			collector.addResource(pattern, false);
+			addResource(pattern, false, null, "resource hints");
 		}
 	}
 
-	private void registerResourceBundles(ResourcesDescriptor rd) {
+	private void registerResourceBundles(ResourcesDescriptor rd, ProcessingContext pc, String source) {
 		logger.debug("Registering resources - #" + rd.getBundles().size() + " bundles");
 		for (String bundle : rd.getBundles()) {
 			try {
 				ResourceBundle.getBundle(bundle);
-				collector.addResource(bundle, true);
+				addResource(bundle, true, pc, source);
 			} catch (MissingResourceException e) {
 				//bundle not available. don't load it
 			}
@@ -159,7 +198,7 @@ public class ResourcesHandler extends Handler {
 					logger.debug("  fixed type registered " + typename + " with " + ad);
 					if (AccessBits.isResourceAccessRequired(ad.getAccessBits()) && !typename.contains("[]")) {
 						org.springframework.nativex.type.ResourcesDescriptor resourcesDescriptor = org.springframework.nativex.type.ResourcesDescriptor.ofType(typename);
-						registerResourcesDescriptor(resourcesDescriptor);
+						registerResourcesDescriptor(resourcesDescriptor, null, "default hints");
 					}
 					List<org.springframework.nativex.type.MethodDescriptor> mds = ad.getMethodDescriptors();
 					Flag[] accessFlags = AccessBits.getFlags(ad.getAccessBits());
@@ -170,8 +209,8 @@ public class ResourcesHandler extends Handler {
 						accessFlags = filterFlags(accessFlags, Flag.allDeclaredMethods, Flag.allPublicMethods);
 					}
 					List<FieldDescriptor> fds = ad.getFieldDescriptors();
-					reflectionHandler.addAccess(typename, MethodDescriptor.toStringArray(mds),
-							FieldDescriptor.toStringArray(fds), true, accessFlags);
+					addReflectiveAccess(typename, MethodDescriptor.toStringArray(mds), FieldDescriptor.toStringArray(fds), true,
+							ad.getAccessBits(), null, "default hints", accessFlags);
 				}
 				for (Map.Entry<String, AccessDescriptor> dependantType : ch.getJNITypes().entrySet()) {
 					String typename = dependantType.getKey();
@@ -188,11 +227,12 @@ public class ResourcesHandler extends Handler {
 					List<FieldDescriptor> fds = ad.getFieldDescriptors();
 					jniReflectionHandler.addAccess(typename, MethodDescriptor.toStringArray(mds),
 							FieldDescriptor.toStringArray(fds), true, accessFlags);
+					recordProvenance(Kind.JNI, typename, null, "default hints", ad.getAccessBits());
 				}
 				List<JdkProxyDescriptor> proxyDescriptors = ch.getProxyDescriptors();
 				for (JdkProxyDescriptor pd : proxyDescriptors) {
 					logger.debug("Registering proxy descriptor: " + pd);
-					dynamicProxiesHandler.addProxy(pd);
+					addProxy(pd, null, "default hints");
 				}
 				Set<String> serializationTypes = ch.getSerializationTypes();
 				if (!serializationTypes.isEmpty()) {
@@ -205,7 +245,7 @@ public class ResourcesHandler extends Handler {
 						.getResourcesDescriptors();
 				for (org.springframework.nativex.type.ResourcesDescriptor rd : resourcesDescriptors) {
 					logger.debug("Registering resource descriptor: " + rd);
-					registerResourcesDescriptor(rd);
+					registerResourcesDescriptor(rd, null, "default hints");
 				}
 			}
 			for (InitializationDescriptor initializationDescriptor : ch.getInitializationDescriptors()) {
@@ -220,11 +260,10 @@ public class ResourcesHandler extends Handler {
 		logger.debug("< Registering fixed hints");
 	}
 	
-	public void registerResourcesDescriptor(org.springframework.nativex.type.ResourcesDescriptor rd) {
+	private void registerResourcesDescriptor(org.springframework.nativex.type.ResourcesDescriptor rd, ProcessingContext pc, String source) {
 		String[] patterns = rd.getPatterns();
 		for (String pattern: patterns) {
-			collector.addResource(pattern,rd.isBundle());
-			
+			addResource(pattern, rd.isBundle(), pc, source);
 		}	
 	}
 
@@ -287,7 +326,7 @@ public class ResourcesHandler extends Handler {
 			p.store(baos, "");
 			baos.close();
 			byte[] bs = baos.toByteArray();
-			collector.registerResource("META-INF/spring.components", bs);
+			registerResource("META-INF/spring.components", bs, "spring.components");
 		} catch (IOException e) {
 			throw new IllegalStateException(e);
 		}
@@ -303,12 +342,13 @@ public class ResourcesHandler extends Handler {
 				continue;
 			}
 			Type keyType = ts.resolveDotted(key);
+			ProcessingContext pc = ProcessingContext.of(key, ReachedBy.FromSpringComponent);
 			// The context start/stop test may not exercise the @SpringBootApplication class
 			if (keyType.isAtSpringBootApplication()) {
 				logger.debug("hybrid: adding access to "+keyType+" since @SpringBootApplication");
-				reflectionHandler.addAccess(key,  Flag.allDeclaredMethods, Flag.allDeclaredFields, Flag.allDeclaredConstructors);
+				addReflectiveAccess(key, pc, "@SpringBootApplication", Flag.allDeclaredMethods, Flag.allDeclaredFields, Flag.allDeclaredConstructors);
 //				resourcesRegistry.addResources(key.replace(".", "/")+".class");
-				collector.addResource(key.replace(".", "/")+".class", false);
+				addResource(key.replace(".", "/")+".class", false, pc, "@SpringBootApplication");
 			}
 			if (keyType.isAtController()) {
 				logger.debug("hybrid: Processing controller "+key);
@@ -325,7 +365,7 @@ public class ResourcesHandler extends Handler {
 								interfaces.add(parameterAnnotationType.getDottedName());
 								interfaces.add("org.springframework.core.annotation.SynthesizedAnnotation");
 								logger.debug("Adding dynamic proxy for "+interfaces);
-								dynamicProxiesHandler.addProxy(interfaces);
+								addProxy(interfaces, pc, "@AliasFor on controller parameter annotation");
 							}
 						}
 					}
@@ -346,20 +386,86 @@ public class ResourcesHandler extends Handler {
 	private void processSpringComponents(Properties p, NativeContext context, List<String> alreadyProcessed) {
 		int registeredComponents = 0;
 		RequestedConfigurationManager requestor = new RequestedConfigurationManager();
+		List<PendingComponent> pendingComponents = new ArrayList<>();
 		for (Entry<Object, Object> entry : p.entrySet()) {
-			boolean processedOK = processSpringComponent((String)entry.getKey(), (String)entry.getValue(), context, requestor, alreadyProcessed);
+			boolean processedOK = processSpringComponent((String)entry.getKey(), (String)entry.getValue(), context, requestor, alreadyProcessed, pendingComponents);
 			if (processedOK) {
 				registeredComponents++;
 			}
 		}
-		registerAllRequested(requestor);
+		dispatchToComponentProcessors(pendingComponents, context);
+		registerAllRequested(0, requestor, null, "spring.components");
 		ts.getComponentProcessors().forEach(ComponentProcessor::printSummary);
+		for (String timing: getComponentProcessorIndex().getTimings()) {
+			logger.debug("Component processor - " + timing);
+		}
 		logger.debug("Registered " + registeredComponents + " entries");
 	}
+
+	private ComponentProcessorIndex getComponentProcessorIndex() {
+		if (componentProcessorIndex == null) {
+			componentProcessorIndex = new ComponentProcessorIndex(ts.getComponentProcessors());
+		}
+		return componentProcessorIndex;
+	}
+
+	/**
+	 * Offer the components to the component processors indexed as interested in them. Asking the processors
+	 * whether they handle a component only queries the type system so is done concurrently if parallel analysis
+	 * is enabled, the processing itself happens in component order.
+	 */
+	private void dispatchToComponentProcessors(List<PendingComponent> pendingComponents, NativeContext context) {
+		ComponentProcessorIndex index = getComponentProcessorIndex();
+		List<Callable<List<ComponentProcessor>>> tasks = new ArrayList<>();
+		for (PendingComponent pendingComponent: pendingComponents) {
+			tasks.add(() -> findHandlingComponentProcessors(index, pendingComponent, context));
+		}
+		List<List<ComponentProcessor>> handlers;
+		if (aotOptions.isParallelAnalysis() && tasks.size() > 1) {
+			ExecutorService executor = createAnalysisExecutor();
+			try {
+				handlers = invokeInOrder(executor, tasks, "matching components to component processors");
+			} finally {
+				executor.shutdownNow();
+			}
+		} else {
+			handlers = new ArrayList<>();
+			for (PendingComponent pendingComponent: pendingComponents) {
+				handlers.add(findHandlingComponentProcessors(index, pendingComponent, context));
+			}
+		}
+		for (int i = 0; i < pendingComponents.size(); i++) {
+			PendingComponent pendingComponent = pendingComponents.get(i);
+			for (ComponentProcessor componentProcessor: handlers.get(i)) {
+				if (context instanceof NativeContextImpl) {
+					((NativeContextImpl) context).setProvenance(pendingComponent.context, componentProcessor.getClass().getSimpleName());
+				}
+				long start = System.nanoTime();
+				componentProcessor.process(context, pendingComponent.type, pendingComponent.classifiers);
+				index.recordTime(componentProcessor, System.nanoTime() - start);
+			}
+		}
+		if (context instanceof NativeContextImpl) {
+			((NativeContextImpl) context).setProvenance(null, null);
+		}
+	}
+
+	private List<ComponentProcessor> findHandlingComponentProcessors(ComponentProcessorIndex index, PendingComponent pendingComponent, NativeContext context) {
+		List<ComponentProcessor> handling = new ArrayList<>();
+		for (ComponentProcessor componentProcessor: index.getCandidates(pendingComponent.type, pendingComponent.classifiers)) {
+			long start = System.nanoTime();
+			boolean handles = componentProcessor.handle(context, pendingComponent.type, pendingComponent.classifiers);
+			index.recordTime(componentProcessor, System.nanoTime() - start);
+			if (handles) {
+				handling.add(componentProcessor);
+			}
+		}
+		return handling;
+	}
 	
-	private boolean processSpringComponent(String componentTypename, String classifiers, NativeContext context, RequestedConfigurationManager requestor, List<String> alreadyProcessed) {
+	private boolean processSpringComponent(String componentTypename, String classifiers, NativeContext context, RequestedConfigurationManager requestor,
+			List<String> alreadyProcessed, List<PendingComponent> pendingComponents) {
 		ProcessingContext pc = ProcessingContext.of(componentTypename, ReachedBy.FromSpringComponent);
-		List<ComponentProcessor> componentProcessors = ts.getComponentProcessors();
 		boolean isComponent = false;
 		if (classifiers.equals("package-info")) {
 			return false;
@@ -377,8 +483,8 @@ public class ResourcesHandler extends Handler {
 		if (metaAnnotated != null) {
 			for (Type t: metaAnnotated.getValue()) {
 				String name = t.getDottedName();
-				reflectionHandler.addAccess(name, Flag.allDeclaredMethods);
-				collector.addResource(name.replace(".", "/")+".class", false);
+				addReflectiveAccess(name, pc, "spring.components", Flag.allDeclaredMethods);
+				addResource(name.replace(".", "/")+".class", false, pc, "spring.components");
 //				resourcesRegistry.addResources(name.replace(".", "/")+".class");
 			}
 		}
@@ -394,16 +500,16 @@ public class ResourcesHandler extends Handler {
 				// I think as a component may have autowired fields (and an entity may have
 				// interesting fields) - you kind of always need to expose fields
 				// There is a type in vanilla-orm called Bootstrap that shows this need
-				reflectionHandler.addAccess(componentTypename, Flag.allDeclaredConstructors, Flag.allDeclaredMethods,
+				addReflectiveAccess(componentTypename, pc, "spring.components", Flag.allDeclaredConstructors, Flag.allDeclaredMethods,
 					Flag.allDeclaredClasses, Flag.allDeclaredFields);
 //				resourcesRegistry.addResources(componentTypename.replace(".", "/") + ".class");
-				collector.addResource(componentTypename.replace(".", "/")+".class", false);
+				addResource(componentTypename.replace(".", "/")+".class", false, pc, "spring.components");
 				// Register nested types of the component
 				for (Type t : kType.getNestedTypes()) {
-					reflectionHandler.addAccess(t.getDottedName(), Flag.allDeclaredConstructors, Flag.allDeclaredMethods,
+					addReflectiveAccess(t.getDottedName(), pc, "spring.components", Flag.allDeclaredConstructors, Flag.allDeclaredMethods,
 							Flag.allDeclaredClasses);
 //					resourcesRegistry.addResources(t.getName() + ".class");
-					collector.addResource(t.getName()+".class", false);
+					addResource(t.getName()+".class", false, pc, "spring.components");
 				}
 				registerHierarchy(pc, kType, requestor);
 			} catch (Throwable t) {
@@ -412,7 +518,7 @@ public class ResourcesHandler extends Handler {
 		}
 		if (kType != null && kType.isAtResponseBody()) {
 			// TODO [0.9.0] move into WebComponentProcessor?
-			processResponseBodyComponent(kType);
+			processResponseBodyComponent(kType, pc);
 		}
 		List<String> values = new ArrayList<>();
 		StringTokenizer st = new StringTokenizer(classifiers, ",");
@@ -430,16 +536,16 @@ public class ResourcesHandler extends Handler {
 				// Flag.allDeclaredMethods, Flag.allDeclaredClasses);
 				// reflectionHandler.addAccess(tt,Flag.allPublicConstructors,
 				// Flag.allPublicMethods, Flag.allDeclaredClasses);
-				reflectionHandler.addAccess(tt, Flag.allDeclaredMethods);
+				addReflectiveAccess(tt, pc, "spring.components", Flag.allDeclaredMethods);
 //				resourcesRegistry.addResources(tt.replace(".", "/") + ".class");
-				collector.addResource(tt.replace(".", "/")+".class", false);
+				addResource(tt.replace(".", "/")+".class", false, pc, "spring.components");
 				// Register nested types of the component
 				for (Type t : baseType.getNestedTypes()) {
 					String n = t.getName().replace("/", ".");
-					reflectionHandler.addAccess(n, Flag.allDeclaredMethods);
+					addReflectiveAccess(n, pc, "spring.components", Flag.allDeclaredMethods);
 //					reflectionHandler.addAccess(n, Flag.allDeclaredConstructors, Flag.allDeclaredMethods, Flag.allDeclaredClasses);
 //					resourcesRegistry.addResources(t.getName() + ".class");
-					collector.addResource(t.getName() + ".class", false);
+					addResource(t.getName() + ".class", false, pc, "spring.components");
 				}
 				registerHierarchy(pc, baseType, requestor);
 			} catch (Throwable t) {
@@ -454,39 +560,63 @@ public class ResourcesHandler extends Handler {
 			if (type.isComponent()) {
 				// TODO do we need to fill in the classifiers list here (second param) correctly?
 				// (We could do it, inferring like we infer spring.components in general)
-				processSpringComponent(type.getDottedName(),"",context,requestor,alreadyProcessed);
+				processSpringComponent(type.getDottedName(),"",context,requestor,alreadyProcessed,pendingComponents);
 			}
 		}
-		for (ComponentProcessor componentProcessor: componentProcessors) {
-			if (componentProcessor.handle(context, componentTypename, values)) {
-				componentProcessor.process(context, componentTypename, values);
-			}
-		}	
+		pendingComponents.add(new PendingComponent(kType, values, pc));
 		return true;
 	}
 
+	/**
+	 * A spring.components entry waiting to be offered to the component processors.
+	 */
+	static class PendingComponent {
+
+		private final Type type;
+
+		private final List<String> classifiers;
+
+		private final ProcessingContext context;
+
+		PendingComponent(Type type, List<String> classifiers, ProcessingContext context) {
+			this.type = type;
+			this.classifiers = classifiers;
+			this.context = context;
+		}
+	}
+
 	/**
 	 * This is the type passed to the 'plugins' that process spring components or spring factories entries.
 	 */
 	class NativeContextImpl implements NativeContext {
 
+		// Where requests made through this context are coming from, used when recording provenance
+		private ProcessingContext provenanceContext;
+
+		private String provenanceSource;
+
+		void setProvenance(ProcessingContext pc, String source) {
+			this.provenanceContext = pc;
+			this.provenanceSource = source;
+		}
+
 		@Override
 		public boolean addProxy(List<String> interfaces) {
-			dynamicProxiesHandler.addProxy(interfaces);
+			ResourcesHandler.this.addProxy(interfaces, provenanceContext, provenanceSource);
 			return true;
 		}
 
 		@Override
 		public boolean addProxy(String... interfaces) {
 			if (interfaces != null) {
-				dynamicProxiesHandler.addProxy(Arrays.asList(interfaces));
+				addProxy(Arrays.asList(interfaces));
 			}
 			return true;
 		}
 
 		@Override
 		public void addAotProxy(AotProxyDescriptor proxyDescriptor) {
-			dynamicProxiesHandler.addClassProxy(proxyDescriptor.getTargetClassType(), proxyDescriptor.getInterfaceTypes(), proxyDescriptor.getProxyFeatures());
+			ResourcesHandler.this.addProxy(proxyDescriptor, provenanceContext, provenanceSource);
 		}
 
 		@Override
@@ -496,12 +626,14 @@ public class ResourcesHandler extends Handler {
 
 		@Override
 		public void addReflectiveAccess(String key, Flag... flags) {
-			reflectionHandler.addAccess(key, flags);
+			ResourcesHandler.this.addReflectiveAccess(key, provenanceContext, provenanceSource, flags);
 		}
 
 		@Override
 		public void addReflectiveAccess(String typeName, AccessDescriptor descriptor) {
-			reflectionHandler.addAccess(typeName, true, descriptor);
+			if (reflectionHandler.addAccess(typeName, true, descriptor)) {
+				recordProvenance(Kind.REFLECTION, typeName, provenanceContext, provenanceSource, descriptor.getAccessBits());
+			}
 		}
 
 		@Override
@@ -543,12 +675,12 @@ public class ResourcesHandler extends Handler {
 
 		@Override
 		public void addResourceBundle(String bundleName) {
-			registerResourceBundles(ResourcesDescriptor.ofBundle(bundleName));
+			registerResourceBundles(ResourcesDescriptor.ofBundle(bundleName), provenanceContext, provenanceSource);
 		}
 		
 	}
 	
-	private void processResponseBodyComponent(Type t) {
+	private void processResponseBodyComponent(Type t, ProcessingContext pc) {
 	  // If a controller is marked up @ResponseBody (possibly via @RestController), need to register reflective access to
 	  // the return types of the methods marked @Mapping (meta marked) 
 	  Collection<Type> returnTypes = t.collectAtMappingMarkedReturnTypes();
@@ -560,7 +692,7 @@ public class ResourcesHandler extends Handler {
 		  if (returnType.getDottedName().startsWith("java.lang")) {
 			  continue;
 		  }
-		  reflectionHandler.addAccess(returnType.getDottedName(), Flag.allDeclaredMethods, Flag.allDeclaredConstructors,Flag.allDeclaredFields);
+		  addReflectiveAccess(returnType.getDottedName(), pc, "@ResponseBody return type", Flag.allDeclaredMethods, Flag.allDeclaredConstructors,Flag.allDeclaredFields);
 	  }
 	}
 
@@ -579,7 +711,7 @@ public class ResourcesHandler extends Handler {
 		repositoryInterfaces.add("org.springframework.aop.SpringProxy");
 		repositoryInterfaces.add("org.springframework.aop.framework.Advised");
 		repositoryInterfaces.add("org.springframework.core.DecoratingProxy");
-		dynamicProxiesHandler.addProxy(repositoryInterfaces);
+		addProxy(repositoryInterfaces, ProcessingContext.of(r.getDottedName(), ReachedBy.FromSpringComponent), "@Repository");
 	}
 
 	/**
@@ -589,7 +721,6 @@ public class ResourcesHandler extends Handler {
 	 * @param typesToMakeAccessible if non null required accesses are collected here rather than recorded directly on the runtime
 	 */
 	public void registerHierarchy(ProcessingContext pc, Type type, RequestedConfigurationManager typesToMakeAccessible) {
-		AccessBits accessRequired = AccessBits.forValue(Type.inferAccessRequired(type));
 		boolean isConfiguration = type.isAtConfiguration();
 		if (!isConfiguration) {
 			// Double check are we here because we are a parent of some configuration being processed
@@ -606,7 +737,25 @@ public class ResourcesHandler extends Handler {
 			Type resolve = typeSystem.resolveDotted(s2,true);
 			isConfiguration = resolve.isAtConfiguration();
 		}
-		registerHierarchyHelper(type, new HashSet<>(), typesToMakeAccessible, accessRequired, isConfiguration);
+		if (typesToMakeAccessible == null) {
+			throw new IllegalStateException();
+		}
+		registerHierarchy(type, isConfiguration, typesToMakeAccessible);
+	}
+
+	/**
+	 * Walk a type hierarchy and register them all for reflective access, once it is known whether the walk
+	 * started from a configuration. Does not depend on the processing context so the outcome can be memoized.
+	 */
+	private void registerHierarchy(Type type, boolean rootTypeWasConfiguration, RequestedConfigurationManager typesToMakeAccessible) {
+		AccessBits accessRequired = AccessBits.forValue(Type.inferAccessRequired(type));
+		RequestedConfigurationManager hierarchy = analysisMemo.get(rootTypeWasConfiguration ? "configuration hierarchy" : "hierarchy",
+				type.getDottedName(), accessRequired.getValue(), () -> {
+					RequestedConfigurationManager requested = new RequestedConfigurationManager();
+					registerHierarchyHelper(type, new HashSet<>(), requested, accessRequired, rootTypeWasConfiguration);
+					return requested;
+				});
+		typesToMakeAccessible.mergeIn(hierarchy);
 	}
 	
 	private void registerHierarchyHelper(Type type, Set<Type> visited, RequestedConfigurationManager typesToMakeAccessible,
@@ -724,7 +873,7 @@ public class ResourcesHandler extends Handler {
 	 * will be accessed at runtime through an interface but must be reflectively
 	 * instantiated. Hence reflective access to constructors but not to methods.
 	 */
-	private void registerTypeReferencedBySpringFactoriesKey(String s) {
+	private void registerTypeReferencedBySpringFactoriesKey(String key, String s) {
 		try {
 			Type t = ts.resolveDotted(s, true);
 			if (t != null) {
@@ -732,9 +881,9 @@ public class ResourcesHandler extends Handler {
 				// 'name' will include the right '$' characters.
 				String name = t.getDottedName();
 				if (t.hasOnlySimpleConstructor()) {
-					reflectionHandler.addAccess(name, new String[][] { { "<init>" } },null, false);
+					addReflectiveAccess(name, new String[][] { { "<init>" } }, null, false, AccessBits.CLASS, null, springFactoriesSource(key));
 				} else {
-					reflectionHandler.addAccess(name, Flag.allDeclaredConstructors);
+					addReflectiveAccess(name, null, springFactoriesSource(key), Flag.allDeclaredConstructors);
 				}
 			}
 		} catch (NoClassDefFoundError ncdfe) {
@@ -829,7 +978,7 @@ public class ResourcesHandler extends Handler {
 								String name = t.getDottedName();
 								Method defaultConstructor = t.getDefaultConstructor();
 								if (defaultConstructor == null || defaultConstructor.hasAnnotation("Ljava/lang/Deprecated;", false)) {
-									reflectionHandler.addAccess(name, Flag.allDeclaredConstructors);
+									addReflectiveAccess(name, null, springFactoriesSource(k), Flag.allDeclaredConstructors);
 								}
 							}	
 						}
@@ -837,7 +986,7 @@ public class ResourcesHandler extends Handler {
 					}
 					if (ts.shouldBeProcessed(k)) {
 						for (String v : p.getProperty(k).split(",")) {
-							registerTypeReferencedBySpringFactoriesKey(v);
+							registerTypeReferencedBySpringFactoriesKey(k, v);
 						}
 					} else {
 						logger.debug("Skipping processing spring.factories key " + k + " due to missing guard types");
@@ -856,7 +1005,7 @@ public class ResourcesHandler extends Handler {
 						String name = t.getDottedName();
 						Method defaultConstructor = t.getDefaultConstructor();
 						if (defaultConstructor == null || defaultConstructor.hasAnnotation("Ljava/lang/Deprecated;", false)) {
-							reflectionHandler.addAccess(name, Flag.allDeclaredConstructors);
+							addReflectiveAccess(name, null, springFactoriesSource(propertySourceLoaderKey), Flag.allDeclaredConstructors);
 						}
 					}
 				}
@@ -875,8 +1024,10 @@ public class ResourcesHandler extends Handler {
 			}
 			logger.debug("Processing spring.factories - EnableAutoConfiguration lists #" + configurations.size()
 					+ " configurations");
-			for (String config : configurations) {
-				if (!checkAndRegisterConfigurationType(config,ReachedBy.FromSpringFactoriesKey)) {
+			for (ConfigurationAnalysis analysis : analyzeConfigurationTypes(configurations, ReachedBy.FromSpringFactoriesKey)) {
+				registerAnalysis(analysis);
+				if (!analysis.isPassed()) {
+					String config = analysis.getTypename();
 					if (aotOptions.isRemoveUnusedConfig()) {
 						excludedAutoConfigCount++;
 						logger.debug("Excluding auto-configuration " + config);
@@ -911,7 +1062,7 @@ public class ResourcesHandler extends Handler {
 				ByteArrayOutputStream baos = new ByteArrayOutputStream();
 				p.store(baos, null);
 				byte[] bs = baos.toByteArray();
-				collector.registerResource("META-INF/spring.factories", bs);
+				registerResource("META-INF/spring.factories", bs, "spring.factories");
 //				Resources.registerResource("META-INF/spring.factories", springFactory.openStream());
 			} else {
 				logger.debug("  removed " + forRemoval.size() + " classes");
@@ -923,7 +1074,7 @@ public class ResourcesHandler extends Handler {
 				logger.debug(new String(bs));
 				logger.debug("^^^^^^^^");
 //				ByteArrayInputStream bais = new ByteArrayInputStream(bs);
-				collector.registerResource("META-INF/spring.factories", bs);
+				registerResource("META-INF/spring.factories", bs, "spring.factories");
 //				Resources.registerResource("META-INF/spring.factories", bais);
 			}
 		} catch (IOException e) {
@@ -947,8 +1098,10 @@ public class ResourcesHandler extends Handler {
 		String configurationsValue = (String)p.get(configurationsKey);
 		if (configurationsValue != null) {
 			List<String> configurations = Stream.of(configurationsValue.split(",")).collect(Collectors.toList());
-			for (String configuration: configurations) {
-				if (!checkAndRegisterConfigurationType(configuration,ReachedBy.FromSpringFactoriesKey)) {
+			for (ConfigurationAnalysis analysis: analyzeConfigurationTypes(configurations, ReachedBy.FromSpringFactoriesKey)) {
+				registerAnalysis(analysis);
+				if (!analysis.isPassed()) {
+					String configuration = analysis.getTypename();
 					if (aotOptions.isRemoveUnusedConfig()) {
 						logger.debug("Excluding auto-configuration (key="+configurationsKey+") =" +configuration);
 						inactiveConfigurations.add(configuration);
@@ -982,7 +1135,129 @@ public class ResourcesHandler extends Handler {
 	 * indicating it can't be used at runtime.
 	 */
 	private boolean checkAndRegisterConfigurationType(String typename, ReachedBy reachedBy) {
-		return processType(new ProcessingContext(), typename, reachedBy);
+		ConfigurationAnalysis analysis = analyzeConfigurationType(typename, reachedBy);
+		claimFollowedTypes(analysis);
+		registerAnalysis(analysis);
+		return analysis.isPassed();
+	}
+
+	/**
+	 * Analyze the specified top level configuration without registering anything, the requested
+	 * configuration is gathered in the returned {@link ConfigurationAnalysis}.
+	 */
+	private ConfigurationAnalysis analyzeConfigurationType(String typename, ReachedBy reachedBy) {
+		ProcessingContext pc = new ProcessingContext();
+		boolean passed = processType(pc, typename, reachedBy);
+		return new ConfigurationAnalysis(typename, passed, pc.getPendingRegistrations(), pc.getFollowedTypes());
+	}
+
+	/**
+	 * Analyze the specified top level configurations, concurrently if parallel analysis is enabled.
+	 * Results are returned in the same order as the configurations were supplied so that registering
+	 * them produces the same configuration regardless of how the analysis was scheduled.
+	 */
+	private List<ConfigurationAnalysis> analyzeConfigurationTypes(List<String> typenames, ReachedBy reachedBy) {
+		List<ConfigurationAnalysis> analyses = new ArrayList<>();
+		if (analysisExecutor == null || typenames.size() < 2) {
+			for (String typename: typenames) {
+				ConfigurationAnalysis analysis = analyzeConfigurationType(typename, reachedBy);
+				claimFollowedTypes(analysis);
+				analyses.add(analysis);
+			}
+			return analyses;
+		}
+		List<Callable<ConfigurationAnalysis>> tasks = new ArrayList<>();
+		for (String typename: typenames) {
+			tasks.add(() -> analyzeConfigurationType(typename, reachedBy));
+		}
+		analyses = invokeInOrder(analysisExecutor, tasks, "analyzing configurations");
+		for (ConfigurationAnalysis analysis: analyses) {
+			claimFollowedTypes(analysis);
+		}
+		return analyses;
+	}
+
+	/**
+	 * Decide which of the types followed during an analysis it really gets to follow. Analyses only know about the
+	 * types followed by the analyses already claimed, so a type may have been followed by an earlier configuration
+	 * analyzed concurrently: as with sequential analysis that configuration keeps it, and what this analysis requested
+	 * whilst following it is dropped. Analyses are claimed in configuration order, so the outcome does not depend on
+	 * how they were scheduled.
+	 */
+	private void claimFollowedTypes(ConfigurationAnalysis analysis) {
+		Set<String> dropped = new HashSet<>();
+		for (FollowedType followedType: analysis.getFollowedTypes()) {
+			String typename = followedType.getTypename();
+			if (followedType.isReachedThrough(dropped) || !followed.add(typename)) {
+				logger.debug("already followed "+typename+" by an earlier configuration than "+analysis.getTypename());
+				dropped.add(typename);
+			} else if (followedType.isFailed()) {
+				failedFollowedTypes.add(typename);
+			}
+		}
+		analysis.dropFollowedTypes(dropped);
+	}
+
+	/**
+	 * Run the tasks on the executor and return their results in the order the tasks were supplied. A failing
+	 * task rethrows its (unchecked) exception.
+	 */
+	private <T> List<T> invokeInOrder(ExecutorService executor, List<Callable<T>> tasks, String activity) {
+		List<Future<T>> futures = new ArrayList<>();
+		for (Callable<T> task: tasks) {
+			futures.add(executor.submit(task));
+		}
+		List<T> results = new ArrayList<>();
+		try {
+			for (Future<T> future: futures) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted whilst " + activity, ie);
+		} catch (ExecutionException ee) {
+			Throwable cause = ee.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Problem " + activity, cause);
+		}
+		return results;
+	}
+
+	/**
+	 * Analysis threads use the context class loader of the thread that created them, the type system
+	 * relies on it to locate hints.
+	 */
+	private ExecutorService createAnalysisExecutor() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		AtomicInteger threadCount = new AtomicInteger();
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+		logger.debug("Analyzing configurations with "+threads+" threads");
+		return Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "spring-aot-analysis-" + threadCount.incrementAndGet());
+			thread.setContextClassLoader(classLoader);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Register everything requested during the analysis of a top level configuration, in the order it was requested.
+	 */
+	private void registerAnalysis(ConfigurationAnalysis analysis) {
+		for (PendingRegistration pending: analysis.getPendingRegistrations()) {
+			RequestedConfigurationManager requested = pending.getRequested();
+			for (String followedType: pending.getFollowedTypes()) {
+				if (failedFollowedTypes.contains(followedType) && requested.getTypeAccessRequestedFor(followedType) != null) {
+					requested.reduceTypeAccess(followedType, AccessBits.DECLARED_CONSTRUCTORS|AccessBits.CLASS|AccessBits.RESOURCE);
+				}
+			}
+			registerAllRequested(0, requested, pending.getContext(), pending.getSource());
+		}
 	}
 
 	private boolean processType(ProcessingContext pc, String typename, ReachedBy reachedBy) {
@@ -1006,7 +1281,7 @@ public class ResourcesHandler extends Handler {
 	 * (and no resource access in that case).
 	 * @param pc 
 	 */
-	private boolean registerSpecific(ProcessingContext pc, String typename, AccessDescriptor ad, RequestedConfigurationManager rcm) {
+	private boolean registerSpecific(String typename, AccessDescriptor ad, RequestedConfigurationManager rcm) {
 		int accessBits = ad.getAccessBits();
 		Type t = ts.resolveDotted(typename, true);
 		if (t == null) {
@@ -1042,7 +1317,7 @@ public class ResourcesHandler extends Handler {
 					// There is a conditional on bean later on the supertype
 					// (AbstractTransactionConfiguration)
 					// and so we must register proxyXXX and its supertypes as visible.
-					registerHierarchy(pc, t, rcm);
+					registerHierarchy(t, true, rcm);
 				}
 			}
 			return true;
@@ -1078,7 +1353,10 @@ public class ResourcesHandler extends Handler {
 				logger.debug(type.getDottedName()+" FAILED validation - it has 'jmx' in it - returning FALSE");
 				if (!aotOptions.isRemoveUnusedConfig()) {
 //					resourcesRegistry.addResources(type.getDottedName().replace(".", "/")+".class");
-					collector.addResource(type.getDottedName().replace(".", "/")+".class", false);
+					RequestedConfigurationManager requested = new RequestedConfigurationManager();
+					requested.requestResourcesDescriptors(Collections.singletonList(new org.springframework.nativex.type.ResourcesDescriptor(
+							new String[] { type.getDottedName().replace(".", "/")+".class" }, false)));
+					pc.addPendingRegistration(requested, Collections.emptyList(), "jmx");
 				}
 				return false;
 			}
@@ -1096,7 +1374,7 @@ public class ResourcesHandler extends Handler {
 //		return true;
 //	}
 	
-	List<String> failedPropertyChecks = new ArrayList<>();
+	List<String> failedPropertyChecks = Collections.synchronizedList(new ArrayList<>());
 	
 	/**
 	 * It is possible to ask for property checks to be done at build time - this enables chunks of code to be discarded early
@@ -1200,6 +1478,15 @@ public class ResourcesHandler extends Handler {
 		// Keep track of everything seen during use of this ProcessingContext
 		private Set<String> visited = new HashSet<>();
 
+		// Requested configuration, registered once the top level type has been analyzed
+		private List<PendingRegistration> pendingRegistrations = new ArrayList<>();
+
+		// Types followed during this analysis, in the order they were first followed
+		private Map<String, FollowedType> followedTypes = new LinkedHashMap<>();
+
+		// The followed types currently being processed, outermost first
+		private List<String> followPath = new ArrayList<>();
+
 		public static ProcessingContext of(String typename, ReachedBy reachedBy) {
 			ProcessingContext pc = new ProcessingContext();
 			pc.push(new ContextEntry(typename, reachedBy));
@@ -1221,6 +1508,55 @@ public class ResourcesHandler extends Handler {
 		public int depth() {
 			return size();
 		}
+
+		public void addPendingRegistration(RequestedConfigurationManager requested, Collection<String> followedTypes, String source) {
+			ProcessingContext context = new ProcessingContext();
+			context.addAll(this);
+			pendingRegistrations.add(new PendingRegistration(requested, followedTypes, context, source, new ArrayList<>(followPath)));
+		}
+
+		/**
+		 * Record that the type is followed by this analysis.
+		 * @return false if this analysis already followed it
+		 */
+		public boolean follow(String typename) {
+			if (followedTypes.containsKey(typename)) {
+				return false;
+			}
+			followedTypes.put(typename, new FollowedType(typename, new ArrayList<>(followPath)));
+			return true;
+		}
+
+		public void followFailed(String typename) {
+			followedTypes.get(typename).setFailed();
+		}
+
+		public void enterFollowedType(String typename) {
+			followPath.add(typename);
+		}
+
+		public void exitFollowedType() {
+			followPath.remove(followPath.size() - 1);
+		}
+
+		public List<FollowedType> getFollowedTypes() {
+			return new ArrayList<>(followedTypes.values());
+		}
+
+		public List<PendingRegistration> getPendingRegistrations() {
+			return pendingRegistrations;
+		}
+
+		/**
+		 * @return the route taken to the current type, outermost first, e.g. <tt>a.b.Foo(FromSpringFactoriesKey)</tt>
+		 */
+		public List<String> toChain() {
+			List<String> chain = new ArrayList<>();
+			for (ContextEntry entry: this) {
+				chain.add(entry.typename + "(" + entry.reachedBy + ")");
+			}
+			return chain;
+		}
 		
 		public String getHierarchyProcessingTopMostTypename() {
 			// Double check are we here because we are a parent of some configuration being processed
@@ -1250,10 +1586,166 @@ public class ResourcesHandler extends Handler {
 		
 	}
 
+	/**
+	 * The outcome of an analysis step that does not depend on the route taken to the type, kept in the
+	 * {@link AnalysisMemo} so later visits to the type can reuse it.
+	 */
+	static class MemoizedAnalysis {
+
+		final RequestedConfigurationManager requested = new RequestedConfigurationManager();
+
+		final Map<Type, ReachedBy> toFollow = new LinkedHashMap<>();
+
+		boolean passed = true;
+
+		String[][] methods;
+	}
+
+	/**
+	 * Configuration requested whilst processing a type, along with the context it was requested in.
+	 */
+	static class PendingRegistration {
+
+		private final RequestedConfigurationManager requested;
+
+		private final Collection<String> followedTypes;
+
+		private final ProcessingContext context;
+
+		private final String source;
+
+		// The followed types whose processing requested this configuration, outermost first
+		private final List<String> followPath;
+
+		PendingRegistration(RequestedConfigurationManager requested, Collection<String> followedTypes,
+				ProcessingContext context, String source, List<String> followPath) {
+			this.requested = requested;
+			this.followedTypes = followedTypes;
+			this.context = context;
+			this.source = source;
+			this.followPath = followPath;
+		}
+
+		public RequestedConfigurationManager getRequested() {
+			return requested;
+		}
+
+		public Collection<String> getFollowedTypes() {
+			return followedTypes;
+		}
+
+		public ProcessingContext getContext() {
+			return context;
+		}
+
+		public String getSource() {
+			return source;
+		}
+
+		public boolean isRequestedThrough(Set<String> typenames) {
+			return followPath.stream().anyMatch(typenames::contains);
+		}
+
+		public PendingRegistration withoutFollowedTypes(Set<String> typenames) {
+			List<String> remaining = followedTypes.stream().filter(t -> !typenames.contains(t)).collect(Collectors.toList());
+			return new PendingRegistration(requested, remaining, context, source, followPath);
+		}
+	}
+
+	/**
+	 * A type followed during the analysis of a top level configuration, along with the followed types it was reached through.
+	 */
+	static class FollowedType {
+
+		private final String typename;
+
+		private final List<String> followPath;
+
+		private boolean failed;
+
+		FollowedType(String typename, List<String> followPath) {
+			this.typename = typename;
+			this.followPath = followPath;
+		}
+
+		public String getTypename() {
+			return typename;
+		}
+
+		public void setFailed() {
+			this.failed = true;
+		}
+
+		public boolean isFailed() {
+			return failed;
+		}
+
+		public boolean isReachedThrough(Set<String> typenames) {
+			return followPath.stream().anyMatch(typenames::contains);
+		}
+	}
+
+	/**
+	 * The result of analyzing a top level configuration: whether it passed and what it requested.
+	 */
+	static class ConfigurationAnalysis {
+
+		private final String typename;
+
+		private final boolean passed;
+
+		private List<PendingRegistration> pendingRegistrations;
+
+		private final List<FollowedType> followedTypes;
+
+		ConfigurationAnalysis(String typename, boolean passed, List<PendingRegistration> pendingRegistrations,
+				List<FollowedType> followedTypes) {
+			this.typename = typename;
+			this.passed = passed;
+			this.pendingRegistrations = pendingRegistrations;
+			this.followedTypes = followedTypes;
+		}
+
+		public String getTypename() {
+			return typename;
+		}
+
+		public boolean isPassed() {
+			return passed;
+		}
+
+		public List<PendingRegistration> getPendingRegistrations() {
+			return pendingRegistrations;
+		}
+
+		public List<FollowedType> getFollowedTypes() {
+			return followedTypes;
+		}
+
+		/**
+		 * Drop what was requested whilst following the specified types, they are followed by an earlier configuration.
+		 */
+		public void dropFollowedTypes(Set<String> typenames) {
+			if (typenames.isEmpty()) {
+				return;
+			}
+			List<PendingRegistration> kept = new ArrayList<>();
+			for (PendingRegistration pending: pendingRegistrations) {
+				if (!pending.isRequestedThrough(typenames)) {
+					kept.add(pending.withoutFollowedTypes(typenames));
+				}
+			}
+			pendingRegistrations = kept;
+		}
+	}
+
 	private boolean processType(ProcessingContext pc, Type type, ReachedBy reachedBy) {
 		pc.push(type, reachedBy);
 		String typename = type.getDottedName();
 		logger.debug("Analyzing " + typename + " reached by " + pc);
+		if (reachedBy == ReachedBy.Import) {
+			collector.recordImportedConfiguration(typename);
+		}
 		
 		if (!checkJmxConstraint(type, pc)) {
 			pc.pop();
@@ -1290,10 +1782,19 @@ public class ResourcesHandler extends Handler {
 		RequestedConfigurationManager accessManager = new RequestedConfigurationManager();
 		List<HintApplication> hints = type.getApplicableHints();
 		printHintSummary(type, hints);
-		Map<Type,ReachedBy> toFollow = new HashMap<>();
-		for (HintApplication hint : hints) {
+		Map<Type,ReachedBy> toFollow = new LinkedHashMap<>();
+		for (int h = 0; h < hints.size(); h++) {
+			HintApplication hint = hints.get(h);
 			logger.debug("processing hint " + hint);
-			passesTests = processExplicitTypeReferencesFromHint(pc, accessManager, hint, toFollow);
+			// Explicit references only depend on the hint, not on the context the type was reached in
+			MemoizedAnalysis explicitReferences = analysisMemo.get("hint", typename + "#" + h, AccessBits.NONE, () -> {
+				MemoizedAnalysis analysis = new MemoizedAnalysis();
+				analysis.passed = processExplicitTypeReferencesFromHint(analysis.requested, hint, analysis.toFollow);
+				return analysis;
+			});
+			accessManager.mergeInIncludingMembers(explicitReferences.requested);
+			toFollow.putAll(explicitReferences.toFollow);
+			passesTests = explicitReferences.passed;
 			if (!passesTests && aotOptions.isRemoveUnusedConfig()) {
 				break;
 			}
@@ -1345,7 +1846,18 @@ public class ResourcesHandler extends Handler {
 //			}
 			if (type.isAtConfiguration()) {
 				checkForAutoConfigureBeforeOrAfter(type, accessManager);
-				String[][] validMethodsSubset = processTypeAtBeanMethods(pc, accessManager, toFollow, type);
+				MemoizedAnalysis atBeanMethods = analysisMemo.get("@Bean methods", typename, AccessBits.NONE, () -> {
+					MemoizedAnalysis analysis = new MemoizedAnalysis();
+					analysis.methods = processTypeAtBeanMethods(analysis.requested, analysis.toFollow, type);
+					return analysis;
+				});
+				accessManager.mergeIn(atBeanMethods.requested);
+				toFollow.putAll(atBeanMethods.toFollow);
+				String[][] validMethodsSubset = atBeanMethods.methods;
+				if (aotOptions.isBuildTimeBeanRegistration() && passesTests && validMethodsSubset == null
+						&& pc.depth() == 1 && reachedBy == ReachedBy.FromSpringComponent) {
+					collector.addBeanRegistrationCandidate(type);
+				}
 				if (validMethodsSubset != null) {
 					printMemberSummary("These are the valid @Bean methods",validMethodsSubset);
 					/*
@@ -1364,8 +1876,8 @@ public class ResourcesHandler extends Handler {
 					*/
 				}
 			}
-			processTypesToFollow(pc, accessManager, type, reachedBy, toFollow);
-			registerAllRequested(accessManager);
+			List<String> followedTypes = processTypesToFollow(pc, type, reachedBy, toFollow);
+			pc.addPendingRegistration(accessManager, followedTypes, describeHintSources(hints));
 		}
 
 		// If the outer type is failing a test, we don't need to go into nested types...
@@ -1408,8 +1920,15 @@ public class ResourcesHandler extends Handler {
 		}
 	}
 
-	private void processTypesToFollow(ProcessingContext pc, RequestedConfigurationManager accessManager,
-			Type type, ReachedBy reachedBy, Map<Type, ReachedBy> toFollow) {
+	/**
+	 * Follow the specified types. Access to any that fail validation is reduced when the requested
+	 * configuration is registered (see {@link #registerAnalysis(ConfigurationAnalysis)}), this is deferred because
+	 * with parallel analysis a type may be followed by the analysis of some other configuration. Whether this
+	 * analysis keeps the types it follows is decided once it is claimed (see {@link #claimFollowedTypes(ConfigurationAnalysis)}).
+	 * @return the types whose validation result affects the access requested for them
+	 */
+	private List<String> processTypesToFollow(ProcessingContext pc, Type type, ReachedBy reachedBy, Map<Type, ReachedBy> toFollow) {
+		List<String> followedTypes = new ArrayList<>();
 		// Follow transitively included inferred types only if necessary:
 		for (Map.Entry<Type,ReachedBy> entry : toFollow.entrySet()) {
 			Type t = entry.getKey();
@@ -1420,26 +1939,28 @@ public class ResourcesHandler extends Handler {
 					continue;
 				}
 			}
-			if (!followed.add(t.getDottedName())) {
+			// Only the types followed by already registered configurations are known here, see claimFollowedTypes
+			if (followed.contains(t.getDottedName()) || !pc.follow(t.getDottedName())) {
 				logger.debug("already followed "+t.getDottedName());
 				continue;
 			}
+			followedTypes.add(t.getDottedName());
+			pc.enterFollowedType(t.getDottedName());
 			try {
 				boolean b = processType(pc, t, entry.getValue());
 				if (!b) {
 					logger.debug("followed " + t.getName() + " and it failed validation (whilst processing "+type.getDottedName()+" reached by "+reachedBy+")");
-//						if (t.isAtConfiguration()) {
-//							accessRequestor.removeTypeAccess(t.getDottedName());
-//						} else {
-						accessManager.reduceTypeAccess(t.getDottedName(),AccessBits.DECLARED_CONSTRUCTORS|AccessBits.CLASS|AccessBits.RESOURCE);
-//						}
+					pc.followFailed(t.getDottedName());
 				}
 			} catch (MissingTypeException mte) {
 				// Failed to follow that type because some element involved is not on the classpath 
 				// (Typically happens when not specifying discard-unused-autconfiguration)
 				logger.debug("Unable to completely process followed type "+t.getName()+": "+mte.getMessage());
+			} finally {
+				pc.exitFollowedType();
 			}
 		}
+		return followedTypes;
 	}
 
 	private void processHierarchy(ProcessingContext pc, RequestedConfigurationManager accessManager, Type type) {
@@ -1543,15 +2064,15 @@ public class ResourcesHandler extends Handler {
 		return passesTests;
 	}
 
-	private boolean processExplicitTypeReferencesFromHint(ProcessingContext pc, 
-			RequestedConfigurationManager accessRequestor, HintApplication hint, Map<Type, ReachedBy> toFollow) {
+	private boolean processExplicitTypeReferencesFromHint(RequestedConfigurationManager accessRequestor,
+			HintApplication hint, Map<Type, ReachedBy> toFollow) {
 		boolean passesTests = true;
 		Map<String, AccessDescriptor> specificNames = hint.getSpecificTypes();
 		if (specificNames.size() > 0) {
 			logger.debug("attempting registration of " + specificNames.size() + " specific types");
 			for (Map.Entry<String, AccessDescriptor> specificNameEntry : specificNames.entrySet()) {
 				String specificTypeName = specificNameEntry.getKey();
-				if (!registerSpecific(pc, specificTypeName, specificNameEntry.getValue(), accessRequestor)) {
+				if (!registerSpecific(specificTypeName, specificNameEntry.getValue(), accessRequestor)) {
 					if (hint.isSkipIfTypesMissing()) {
 						passesTests = false;
 						if (aotOptions.isRemoveUnusedConfig()) {
@@ -1660,7 +2181,7 @@ public class ResourcesHandler extends Handler {
 	 * method. It is also important to check any Conditional annotations on the method as
 	 * a ConditionalOnClass may fail at build time and the whole @Bean method can be ignored.
 	 */
-	private String[][] processTypeAtBeanMethods(ProcessingContext pc, RequestedConfigurationManager rcm,
+	private String[][] processTypeAtBeanMethods(RequestedConfigurationManager rcm,
 			Map<Type,ReachedBy> toFollow, Type type) {
 		List<String[]> passingMethodsSubset = new ArrayList<>();
 		boolean anyMethodFailedValidation = false;
@@ -1682,7 +2203,7 @@ public class ResourcesHandler extends Handler {
 
 		for (Method atBeanMethod : atBeanMethods) {
 			RequestedConfigurationManager methodRCM = new RequestedConfigurationManager();
-			Map<Type, ReachedBy> additionalFollows = new HashMap<>();
+			Map<Type, ReachedBy> additionalFollows = new LinkedHashMap<>();
 			boolean passesTests = true;
 			
 			// boolean methodAnnotatedAtConfigurationProperties = atBeanMethod.hasAnnotation(Type.AtConfigurationProperties, false);
@@ -1733,7 +2254,7 @@ public class ResourcesHandler extends Handler {
 				if (specificNames.size() != 0) {
 					logger.debug("handling " + specificNames.size() + " specific types");
 					for (Map.Entry<String, AccessDescriptor> specificNameEntry : specificNames.entrySet()) {
-						registerSpecific(pc, specificNameEntry.getKey(),
+						registerSpecific(specificNameEntry.getKey(),
 								specificNameEntry.getValue(), methodRCM);
 					}
 				}
@@ -1828,29 +2349,93 @@ public class ResourcesHandler extends Handler {
 		}
 	}
 
-	private void registerAllRequested(RequestedConfigurationManager accessRequestor) {
-		registerAllRequested(0, accessRequestor);
+	/**
+	 * Summarize the hints that were applied to a type, to use as the source in provenance records.
+	 */
+	private String describeHintSources(List<HintApplication> hints) {
+		if (hints.isEmpty()) {
+			return "analysis";
+		}
+		return hints.stream().map(HintApplication::shortChain).collect(Collectors.joining(","));
+	}
+
+	private void recordProvenance(Kind kind, String name, ProcessingContext pc, String source, Integer accessBits) {
+		if (collector.isRecordingProvenance()) {
+			String trigger = (pc == null || pc.isEmpty()) ? null : pc.peek().typename;
+			List<String> reachedBy = pc == null ? null : pc.toChain();
+			collector.recordProvenance(ProvenanceRecord.of(kind, name, trigger, source, reachedBy, accessBits == null ? AccessBits.NONE : accessBits));
+		}
+	}
+
+	private static String springFactoriesSource(String key) {
+		return "spring.factories " + key;
+	}
+
+	// The reflection, resource and proxy entries are all added through the methods below, that record their provenance
+
+	private void addReflectiveAccess(String typename, ProcessingContext pc, String source, Flag... flags) {
+		addReflectiveAccess(typename, null, null, false, AccessBits.CLASS | AccessBits.fromFlags(flags).getValue(), pc, source, flags);
+	}
+
+	private void addReflectiveAccess(String typename, String[][] methodsAndConstructors, String[][] fields, boolean silent,
+			int accessBits, ProcessingContext pc, String source, Flag... flags) {
+		if (reflectionHandler.addAccess(typename, methodsAndConstructors, fields, silent, flags)) {
+			recordProvenance(Kind.REFLECTION, typename, pc, source, accessBits);
+		}
+	}
+
+	private void addResource(String pattern, boolean isBundle, ProcessingContext pc, String source) {
+		if (collector.addResource(pattern, isBundle)) {
+			recordProvenance(Kind.RESOURCE, pattern, pc, source, AccessBits.RESOURCE);
+		}
+	}
+
+	private void registerResource(String resourceName, byte[] bytes, String source) {
+		collector.registerResource(resourceName, bytes);
+		recordProvenance(Kind.RESOURCE, resourceName, null, source, AccessBits.RESOURCE);
+	}
+
+	private void addProxy(List<String> interfaces, ProcessingContext pc, String source) {
+		if (dynamicProxiesHandler.addProxy(interfaces)) {
+			recordProvenance(Kind.PROXY, String.join(",", interfaces), pc, source, AccessBits.NONE);
+		}
+	}
+
+	private void addProxy(JdkProxyDescriptor proxyDescriptor, ProcessingContext pc, String source) {
+		if (dynamicProxiesHandler.addProxy(proxyDescriptor)) {
+			// Class proxies are named after their target class followed by their interfaces
+			List<String> types;
+			if (proxyDescriptor.isClassProxy()) {
+				types = new ArrayList<>(((AotProxyDescriptor) proxyDescriptor).getInterfaceTypes());
+				types.add(0, ((AotProxyDescriptor) proxyDescriptor).getTargetClassType());
+			}
+			else {
+				types = proxyDescriptor.getTypes();
+			}
+			recordProvenance(Kind.PROXY, String.join(",", types), pc, source, AccessBits.NONE);
+		}
 	}
 	
 	// In an attempt to reduce verbosity helps avoid reporting identical messages over and over
-	private static Map<String, Integer> reflectionConfigurationAlreadyAdded = new HashMap<>();
+	private Map<String, Integer> reflectionConfigurationAlreadyAdded = new HashMap<>();
 
-	private void registerAllRequested(int depth, RequestedConfigurationManager accessRequestor) {
+	private void registerAllRequested(int depth, RequestedConfigurationManager accessRequestor, ProcessingContext pc, String source) {
 		for (InitializationDescriptor initializationDescriptor : accessRequestor.getRequestedInitializations()) {
 			initializationHandler.registerInitializationDescriptor(initializationDescriptor);
 		}
 		optionHandler.addOptions(accessRequestor.getRequestedOptions());
 		for (JdkProxyDescriptor proxyDescriptor : accessRequestor.getRequestedProxies()) {
-			dynamicProxiesHandler.addProxy(proxyDescriptor);
+			addProxy(proxyDescriptor, pc, source);
 		}
 		for (org.springframework.nativex.type.ResourcesDescriptor rd : accessRequestor.getRequestedResources()) {
-			registerResourcesDescriptor(rd);
+			registerResourcesDescriptor(rd, pc, source);
 		}
 		for (String serializationType: accessRequestor.getRequestedSerializableTypes()) {
 			serializationHandler.addType(serializationType);
 		}
 		for (Entry<String, AccessDescriptor> jniType : accessRequestor.getRequestedJNITypes().entrySet()) {
 			jniReflectionHandler.addAccess(jniType.getKey(), jniType.getValue());
+			recordProvenance(Kind.JNI, jniType.getKey(), pc, source, jniType.getValue().getAccessBits());
 		}
 		for (Map.Entry<String, Integer> accessRequest : accessRequestor.getRequestedTypeAccesses()) {
 			String dname = accessRequest.getKey();
@@ -1911,7 +2496,8 @@ public class ResourcesHandler extends Handler {
 //			logger.debug(spaces(depth) + "fixed flags? "+Flag.toString(flags));
 //			logger.debug(depth, "ms: "+methods);
 
-			reflectionHandler.addAccess(dname, MethodDescriptor.toStringArray(methods), FieldDescriptor.toStringArray(accessRequestor.getFieldAccessRequestedFor(dname)), true, flags);
+			addReflectiveAccess(dname, MethodDescriptor.toStringArray(methods), FieldDescriptor.toStringArray(accessRequestor.getFieldAccessRequestedFor(dname)), true,
+					requestedAccess, pc, source, flags);
 			/*
 			if (flags != null && flags.length == 1 && flags[0] == Flag.allDeclaredConstructors) {
 				Type resolvedType = ts.resolveDotted(dname, true);
@@ -1924,7 +2510,7 @@ public class ResourcesHandler extends Handler {
 			}
 			*/
 			if (AccessBits.isResourceAccessRequired(requestedAccess)) {
-				collector.addResource(fromTypenameToClassResource(dname), false);
+				addResource(fromTypenameToClassResource(dname), false, pc, source);
 			}
 		}
 	}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A single pass over the classpath that serves several predicates at once. Callers
+ * {@link #register(Scope, Predicate) register} each predicate up front and then
+ * {@link #run()} the scan: every candidate class is resolved once and offered to each
+ * registered predicate whose {@link Scope} covers it, rather than walking the
+ * classpath (and opening every jar) once per predicate.
+ *
+ * <pre class="code">
+ * ClasspathScan scan = typeSystem.newClasspathScan();
+ * Supplier&lt;List&lt;Type&gt;&gt; plugins = scan.register(Scope.USER_CODE_AND_SPRING_JARS, t -&gt; t.implementsInterface(...));
+ * Supplier&lt;List&lt;Type&gt;&gt; controllers = scan.register(Scope.USER_CODE_AND_SPRING_JARS, ...);
+ * scan.run();
+ * </pre>
+ *
+ * Matches are reported in classpath order. Class names for each classpath root are
+ * cached by the {@link TypeSystem}, so later scans of the same roots do not re-read
+ * any class files. Predicates are evaluated on the calling thread unless the scan is
+ * {@link #runInParallel() run in parallel}, which requires every registered predicate
+ * to be thread-safe.
+ */
+public class ClasspathScan {
+
+	private static Log logger = LogFactory.getLog(ClasspathScan.class);
+
+	/**
+	 * Which portion of the classpath a registered predicate is interested in.
+	 */
+	public enum Scope {
+
+		/**
+		 * Application classes: directories and jars that look like the application
+		 * itself (see {@link TypeSystem#findDirectoriesOrTargetDirJar(List)}).
+		 */
+		USER_CODE,
+
+		/**
+		 * All directories plus jars that look like they are part of the application or
+		 * Spring (see {@link TypeSystem#findUserCodeDirectoriesAndSpringJars(List)}).
+		 */
+		USER_CODE_AND_SPRING_JARS
+	}
+
+	private final TypeSystem typeSystem;
+
+	private final List<Subscription> subscriptions = new ArrayList<>();
+
+	private boolean done;
+
+	ClasspathScan(TypeSystem typeSystem) {
+		this.typeSystem = typeSystem;
+	}
+
+	/**
+	 * Register a predicate to be evaluated during the scan.
+	 * @param scope the portion of the classpath the predicate should see
+	 * @param filter the predicate, only invoked concurrently if the scan is {@link #runInParallel() run in parallel}
+	 * @return supplier of the matching types, only usable once the scan has been run
+	 */
+	public Supplier<List<Type>> register(Scope scope, Predicate<Type> filter) {
+		return register(scope, null, filter);
+	}
+
+	/**
+	 * Register a predicate to be evaluated during the scan, only for classes whose constant
+	 * pool passes the prefilter. Classes that fail the prefilter of every interested
+	 * predicate are never parsed. The prefilter must only reject classes the predicate
+	 * could never match (e.g. the predicate checks for an annotation directly on the type
+	 * and the prefilter looks for that annotation descriptor).
+	 * @param scope the portion of the classpath the predicate should see
+	 * @param prefilter UTF8 constants a class must reference to be a candidate, may be {@code null}
+	 * @param filter the predicate, only invoked concurrently if the scan is {@link #runInParallel() run in parallel}
+	 * @return supplier of the matching types, only usable once the scan has been run
+	 */
+	public Supplier<List<Type>> register(Scope scope, ConstantPoolScanner.Prefilter prefilter, Predicate<Type> filter) {
+		if (done) {
+			throw new IllegalStateException("Scan has already been run");
+		}
+		Subscription subscription = new Subscription(scope, prefilter, filter);
+		subscriptions.add(subscription);
+		return subscription;
+	}
+
+	/**
+	 * Walk the union of the classpath roots needed by the registered predicates once,
+	 * resolving each class and offering it to the interested predicates.
+	 */
+	public void run() {
+		run(false);
+	}
+
+	/**
+	 * Variant of {@link #run()} that resolves and matches the classes using several threads.
+	 * Only use it when every registered predicate is thread-safe: predicates are invoked
+	 * concurrently, for different classes, from the threads of the common fork-join pool.
+	 * Matches are still reported in classpath order.
+	 */
+	public void runInParallel() {
+		run(true);
+	}
+
+	private void run(boolean parallel) {
+		if (done) {
+			throw new IllegalStateException("Scan has already been run");
+		}
+		done = true;
+		if (subscriptions.isEmpty()) {
+			return;
+		}
+		long t = System.currentTimeMillis();
+		// Only compute the roots for the scopes actually asked for
+		List<Path> userCode = Collections.emptyList();
+		List<Path> userCodeAndSpringJars = Collections.emptyList();
+		if (subscriptions.stream().anyMatch(subscription -> subscription.scope == Scope.USER_CODE)) {
+			userCode = typeSystem.findDirectoriesOrTargetDirJar(typeSystem.getClasspath()).collect(Collectors.toList());
+		}
+		if (subscriptions.stream().anyMatch(subscription -> subscription.scope == Scope.USER_CODE_AND_SPRING_JARS)) {
+			userCodeAndSpringJars = typeSystem.findUserCodeDirectoriesAndSpringJars(typeSystem.getClasspath()).collect(Collectors.toList());
+		}
+		Set<Path> roots = new LinkedHashSet<>(userCode);
+		roots.addAll(userCodeAndSpringJars);
+		List<Candidate> candidates = new ArrayList<>();
+		for (Path root : roots) {
+			boolean inUserCode = userCode.contains(root);
+			boolean inUserCodeAndSpringJars = userCodeAndSpringJars.contains(root);
+			List<Path> classfiles = typeSystem.getClassfiles(root);
+			List<String> classNames = typeSystem.getClassNames(root);
+			for (int i = 0; i < classNames.size(); i++) {
+				candidates.add(new Candidate(classfiles.get(i), classNames.get(i), inUserCode, inUserCodeAndSpringJars));
+			}
+		}
+		List<boolean[]> results;
+		if (parallel) {
+			// The type system relies on the context class loader to locate hints
+			ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+			results = candidates.parallelStream().map(candidate -> {
+				Thread thread = Thread.currentThread();
+				ClassLoader previous = thread.getContextClassLoader();
+				thread.setContextClassLoader(classLoader);
+				try {
+					return match(candidate);
+				} finally {
+					thread.setContextClassLoader(previous);
+				}
+			}).collect(Collectors.toList());
+		} else {
+			results = new ArrayList<>(candidates.size());
+			for (Candidate candidate : candidates) {
+				results.add(match(candidate));
+			}
+		}
+		for (int c = 0; c < candidates.size(); c++) {
+			boolean[] matched = results.get(c);
+			if (matched == null) {
+				continue;
+			}
+			for (int s = 0; s < matched.length; s++) {
+				if (matched[s]) {
+					subscriptions.get(s).matches.add(candidates.get(c).type);
+				}
+			}
+		}
+		logger.debug((parallel ? "Parallel classpath scan of " : "Classpath scan of ") + candidates.size() + " classes in " + roots.size() + " roots for "
+				+ subscriptions.size() + " predicates took " + (System.currentTimeMillis() - t) + "ms");
+	}
+
+	private boolean[] match(Candidate candidate) {
+		boolean[] matched = null;
+		for (int s = 0; s < subscriptions.size(); s++) {
+			Subscription subscription = subscriptions.get(s);
+			if (!(subscription.scope == Scope.USER_CODE ? candidate.inUserCode : candidate.inUserCodeAndSpringJars)) {
+				continue;
+			}
+			if (subscription.prefilter != null && !candidate.passes(subscription.prefilter)) {
+				continue;
+			}
+			if (candidate.type == null) {
+				candidate.type = typeSystem.resolveSlashed(candidate.slashedTypename);
+			}
+			if (subscription.filter.test(candidate.type)) {
+				if (matched == null) {
+					matched = new boolean[subscriptions.size()];
+				}
+				matched[s] = true;
+			}
+		}
+		candidate.bytes = null;
+		return matched;
+	}
+
+	private static class Candidate {
+
+		final Path classfile;
+
+		final String slashedTypename;
+
+		final boolean inUserCode;
+
+		final boolean inUserCodeAndSpringJars;
+
+		Type type;
+
+		// Only held while the candidate is being matched
+		byte[] bytes;
+
+		Candidate(Path classfile, String slashedTypename, boolean inUserCode, boolean inUserCodeAndSpringJars) {
+			this.classfile = classfile;
+			this.slashedTypename = slashedTypename;
+			this.inUserCode = inUserCode;
+			this.inUserCodeAndSpringJars = inUserCodeAndSpringJars;
+		}
+
+		boolean passes(ConstantPoolScanner.Prefilter prefilter) {
+			if (type != null) {
+				return true;
+			}
+			if (bytes == null) {
+				try {
+					bytes = Files.readAllBytes(classfile);
+				} catch (IOException e) {
+					return true;
+				}
+			}
+			return prefilter.test(bytes);
+		}
+	}
+
+	private class Subscription implements Supplier<List<Type>> {
+
+		final Scope scope;
+
+		final ConstantPoolScanner.Prefilter prefilter;
+
+		final Predicate<Type> filter;
+
+		final List<Type> matches = new ArrayList<>();
+
+		Subscription(Scope scope, ConstantPoolScanner.Prefilter prefilter, Predicate<Type> filter) {
+			this.scope = scope;
+			this.prefilter = prefilter;
+			this.filter = filter;
+		}
+
+		@Override
+		public List<Type> get() {
+			if (!done) {
+				throw new IllegalStateException("Scan has not been run yet");
+			}
+			return Collections.unmodifiableList(matches);
+		}
+	}
+
+}
@@ -16,10 +16,25 @@
 
 package org.springframework.nativex.type;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 public interface ComponentProcessor {
 
+	/**
+	 * Describe which components this processor may be interested in. Components are only
+	 * offered to {@link #handle(NativeContext, Type, List)} if they match the interest, so
+	 * the interest must never be narrower than what {@code handle} accepts. The default is
+	 * {@link Interest#any()}: every component is offered.
+	 * @return the interest of this processor
+	 */
+	default Interest getInterest() {
+		return Interest.any();
+	}
+
 	/**
 	 * Does this processor want to process the specified key/values.
 	 * Examples:
@@ -35,7 +50,137 @@ public interface ComponentProcessor {
 	 */
 	boolean handle(NativeContext imageContext, String componentType, List<String> classifiers);
 
+	/**
+	 * Variant of {@link #handle(NativeContext, String, List)} called with the already resolved
+	 * component type, override to avoid resolving it again.
+	 * @param imageContext the image context
+	 * @param componentType the resolved component type
+	 * @param classifiers the classifiers
+	 * @return {@code true} if processing should be done
+	 */
+	default boolean handle(NativeContext imageContext, Type componentType, List<String> classifiers) {
+		return handle(imageContext, componentType.getDottedName(), classifiers);
+	}
+
 	void process(NativeContext imageContext, String componentType, List<String> classifiers);
 
+	/**
+	 * Variant of {@link #process(NativeContext, String, List)} called with the already resolved
+	 * component type, override to avoid resolving it again.
+	 * @param imageContext the image context
+	 * @param componentType the resolved component type
+	 * @param classifiers the classifiers
+	 */
+	default void process(NativeContext imageContext, Type componentType, List<String> classifiers) {
+		process(imageContext, componentType.getDottedName(), classifiers);
+	}
+
 	default void printSummary() {}
+
+	/**
+	 * The kinds of component a {@link ComponentProcessor} wants to be offered. A component
+	 * matches if any of the declared elements match:
+	 * <ul>
+	 * <li>classifiers: one of the spring.components classifiers (dotted names)
+	 * <li>type annotations: an annotation (L-descriptor) on the type or one of its supertypes, directly or as a meta-annotation
+	 * <li>type annotation prefixes: the dotted name of such an annotation starts with the prefix
+	 * <li>method annotations: an annotation (L-descriptor) on a method of the type or one of its supertypes, directly or as a meta-annotation
+	 * <li>interfaces: an interface (slashed name) implemented by the type or one of its supertypes
+	 * </ul>
+	 */
+	final class Interest {
+
+		private static final Interest ANY = new Interest(true);
+
+		private final boolean any;
+
+		private final Set<String> classifiers = new LinkedHashSet<>();
+
+		private final Set<String> typeAnnotations = new LinkedHashSet<>();
+
+		private final Set<String> typeAnnotationPrefixes = new LinkedHashSet<>();
+
+		private final Set<String> methodAnnotations = new LinkedHashSet<>();
+
+		private final Set<String> interfaces = new LinkedHashSet<>();
+
+		private Interest(boolean any) {
+			this.any = any;
+		}
+
+		/**
+		 * @return an interest in every component
+		 */
+		public static Interest any() {
+			return ANY;
+		}
+
+		/**
+		 * @return an interest in nothing, add to it with the other methods
+		 */
+		public static Interest none() {
+			return new Interest(false);
+		}
+
+		public Interest classifiers(String... dottedNames) {
+			return add(classifiers, dottedNames);
+		}
+
+		public Interest typeAnnotations(String... annotationDescriptors) {
+			return add(typeAnnotations, annotationDescriptors);
+		}
+
+		public Interest typeAnnotationPrefixes(String... dottedPrefixes) {
+			return add(typeAnnotationPrefixes, dottedPrefixes);
+		}
+
+		public Interest methodAnnotations(String... annotationDescriptors) {
+			return add(methodAnnotations, annotationDescriptors);
+		}
+
+		public Interest interfaces(String... slashedNames) {
+			return add(interfaces, slashedNames);
+		}
+
+		private Interest add(Set<String> set, String[] values) {
+			if (any) {
+				throw new IllegalStateException("Interest in any component cannot be refined");
+			}
+			set.addAll(Arrays.asList(values));
+			return this;
+		}
+
+		public boolean isAny() {
+			return any;
+		}
+
+		public Set<String> getClassifiers() {
+			return Collections.unmodifiableSet(classifiers);
+		}
+
+		public Set<String> getTypeAnnotations() {
+			return Collections.unmodifiableSet(typeAnnotations);
+		}
+
+		public Set<String> getTypeAnnotationPrefixes() {
+			return Collections.unmodifiableSet(typeAnnotationPrefixes);
+		}
+
+		public Set<String> getMethodAnnotations() {
+			return Collections.unmodifiableSet(methodAnnotations);
+		}
+
+		public Set<String> getInterfaces() {
+			return Collections.unmodifiableSet(interfaces);
+		}
+
+		@Override
+		public String toString() {
+			if (any) {
+				return "Interest(any)";
+			}
+			return "Interest(classifiers=" + classifiers + " typeAnnotations=" + typeAnnotations + " typeAnnotationPrefixes="
+					+ typeAnnotationPrefixes + " methodAnnotations=" + methodAnnotations + " interfaces=" + interfaces + ")";
+		}
+	}
 }
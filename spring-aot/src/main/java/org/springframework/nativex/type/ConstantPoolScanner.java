@@ -19,6 +19,7 @@ package org.springframework.nativex.type;
 import java.io.File;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -372,6 +373,128 @@ public class ConstantPoolScanner {
 	}
 
 
+	/**
+	 * A cheap test of whether a class could possibly be of interest to a scan, based on the
+	 * UTF8 constants (annotation descriptors, member names, slashed type names) in its
+	 * constant pool. Only the constant pool is walked and the UTF8 entries are compared
+	 * as raw bytes, nothing is decoded, so classes that fail the test can be skipped
+	 * before ASM ever parses them. Matching is exact on whole constants. Bytes that do
+	 * not look like a well formed class pass the filter so that the real parse can
+	 * report the problem.
+	 */
+	public static class Prefilter {
+
+		private final byte[][] constants;
+
+		private final boolean requireAll;
+
+		private Prefilter(String[] constants, boolean requireAll) {
+			this.constants = new byte[constants.length][];
+			for (int i = 0; i < constants.length; i++) {
+				this.constants[i] = constants[i].getBytes(StandardCharsets.UTF_8);
+			}
+			this.requireAll = requireAll;
+		}
+
+		/**
+		 * @param constants UTF8 constants, for example {@code Lorg/springframework/context/annotation/Bean;}
+		 * @return a filter passing classes whose constant pool contains at least one of the constants
+		 */
+		public static Prefilter anyOf(String... constants) {
+			return new Prefilter(constants, false);
+		}
+
+		/**
+		 * @param constants UTF8 constants, for example {@code org/springframework/util/ClassUtils} and {@code isPresent}
+		 * @return a filter passing classes whose constant pool contains all of the constants
+		 */
+		public static Prefilter allOf(String... constants) {
+			return new Prefilter(constants, true);
+		}
+
+		public boolean test(byte[] classbytes) {
+			try {
+				return scan(classbytes);
+			} catch (RuntimeException e) {
+				return true;
+			}
+		}
+
+		private boolean scan(byte[] bytes) {
+			if (constants.length == 0) {
+				return true;
+			}
+			if (((bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | (bytes[3] & 0xFF)) != 0xCAFEBABE) {
+				return true;
+			}
+			boolean[] found = new boolean[constants.length];
+			int remaining = constants.length;
+			int cpsize = ((bytes[8] & 0xFF) << 8) + (bytes[9] & 0xFF);
+			int ptr = 10;
+			for (int cpentry = 1; cpentry < cpsize; cpentry++) {
+				byte b = bytes[ptr++];
+				switch (b) {
+					case CONSTANT_Utf8:
+						int len = ((bytes[ptr] & 0xFF) << 8) + (bytes[ptr + 1] & 0xFF);
+						ptr += 2;
+						for (int c = 0; c < constants.length; c++) {
+							if (!found[c] && matches(bytes, ptr, len, constants[c])) {
+								if (!requireAll) {
+									return true;
+								}
+								found[c] = true;
+								if (--remaining == 0) {
+									return true;
+								}
+							}
+						}
+						ptr += len;
+						break;
+					case CONSTANT_Integer:
+					case CONSTANT_Float:
+					case CONSTANT_Fieldref:
+					case CONSTANT_Methodref:
+					case CONSTANT_InterfaceMethodref:
+					case CONSTANT_NameAndType:
+					case CONSTANT_InvokeDynamic:
+						ptr += 4;
+						break;
+					case CONSTANT_Long:
+					case CONSTANT_Double:
+						ptr += 8;
+						cpentry++;
+						break;
+					case CONSTANT_MethodHandle:
+						ptr += 3;
+						break;
+					case CONSTANT_Class:
+					case CONSTANT_String:
+					case CONSTANT_MethodType:
+					case CONSTANT_Module:
+					case CONSTANT_Package:
+						ptr += 2;
+						break;
+					default:
+						// Unknown entry (e.g. CONSTANT_Dynamic), let the full parse decide
+						return true;
+				}
+			}
+			return false;
+		}
+
+		private static boolean matches(byte[] bytes, int offset, int len, byte[] constant) {
+			if (len != constant.length) {
+				return false;
+			}
+			for (int i = 0; i < len; i++) {
+				if (bytes[offset + i] != constant[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
 	public String getSuperclassname() {
 		return supername;
 	}
@@ -143,6 +143,20 @@ public class Field {
 		return (node.access & Opcodes.ACC_FINAL) != 0;
 	}
 
+	/**
+	 * @return {@literal true} if considered a public field ({@link Opcodes#ACC_PUBLIC}).
+	 */
+	public boolean isPublic() {
+		return (node.access & Opcodes.ACC_PUBLIC) != 0;
+	}
+
+	/**
+	 * @return {@literal true} if considered a static field ({@link Opcodes#ACC_STATIC}).
+	 */
+	public boolean isStatic() {
+		return (node.access & Opcodes.ACC_STATIC) != 0;
+	}
+
 	/**
 	 * @return {@literal true} if considered synthetic ({@link Opcodes#ACC_SYNTHETIC}).
 	 */
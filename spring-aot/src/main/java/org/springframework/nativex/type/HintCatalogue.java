@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.nativex.type;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.objectweb.asm.tree.AnnotationNode;
+
+/**
+ * Catalogue of the hint annotations ({@link org.springframework.nativex.hint.NativeHint},
+ * {@link org.springframework.nativex.hint.TypeHint}, etc) declared on the types of a library. It is written
+ * at compile time by the {@link org.springframework.nativex.processor.NativeHintsProcessor} once the
+ * annotations have been validated. When a type is in a catalogue its hints are unpacked from the
+ * catalogue rather than from the annotations in its class file. The annotation values are held as they
+ * would be in an ASM {@link AnnotationNode}, resolving them against the classpath being analyzed (type names,
+ * inferred access, proxy interfaces) is still done at analysis time.
+ * 
+ */
+public class HintCatalogue {
+
+	public static final String CATALOGUE_LOCATION = "META-INF/native-hints.catalogue";
+
+	private static final int MAGIC = 0x534E4843; // SNHC
+
+	private static final int VERSION = 1;
+
+	private final Map<String, List<AnnotationNode>> hintAnnotations = new LinkedHashMap<>();
+
+	public void add(String typename, List<AnnotationNode> annotations) {
+		hintAnnotations.put(typename, annotations);
+	}
+
+	/**
+	 * @param typename dotted type name
+	 * @return the hint annotations on the type or null if the type is not in the catalogue
+	 */
+	public List<AnnotationNode> getHintAnnotations(String typename) {
+		return hintAnnotations.get(typename);
+	}
+
+	public Set<String> getTypenames() {
+		return Collections.unmodifiableSet(hintAnnotations.keySet());
+	}
+
+	public boolean isEmpty() {
+		return hintAnnotations.isEmpty();
+	}
+
+	public int size() {
+		return hintAnnotations.size();
+	}
+
+	public void write(OutputStream os) throws IOException {
+		DataOutputStream dos = new DataOutputStream(os);
+		dos.writeInt(MAGIC);
+		dos.writeShort(VERSION);
+		dos.writeInt(hintAnnotations.size());
+		for (Map.Entry<String, List<AnnotationNode>> entry: hintAnnotations.entrySet()) {
+			dos.writeUTF(entry.getKey());
+			dos.writeInt(entry.getValue().size());
+			for (AnnotationNode annotation: entry.getValue()) {
+				writeAnnotation(dos, annotation);
+			}
+		}
+		dos.flush();
+	}
+
+	public void read(InputStream is) throws IOException {
+		DataInputStream dis = new DataInputStream(is);
+		if (dis.readInt() != MAGIC) {
+			throw new IOException("Not a hint catalogue");
+		}
+		int version = dis.readShort();
+		if (version != VERSION) {
+			throw new IOException("Unsupported hint catalogue version " + version);
+		}
+		int typeCount = dis.readInt();
+		for (int t = 0; t < typeCount; t++) {
+			String typename = dis.readUTF();
+			int annotationCount = dis.readInt();
+			List<AnnotationNode> annotations = new ArrayList<>(annotationCount);
+			for (int a = 0; a < annotationCount; a++) {
+				annotations.add(readAnnotation(dis));
+			}
+			add(typename, annotations);
+		}
+	}
+
+	private void writeAnnotation(DataOutputStream dos, AnnotationNode annotation) throws IOException {
+		dos.writeUTF(annotation.desc);
+		List<Object> values = annotation.values;
+		int count = values == null ? 0 : values.size() / 2;
+		dos.writeShort(count);
+		for (int i = 0; i < count * 2; i += 2) {
+			dos.writeUTF((String) values.get(i));
+			writeValue(dos, values.get(i + 1));
+		}
+	}
+
+	private AnnotationNode readAnnotation(DataInputStream dis) throws IOException {
+		AnnotationNode annotation = new AnnotationNode(dis.readUTF());
+		int count = dis.readShort();
+		if (count > 0) {
+			annotation.values = new ArrayList<>(count * 2);
+			for (int i = 0; i < count; i++) {
+				annotation.values.add(dis.readUTF());
+				annotation.values.add(readValue(dis));
+			}
+		}
+		return annotation;
+	}
+
+	// Tags follow the class file element_value tags
+	private void writeValue(DataOutputStream dos, Object value) throws IOException {
+		if (value instanceof String) {
+			dos.writeByte('s');
+			dos.writeUTF((String) value);
+		} else if (value instanceof Boolean) {
+			dos.writeByte('Z');
+			dos.writeBoolean((Boolean) value);
+		} else if (value instanceof Integer) {
+			dos.writeByte('I');
+			dos.writeInt((Integer) value);
+		} else if (value instanceof org.objectweb.asm.Type) {
+			dos.writeByte('c');
+			dos.writeUTF(((org.objectweb.asm.Type) value).getDescriptor());
+		} else if (value instanceof String[]) {
+			String[] enumValue = (String[]) value;
+			dos.writeByte('e');
+			dos.writeUTF(enumValue[0]);
+			dos.writeUTF(enumValue[1]);
+		} else if (value instanceof AnnotationNode) {
+			dos.writeByte('@');
+			writeAnnotation(dos, (AnnotationNode) value);
+		} else if (value instanceof List) {
+			List<?> list = (List<?>) value;
+			dos.writeByte('[');
+			dos.writeShort(list.size());
+			for (Object element: list) {
+				writeValue(dos, element);
+			}
+		} else {
+			throw new IllegalStateException("Unsupported hint annotation value: " + value + " (" + value.getClass() + ")");
+		}
+	}
+
+	private Object readValue(DataInputStream dis) throws IOException {
+		int tag = dis.readByte();
+		switch (tag) {
+		case 's':
+			return dis.readUTF();
+		case 'Z':
+			return dis.readBoolean();
+		case 'I':
+			return dis.readInt();
+		case 'c':
+			return org.objectweb.asm.Type.getType(dis.readUTF());
+		case 'e':
+			return new String[] { dis.readUTF(), dis.readUTF() };
+		case '@':
+			return readAnnotation(dis);
+		case '[':
+			int size = dis.readShort();
+			List<Object> list = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				list.add(readValue(dis));
+			}
+			return list;
+		default:
+			throw new IOException("Unexpected hint annotation value tag '" + (char) tag + "'");
+		}
+	}
+
+	public String toString() {
+		return "HintCatalogue(#types=" + hintAnnotations.size() + ")";
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.nativex.type;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the {@link NativeConfiguration} providers in a library keyed by the trigger types of the
+ * hints they declare. It is computed when the library is built (see {@link HintTriggerIndexGenerator})
+ * so that at analysis time the hints of a provider only need to be unpacked once one of its triggers
+ * is of interest. Providers that compute hints programmatically cannot be indexed by trigger and are
+ * always unpacked.
+ * 
+ */
+public class HintTriggerIndex {
+
+	public static final String INDEX_LOCATION = "META-INF/native-hints.idx";
+
+	private static final int MAGIC = 0x534E4849; // SNHI
+
+	private static final int VERSION = 1;
+
+	private final Map<String, Set<String>> triggersByProvider = new LinkedHashMap<>();
+
+	private final Map<String, Set<String>> providersByTrigger = new LinkedHashMap<>();
+
+	private final Set<String> providersComputingHints = new LinkedHashSet<>();
+
+	/**
+	 * Load and merge all the indexes visible to the specified class loader.
+	 */
+	public static HintTriggerIndex load(ClassLoader classLoader) {
+		HintTriggerIndex index = new HintTriggerIndex();
+		try {
+			Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+			while (resources.hasMoreElements()) {
+				URL resource = resources.nextElement();
+				try (InputStream is = resource.openStream()) {
+					index.read(is);
+				}
+			}
+		} catch (IOException ioe) {
+			throw new IllegalStateException("Unable to load hint trigger index", ioe);
+		}
+		return index;
+	}
+
+	public void add(String provider, Collection<String> triggers, boolean computesHints) {
+		Set<String> providerTriggers = triggersByProvider.computeIfAbsent(provider, p -> new LinkedHashSet<>());
+		for (String trigger: triggers) {
+			providerTriggers.add(trigger);
+			providersByTrigger.computeIfAbsent(trigger, t -> new LinkedHashSet<>()).add(provider);
+		}
+		if (computesHints) {
+			providersComputingHints.add(provider);
+		}
+	}
+
+	public boolean contains(String provider) {
+		return triggersByProvider.containsKey(provider);
+	}
+
+	public boolean isEmpty() {
+		return triggersByProvider.isEmpty();
+	}
+
+	public Set<String> getProviders() {
+		return Collections.unmodifiableSet(triggersByProvider.keySet());
+	}
+
+	public Set<String> getProviders(String trigger) {
+		Set<String> providers = providersByTrigger.get(trigger);
+		return providers == null ? Collections.emptySet() : Collections.unmodifiableSet(providers);
+	}
+
+	public Set<String> getTriggers() {
+		return Collections.unmodifiableSet(providersByTrigger.keySet());
+	}
+
+	public Set<String> getTriggers(String provider) {
+		Set<String> triggers = triggersByProvider.get(provider);
+		return triggers == null ? Collections.emptySet() : Collections.unmodifiableSet(triggers);
+	}
+
+	public boolean computesHints(String provider) {
+		return providersComputingHints.contains(provider);
+	}
+
+	public void write(OutputStream os) throws IOException {
+		DataOutputStream dos = new DataOutputStream(os);
+		dos.writeInt(MAGIC);
+		dos.writeShort(VERSION);
+		dos.writeInt(triggersByProvider.size());
+		for (Map.Entry<String, Set<String>> entry: triggersByProvider.entrySet()) {
+			dos.writeUTF(entry.getKey());
+			dos.writeBoolean(providersComputingHints.contains(entry.getKey()));
+			dos.writeInt(entry.getValue().size());
+			for (String trigger: entry.getValue()) {
+				dos.writeUTF(trigger);
+			}
+		}
+		dos.flush();
+	}
+
+	public void read(InputStream is) throws IOException {
+		DataInputStream dis = new DataInputStream(is);
+		if (dis.readInt() != MAGIC) {
+			throw new IOException("Not a hint trigger index");
+		}
+		int version = dis.readShort();
+		if (version != VERSION) {
+			throw new IOException("Unsupported hint trigger index version " + version);
+		}
+		int providerCount = dis.readInt();
+		for (int p = 0; p < providerCount; p++) {
+			String provider = dis.readUTF();
+			boolean computesHints = dis.readBoolean();
+			int triggerCount = dis.readInt();
+			Set<String> triggers = new LinkedHashSet<>();
+			for (int t = 0; t < triggerCount; t++) {
+				triggers.add(dis.readUTF());
+			}
+			add(provider, triggers, computesHints);
+		}
+	}
+
+	public String toString() {
+		return "HintTriggerIndex(#providers=" + triggersByProvider.size() + ",#triggers=" + providersByTrigger.size() + ")";
+	}
+
+}
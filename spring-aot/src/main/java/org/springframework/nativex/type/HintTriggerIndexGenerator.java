@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.nativex.type;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Computes the {@link HintTriggerIndex} for the {@link NativeConfiguration} providers registered in a
+ * classes directory and writes it to {@link HintTriggerIndex#INDEX_LOCATION} in that directory. Intended
+ * to run when a library of hints is built, with the library dependencies on the classpath.
+ * 
+ */
+public class HintTriggerIndexGenerator {
+
+	private static Log logger = LogFactory.getLog(HintTriggerIndexGenerator.class);
+
+	private static final String PROVIDERS_LOCATION = "META-INF/services/" + NativeConfiguration.class.getName();
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			throw new IllegalArgumentException("Usage: HintTriggerIndexGenerator <classesDirectory>");
+		}
+		File classesDirectory = new File(args[0]);
+		File providersFile = new File(classesDirectory, PROVIDERS_LOCATION);
+		if (!providersFile.exists()) {
+			logger.debug("No " + PROVIDERS_LOCATION + " in " + classesDirectory + ", no hint trigger index generated");
+			return;
+		}
+		List<String> classpath = new ArrayList<>();
+		classpath.add(classesDirectory.getAbsolutePath());
+		for (String entry: System.getProperty("java.class.path").split(File.pathSeparator)) {
+			if (!entry.isEmpty() && !classpath.contains(entry)) {
+				classpath.add(entry);
+			}
+		}
+		HintTriggerIndex index = generate(new TypeSystem(classpath), readProviders(providersFile));
+		File indexFile = new File(classesDirectory, HintTriggerIndex.INDEX_LOCATION);
+		indexFile.getParentFile().mkdirs();
+		try (OutputStream os = new FileOutputStream(indexFile)) {
+			index.write(os);
+		}
+		logger.debug("Written " + index + " to " + indexFile);
+	}
+
+	public static HintTriggerIndex generate(TypeSystem typeSystem, List<String> providers) {
+		HintTriggerIndex index = new HintTriggerIndex();
+		for (String provider: providers) {
+			Type type = typeSystem.resolveDotted(provider, true);
+			if (type == null) {
+				// Not indexing it means it will be unpacked eagerly at analysis time
+				logger.debug("WARNING: unable to resolve hint provider " + provider + ", it will not be indexed");
+				continue;
+			}
+			Set<String> triggers = new LinkedHashSet<>();
+			for (HintDeclaration hint: type.getCompilationHints()) {
+				triggers.add(hint.getTriggerTypename() == null ? "java.lang.Object" : hint.getTriggerTypename());
+			}
+			index.add(provider, triggers, computesHints(type));
+		}
+		return index;
+	}
+
+	private static boolean computesHints(Type type) {
+		while (type != null && !type.getDottedName().equals("java.lang.Object")) {
+			if (type.hasMethod("computeHints")) {
+				return true;
+			}
+			type = type.getSuperclass();
+		}
+		return false;
+	}
+
+	private static List<String> readProviders(File providersFile) throws IOException {
+		List<String> providers = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new FileInputStream(providersFile), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int comment = line.indexOf('#');
+				if (comment != -1) {
+					line = line.substring(0, comment);
+				}
+				line = line.trim();
+				if (!line.isEmpty()) {
+					providers.add(line);
+				}
+			}
+		}
+		return providers;
+	}
+
+}
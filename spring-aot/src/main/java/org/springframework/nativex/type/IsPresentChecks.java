@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code ClassUtils.isPresent()} checks made by the static initializer of a type. When the static initializer
+ * does nothing else than storing the result of such checks into static final boolean fields, the type can be
+ * initialized at image build time so that the fields become constants computed from the classpath and the
+ * branches depending on them can be eliminated.
+ */
+public class IsPresentChecks {
+
+	private final String typename;
+
+	private final String superclassName;
+
+	private final List<String> checkedTypes;
+
+	private final Map<String, List<String>> checkedTypesByField;
+
+	private final boolean foldable;
+
+	IsPresentChecks(String typename, String superclassName, List<String> checkedTypes,
+			Map<String, List<String>> checkedTypesByField, boolean foldable) {
+		this.typename = typename;
+		this.superclassName = superclassName;
+		this.checkedTypes = checkedTypes;
+		this.checkedTypesByField = checkedTypesByField;
+		this.foldable = foldable;
+	}
+
+	/**
+	 * @return the dotted name of the type making the checks
+	 */
+	public String getTypename() {
+		return typename;
+	}
+
+	/**
+	 * @return the dotted name of the superclass of the type, or null for an interface
+	 */
+	public String getSuperclassName() {
+		return superclassName;
+	}
+
+	/**
+	 * @return the types isPresent() checks are made upon (may be empty if the targets cannot be determined)
+	 */
+	public List<String> getCheckedTypes() {
+		return Collections.unmodifiableList(checkedTypes);
+	}
+
+	/**
+	 * @return the types checked for the value of each static final field, for a foldable static initializer
+	 */
+	public Map<String, List<String>> getCheckedTypesByField() {
+		return Collections.unmodifiableMap(new LinkedHashMap<>(checkedTypesByField));
+	}
+
+	/**
+	 * @return true if the static initializer only stores isPresent() checks results into static final fields
+	 */
+	public boolean isFoldable() {
+		return foldable;
+	}
+
+	@Override
+	public String toString() {
+		return "IsPresentChecks(" + typename + (foldable ? ",foldable" : "") + "," + checkedTypes + ")";
+	}
+
+}
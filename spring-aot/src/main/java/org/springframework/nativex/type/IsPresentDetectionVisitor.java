@@ -19,17 +19,26 @@ package org.springframework.nativex.type;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 
 /**
  * Class visitor that will check if a type is making isPresent() calls from the
  * static initializer. If calls are being made it will try to determine the
- * parameter to the isPresent() call.
+ * parameter to the isPresent() call. It also determines whether the static
+ * initializer does nothing more than store the results of those calls into
+ * static final fields (see {@link IsPresentChecks#isFoldable()}).
  * 
  * @author Andy Clement
  */
@@ -37,10 +46,18 @@ class IsPresentDetectionVisitor extends ClassVisitor {
 
 	private String classname;
 
+	private String superclassName;
+
 	private boolean containsIsPresentChecksInStaticInitializer = false;
 
 	private List<String> typesCheckedInIsPresentCalls = new ArrayList<>();
 
+	private Set<String> staticFinalBooleanFields = new HashSet<>();
+
+	private Map<String, List<String>> typesCheckedByField = new LinkedHashMap<>();
+
+	private boolean foldable = true;
+
 	/**
 	 * Visit the class supplied in the input stream and determine if isPresent()
 	 * calls are made from the static initializer. If they are try to determine what
@@ -53,16 +70,50 @@ class IsPresentDetectionVisitor extends ClassVisitor {
 	 */
 	public static List<String> run(InputStream inputStream) {
 		try {
-			IsPresentDetectionVisitor node = new IsPresentDetectionVisitor(Opcodes.ASM9);
-			ClassReader reader = new ClassReader(inputStream);
-			reader.accept(node, ClassReader.SKIP_DEBUG);
-			return (node.containsIsPresentChecksInStaticInitializer ? node.typesCheckedInIsPresentCalls : null);
+			return run(new ClassReader(inputStream));
 		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
 		}
 	}
 
+	/**
+	 * Variant of {@link #run(InputStream)} for class bytes that have already been read.
+	 *
+	 * @param classbytes bytes of a class file
+	 * @return see {@link #run(InputStream)}
+	 */
+	public static List<String> run(byte[] classbytes) {
+		return run(new ClassReader(classbytes));
+	}
+
+	private static List<String> run(ClassReader reader) {
+		IsPresentDetectionVisitor node = visit(reader);
+		return (node.containsIsPresentChecksInStaticInitializer ? node.typesCheckedInIsPresentCalls : null);
+	}
+
+	/**
+	 * Variant of {@link #run(byte[])} that also describes how the results of the checks are used.
+	 *
+	 * @param classbytes bytes of a class file
+	 * @return null if there are no isPresent() checks otherwise the checks made
+	 */
+	public static IsPresentChecks analyze(byte[] classbytes) {
+		IsPresentDetectionVisitor node = visit(new ClassReader(classbytes));
+		if (!node.containsIsPresentChecksInStaticInitializer) {
+			return null;
+		}
+		return new IsPresentChecks(node.classname.replace('/', '.'),
+				node.superclassName == null ? null : node.superclassName.replace('/', '.'),
+				node.typesCheckedInIsPresentCalls, node.typesCheckedByField, node.foldable);
+	}
+
+	private static IsPresentDetectionVisitor visit(ClassReader reader) {
+		IsPresentDetectionVisitor node = new IsPresentDetectionVisitor(Opcodes.ASM9);
+		reader.accept(node, ClassReader.SKIP_DEBUG);
+		return node;
+	}
+
 	private IsPresentDetectionVisitor(int api) {
 		super(api);
 	}
@@ -70,9 +121,18 @@ class IsPresentDetectionVisitor extends ClassVisitor {
 	@Override
 	public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
 		this.classname = name;
+		this.superclassName = superName;
 		super.visit(version, access, name, signature, superName, interfaces);
 	}
 
+	@Override
+	public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+		if ((access & (Opcodes.ACC_STATIC | Opcodes.ACC_FINAL)) == (Opcodes.ACC_STATIC | Opcodes.ACC_FINAL) && descriptor.equals("Z")) {
+			staticFinalBooleanFields.add(name);
+		}
+		return super.visitField(access, name, descriptor, signature, value);
+	}
+
 	@Override
 	public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
 			String[] exceptions) {
@@ -87,6 +147,8 @@ class IsPresentDetectionVisitor extends ClassVisitor {
 
 		private int state = 0;
 		private String mostRecentlyLoadedString;
+		// Types checked since the last field store
+		private List<String> pendingCheckedTypes = new ArrayList<>();
 
 		public ClinitVisitor(int api) {
 			super(api);
@@ -96,6 +158,8 @@ class IsPresentDetectionVisitor extends ClassVisitor {
 		// 6: ldc           #88                 // String javax.annotation.Resource
  		// 8: aload_0
         // 9: invokestatic  #89                 // Method org/springframework/util/ClassUtils.isPresent:(Ljava/lang/String;Ljava/lang/ClassLoader;)Z
+		// The foldable form loads the class loader from a class literal or ClassUtils.getDefaultClassLoader(),
+		// combines checks with && / || and stores each result with a putstatic
 
 		@Override
 		public void visitLdcInsn(Object value) {
@@ -103,6 +167,9 @@ class IsPresentDetectionVisitor extends ClassVisitor {
 				mostRecentlyLoadedString = (String) value;
 				state = 1;
 			}
+			else if (!(value instanceof org.objectweb.asm.Type)) {
+				foldable = false;
+			}
 			super.visitLdcInsn(value);
 		}
 
@@ -113,12 +180,112 @@ class IsPresentDetectionVisitor extends ClassVisitor {
 				containsIsPresentChecksInStaticInitializer = true;
 				if (state == 1) {
 					typesCheckedInIsPresentCalls.add(mostRecentlyLoadedString);
+					pendingCheckedTypes.add(mostRecentlyLoadedString);
 					state = 0;
 				}
+				else {
+					foldable = false;
+				}
 			} else {
+				if (!isClassLoaderLookup(opcode, owner, name, descriptor)) {
+					foldable = false;
+				}
 				super.visitMethodInsn(opcode, owner, name, descriptor, itface);
 			}
 		}
 
+		private boolean isClassLoaderLookup(int opcode, String owner, String name, String descriptor) {
+			return (opcode == Opcodes.INVOKEVIRTUAL && owner.equals("java/lang/Class") && name.equals("getClassLoader")
+					&& descriptor.equals("()Ljava/lang/ClassLoader;"))
+					|| (opcode == Opcodes.INVOKESTATIC && owner.equals("org/springframework/util/ClassUtils")
+							&& name.equals("getDefaultClassLoader") && descriptor.equals("()Ljava/lang/ClassLoader;"));
+		}
+
+		@Override
+		public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+			if (opcode == Opcodes.PUTSTATIC && owner.equals(classname) && staticFinalBooleanFields.contains(name)
+					&& !typesCheckedByField.containsKey(name)) {
+				typesCheckedByField.put(name, pendingCheckedTypes);
+				pendingCheckedTypes = new ArrayList<>();
+			}
+			else {
+				foldable = false;
+			}
+			super.visitFieldInsn(opcode, owner, name, descriptor);
+		}
+
+		@Override
+		public void visitInsn(int opcode) {
+			if (opcode != Opcodes.ICONST_0 && opcode != Opcodes.ICONST_1 && opcode != Opcodes.RETURN) {
+				foldable = false;
+			}
+			super.visitInsn(opcode);
+		}
+
+		@Override
+		public void visitVarInsn(int opcode, int var) {
+			if (opcode != Opcodes.ALOAD && opcode != Opcodes.ASTORE) {
+				foldable = false;
+			}
+			super.visitVarInsn(opcode, var);
+		}
+
+		@Override
+		public void visitJumpInsn(int opcode, Label label) {
+			if (opcode != Opcodes.IFEQ && opcode != Opcodes.IFNE && opcode != Opcodes.GOTO) {
+				foldable = false;
+			}
+			super.visitJumpInsn(opcode, label);
+		}
+
+		@Override
+		public void visitIntInsn(int opcode, int operand) {
+			foldable = false;
+			super.visitIntInsn(opcode, operand);
+		}
+
+		@Override
+		public void visitTypeInsn(int opcode, String type) {
+			foldable = false;
+			super.visitTypeInsn(opcode, type);
+		}
+
+		@Override
+		public void visitIincInsn(int var, int increment) {
+			foldable = false;
+			super.visitIincInsn(var, increment);
+		}
+
+		@Override
+		public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+				Object... bootstrapMethodArguments) {
+			foldable = false;
+			super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+		}
+
+		@Override
+		public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+			foldable = false;
+			super.visitTableSwitchInsn(min, max, dflt, labels);
+		}
+
+		@Override
+		public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+			foldable = false;
+			super.visitLookupSwitchInsn(dflt, keys, labels);
+		}
+
+		@Override
+		public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+			foldable = false;
+			super.visitMultiANewArrayInsn(descriptor, numDimensions);
+		}
+
+		@Override
+		public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+			foldable = false;
+			super.visitTryCatchBlock(start, end, handler, type);
+		}
+
 	}
-}
\ No newline at end of file
+}
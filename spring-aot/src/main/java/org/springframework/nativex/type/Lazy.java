@@ -31,7 +31,7 @@ class Lazy<T> implements Supplier<T> {
 
 	private final Supplier<? extends T> supplier;
 	private T value = null;
-	private boolean resolved = false;
+	private volatile boolean resolved = false;
 
 	private Lazy(Supplier<? extends T> supplier) {
 		this(supplier, null, false);
@@ -183,13 +183,11 @@ class Lazy<T> implements Supplier<T> {
 	 */
 	public T getNullable() {
 
-		T value = this.value;
-
 		if (this.resolved) {
-			return value;
+			return this.value;
 		}
 
-		value = supplier.get();
+		T value = supplier.get();
 
 		this.value = value;
 		this.resolved = true;
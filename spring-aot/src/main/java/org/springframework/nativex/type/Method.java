@@ -442,6 +442,55 @@ public class Method {
 		return Modifier.isPrivate(mn.access);
 	}
 
+	public boolean isStatic() {
+		return Modifier.isStatic(mn.access);
+	}
+
+	public boolean isProtected() {
+		return Modifier.isProtected(mn.access);
+	}
+
+	public boolean isSynthetic() {
+		return (mn.access & Opcodes.ACC_SYNTHETIC) != 0;
+	}
+
+	public boolean isAbstract() {
+		return (mn.access & Opcodes.ACC_ABSTRACT) != 0;
+	}
+
+	public boolean isVarargs() {
+		return (mn.access & Opcodes.ACC_VARARGS) != 0;
+	}
+
+	/**
+	 * @return true if the method has a generic signature (generic return or parameter types, or type variables)
+	 */
+	public boolean hasGenericSignature() {
+		return mn.signature != null;
+	}
+
+	/**
+	 * @return the generic signature of the method, or null if it does not have one
+	 */
+	public String getSignature() {
+		return mn.signature;
+	}
+
+	public boolean hasDeclaredExceptions() {
+		return mn.exceptions != null && !mn.exceptions.isEmpty();
+	}
+
+	public AnnotationNode getAnnotation(String Ldescriptor) {
+		if (mn.visibleAnnotations != null) {
+			for (AnnotationNode annotationNode : mn.visibleAnnotations) {
+				if (annotationNode.desc.equals(Ldescriptor)) {
+					return annotationNode;
+				}
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Determine the set of type names used throughout the message signature (return type, parameters, including generics).
 	 * TODO what about exception types? mn.exceptions
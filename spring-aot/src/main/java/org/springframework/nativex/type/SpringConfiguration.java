@@ -19,63 +19,61 @@ package org.springframework.nativex.type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 /**
+ * Discovers the hints, component processors, spring.factories processors and access checkers that are
+ * registered as services. The hints of a {@link NativeConfiguration} that is described in a
+ * {@link HintTriggerIndex} are only unpacked when one of its trigger types is looked up.
+ *
  * @author Andy Clement
  */
 public class SpringConfiguration {
 
 	private static Log logger = LogFactory.getLog(SpringConfiguration.class);
 
-	private final static Map<String, List<HintDeclaration>> proposedHints = new HashMap<>();
-	
 	private final static Map<String, String[]> proposedFactoryGuards = new HashMap<>();
 	
-	private final static List<AccessChecker> accessVerifiers = new ArrayList<>();
+	private final TypeSystem typeSystem;
+
+	private final HintTriggerIndex hintTriggerIndex;
+
+	// Hint providers in discovery order, hints for a trigger are returned in this order whenever they get unpacked
+	private final List<HintProvider> hintProviders = new ArrayList<>();
+
+	private final Map<String, List<HintProvider>> hintProvidersByTrigger = new ConcurrentHashMap<>();
+
+	private final List<AccessChecker> accessVerifiers = new ArrayList<>();
 	
-	private final static List<ComponentProcessor> processors = new ArrayList<>();
+	private final List<ComponentProcessor> processors = new ArrayList<>();
 
-	private final static List<SpringFactoriesProcessor> springFactoriesProcessors = new ArrayList<>();
+	private final List<SpringFactoriesProcessor> springFactoriesProcessors = new ArrayList<>();
 	
 	public SpringConfiguration(TypeSystem typeSystem) {
-		logger.debug("SpringConfiguration: Discovering hints");
-		ServiceLoader<NativeConfiguration> hintProviders = ServiceLoader.load(NativeConfiguration.class);
-		for (NativeConfiguration hintProvider: hintProviders) {
-			logger.debug("SpringConfiguration: processing provider: "+hintProvider.getClass().getName());
-			Type t = typeSystem.resolveName(hintProvider.getClass().getName());
-			if (t != null) {
-				boolean valid = hintProvider.isValid(typeSystem);
-				if (!valid) {
-					continue;
-				}
-				List<HintDeclaration> hints = new ArrayList<>();
-				hints.addAll(t.getCompilationHints());
-				try {
-					hints.addAll(hintProvider.computeHints(typeSystem));
-				} catch (NoClassDefFoundError ncdfe) {
-					System.out.println("WARNING: Hint provider computeHints() method in "+
-						hintProvider.getClass().getName()+" threw a NoClassDefFoundError for "+ncdfe.getMessage()+
-						": it is better if they handle that internally in case they are computing a variety of hints");
-				}
-				logger.debug("Found "+hints.size()+" hints from provider "+hintProvider.getClass().getName());
-				for (HintDeclaration hint: hints) {
-					if (hint.getTriggerTypename() == null) {
-						// Default to Object which means this hint always applies
-						hint.setTriggerTypename("java.lang.Object");
-					}
-					List<HintDeclaration> existingHints = proposedHints.get(hint.getTriggerTypename());
-					if (existingHints == null) {
-						existingHints = new ArrayList<>();
-						proposedHints.put(hint.getTriggerTypename(), existingHints);
-					}
-					existingHints.add(hint);
+		this.typeSystem = typeSystem;
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		this.hintTriggerIndex = HintTriggerIndex.load(classLoader == null ? SpringConfiguration.class.getClassLoader() : classLoader);
+		logger.debug("SpringConfiguration: Discovering hints (index: " + hintTriggerIndex + ")");
+		ServiceLoader<NativeConfiguration> nativeConfigurations = ServiceLoader.load(NativeConfiguration.class);
+		for (NativeConfiguration nativeConfiguration: nativeConfigurations) {
+			HintProvider hintProvider = new HintProvider(nativeConfiguration);
+			hintProviders.add(hintProvider);
+			String name = hintProvider.getName();
+			if (hintTriggerIndex.contains(name) && !hintTriggerIndex.computesHints(name)) {
+				logger.debug("SpringConfiguration: indexed provider: " + name + " triggers: " + hintTriggerIndex.getTriggers(name));
+				for (String trigger: hintTriggerIndex.getTriggers(name)) {
+					registerHintProvider(trigger, hintProvider);
 				}
+			} else {
+				unpack(hintProvider);
 			}
 		}
 		logger.debug("Discovering component processors...");
@@ -98,6 +96,49 @@ public class SpringConfiguration {
 		}
 	}
 
+	private synchronized void unpack(HintProvider hintProvider) {
+		if (hintProvider.isUnpacked()) {
+			return;
+		}
+		NativeConfiguration nativeConfiguration = hintProvider.getNativeConfiguration();
+		logger.debug("SpringConfiguration: processing provider: "+hintProvider.getName());
+		Map<String, List<HintDeclaration>> hintsByTrigger = new LinkedHashMap<>();
+		Type t = typeSystem.resolveName(hintProvider.getName());
+		if (t != null && nativeConfiguration.isValid(typeSystem)) {
+			List<HintDeclaration> hints = new ArrayList<>();
+			hints.addAll(t.getCompilationHints());
+			try {
+				hints.addAll(nativeConfiguration.computeHints(typeSystem));
+			} catch (NoClassDefFoundError ncdfe) {
+				System.out.println("WARNING: Hint provider computeHints() method in "+
+					hintProvider.getName()+" threw a NoClassDefFoundError for "+ncdfe.getMessage()+
+					": it is better if they handle that internally in case they are computing a variety of hints");
+			}
+			logger.debug("Found "+hints.size()+" hints from provider "+hintProvider.getName());
+			for (HintDeclaration hint: hints) {
+				if (hint.getTriggerTypename() == null) {
+					// Default to Object which means this hint always applies
+					hint.setTriggerTypename("java.lang.Object");
+				}
+				hintsByTrigger.computeIfAbsent(hint.getTriggerTypename(), k -> new ArrayList<>()).add(hint);
+			}
+		}
+		for (String trigger: hintsByTrigger.keySet()) {
+			if (hintTriggerIndex.contains(hintProvider.getName()) && !hintTriggerIndex.getTriggers(hintProvider.getName()).contains(trigger)) {
+				logger.debug("WARNING: hint trigger index is out of date, "+hintProvider.getName()+" has hints triggered by "+trigger);
+			}
+			registerHintProvider(trigger, hintProvider);
+		}
+		hintProvider.setHints(hintsByTrigger);
+	}
+
+	private void registerHintProvider(String trigger, HintProvider hintProvider) {
+		List<HintProvider> providers = hintProvidersByTrigger.computeIfAbsent(trigger, k -> new CopyOnWriteArrayList<>());
+		if (!providers.contains(hintProvider)) {
+			providers.add(hintProvider);
+		}
+	}
+
 	static {
 		// This specifies that the TemplateAvailabilityProvider key will only be processed if one of the
 		// specified types is around. This ensures we don't provide reflective access to the value of this
@@ -111,11 +152,31 @@ public class SpringConfiguration {
 	
 	// TODO sort out callers so they use a proper dotted name
 	public List<HintDeclaration> findProposedHints(String typename) {
-		List<HintDeclaration> results = proposedHints.get(typename);
-		return (results==null?Collections.emptyList():results);
+		List<HintProvider> providers = hintProvidersByTrigger.get(typename);
+		if (providers == null) {
+			return Collections.emptyList();
+		}
+		List<HintDeclaration> results = new ArrayList<>();
+		for (HintProvider hintProvider: providers) {
+			unpack(hintProvider);
+			results.addAll(hintProvider.getHints(typename));
+		}
+		return results;
 	}
-	
-	public static Map<String, List<HintDeclaration>> getProposedhints() {
+
+	/**
+	 * @return the hints keyed by trigger typename, for the triggers that are present on the classpath
+	 */
+	public Map<String, List<HintDeclaration>> getProposedHints() {
+		Map<String, List<HintDeclaration>> proposedHints = new LinkedHashMap<>();
+		for (String trigger: hintProvidersByTrigger.keySet()) {
+			if (trigger.equals("java.lang.Object") || typeSystem.resolveDotted(trigger, true) != null) {
+				List<HintDeclaration> hints = findProposedHints(trigger);
+				if (!hints.isEmpty()) {
+					proposedHints.put(trigger, hints);
+				}
+			}
+		}
 		return proposedHints;
 	}
 	
@@ -135,4 +196,36 @@ public class SpringConfiguration {
 		return proposedFactoryGuards.get(key);
 	}
 
+	private static class HintProvider {
+
+		private final NativeConfiguration nativeConfiguration;
+
+		private volatile Map<String, List<HintDeclaration>> hints;
+
+		HintProvider(NativeConfiguration nativeConfiguration) {
+			this.nativeConfiguration = nativeConfiguration;
+		}
+
+		NativeConfiguration getNativeConfiguration() {
+			return nativeConfiguration;
+		}
+
+		String getName() {
+			return nativeConfiguration.getClass().getName();
+		}
+
+		boolean isUnpacked() {
+			return hints != null;
+		}
+
+		void setHints(Map<String, List<HintDeclaration>> hints) {
+			this.hints = hints;
+		}
+
+		List<HintDeclaration> getHints(String trigger) {
+			List<HintDeclaration> triggered = hints.get(trigger);
+			return triggered == null ? Collections.emptyList() : triggered;
+		}
+	}
+
 }
\ No newline at end of file
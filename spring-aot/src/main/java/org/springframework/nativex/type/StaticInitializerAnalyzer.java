@@ -0,0 +1,297 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+
+/**
+ * Determine whether initializing a type at image build time is safe. The static initializer of the type is
+ * analyzed along with the code it invokes: it must not start threads, perform I/O, use randomness, read system
+ * properties, the environment or the clock, create loggers or load classes by name, as any of these would capture
+ * a state of the build machine in the image. The superclass of the type and the types whose initialization the
+ * static initializer triggers must themselves be safe.
+ * <p>JDK code is not analyzed, only the calls into it are checked. The types already configured for build time
+ * initialization are trusted and those configured for run time initialization block the types depending on them.
+ */
+public class StaticInitializerAnalyzer {
+
+	// The analysis gives up rather than following very long call chains
+	private static final int MAX_ANALYZED_METHODS = 250;
+
+	private static final String SAFE = "";
+
+	private static final String[] JDK_PREFIXES = new String[] { "java/", "javax/", "jdk/", "sun/", "com/sun/" };
+
+	private final TypeSystem typeSystem;
+
+	private final Predicate<String> initializedAtBuildTime;
+
+	private final Predicate<String> initializedAtRunTime;
+
+	// Blocking reason for each analyzed type (slashed name), empty if there is none
+	private final Map<String, String> reasons = new HashMap<>();
+
+	private final Set<String> inProgress = new HashSet<>();
+
+	/**
+	 * @param typeSystem the type system to resolve types from
+	 * @param initializedAtBuildTime whether a type (dotted name) is already configured for build time initialization
+	 * @param initializedAtRunTime whether a type (dotted name) is configured for run time initialization
+	 */
+	public StaticInitializerAnalyzer(TypeSystem typeSystem, Predicate<String> initializedAtBuildTime,
+			Predicate<String> initializedAtRunTime) {
+		this.typeSystem = typeSystem;
+		this.initializedAtBuildTime = initializedAtBuildTime;
+		this.initializedAtRunTime = initializedAtRunTime;
+	}
+
+	/**
+	 * @param typename the dotted name of the type to check
+	 * @return why the type cannot be initialized at build time, or null if it can
+	 */
+	public String getBlockingReason(String typename) {
+		String reason = analyze(typename.replace('.', '/'));
+		return reason.isEmpty() ? null : reason;
+	}
+
+	private String analyze(String slashedName) {
+		if (isJdkType(slashedName) || initializedAtBuildTime.test(slashedName.replace('/', '.'))) {
+			return SAFE;
+		}
+		String reason = reasons.get(slashedName);
+		if (reason != null) {
+			return reason;
+		}
+		if (!inProgress.add(slashedName)) {
+			// Cyclic initialization, the outcome depends on the rest of the cycle
+			return SAFE;
+		}
+		try {
+			reason = computeReason(slashedName);
+		}
+		finally {
+			inProgress.remove(slashedName);
+		}
+		reasons.put(slashedName, reason);
+		return reason;
+	}
+
+	private String computeReason(String slashedName) {
+		if (initializedAtRunTime.test(slashedName.replace('/', '.'))) {
+			return "is initialized at run time";
+		}
+		Type type = typeSystem.resolveSlashed(slashedName, true);
+		if (type == null) {
+			return "is not on the classpath";
+		}
+		String superName = type.getClassNode().superName;
+		if (superName != null) {
+			String superclassReason = analyze(superName);
+			if (!superclassReason.isEmpty()) {
+				return "has superclass " + superName.replace('/', '.') + " that " + superclassReason;
+			}
+		}
+		MethodNode clinit = findMethod(type, "<clinit>", "()V");
+		if (clinit == null) {
+			return SAFE;
+		}
+		Set<String> initializedTypes = new LinkedHashSet<>();
+		String hazard = analyzeCode(slashedName, clinit, initializedTypes);
+		if (hazard != null) {
+			return hazard;
+		}
+		for (String initializedType : initializedTypes) {
+			String dependencyReason = analyze(initializedType);
+			if (!dependencyReason.isEmpty()) {
+				return "initializes " + initializedType.replace('/', '.') + " that " + dependencyReason;
+			}
+		}
+		return SAFE;
+	}
+
+	/**
+	 * Walk the static initializer and the non JDK methods it invokes, collecting the types they initialize.
+	 * @return the hazard found in the code, or null if there is none
+	 */
+	private String analyzeCode(String owner, MethodNode clinit, Set<String> initializedTypes) {
+		Deque<MethodNode> toAnalyze = new ArrayDeque<>();
+		Set<String> analyzed = new HashSet<>();
+		toAnalyze.add(clinit);
+		analyzed.add(owner + ".<clinit>()V");
+		while (!toAnalyze.isEmpty()) {
+			if (analyzed.size() > MAX_ANALYZED_METHODS) {
+				return "has a static initializer too complex to analyze";
+			}
+			MethodNode method = toAnalyze.removeFirst();
+			for (AbstractInsnNode insn : method.instructions) {
+				if (insn instanceof MethodInsnNode) {
+					MethodInsnNode methodInsn = (MethodInsnNode) insn;
+					String hazard = getHazard(methodInsn.owner, methodInsn.name, methodInsn.desc);
+					if (hazard != null) {
+						return hazard + " (" + methodInsn.owner.replace('/', '.') + "." + methodInsn.name + ")";
+					}
+					if (isJdkType(methodInsn.owner) || methodInsn.owner.startsWith("[")
+							|| initializedAtBuildTime.test(methodInsn.owner.replace('/', '.'))) {
+						continue;
+					}
+					if (methodInsn.getOpcode() == Opcodes.INVOKESTATIC) {
+						initializedTypes.add(methodInsn.owner);
+					}
+					if (analyzed.add(methodInsn.owner + "." + methodInsn.name + methodInsn.desc)) {
+						Type type = typeSystem.resolveSlashed(methodInsn.owner, true);
+						if (type == null) {
+							return "invokes " + methodInsn.owner.replace('/', '.') + " that is not on the classpath";
+						}
+						// Only the declared implementation of a virtual call is known, overrides are not followed
+						MethodNode invoked = findMethod(type, methodInsn.name, methodInsn.desc);
+						if (invoked != null) {
+							toAnalyze.add(invoked);
+						}
+					}
+				}
+				else if (insn instanceof FieldInsnNode) {
+					int opcode = insn.getOpcode();
+					if (opcode == Opcodes.GETSTATIC || opcode == Opcodes.PUTSTATIC) {
+						initializedTypes.add(((FieldInsnNode) insn).owner);
+					}
+				}
+				else if (insn.getOpcode() == Opcodes.NEW) {
+					initializedTypes.add(((TypeInsnNode) insn).desc);
+				}
+			}
+		}
+		initializedTypes.remove(owner);
+		return null;
+	}
+
+	private MethodNode findMethod(Type type, String name, String desc) {
+		Type current = type;
+		while (current != null) {
+			for (MethodNode method : current.getClassNode().methods) {
+				if (method.name.equals(name) && method.desc.equals(desc)) {
+					return (method.access & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE)) == 0 ? method : null;
+				}
+			}
+			if (name.startsWith("<")) {
+				return null;
+			}
+			String superName = current.getClassNode().superName;
+			current = superName == null ? null : typeSystem.resolveSlashed(superName, true);
+		}
+		return null;
+	}
+
+	private static boolean isJdkType(String slashedName) {
+		for (String prefix : JDK_PREFIXES) {
+			if (slashedName.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return what is unsafe about invoking the method at build time, or null if it is not known to be unsafe
+	 */
+	static String getHazard(String owner, String name, String desc) {
+		switch (owner) {
+		case "java/lang/Thread":
+			return (name.equals("<init>") || name.equals("start") || name.equals("sleep")) ? "starts a thread" : null;
+		case "java/util/Timer":
+		case "java/util/concurrent/Executors":
+		case "java/util/concurrent/ThreadPoolExecutor":
+		case "java/util/concurrent/ScheduledThreadPoolExecutor":
+		case "java/util/concurrent/ForkJoinPool":
+			return "starts a thread";
+		case "java/util/Random":
+		case "java/util/SplittableRandom":
+		case "java/security/SecureRandom":
+		case "java/util/concurrent/ThreadLocalRandom":
+			return "uses randomness";
+		case "java/lang/Math":
+		case "java/lang/StrictMath":
+			return name.equals("random") ? "uses randomness" : null;
+		case "java/util/UUID":
+			return name.equals("randomUUID") ? "uses randomness" : null;
+		case "java/lang/System":
+			switch (name) {
+			case "getProperty":
+			case "getProperties":
+			case "getenv":
+				return "reads system properties or the environment";
+			case "currentTimeMillis":
+			case "nanoTime":
+				return "reads the clock";
+			default:
+				return null;
+			}
+		case "java/lang/Integer":
+		case "java/lang/Long":
+		case "java/lang/Boolean":
+			return (name.equals("getInteger") || name.equals("getLong") || name.equals("getBoolean"))
+					? "reads system properties or the environment" : null;
+		case "java/lang/Runtime":
+			return "queries the runtime";
+		case "java/security/AccessController":
+			return "runs privileged actions";
+		case "java/util/Date":
+			return (name.equals("<init>") && desc.equals("()V")) ? "reads the clock" : null;
+		case "java/lang/Class":
+			if (name.equals("forName")) {
+				return "loads classes by name";
+			}
+			return name.startsWith("getResource") ? "performs I/O" : null;
+		case "java/lang/ClassLoader":
+			return (name.startsWith("getResource") || name.startsWith("getSystemResource")) ? "performs I/O" : null;
+		case "java/io/File":
+			// Only the path manipulations do not touch the file system
+			return (name.equals("<init>") || name.equals("getName") || name.equals("getPath") || name.equals("getParent")
+					|| name.equals("toString")) ? null : "performs I/O";
+		case "org/apache/commons/logging/LogFactory":
+		case "org/slf4j/LoggerFactory":
+		case "java/util/logging/Logger":
+			return (name.startsWith("getLog") || name.equals("getLogger")) ? "creates a logger" : null;
+		default:
+			break;
+		}
+		if (owner.startsWith("java/io/File") || owner.equals("java/io/RandomAccessFile") || owner.startsWith("java/nio/file/")
+				|| owner.startsWith("java/nio/channels/") || owner.startsWith("java/net/Socket")
+				|| owner.startsWith("java/net/ServerSocket") || owner.equals("java/net/InetAddress")
+				|| (owner.equals("java/net/URL") && name.startsWith("open"))) {
+			return "performs I/O";
+		}
+		if (owner.startsWith("java/time/") && name.equals("now")) {
+			return "reads the clock";
+		}
+		return null;
+	}
+
+}
@@ -123,6 +123,12 @@ public class Type {
 	public final static String AtPostFilter = "Lorg/springframework/security/access/prepost/PostFilter;";
 	public final static String AtPreAuthorize = "Lorg/springframework/security/access/prepost/PreAuthorize;";
 	public final static String AtPreFilter = "Lorg/springframework/security/access/prepost/PreFilter;";
+	public final static String AtSecured = "Lorg/springframework/security/access/annotation/Secured;";
+	public final static String AtCacheable = "Lorg/springframework/cache/annotation/Cacheable;";
+	public final static String AtCacheEvict = "Lorg/springframework/cache/annotation/CacheEvict;";
+	public final static String AtCachePut = "Lorg/springframework/cache/annotation/CachePut;";
+	public final static String AtCaching = "Lorg/springframework/cache/annotation/Caching;";
+	public final static String AtCacheConfig = "Lorg/springframework/cache/annotation/CacheConfig;";
 
 	public final static Type MISSING = new Type(null, null, 0);
 
@@ -610,6 +616,17 @@ public class Type {
 		return dimensions > 0 ? false : Modifier.isPublic(node.access);
 	}
 
+	public boolean isAbstract() {
+		return dimensions > 0 ? false : Modifier.isAbstract(node.access);
+	}
+
+	/**
+	 * @return true if the type declares type parameters
+	 */
+	public boolean hasTypeParameters() {
+		return dimensions > 0 ? false : node.signature != null && node.signature.startsWith("<");
+	}
+
 	public Map<String, String> getAnnotationValuesInHierarchy(String LdescriptorLookingFor) {
 		if (dimensions > 0) {
 			return Collections.emptyMap();
@@ -1733,8 +1750,9 @@ public class Type {
 			defaultHintDeclaration.setTriggerTypename(getDottedName());
 		}
 		boolean defaultHintPopulated = false;
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
+		List<AnnotationNode> hintAnnotations = getHintAnnotations();
+		if (hintAnnotations != null) {
+			for (AnnotationNode an : hintAnnotations) {
 				String name = fromLdescriptorToDotted(an.desc);
 				if (name.equals(NativeHint.class.getName())) {
 					hints.add(unpackNativeHint(an));
@@ -1849,9 +1867,9 @@ public class Type {
 			if (resolvedImportInfo == null) {
 				throw new IllegalStateException("Cannot find importInfos referenced type: " + className);
 			}
-			ClassNode node = resolvedImportInfo.getClassNode();
-			if (node.visibleAnnotations != null) {
-				for (AnnotationNode an : node.visibleAnnotations) {
+			List<AnnotationNode> hintAnnotations = resolvedImportInfo.getHintAnnotations();
+			if (hintAnnotations != null) {
+				for (AnnotationNode an : hintAnnotations) {
 					String annotationClassname = fromLdescriptorToDotted(an.desc);
 					if (annotationClassname.equals(TypeHint.class.getName())) {
 						unpackTypeHint(an, ch);
@@ -1884,6 +1902,14 @@ public class Type {
 		return node;
 	}
 
+	/**
+	 * @return the annotations to unpack hints from, taken from the {@link HintCatalogue} if this type is in one
+	 */
+	private List<AnnotationNode> getHintAnnotations() {
+		List<AnnotationNode> catalogued = typeSystem.getHintCatalogue().getHintAnnotations(getDottedName());
+		return catalogued != null ? catalogued : node.visibleAnnotations;
+	}
+
 	private void unpackTypeHint(AnnotationNode typeInfo, HintDeclaration ch) {
 		List<Object> values = typeInfo.values;
 		List<org.objectweb.asm.Type> types = new ArrayList<>();
@@ -2378,6 +2404,46 @@ public class Type {
 		return b;
 	}
 
+	/**
+	 * Collect the descriptors of the annotations used by this type: on the type itself, its fields, its methods and
+	 * their parameters, including type annotations like {@code List<@NotBlank String>}.
+	 * @return the annotation descriptors, for example {@code Ljavax/validation/constraints/NotNull;}
+	 */
+	public Set<String> getAnnotationDescriptorsInUse() {
+		Set<String> descriptors = new LinkedHashSet<>();
+		if (dimensions > 0) {
+			return descriptors;
+		}
+		collectDescriptors(node.visibleAnnotations, descriptors);
+		collectDescriptors(node.visibleTypeAnnotations, descriptors);
+		if (node.fields != null) {
+			for (FieldNode field : node.fields) {
+				collectDescriptors(field.visibleAnnotations, descriptors);
+				collectDescriptors(field.visibleTypeAnnotations, descriptors);
+			}
+		}
+		if (node.methods != null) {
+			for (MethodNode method : node.methods) {
+				collectDescriptors(method.visibleAnnotations, descriptors);
+				collectDescriptors(method.visibleTypeAnnotations, descriptors);
+				if (method.visibleParameterAnnotations != null) {
+					for (List<AnnotationNode> parameterAnnotations : method.visibleParameterAnnotations) {
+						collectDescriptors(parameterAnnotations, descriptors);
+					}
+				}
+			}
+		}
+		return descriptors;
+	}
+
+	private static void collectDescriptors(List<? extends AnnotationNode> annotations, Set<String> descriptors) {
+		if (annotations != null) {
+			for (AnnotationNode annotation : annotations) {
+				descriptors.add(annotation.desc);
+			}
+		}
+	}
+
 	public Collection<Type> collectAtMappingMarkedReturnTypes() {
 		Set<Type> returnTypes = new LinkedHashSet<>();
 		List<Method> methodsWithAnnotation = getMethodsWithAnnotation(AtMapping, true);
@@ -642,11 +642,7 @@ public class TypeProcessor {
 	 */
 	private static Stream<Type> scanForTypes(TypeSystem typeSystem, Predicate<Type> filter) {
 
-		return typeSystem.findUserCodeDirectoriesAndSpringJars(typeSystem.getClasspath())
-				.flatMap(typeSystem::findClasses)
-				.map(typeSystem::typenameOfClass)
-				.map(typeSystem::resolveSlashed)
-				.filter(filter);
+		return typeSystem.scanUserCodeDirectoriesAndSpringJars(filter);
 	}
 
 	/**
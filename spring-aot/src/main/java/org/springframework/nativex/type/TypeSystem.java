@@ -49,9 +49,13 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -91,13 +95,28 @@ public class TypeSystem {
 	// Map of all types on the classpath that have some kind of annotations on them
 	Map<String, AnnotationInfo> annotatedTypes;
 
-	private SpringConfiguration hintLocator = null;
+	private volatile SpringConfiguration hintLocator = null;
 
 	// Classpath from which this type system will resolve types
 	private List<String> classpath;
 
 	// Cache of resolved types TODO time out entries?
-	private Map<String, Type> typeCache = new HashMap<>();
+	// (concurrent because configurations may be analyzed in parallel)
+	private Map<String, Type> typeCache = new ConcurrentHashMap<>();
+
+	// Only classes with visible annotations contribute to annotatedTypes
+	private static final ConstantPoolScanner.Prefilter ANNOTATED_PREFILTER = ConstantPoolScanner.Prefilter.anyOf("RuntimeVisibleAnnotations");
+
+	// Only classes calling ClassUtils.isPresent() from a static initializer are of interest to the isPresent() scan
+	private static final ConstantPoolScanner.Prefilter IS_PRESENT_CHECK_PREFILTER = ConstantPoolScanner.Prefilter.allOf("<clinit>", "org/springframework/util/ClassUtils", "isPresent");
+
+	private static final ConstantPoolScanner.Prefilter STATIC_INITIALIZER_PREFILTER = ConstantPoolScanner.Prefilter.allOf("<clinit>");
+
+	private static final ConstantPoolScanner.Prefilter AUTOWIRED_OR_BEAN_PREFILTER = ConstantPoolScanner.Prefilter.anyOf(
+			"Lorg/springframework/beans/factory/annotation/Autowired;", "Lorg/springframework/context/annotation/Bean;");
+
+	// Class files (and the slashed names of their classes) found under each classpath root, filled in by classpath scans
+	private Map<Path, ClassfileListing> classfilesByRoot = new ConcurrentHashMap<>();
 
 	// Map of which zip files contain which packages
 	private Map<String, Set<File>> packageCache = new HashMap<>();
@@ -110,13 +129,17 @@ public class TypeSystem {
 	private List<String> excludedAutoConfigurations;
 
 	private Map<String, ReflectionDescriptor> reflectionConfigurations;
+
+	private HintCatalogue hintCatalogue;
 	
 	// Map from classpaths to TypeSystems managing those classpaths
 	private static Map<String, TypeSystem> typeSystems = new HashMap<>();
 
 	// A map from the types whose clinits make isPresent checks to the types that they are checking the presence
 	// of (the parameters to the isPresent calls)
-	private Map<String,List<String>> typesMakingIsPresentChecksInStaticInitializers;
+	private Map<String,IsPresentChecks> typesMakingIsPresentChecksInStaticInitializers;
+
+	private Set<String> typesWithStaticInitializers;
 	
 	public AotOptions aotOptions;
 
@@ -217,11 +240,12 @@ public class TypeSystem {
 			}
 		}
 		if (resolvedType != null) {
-			typeCache.put(slashedTypeName, resolvedType);
-			return resolvedType;
+			// If another thread got there first, use that one so there is only one Type per name
+			Type existing = typeCache.putIfAbsent(slashedTypeName, resolvedType);
+			return existing != null ? existing : resolvedType;
 		} else {
 			// cache a missingtype so we don't go looking again!
-			typeCache.put(slashedTypeName, Type.MISSING);
+			typeCache.putIfAbsent(slashedTypeName, Type.MISSING);
 			if (allowNotFound) {
 				return null;
 			} else {
@@ -238,7 +262,10 @@ public class TypeSystem {
 			Type type = typeCache.get(node.name);
 			if (type == null) {
 				type = Type.forClassNode(this, node, 0);
-				typeCache.put(node.name, type);
+				Type existing = typeCache.putIfAbsent(node.name, type);
+				if (existing != null) {
+					type = existing;
+				}
 			}
 			return type;
 		} catch (IOException e) {
@@ -556,7 +583,11 @@ public class TypeSystem {
 			while (entries.hasMoreElements()) {
 				ZipEntry entry = entries.nextElement();
 				if (entry.getName().endsWith(".class")) {
-					ClassReader reader = new ClassReader(zf.getInputStream(entry));
+					byte[] bytes = loadFromStream(zf.getInputStream(entry));
+					if (!ANNOTATED_PREFILTER.test(bytes)) {
+						continue;
+					}
+					ClassReader reader = new ClassReader(bytes);
 					ClassNode node = new ClassNode();
 					reader.accept(node, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
 					AnnotationInfo ai = new AnnotationInfo(this, node);
@@ -581,6 +612,9 @@ public class TypeSystem {
 		} else if (file.getName().endsWith(".class")) {
 			try {
 				byte[] bytes = Files.readAllBytes(Paths.get(file.toURI()));
+				if (!ANNOTATED_PREFILTER.test(bytes)) {
+					return;
+				}
 				ClassReader reader = new ClassReader(bytes);
 				ClassNode node = new ClassNode();
 				reader.accept(node, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
@@ -689,13 +723,13 @@ public class TypeSystem {
 		}
 	}
 	
-	private void ensureSpringConfigurationDiscovered() {
+	private synchronized void ensureSpringConfigurationDiscovered() {
 		if (hintLocator == null) {
 			hintLocator = new SpringConfiguration(this);
 		}
 	}
 
-	private void ensureScanned() {
+	private synchronized void ensureScanned() {
 		if (annotatedTypes == null) {
 			annotatedTypes = new HashMap<>();
 			long t = System.currentTimeMillis();
@@ -722,7 +756,7 @@ public class TypeSystem {
 	public List<HintDeclaration> findActiveDefaultHints() {
 		List<HintDeclaration> activeDefaultHints = new ArrayList<>();
 		activeDefaultHints.addAll(findHints("java.lang.Object"));
-		Map<String, List<HintDeclaration>> proposedhints = SpringConfiguration.getProposedhints();
+		Map<String, List<HintDeclaration>> proposedhints = hintLocator.getProposedHints();
 		for (Map.Entry<String,List<HintDeclaration>> proposedhint: proposedhints.entrySet()) {
 			String keytype = proposedhint.getKey();
 			if (keytype.equals("java.lang.Object")) {
@@ -824,7 +858,7 @@ public class TypeSystem {
 	 * 
 	 * @return map from files to @link {@link ResourcesDescriptor}
 	 */
-	public Map<String, ResourcesDescriptor> getResourceConfigurationsOnClasspath() {
+	public synchronized Map<String, ResourcesDescriptor> getResourceConfigurationsOnClasspath() {
 		if (this.resourceConfigurations == null) {
 			Map<String,ResourcesDescriptor> configs = new HashMap<>();
 			for (String s: classpath) {
@@ -852,6 +886,44 @@ public class TypeSystem {
 		return this.resourceConfigurations;
 	}
 	
+	/**
+	 * Load the {@link HintCatalogue} entries from all the directories and jars on the classpath.
+	 * 
+	 * @return the merged catalogue, empty if there are none
+	 */
+	public synchronized HintCatalogue getHintCatalogue() {
+		if (this.hintCatalogue == null) {
+			HintCatalogue catalogue = new HintCatalogue();
+			for (String s: classpath) {
+				File f = new File(s);
+				try {
+					if (f.isDirectory()) {
+						File catalogueFile = new File(f, HintCatalogue.CATALOGUE_LOCATION);
+						if (catalogueFile.isFile()) {
+							try (InputStream is = Files.newInputStream(catalogueFile.toPath())) {
+								catalogue.read(is);
+							}
+						}
+					} else if (f.isFile() && f.toString().endsWith(".jar")) {
+						try (ZipFile zf = new ZipFile(f)) {
+							ZipEntry entry = zf.getEntry(HintCatalogue.CATALOGUE_LOCATION);
+							if (entry != null) {
+								try (InputStream is = zf.getInputStream(entry)) {
+									catalogue.read(is);
+								}
+							}
+						}
+					}
+				} catch (IOException ioe) {
+					throw new IllegalStateException("Problem reading hint catalogue from " + f, ioe);
+				}
+			}
+			logger.debug("Loaded " + catalogue);
+			this.hintCatalogue = catalogue;
+		}
+		return this.hintCatalogue;
+	}
+
 	public Map<String, Map<String, String>> scanForApplicationProperties() {
 		Map<String, Map<String,String>> collectedProperties = new HashMap<>();
 		for (String s: classpath) {
@@ -873,7 +945,7 @@ public class TypeSystem {
 		return collectedProperties;
 	}
 	
-	public List<String> getExcludedAutoConfigurations() {
+	public synchronized List<String> getExcludedAutoConfigurations() {
 		if (this.excludedAutoConfigurations == null) {
 			excludedAutoConfigurations = new ArrayList<>();
 			Map<String, List<String>> collectedExclusions = new HashMap<>();
@@ -931,7 +1003,7 @@ public class TypeSystem {
 	}
 	
 
-	public Map<String, ReflectionDescriptor> getReflectionConfigurationsOnClasspath() {
+	public synchronized Map<String, ReflectionDescriptor> getReflectionConfigurationsOnClasspath() {
 		if (this.reflectionConfigurations == null) {
 			Map<String,ReflectionDescriptor> configs = new HashMap<>();
 			for (String s: classpath) {
@@ -1086,38 +1158,76 @@ public class TypeSystem {
 	}
 
 	public synchronized Map<String,List<String>> getSpringClassesMakingIsPresentChecks() {
+		Map<String,List<String>> result = new HashMap<>();
+		for (IsPresentChecks isPresentChecks : getSpringClassesIsPresentChecks().values()) {
+			result.put(isPresentChecks.getTypename(), isPresentChecks.getCheckedTypes());
+		}
+		return result;
+	}
+
+	/**
+	 * @return the isPresent() checks made by the static initializers of Spring classes, keyed by dotted type name
+	 */
+	public synchronized Map<String,IsPresentChecks> getSpringClassesIsPresentChecks() {
 		if (typesMakingIsPresentChecksInStaticInitializers == null) {
-			for (String classpathentry : classpath) {
-				if (classpathentry.endsWith(".jar") && classpathentry.contains("spring") && !classpathentry.contains("test")) {
-					try {
-						try (ZipFile zf = new ZipFile(classpathentry)) {
-							Enumeration<? extends ZipEntry> entries = zf.entries();
-							while (entries.hasMoreElements()) {
-								ZipEntry entry = entries.nextElement();
-								String name = entry.getName();
-								if (name.endsWith(".class")) {
-									List<String> presenceCheckedTypes = IsPresentDetectionVisitor.run(zf.getInputStream(entry));
-									if (presenceCheckedTypes != null) {
-										if (typesMakingIsPresentChecksInStaticInitializers == null) {
-											typesMakingIsPresentChecksInStaticInitializers = new HashMap<>();
-										}
-										typesMakingIsPresentChecksInStaticInitializers.put(name.substring(0,name.length()-6).replace('/', '.'),presenceCheckedTypes);
-									}
+			Map<String,IsPresentChecks> result = new HashMap<>();
+			scanSpringClasses(IS_PRESENT_CHECK_PREFILTER, "isPresent() checking", bytes -> {
+				IsPresentChecks isPresentChecks = IsPresentDetectionVisitor.analyze(bytes);
+				if (isPresentChecks != null) {
+					result.put(isPresentChecks.getTypename(), isPresentChecks);
+				}
+			});
+			typesMakingIsPresentChecksInStaticInitializers = result.isEmpty() ? Collections.emptyMap() : result;
+		}
+		return typesMakingIsPresentChecksInStaticInitializers;
+	}
+
+	/**
+	 * @return the dotted names of the Spring classes that have a static initializer
+	 */
+	public synchronized Set<String> getSpringClassesWithStaticInitializers() {
+		if (typesWithStaticInitializers == null) {
+			Set<String> result = new LinkedHashSet<>();
+			scanSpringClasses(STATIC_INITIALIZER_PREFILTER, "static initializer", bytes -> {
+				ClassReader reader = new ClassReader(bytes);
+				ClassNode node = new ClassNode();
+				reader.accept(node, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+				if (node.methods.stream().anyMatch(mn -> mn.name.equals("<clinit>"))) {
+					result.add(node.name.replace('/', '.'));
+				}
+			});
+			typesWithStaticInitializers = result;
+		}
+		return typesWithStaticInitializers;
+	}
+
+	/**
+	 * Pass the bytes of the classes in the Spring jars of the classpath that pass the prefilter to the consumer.
+	 */
+	private void scanSpringClasses(ConstantPoolScanner.Prefilter prefilter, String purpose, Consumer<byte[]> consumer) {
+		for (String classpathentry : classpath) {
+			if (classpathentry.endsWith(".jar") && classpathentry.contains("spring") && !classpathentry.contains("test")) {
+				try {
+					try (ZipFile zf = new ZipFile(classpathentry)) {
+						Enumeration<? extends ZipEntry> entries = zf.entries();
+						while (entries.hasMoreElements()) {
+							ZipEntry entry = entries.nextElement();
+							String name = entry.getName();
+							if (name.endsWith(".class") && !name.startsWith("META-INF/")) {
+								byte[] bytes = loadFromStream(zf.getInputStream(entry));
+								if (prefilter.test(bytes)) {
+									consumer.accept(bytes);
 								}
 							}
 						}
-					} catch (FileNotFoundException fnfe) {
-						System.err.println("WARNING: Unable to find jar '" + classpathentry + "' whilst scanning filesystem for isPresent() checking Spring classes");
-					} catch (IOException ioe) {
-						throw new RuntimeException("Problem during isPresent() checking scan of " + classpathentry, ioe);
 					}
+				} catch (FileNotFoundException fnfe) {
+					System.err.println("WARNING: Unable to find jar '" + classpathentry + "' whilst scanning filesystem for " + purpose + " Spring classes");
+				} catch (IOException ioe) {
+					throw new RuntimeException("Problem during " + purpose + " scan of " + classpathentry, ioe);
 				}
 			}
-			if (typesMakingIsPresentChecksInStaticInitializers == null) {
-				typesMakingIsPresentChecksInStaticInitializers = Collections.emptyMap();
-			}
 		}
-		return typesMakingIsPresentChecksInStaticInitializers;
 	}
 
 	// TODO Should be able to perform an AOT analysis of @ComponentScan, see https://github.com/spring-projects-experimental/spring-native/issues/801
@@ -1259,9 +1369,9 @@ public class TypeSystem {
 	}
 
 	public List<Entry<Type, List<Type>>> scanForSpringComponents() {
-		return findDirectoriesOrTargetDirJar(getClasspath()).flatMap(this::findClasses).map(p -> {
+		return findDirectoriesOrTargetDirJar(getClasspath()).flatMap(root -> getClassNames(root).stream()).map(typename -> {
 			try {
-				return getStereoTypesOnType(typenameOfClass(p));
+				return getStereoTypesOnType(typename);
 			} catch (IllegalStateException|MissingTypeException ex) {
 				logger.debug("Error during scanning Spring components : " + ex.getMessage());
 			}
@@ -1280,12 +1390,22 @@ public class TypeSystem {
 	 * @return return list of types matching the predicate
 	 */
 	public List<Type> scan(Predicate<Type> test) {
-		List<Type> matches = findDirectoriesOrTargetDirJar(getClasspath())
-				.flatMap(this::findClasses)
-				.map(this::resolve)
-				.filter(test)
-				.collect(Collectors.toList());
-		return matches;
+		return scan(null, test);
+	}
+
+	/**
+	 * Variant of {@link #scan(Predicate)} that only resolves classes whose constant pool passes
+	 * the prefilter.
+	 *
+	 * @param prefilter UTF8 constants a class must reference to be a candidate, may be {@code null}
+	 * @param test the test condition to run against each candidate class
+	 * @return return list of types matching the predicate
+	 */
+	public List<Type> scan(ConstantPoolScanner.Prefilter prefilter, Predicate<Type> test) {
+		ClasspathScan scan = newClasspathScan();
+		Supplier<List<Type>> matches = scan.register(ClasspathScan.Scope.USER_CODE, prefilter, test);
+		scan.run();
+		return matches.get();
 	}
 
 	/**
@@ -1295,19 +1415,98 @@ public class TypeSystem {
 	 * @return a {@link Stream} of matching {@link Type types}.
 	 */
 	public Stream<Type> scanUserCodeDirectoriesAndSpringJars(Predicate<Type> filter) {
+		ClasspathScan scan = newClasspathScan();
+		Supplier<List<Type>> matches = scan.register(ClasspathScan.Scope.USER_CODE_AND_SPRING_JARS, filter);
+		scan.run();
+		return matches.get().stream();
+	}
+
+	/**
+	 * Create a scan that evaluates several predicates in a single pass over the classpath.
+	 * Register the predicates with {@link ClasspathScan#register} then call {@link ClasspathScan#run()}.
+	 *
+	 * @return a new, empty, scan
+	 */
+	public ClasspathScan newClasspathScan() {
+		return new ClasspathScan(this);
+	}
 
-		return this.findUserCodeDirectoriesAndSpringJars(this.getClasspath())
-				.flatMap(this::findClasses)
-				.map(this::typenameOfClass)
-				.map(this::resolveSlashed)
-				.filter(filter);
+	/**
+	 * Return the slashed names of the classes under a classpath root (directory or jar). The
+	 * root is only walked (and its class files read) the first time it is asked for. Class
+	 * files that cannot be read are skipped.
+	 */
+	List<String> getClassNames(Path root) {
+		return getClassfileListing(root).classNames;
+	}
+
+	/**
+	 * Return the class files under a classpath root, in the same order as {@link #getClassNames(Path)}.
+	 */
+	List<Path> getClassfiles(Path root) {
+		return getClassfileListing(root).classfiles;
+	}
+
+	private ClassfileListing getClassfileListing(Path root) {
+		ClassfileListing listing = classfilesByRoot.get(root);
+		if (listing == null) {
+			List<Path> classfiles = new ArrayList<>();
+			List<String> classNames = new ArrayList<>();
+			findClasses(root).forEach(p -> {
+				try {
+					classNames.add(typenameOfClass(p));
+					classfiles.add(p);
+				} catch (IllegalStateException ex) {
+					logger.debug("Unable to read class file " + p + ": " + ex.getMessage());
+				}
+			});
+			listing = new ClassfileListing(classfiles, classNames);
+			ClassfileListing existing = classfilesByRoot.putIfAbsent(root, listing);
+			if (existing != null) {
+				listing = existing;
+			}
+		}
+		return listing;
+	}
+
+	/**
+	 * Check the constant pool of a class file against a prefilter, without parsing the class.
+	 * If the file cannot be read it passes, so the subsequent full resolution reports the problem.
+	 *
+	 * @param classfile path to the class file
+	 * @param prefilter the UTF8 constants the caller is interested in
+	 * @return false if the class cannot be of interest
+	 */
+	boolean passes(Path classfile, ConstantPoolScanner.Prefilter prefilter) {
+		try {
+			return prefilter.test(Files.readAllBytes(classfile));
+		} catch (IOException ex) {
+			return true;
+		}
+	}
+
+	private static class ClassfileListing {
+
+		final List<Path> classfiles;
+
+		final List<String> classNames;
+
+		ClassfileListing(List<Path> classfiles, List<String> classNames) {
+			this.classfiles = Collections.unmodifiableList(classfiles);
+			this.classNames = Collections.unmodifiableList(classNames);
+		}
 	}
 
 	public ReflectionDescriptor scanForLiteUsesOfAutowiredAndBean() {
 		List<org.springframework.nativex.domain.reflect.ClassDescriptor> classDescriptors = 
 				findUserCodeDirectoriesAndSpringJars(getClasspath())
-				.flatMap(this::findClasses)
-				.map(this::typenameOfClass)
+				.flatMap(root -> {
+					List<Path> classfiles = getClassfiles(root);
+					List<String> classNames = getClassNames(root);
+					return IntStream.range(0, classfiles.size())
+							.filter(i -> passes(classfiles.get(i), AUTOWIRED_OR_BEAN_PREFILTER))
+							.mapToObj(classNames::get);
+				})
 				.map(this::findMembersAutowiredOrBean)
 				.filter(Optional::isPresent)
 				.map(Optional::get)
@@ -1340,17 +1539,20 @@ public class TypeSystem {
 	private static Map<String, String> mergedApplicationProperties = null;
 
 	public Map<String,String> getActiveProperties() {
-		if (mergedApplicationProperties == null) {
-			applicationPropertiesFiles = scanForApplicationProperties();
-			mergedApplicationProperties = new HashMap<>();
-			Collection<Map<String, String>> propertiesFiles = applicationPropertiesFiles.values();
-			for (Map<String,String> propertiesFile: propertiesFiles) {
-				for (Map.Entry<String,String> property: propertiesFile.entrySet()) {
-					mergedApplicationProperties.put(property.getKey(), property.getValue());
+		synchronized (TypeSystem.class) {
+			if (mergedApplicationProperties == null) {
+				applicationPropertiesFiles = scanForApplicationProperties();
+				Map<String, String> merged = new HashMap<>();
+				Collection<Map<String, String>> propertiesFiles = applicationPropertiesFiles.values();
+				for (Map<String,String> propertiesFile: propertiesFiles) {
+					for (Map.Entry<String,String> property: propertiesFile.entrySet()) {
+						merged.put(property.getKey(), property.getValue());
+					}
 				}
+				mergedApplicationProperties = merged;
 			}
+			return mergedApplicationProperties;
 		}
-		return mergedApplicationProperties;
 	}
 
 	public boolean isVoidOrPrimitive(String type) {
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import com.squareup.javapoet.JavaFile;
+
+/**
+ * Compiles generated source files against the test classpath and loads them so that tests can check how the
+ * generated code behaves, rather than what it looks like.
+ * <p>The generated classes are loaded along with the test classes by an isolated class loader: code generated in the
+ * package of a fixture can access its package private members, as it would in the application.
+ */
+public class TestCompiler {
+
+	private final Path directory;
+
+	/**
+	 * Create a new instance.
+	 * @param directory where the sources and classes are written, typically a temporary directory
+	 */
+	public TestCompiler(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Compile the generated sources.
+	 * @return a class loader for the generated classes and the test classes
+	 * @throws IllegalStateException if the generated sources do not compile
+	 */
+	public ClassLoader compile(JavaFile... javaFiles) throws IOException {
+		return compile(Arrays.asList(javaFiles));
+	}
+
+	/**
+	 * Compile the generated sources.
+	 * @return a class loader for the generated classes and the test classes
+	 * @throws IllegalStateException if the generated sources do not compile
+	 */
+	public ClassLoader compile(List<JavaFile> javaFiles) throws IOException {
+		Path sources = Files.createDirectories(this.directory.resolve("src"));
+		Path classes = Files.createDirectories(this.directory.resolve("classes"));
+		List<File> sourceFiles = new ArrayList<>();
+		for (JavaFile javaFile : javaFiles) {
+			javaFile.writeTo(sources);
+			String path = javaFile.packageName.isEmpty() ? javaFile.typeSpec.name
+					: javaFile.packageName.replace('.', File.separatorChar) + File.separator + javaFile.typeSpec.name;
+			sourceFiles.add(sources.resolve(path + ".java").toFile());
+		}
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+			List<String> options = Arrays.asList("-d", classes.toString(), "-classpath", System.getProperty("java.class.path"),
+					"-parameters", "-proc:none");
+			boolean compiled = compiler.getTask(null, fileManager, diagnostics, options, null,
+					fileManager.getJavaFileObjectsFromFiles(sourceFiles)).call();
+			if (!compiled) {
+				throw new IllegalStateException("Generated code does not compile:\n" + diagnostics.getDiagnostics().stream()
+						.filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+						.map(Object::toString).collect(Collectors.joining("\n")) + "\n" + javaFiles);
+			}
+		}
+		return new IsolatedClassLoader(Stream.of(classes.toFile(), new File("./target/test-classes"))
+				.map(TestCompiler::toURL).toArray(URL[]::new), getClass().getClassLoader());
+	}
+
+	private static URL toURL(File file) {
+		try {
+			return file.toURI().toURL();
+		}
+		catch (MalformedURLException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Loads the classes it can find itself before asking its parent, the dependencies still come from the parent.
+	 */
+	private static class IsolatedClassLoader extends URLClassLoader {
+
+		IsolatedClassLoader(URL[] urls, ClassLoader parent) {
+			super(urls, parent);
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> loaded = findLoadedClass(name);
+				if (loaded == null) {
+					try {
+						loaded = findClass(name);
+					}
+					catch (ClassNotFoundException ex) {
+						return super.loadClass(name, resolve);
+					}
+				}
+				if (resolve) {
+					resolveClass(loaded);
+				}
+				return loaded;
+			}
+		}
+
+	}
+
+}
@@ -16,6 +16,8 @@
 package org.springframework.aot;
 
 import java.io.File;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -45,6 +47,35 @@ public class TestTypeSystem extends TypeSystem {
 		this.excludedPackages = new LinkedHashSet<>();
 	}
 
+	/**
+	 * Create a type system reading {@literal ./target/test-classes} and the jars the given dependencies are
+	 * loaded from, but not the classes of this module.
+	 * @param dependencies a type from each jar the fixtures need
+	 */
+	public static TestTypeSystem ofTestClassesAnd(Class<?>... dependencies) {
+		List<String> classpath = new ArrayList<>();
+		classpath.add(new File("./target/test-classes").toString());
+		for (Class<?> dependency : dependencies) {
+			String location = locationOf(dependency);
+			if (!classpath.contains(location)) {
+				classpath.add(location);
+			}
+		}
+		return new TestTypeSystem(classpath);
+	}
+
+	/**
+	 * @return the jar (or directory) the given type is loaded from
+	 */
+	public static String locationOf(Class<?> type) {
+		try {
+			return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+		}
+		catch (URISyntaxException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
 	@Override
 	public Type resolve(String classname) {
 		return super.resolve(classname);
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.boot.env.OriginTrackedMapPropertySource;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.origin.OriginTrackedValue;
+import org.springframework.boot.origin.TextResourceOrigin;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ApplicationPropertiesCodeGenerator}.
+ */
+public class ApplicationPropertiesCodeGeneratorTests {
+
+	private static final String PROPERTIES_DIRECTORY = new File("./target/test-classes/properties").toString();
+
+	private final ClassPathResource resource = new ClassPathResource("properties/application.properties");
+
+	@Test
+	public void findApplicationPropertiesFiles() {
+		Map<String, byte[]> files = ApplicationPropertiesCodeGenerator.findApplicationPropertiesFiles(Collections.singletonList(PROPERTIES_DIRECTORY));
+		assertThat(files).containsOnlyKeys("application.properties", "config/application-list.properties", "config/application-prod.properties");
+	}
+
+	@Test
+	public void loadDocumentsAsSpringBootDoes() throws Exception {
+		List<Map<String, ApplicationPropertiesCodeGenerator.Value>> documents = ApplicationPropertiesCodeGenerator
+				.loadDocuments(FileCopyUtils.copyToByteArray(this.resource.getInputStream()));
+		List<Map<String, String>> loaded = new ArrayList<>();
+		for (Map<String, ApplicationPropertiesCodeGenerator.Value> document : documents) {
+			Map<String, String> values = new LinkedHashMap<>();
+			document.forEach((name, value) -> values.put(name, value.value + " in " + this.resource.getDescription()
+					+ " at " + (value.line + 1) + ":" + (value.column + 1)));
+			loaded.add(values);
+		}
+		assertThat(loaded).hasSize(3).isEqualTo(describe(loadWithSpringBoot(this.resource)));
+	}
+
+	@Test
+	public void generatedDocumentsMatchSpringBootDocuments(@TempDir Path tempDir) throws Exception {
+		ApplicationPropertiesCodeGenerator codeGenerator = new ApplicationPropertiesCodeGenerator();
+		Map<String, byte[]> files = ApplicationPropertiesCodeGenerator.findApplicationPropertiesFiles(Collections.singletonList(PROPERTIES_DIRECTORY));
+		assertThat(codeGenerator.addApplicationPropertiesFile("application.properties", files.get("application.properties"))).isTrue();
+		assertThat(codeGenerator.addApplicationPropertiesFile("config/application-prod.properties", files.get("config/application-prod.properties"))).isTrue();
+		ClassLoader classLoader = new TestCompiler(tempDir).compile(codeGenerator.generateStaticApplicationProperties());
+		Class<?> staticApplicationProperties = classLoader.loadClass(ApplicationPropertiesCodeGenerator.STATIC_APPLICATION_PROPERTIES);
+		Method contains = ReflectionUtils.findMethod(staticApplicationProperties, "contains", String.class);
+		assertThat(ReflectionUtils.invokeMethod(contains, null, "application.properties")).isEqualTo(true);
+		assertThat(ReflectionUtils.invokeMethod(contains, null, "config/application-list.properties")).isEqualTo(false);
+		Method getDocuments = ReflectionUtils.findMethod(staticApplicationProperties, "getDocuments", String.class, Resource.class);
+		List<?> documents = (List<?>) ReflectionUtils.invokeMethod(getDocuments, null, "application.properties", this.resource);
+		List<Map<String, Object>> expected = loadWithSpringBoot(this.resource);
+		assertThat(documents).isEqualTo(expected);
+		assertThat(describe(documents)).isEqualTo(describe(expected));
+		ClassPathResource prod = new ClassPathResource("properties/config/application-prod.properties");
+		assertThat(describe((List<?>) ReflectionUtils.invokeMethod(getDocuments, null, "config/application-prod.properties", prod)))
+				.isEqualTo(describe(loadWithSpringBoot(prod)));
+		assertThat(ReflectionUtils.invokeMethod(getDocuments, null, "config/application-list.properties", this.resource)).isNull();
+	}
+
+	@Test
+	public void filesUsingTheListSyntaxAreNotCompiled() {
+		ApplicationPropertiesCodeGenerator codeGenerator = new ApplicationPropertiesCodeGenerator();
+		Map<String, byte[]> files = ApplicationPropertiesCodeGenerator.findApplicationPropertiesFiles(Collections.singletonList(PROPERTIES_DIRECTORY));
+		assertThat(codeGenerator.addApplicationPropertiesFile("config/application-list.properties", files.get("config/application-list.properties"))).isFalse();
+		assertThat(codeGenerator.hasApplicationPropertiesFiles()).isFalse();
+	}
+
+	private static List<Map<String, Object>> loadWithSpringBoot(Resource resource) throws Exception {
+		List<Map<String, Object>> documents = new ArrayList<>();
+		for (PropertySource<?> propertySource : new PropertiesPropertySourceLoader().load("test", resource)) {
+			documents.add(((OriginTrackedMapPropertySource) propertySource).getSource());
+		}
+		return documents;
+	}
+
+	/**
+	 * Describe each value with the position its origin records, {@code OriginTrackedValue} equality ignores it.
+	 */
+	private static List<Map<String, String>> describe(List<?> documents) {
+		List<Map<String, String>> described = new ArrayList<>();
+		for (Object document : documents) {
+			Map<String, String> values = new LinkedHashMap<>();
+			((Map<?, ?>) document).forEach((name, value) -> {
+				TextResourceOrigin origin = (TextResourceOrigin) ((OriginTrackedValue) value).getOrigin();
+				values.put((String) name, ((OriginTrackedValue) value).getValue() + " in " + origin.getResource().getDescription()
+						+ " at " + origin.getLocation());
+			});
+			described.add(values);
+		}
+		return described;
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.squareup.javapoet.JavaFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.CandidatesConfiguration;
+import org.springframework.aot.nativex.fixtures.ContextConsumingConfiguration;
+import org.springframework.aot.nativex.fixtures.ExtendingConfiguration;
+import org.springframework.aot.nativex.fixtures.Foo;
+import org.springframework.aot.nativex.fixtures.ProfileConfiguration;
+import org.springframework.aot.nativex.fixtures.SimpleConfiguration;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ResourceLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BeanRegistrationCodeGenerator}.
+ */
+public class BeanRegistrationCodeGeneratorTests {
+
+	// spring-context, spring-beans and spring-core for the annotations and the resolvable dependency types
+	private final TestTypeSystem typeSystem = TestTypeSystem.ofTestClassesAnd(ApplicationContext.class, BeanFactory.class, ResourceLoader.class);
+
+	@Test
+	public void simpleConfigurationIsEligible() {
+		assertThat(BeanRegistrationCodeGenerator.checkEligibility(typeSystem.resolve(SimpleConfiguration.class))).isNull();
+	}
+
+	@Test
+	public void conditionalConfigurationIsNotEligible() {
+		assertThat(BeanRegistrationCodeGenerator.checkEligibility(typeSystem.resolve(ProfileConfiguration.class)))
+				.isEqualTo("annotated with org.springframework.context.annotation.Profile");
+	}
+
+	@Test
+	public void configurationWithSuperclassIsNotEligible() {
+		assertThat(BeanRegistrationCodeGenerator.checkEligibility(typeSystem.resolve(ExtendingConfiguration.class)))
+				.isEqualTo("extends another class that may declare @Bean methods");
+	}
+
+	@Test
+	public void beanMethodConsumingContextIsNotEligible() {
+		assertThat(BeanRegistrationCodeGenerator.checkEligibility(typeSystem.resolve(ContextConsumingConfiguration.class)))
+				.isEqualTo("@Bean method foo has a parameter that is not resolved from a bean");
+	}
+
+	@Test
+	public void generatedRegistrationsDefineTheBeans(@TempDir Path tempDir) throws Exception {
+		try (GenericApplicationContext context = refresh(tempDir, SimpleConfiguration.class)) {
+			Object bar = context.getBean("bar");
+			assertThat(field(bar, "foo")).isSameAs(context.getBean("foo"));
+			assertThat(field(bar, "initialized")).isEqualTo(true);
+			assertThat(context.getAliases("bar")).containsExactly("barAlias");
+			BeanDefinition namedBar = context.getBeanDefinition("bar");
+			assertThat(namedBar.isPrimary()).isTrue();
+			assertThat(namedBar.getFactoryBeanName()).isEqualTo("simpleConfiguration");
+			assertThat(namedBar.getFactoryMethodName()).isEqualTo("namedBar");
+			BeanDefinition baz = context.getBeanDefinition("baz");
+			assertThat(baz.isLazyInit()).isTrue();
+			assertThat(baz.getBeanClassName()).isEqualTo(SimpleConfiguration.class.getName());
+			assertThat(baz.getFactoryMethodName()).isEqualTo("baz");
+			assertThat(context.getBean("baz").getClass().getName()).isEqualTo(Foo.Baz.class.getName());
+			assertThat(context.getBeanFactory().getDependentBeans("foo")).containsExactly("bar");
+			assertThat(context.getBeanFactory().getDependentBeans("simpleConfiguration")).contains("foo", "bar");
+		}
+	}
+
+	@Test
+	public void argumentsWithSeveralCandidatesAreResolvedByParameterName(@TempDir Path tempDir) throws Exception {
+		try (GenericApplicationContext context = refresh(tempDir, CandidatesConfiguration.class)) {
+			assertThat(field(context.getBean("candidateBar"), "foo")).isSameAs(context.getBean("secondFoo"));
+			assertThat(context.getBeanFactory().getDependentBeans("secondFoo")).containsExactly("candidateBar");
+			assertThat(context.getBeanFactory().getDependentBeans("firstFoo")).isEmpty();
+		}
+	}
+
+	@Test
+	public void ineligibleConfigurationsAreNotRegistered() {
+		BeanRegistrationCodeGenerator codeGenerator = new BeanRegistrationCodeGenerator();
+		assertThat(codeGenerator.addConfiguration(typeSystem.resolve(ProfileConfiguration.class))).isFalse();
+		assertThat(codeGenerator.hasRegistrations()).isFalse();
+	}
+
+	private GenericApplicationContext refresh(Path tempDir, Class<?> configuration) throws Exception {
+		BeanRegistrationCodeGenerator codeGenerator = new BeanRegistrationCodeGenerator();
+		assertThat(codeGenerator.addConfiguration(typeSystem.resolve(configuration))).isTrue();
+		List<JavaFile> javaFiles = new ArrayList<>(codeGenerator.generateBeanRegistrationClasses());
+		javaFiles.add(codeGenerator.generateStaticBeanRegistrations());
+		ClassLoader classLoader = new TestCompiler(tempDir).compile(javaFiles);
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.setClassLoader(classLoader);
+		Class<?> staticBeanRegistrations = classLoader.loadClass(BeanRegistrationCodeGenerator.STATIC_BEAN_REGISTRATIONS);
+		context.addBeanFactoryPostProcessor((BeanFactoryPostProcessor) BeanUtils.instantiateClass(staticBeanRegistrations));
+		context.refresh();
+		return context;
+	}
+
+	private static Object field(Object target, String name) {
+		return new DirectFieldAccessor(target).getPropertyValue(name);
+	}
+
+}
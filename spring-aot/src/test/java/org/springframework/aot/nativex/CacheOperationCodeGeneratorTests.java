@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.InvoiceService;
+import org.springframework.aot.nativex.fixtures.PriceCatalog;
+import org.springframework.aot.nativex.fixtures.ProductCatalog;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.nativex.type.Type;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CacheOperationCodeGenerator}.
+ */
+public class CacheOperationCodeGeneratorTests {
+
+	private static TestTypeSystem typeSystem;
+
+	@BeforeAll
+	public static void setup() {
+		typeSystem = TestTypeSystem.ofTestClassesAnd(Cacheable.class);
+	}
+
+	@Test
+	public void cacheCandidates() {
+		assertThat(CacheOperationCodeGenerator.isCacheCandidate(resolve(ProductCatalog.class))).isTrue();
+		assertThat(CacheOperationCodeGenerator.isCacheCandidate(resolve(PriceCatalog.class))).isTrue();
+		assertThat(CacheOperationCodeGenerator.isCacheCandidate(resolve(InvoiceService.class))).isFalse();
+	}
+
+	@Test
+	public void classesWithValidOperations() {
+		CacheOperationCodeGenerator codeGenerator = new CacheOperationCodeGenerator();
+		codeGenerator.addType(resolve(ProductCatalog.class));
+		codeGenerator.addType(resolve(PriceCatalog.class));
+		assertThat(codeGenerator.hasCachedTypes()).isTrue();
+		assertThat(codeGenerator.getCachedTypeNames()).containsExactly(ProductCatalog.class.getName());
+	}
+
+	@Test
+	public void generatedSourceCachesLikeAnnotationSource(@TempDir Path directory) throws Exception {
+		CacheOperationCodeGenerator codeGenerator = new CacheOperationCodeGenerator();
+		codeGenerator.addType(resolve(ProductCatalog.class));
+		ClassLoader classLoader = new TestCompiler(directory).compile(codeGenerator.generateStaticCacheOperationSource());
+		List<String> generatedContents = cacheContents(classLoader, classLoader.loadClass(CacheOperationCodeGenerator.STATIC_CACHE_OPERATION_SOURCE));
+		assertThat(generatedContents).isEqualTo(cacheContents(classLoader, null));
+		assertThat(generatedContents).containsExactly("listings={3=listed, 4=listed}, prices={X=0}, products={a=a, b=b}",
+				"listings={4=listed}, prices={X=0}, products={a=a, b=b, update=u}",
+				"listings={4=listed}, prices={X=0}, products={}");
+	}
+
+	// Invoke the catalog methods, with the operations of the generated source if any, and return the cache contents after each step
+	private static List<String> cacheContents(ClassLoader classLoader, Class<?> generatedSource) throws Exception {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.register(CachingConfiguration.class);
+			context.registerBean("productCacheManager", CacheManager.class, ConcurrentMapCacheManager::new);
+			Class<?> catalogType = classLoader.loadClass(ProductCatalog.class.getName());
+			context.registerBean("productCatalog", catalogType);
+			if (generatedSource != null) {
+				// What BuildTimeCacheOperationsInitializer does
+				Method registerKeyGenerators = ReflectionUtils.findMethod(generatedSource, "registerKeyGenerators", SingletonBeanRegistry.class);
+				context.addBeanFactoryPostProcessor(beanFactory -> ReflectionUtils.invokeMethod(registerKeyGenerators, null, beanFactory));
+				context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+					@Override
+					public Object postProcessBeforeInitialization(Object bean, String beanName) {
+						return (bean.getClass() == AnnotationCacheOperationSource.class ? BeanUtils.instantiateClass(generatedSource) : bean);
+					}
+				});
+			}
+			context.refresh();
+			CacheManager cacheManager = context.getBean(CacheManager.class);
+			cacheManager.getCache("listings").put(3L, "listed");
+			cacheManager.getCache("listings").put(4L, "listed");
+			Object catalog = context.getBean("productCatalog");
+			List<String> contents = new ArrayList<>();
+			invoke(catalog, "find", "a");
+			invoke(catalog, "find", "b");
+			invoke(catalog, "find", "a");
+			invoke(catalog, "price", "x");
+			contents.add(describe(cacheManager));
+			invoke(catalog, "update", "u", 3L);
+			contents.add(describe(cacheManager));
+			invoke(catalog, "clear");
+			contents.add(describe(cacheManager));
+			return contents;
+		}
+	}
+
+	private static void invoke(Object target, String methodName, Object... arguments) {
+		Method method = null;
+		for (Method candidate : target.getClass().getMethods()) {
+			if (candidate.getName().equals(methodName) && candidate.getParameterCount() == arguments.length) {
+				method = candidate;
+			}
+		}
+		ReflectionUtils.invokeMethod(method, target, arguments);
+	}
+
+	private static String describe(CacheManager cacheManager) {
+		Map<String, Map<String, Object>> caches = new TreeMap<>();
+		for (String cacheName : cacheManager.getCacheNames()) {
+			Cache cache = cacheManager.getCache(cacheName);
+			Map<String, Object> entries = new TreeMap<>();
+			((Map<?, ?>) cache.getNativeCache()).forEach((key, value) -> entries.put(key.toString(), value));
+			caches.put(cacheName, entries);
+		}
+		return caches.toString().replaceAll("^\\{|\\}$", "");
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableCaching(proxyTargetClass = true)
+	static class CachingConfiguration {
+
+	}
+
+	private static Type resolve(Class<?> type) {
+		return typeSystem.resolveDotted(type.getName());
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import javax.persistence.Entity;
+import javax.transaction.SystemException;
+
+import net.bytebuddy.ByteBuddy;
+import org.hibernate.bytecode.enhance.spi.Enhancer;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.Address;
+import org.springframework.aot.nativex.fixtures.BaseEntity;
+import org.springframework.aot.nativex.fixtures.Pet;
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.FieldDescriptor;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+import org.springframework.nativex.hint.Flag;
+import org.springframework.nativex.type.Type;
+import org.springframework.nativex.type.TypeSystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HibernateEntityEnhancer}.
+ */
+public class HibernateEntityEnhancerTests {
+
+	private static List<String> dependencies;
+
+	private static TypeSystem typeSystem;
+
+	@BeforeAll
+	public static void setup() {
+		dependencies = new ArrayList<>();
+		// hibernate-core and the dependencies the enhancer needs, javax.persistence-api for the annotations
+		for (Class<?> type : new Class<?>[] { Enhancer.class, ByteBuddy.class, Logger.class, SystemException.class, Entity.class }) {
+			dependencies.add(TestTypeSystem.locationOf(type));
+		}
+		typeSystem = new TestTypeSystem(classpath(new File("./target/test-classes").toString()));
+	}
+
+	@Test
+	public void persistentTypesAreEnhancementCandidates() {
+		assertThat(HibernateEntityEnhancer.isEnhancementCandidate(resolve(typeSystem, Pet.class))).isTrue();
+		assertThat(HibernateEntityEnhancer.isEnhancementCandidate(resolve(typeSystem, BaseEntity.class))).isTrue();
+		assertThat(HibernateEntityEnhancer.isEnhancementCandidate(resolve(typeSystem, Address.class))).isFalse();
+	}
+
+	@Test
+	public void enhanceEntity() {
+		try (HibernateEntityEnhancer enhancer = new HibernateEntityEnhancer(typeSystem.getClasspath())) {
+			byte[] enhancedBytes = enhancer.enhance(resolve(typeSystem, Pet.class), typeSystem.find(slashed(Pet.class)));
+			assertThat(enhancedBytes).isNotNull();
+			assertThat(new ClassReader(enhancedBytes).getInterfaces()).contains("org/hibernate/engine/spi/ManagedEntity",
+					"org/hibernate/engine/spi/PersistentAttributeInterceptable", "org/hibernate/engine/spi/SelfDirtinessTracker");
+			assertThat(enhancer.enhance(resolve(typeSystem, Address.class), typeSystem.find(slashed(Address.class)))).isNull();
+		}
+	}
+
+	@Test
+	public void enhancedEntityIsNotEnhancementCandidate(@TempDir Path classes) throws Exception {
+		byte[] enhancedBytes;
+		try (HibernateEntityEnhancer enhancer = new HibernateEntityEnhancer(typeSystem.getClasspath())) {
+			enhancedBytes = enhancer.enhance(resolve(typeSystem, Pet.class), typeSystem.find(slashed(Pet.class)));
+		}
+		Path classFile = classes.resolve(slashed(Pet.class) + ".class");
+		Files.createDirectories(classFile.getParent());
+		Files.write(classFile, enhancedBytes);
+		TypeSystem enhancedTypeSystem = new TestTypeSystem(classpath(classes.toString(), new File("./target/test-classes").toString()));
+		assertThat(HibernateEntityEnhancer.isEnhancementCandidate(resolve(enhancedTypeSystem, Pet.class))).isFalse();
+	}
+
+	@Test
+	public void enhancedClassIsLoadedInPlaceOfOriginal(@TempDir Path classes, @TempDir Path generated) throws Exception {
+		Path petClassFile = copyClassFile(Pet.class, classes);
+		copyClassFile(BaseEntity.class, classes);
+		try (HibernateEntityEnhancer enhancer = new HibernateEntityEnhancer(classpath(classes.toString()))) {
+			byte[] enhancedBytes = enhancer.enhance(resolve(typeSystem, Pet.class), typeSystem.find(slashed(Pet.class)));
+			HibernateEntityEnhancer.enhancedClassFile(resolve(typeSystem, Pet.class), enhancedBytes).writeTo(generated);
+		}
+		assertThat(Files.readAllBytes(petClassFile)).isEqualTo(typeSystem.find(slashed(Pet.class)));
+		// The generated resources come first, as the build plugins order them
+		try (URLClassLoader classLoader = new URLClassLoader(urls(classpath(generated.toString(), classes.toString())), null)) {
+			Class<?> pet = classLoader.loadClass(Pet.class.getName());
+			assertThat(pet.getProtectionDomain().getCodeSource().getLocation()).isEqualTo(generated.toUri().toURL());
+			assertThat(Arrays.stream(pet.getInterfaces()).map(Class::getName)).contains(ManagedEntity.class.getName());
+		}
+	}
+
+	@Test
+	public void entityClassLoadedFromJarIsDetected(@TempDir Path classes) throws Exception {
+		Path jar = classes.resolve("entities.jar");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar.toFile()))) {
+			out.putNextEntry(new ZipEntry(slashed(Pet.class) + ".class"));
+			out.write(typeSystem.find(slashed(Pet.class)));
+			out.closeEntry();
+		}
+		String testClasses = new File("./target/test-classes").toString();
+		assertThat(HibernateEntityEnhancer.isLoadedFromJar(classpath(jar.toString(), testClasses), resolve(typeSystem, Pet.class))).isTrue();
+		assertThat(HibernateEntityEnhancer.isLoadedFromJar(classpath(testClasses, jar.toString()), resolve(typeSystem, Pet.class))).isFalse();
+	}
+
+	@Test
+	public void restrictReflectionToOriginalMembers() {
+		ClassDescriptor classDescriptor = ClassDescriptor.of(Pet.class.getName());
+		classDescriptor.setFlag(Flag.allDeclaredConstructors);
+		classDescriptor.setFlag(Flag.allDeclaredMethods);
+		classDescriptor.setFlag(Flag.allDeclaredFields);
+		classDescriptor.addFieldDescriptor(FieldDescriptor.of("name", true, false));
+		HibernateEntityEnhancer.restrictReflection(resolve(typeSystem, Pet.class), classDescriptor);
+		assertThat(classDescriptor.getFlags()).containsOnly(Flag.allDeclaredConstructors);
+		assertThat(classDescriptor.getFields()).containsOnly(FieldDescriptor.of("name", true, false),
+				FieldDescriptor.of("picture", false, false));
+		assertThat(classDescriptor.getMethods()).containsOnly(method("getName"), method("setName", "java.lang.String"),
+				method("getPicture"), method("setPicture", "byte[]"));
+	}
+
+	private static List<String> classpath(String... entries) {
+		List<String> classpath = new ArrayList<>();
+		for (String entry : entries) {
+			classpath.add(entry);
+		}
+		classpath.addAll(dependencies);
+		return classpath;
+	}
+
+	private static Path copyClassFile(Class<?> type, Path classes) throws Exception {
+		Path classFile = classes.resolve(slashed(type) + ".class");
+		Files.createDirectories(classFile.getParent());
+		Files.write(classFile, typeSystem.find(slashed(type)));
+		return classFile;
+	}
+
+	private static URL[] urls(List<String> classpath) throws Exception {
+		List<URL> urls = new ArrayList<>();
+		for (String entry : classpath) {
+			urls.add(new File(entry).toURI().toURL());
+		}
+		return urls.toArray(new URL[0]);
+	}
+
+	private static MethodDescriptor method(String... nameAndParameterTypes) {
+		return MethodDescriptor.of(nameAndParameterTypes);
+	}
+
+	private static String slashed(Class<?> type) {
+		return type.getName().replace('.', '/');
+	}
+
+	private static Type resolve(TypeSystem typeSystem, Class<?> type) {
+		return typeSystem.resolveDotted(type.getName());
+	}
+}
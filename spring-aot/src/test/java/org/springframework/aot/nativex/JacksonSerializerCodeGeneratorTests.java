@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.CreateCustomerRequest;
+import org.springframework.aot.nativex.fixtures.CustomerController;
+import org.springframework.aot.nativex.fixtures.CustomerView;
+import org.springframework.aot.nativex.fixtures.LegacyCustomer;
+import org.springframework.aot.nativex.fixtures.PostalAddress;
+import org.springframework.beans.BeanUtils;
+import org.springframework.nativex.type.Method;
+import org.springframework.nativex.type.Type;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JacksonSerializerCodeGenerator}.
+ */
+public class JacksonSerializerCodeGeneratorTests {
+
+	private static final String CREATE_CUSTOMER_REQUEST = "{\"name\":\"Ada\",\"age\":36,"
+			+ "\"address\":{\"street\":\"Main Street\",\"city\":\"Paris\"},\"tags\":[\"new\",\"vip\"]}";
+
+	private static TestTypeSystem typeSystem;
+
+	@BeforeAll
+	public static void setup() {
+		// spring-context and spring-web for the stereotypes, jackson-annotations for the annotated payload types
+		typeSystem = TestTypeSystem.ofTestClassesAnd(Controller.class, RestController.class, JsonProperty.class);
+	}
+
+	@Test
+	public void payloadTypesFollowProperties() {
+		JacksonSerializerCodeGenerator codeGenerator = new JacksonSerializerCodeGenerator(typeSystem);
+		codeGenerator.addType(resolve(CustomerController.class));
+		assertThat(codeGenerator.hasPayloadTypes()).isTrue();
+		assertThat(codeGenerator.getSerializedTypeNames()).containsExactly(CustomerView.class.getName(),
+				PostalAddress.class.getName());
+		assertThat(codeGenerator.getDeserializedTypeNames()).containsExactly(CreateCustomerRequest.class.getName(),
+				PostalAddress.class.getName());
+	}
+
+	@Test
+	public void propertyNamesFollowJacksonConventions() {
+		Type customerView = resolve(CustomerView.class);
+		assertThat(propertyName(customerView, "getURL")).isEqualTo("url");
+		assertThat(propertyName(customerView, "isActive")).isEqualTo("active");
+		assertThat(propertyName(customerView, "getId")).isEqualTo("id");
+	}
+
+	@Test
+	public void generatedSerializerWritesWhatJacksonWrites(@TempDir Path directory) throws Exception {
+		ClassLoader classLoader = compileStaticJacksonModule(directory);
+		ObjectMapper mapper = new ObjectMapper().registerModule(staticJacksonModule(classLoader));
+		Class<?> customerView = classLoader.loadClass(CustomerView.class.getName());
+		assertThat(mapper.getSerializerProviderInstance().findValueSerializer(customerView).getClass().getName())
+				.startsWith(JacksonSerializerCodeGenerator.STATIC_JACKSON_MODULE + "$");
+		Object view = BeanUtils.instantiateClass(customerView);
+		assertThat(mapper.writeValueAsString(view)).isEqualTo(new ObjectMapper().writeValueAsString(view))
+				.isEqualTo("{\"id\":0,\"name\":null,\"address\":null,\"active\":true,\"url\":\"/customers/0\"}");
+		Class<?> legacyCustomer = classLoader.loadClass(LegacyCustomer.class.getName());
+		assertThat(mapper.getSerializerProviderInstance().findValueSerializer(legacyCustomer).getClass().getName())
+				.doesNotStartWith(JacksonSerializerCodeGenerator.STATIC_JACKSON_MODULE);
+	}
+
+	@Test
+	public void generatedDeserializerReadsWhatJacksonReads(@TempDir Path directory) throws Exception {
+		ClassLoader classLoader = compileStaticJacksonModule(directory);
+		ObjectMapper mapper = new ObjectMapper().registerModule(staticJacksonModule(classLoader));
+		Class<?> createCustomerRequest = classLoader.loadClass(CreateCustomerRequest.class.getName());
+		assertThat(findDeserializer(mapper, createCustomerRequest).getClass().getName())
+				.startsWith(JacksonSerializerCodeGenerator.STATIC_JACKSON_MODULE + "$");
+		ObjectMapper plainMapper = new ObjectMapper();
+		Object request = mapper.readValue(CREATE_CUSTOMER_REQUEST, createCustomerRequest);
+		assertThat(plainMapper.valueToTree(request)).isEqualTo(plainMapper.valueToTree(
+				plainMapper.readValue(CREATE_CUSTOMER_REQUEST, createCustomerRequest)));
+		assertThat(plainMapper.writeValueAsString(request)).isEqualTo(CREATE_CUSTOMER_REQUEST);
+		Object emptyRequest = mapper.readValue("{\"age\":null,\"address\":null}", createCustomerRequest);
+		assertThat(plainMapper.writeValueAsString(emptyRequest))
+				.isEqualTo("{\"name\":null,\"age\":0,\"address\":null,\"tags\":null}");
+	}
+
+	@Test
+	public void generatedModuleStepsAsideForCustomizedMapper(@TempDir Path directory) throws Exception {
+		ClassLoader classLoader = compileStaticJacksonModule(directory);
+		ObjectMapper mapper = new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+				.registerModule(staticJacksonModule(classLoader));
+		Class<?> customerView = classLoader.loadClass(CustomerView.class.getName());
+		assertThat(mapper.getSerializerProviderInstance().findValueSerializer(customerView).getClass().getName())
+				.doesNotStartWith(JacksonSerializerCodeGenerator.STATIC_JACKSON_MODULE);
+		Class<?> createCustomerRequest = classLoader.loadClass(CreateCustomerRequest.class.getName());
+		assertThat(findDeserializer(mapper, createCustomerRequest).getClass().getName())
+				.doesNotStartWith(JacksonSerializerCodeGenerator.STATIC_JACKSON_MODULE);
+	}
+
+	@Test
+	public void noPayloadTypesForControllerWithoutEligibleTypes() {
+		JacksonSerializerCodeGenerator codeGenerator = new JacksonSerializerCodeGenerator(typeSystem);
+		codeGenerator.addType(resolve(Controller.class));
+		assertThat(codeGenerator.hasPayloadTypes()).isFalse();
+	}
+
+	private static ClassLoader compileStaticJacksonModule(Path directory) throws Exception {
+		JacksonSerializerCodeGenerator codeGenerator = new JacksonSerializerCodeGenerator(typeSystem);
+		codeGenerator.addType(resolve(CustomerController.class));
+		return new TestCompiler(directory).compile(codeGenerator.generateStaticJacksonModule());
+	}
+
+	private static Module staticJacksonModule(ClassLoader classLoader) throws Exception {
+		return (Module) BeanUtils.instantiateClass(classLoader.loadClass(JacksonSerializerCodeGenerator.STATIC_JACKSON_MODULE));
+	}
+
+	private static JsonDeserializer<Object> findDeserializer(ObjectMapper mapper, Class<?> type) throws Exception {
+		try (JsonParser parser = mapper.createParser("{}")) {
+			DefaultDeserializationContext context = ((DefaultDeserializationContext) mapper.getDeserializationContext())
+					.createInstance(mapper.getDeserializationConfig(), parser, null);
+			return context.findRootValueDeserializer(mapper.constructType(type));
+		}
+	}
+
+	private static String propertyName(Type type, String accessorName) {
+		Method accessor = type.getMethods(m -> m.getName().equals(accessorName)).get(0);
+		return JacksonSerializerCodeGenerator.getPropertyName(accessor);
+	}
+
+	private static Type resolve(Class<?> type) {
+		return typeSystem.resolveDotted(type.getName());
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.AuditListener;
+import org.springframework.aot.nativex.fixtures.AuditTopicListener;
+import org.springframework.aot.nativex.fixtures.InvoiceService;
+import org.springframework.aot.nativex.fixtures.OrderListener;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.KafkaListenerAnnotationBeanPostProcessor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerConfigUtils;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.nativex.type.Type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link KafkaListenerCodeGenerator}.
+ */
+public class KafkaListenerCodeGeneratorTests {
+
+	private static TestTypeSystem typeSystem;
+
+	@BeforeAll
+	public static void setup() {
+		typeSystem = TestTypeSystem.ofTestClassesAnd(KafkaListener.class);
+	}
+
+	@Test
+	public void listenerTypes() {
+		KafkaListenerCodeGenerator codeGenerator = new KafkaListenerCodeGenerator();
+		assertThat(codeGenerator.addType(resolve(OrderListener.class))).isTrue();
+		assertThat(codeGenerator.addType(resolve(AuditListener.class))).isTrue();
+		assertThat(codeGenerator.addType(resolve(AuditTopicListener.class))).isFalse();
+		assertThat(codeGenerator.addType(resolve(InvoiceService.class))).isFalse();
+		assertThat(codeGenerator.hasListenerTypes()).isTrue();
+		assertThat(codeGenerator.getListenerTypeNames()).containsExactly(AuditListener.class.getName(), OrderListener.class.getName());
+	}
+
+	@Test
+	public void generatedPostProcessorRegistersSameListeners(@TempDir Path directory) throws Exception {
+		KafkaListenerCodeGenerator codeGenerator = new KafkaListenerCodeGenerator();
+		for (Class<?> type : new Class<?>[] { OrderListener.class, AuditListener.class, AuditTopicListener.class, InvoiceService.class }) {
+			codeGenerator.addType(resolve(type));
+		}
+		ClassLoader classLoader = new TestCompiler(directory).compile(codeGenerator.generateStaticKafkaListenerAnnotationBeanPostProcessor());
+		Class<?> generatedPostProcessor = classLoader.loadClass(KafkaListenerCodeGenerator.STATIC_KAFKA_LISTENER_ANNOTATION_BEAN_POST_PROCESSOR);
+		List<String> generatedListeners = listenerTopics(classLoader, generatedPostProcessor);
+		assertThat(generatedListeners).isEqualTo(listenerTopics(classLoader, null)).containsExactly("audit", "orders");
+	}
+
+	// Refresh a context with the listener beans, replacing the post processor as BuildTimeKafkaListenersInitializer does
+	private static List<String> listenerTopics(ClassLoader classLoader, Class<?> generatedPostProcessor) throws Exception {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.register(KafkaConfiguration.class);
+			for (Class<?> type : new Class<?>[] { OrderListener.class, AuditListener.class, InvoiceService.class }) {
+				context.registerBean(classLoader.loadClass(type.getName()));
+			}
+			if (generatedPostProcessor != null) {
+				context.addBeanFactoryPostProcessor(beanFactory -> {
+					BeanDefinitionRegistry registry = (BeanDefinitionRegistry) beanFactory;
+					RootBeanDefinition replacement = new RootBeanDefinition(generatedPostProcessor);
+					replacement.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+					registry.removeBeanDefinition(KafkaListenerConfigUtils.KAFKA_LISTENER_ANNOTATION_PROCESSOR_BEAN_NAME);
+					registry.registerBeanDefinition(KafkaListenerConfigUtils.KAFKA_LISTENER_ANNOTATION_PROCESSOR_BEAN_NAME, replacement);
+				});
+			}
+			context.refresh();
+			assertThat(context.getBean(KafkaListenerConfigUtils.KAFKA_LISTENER_ANNOTATION_PROCESSOR_BEAN_NAME).getClass())
+					.isEqualTo(generatedPostProcessor != null ? generatedPostProcessor
+							: KafkaListenerAnnotationBeanPostProcessor.class);
+			List<String> topics = new ArrayList<>();
+			for (MessageListenerContainer container : context.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers()) {
+				topics.add(String.join(",", container.getContainerProperties().getTopics()));
+			}
+			Collections.sort(topics);
+			return topics;
+		}
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableKafka
+	static class KafkaConfiguration {
+
+		@Bean
+		ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory() {
+			ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+			factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(
+					Collections.singletonMap(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092")));
+			// The containers are created but never connect
+			factory.setAutoStartup(false);
+			return factory;
+		}
+
+	}
+
+	private static Type resolve(Class<?> type) {
+		return typeSystem.resolveDotted(type.getName());
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.filter.ThresholdFilter;
+import ch.qos.logback.core.ConsoleAppender;
+import ch.qos.logback.core.CoreConstants;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.boot.SpringApplication;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LogbackConfigurationCodeGenerator}.
+ */
+public class LogbackConfigurationCodeGeneratorTests {
+
+	// logback-classic, logback-core and spring-boot for the classes the configuration files use
+	private static final TestTypeSystem typeSystem = TestTypeSystem.ofTestClassesAnd(LoggerContext.class, ConsoleAppender.class,
+			SpringApplication.class);
+
+	private static URLClassLoader resourceLoader;
+
+	private final LoggerContext context = new LoggerContext();
+
+	@BeforeAll
+	public static void setup() throws Exception {
+		resourceLoader = new URLClassLoader(new URL[] { new File("./target/test-classes/logback").toURI().toURL(),
+				new File(TestTypeSystem.locationOf(SpringApplication.class)).toURI().toURL() }, null);
+	}
+
+	@AfterAll
+	public static void close() throws Exception {
+		resourceLoader.close();
+	}
+
+	@AfterEach
+	public void stop() {
+		this.context.stop();
+	}
+
+	@Test
+	public void generatedConfigurationConfiguresTheLoggerContext(@TempDir Path tempDir) throws Exception {
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new MapPropertySource("test",
+				Collections.singletonMap("spring.application.name", "orders")));
+		assertThat(configure(tempDir, "logback-spring.xml", environment)).isTrue();
+		assertThat(this.context.getProperty("APP_NAME")).isEqualTo("orders");
+		assertThat(this.context.getProperty("LOG_PATTERN")).isEqualTo("orders %5p %m%n");
+		@SuppressWarnings("unchecked")
+		Map<String, String> conversionRules = (Map<String, String>) this.context.getObject(CoreConstants.PATTERN_RULE_REGISTRY);
+		assertThat(conversionRules).containsEntry("clr", "org.springframework.boot.logging.logback.ColorConverter");
+		assertThat(this.context.getLogger("org.apache.catalina.startup.DigesterFactory").getLevel()).isEqualTo(Level.ERROR);
+		Logger root = this.context.getLogger(Logger.ROOT_LOGGER_NAME);
+		assertThat(root.getLevel()).isEqualTo(Level.WARN);
+		AsyncAppender async = (AsyncAppender) root.getAppender("ASYNC");
+		assertThat(async.isStarted()).isTrue();
+		assertThat(async.getQueueSize()).isEqualTo(512);
+		ConsoleAppender<?> console = (ConsoleAppender<?>) async.getAppender("CONSOLE");
+		assertThat(console.isStarted()).isTrue();
+		PatternLayoutEncoder encoder = (PatternLayoutEncoder) console.getEncoder();
+		assertThat(encoder.getPattern()).isEqualTo("orders %5p %m%n");
+		assertThat(encoder.getCharset()).isEqualTo(StandardCharsets.UTF_8);
+		assertThat(console.getCopyOfAttachedFiltersList()).hasSize(1).first().isInstanceOf(ThresholdFilter.class);
+		Logger example = this.context.getLogger("com.example");
+		assertThat(example.getLevel()).isEqualTo(Level.DEBUG);
+		assertThat(example.isAdditive()).isFalse();
+		assertThat(example.getAppender("CONSOLE")).isSameAs(console);
+	}
+
+	@Test
+	public void profileSpecificConfigurationIsAppliedForActiveProfiles(@TempDir Path tempDir) throws Exception {
+		this.context.getLogger("org.springframework").setLevel(Level.ERROR);
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.setActiveProfiles("staging");
+		assertThat(configure(tempDir, "logback-spring.xml", environment)).isTrue();
+		assertThat(this.context.getLogger("org.springframework").getLevel()).isNull();
+	}
+
+	@Test
+	public void profileSpecificConfigurationIsSkippedWithoutEnvironment(@TempDir Path tempDir) throws Exception {
+		this.context.getLogger("org.springframework").setLevel(Level.ERROR);
+		assertThat(configure(tempDir, "logback-spring.xml", null)).isTrue();
+		assertThat(this.context.getLogger("org.springframework").getLevel()).isEqualTo(Level.ERROR);
+		assertThat(this.context.getProperty("APP_NAME")).isEqualTo("app");
+	}
+
+	@Test
+	public void otherConfigurationFilesAreLeftToJoran(@TempDir Path tempDir) throws Exception {
+		assertThat(configure(tempDir, "logback.xml", null)).isFalse();
+		assertThat(this.context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC")).isNull();
+	}
+
+	@Test
+	public void scanningConfigurationIsNotEligible() {
+		LogbackConfigurationCodeGenerator codeGenerator = new LogbackConfigurationCodeGenerator(typeSystem, resourceLoader);
+		assertThat(codeGenerator.addConfigurationFile("logback.xml")).isFalse();
+		assertThat(codeGenerator.hasConfigurations()).isFalse();
+	}
+
+	@Test
+	public void missingConfigurationIsIgnored() {
+		LogbackConfigurationCodeGenerator codeGenerator = new LogbackConfigurationCodeGenerator(typeSystem, resourceLoader);
+		assertThat(codeGenerator.addConfigurationFile("logback-test.xml")).isFalse();
+	}
+
+	/**
+	 * Compile the configuration generated for {@code logback-spring.xml} and apply it for the given file, as the
+	 * native image resource that the logging system finds.
+	 */
+	private boolean configure(Path tempDir, String resourceName, Environment environment) throws Exception {
+		LogbackConfigurationCodeGenerator codeGenerator = new LogbackConfigurationCodeGenerator(typeSystem, resourceLoader);
+		assertThat(codeGenerator.addConfigurationFile("logback-spring.xml")).isTrue();
+		ClassLoader classLoader = new TestCompiler(tempDir).compile(codeGenerator.generateStaticLogbackConfiguration());
+		Class<?> staticLogbackConfiguration = classLoader.loadClass(LogbackConfigurationCodeGenerator.STATIC_LOGBACK_CONFIGURATION);
+		Method configure = ReflectionUtils.findMethod(staticLogbackConfiguration, "configure", LoggerContext.class, URL.class, Environment.class);
+		URL url = new URL("resource", null, -1, "/" + resourceName, new URLStreamHandler() {
+
+			@Override
+			protected URLConnection openConnection(URL u) throws IOException {
+				throw new IOException("The generated configuration must not read " + u);
+			}
+
+		});
+		return (boolean) ReflectionUtils.invokeMethod(configure, null, this.context, url, environment);
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.MethodSecurityCodeGenerator.ExpressionCompiler;
+import org.springframework.aot.nativex.fixtures.AccountOwnerService;
+import org.springframework.aot.nativex.fixtures.AccountService;
+import org.springframework.aot.nativex.fixtures.InvoiceService;
+import org.springframework.beans.BeanUtils;
+import org.springframework.nativex.type.Type;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.annotation.SecuredAnnotationSecurityMetadataSource;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.ExpressionBasedAnnotationAttributeFactory;
+import org.springframework.security.access.expression.method.ExpressionBasedPreInvocationAdvice;
+import org.springframework.security.access.method.DelegatingMethodSecurityMetadataSource;
+import org.springframework.security.access.method.MethodSecurityMetadataSource;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.access.prepost.PrePostAnnotationSecurityMetadataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.RememberMeAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MethodSecurityCodeGenerator}.
+ */
+public class MethodSecurityCodeGeneratorTests {
+
+	private static TestTypeSystem typeSystem;
+
+	@BeforeAll
+	public static void setup() {
+		typeSystem = TestTypeSystem.ofTestClassesAnd(PreAuthorize.class);
+	}
+
+	@Test
+	public void methodSecurityCandidates() {
+		assertThat(MethodSecurityCodeGenerator.isMethodSecurityCandidate(resolve(AccountService.class))).isTrue();
+		assertThat(MethodSecurityCodeGenerator.isMethodSecurityCandidate(resolve(AccountOwnerService.class))).isTrue();
+		assertThat(MethodSecurityCodeGenerator.isMethodSecurityCandidate(resolve(InvoiceService.class))).isFalse();
+	}
+
+	@Test
+	public void classesWithCompilableExpressions() {
+		MethodSecurityCodeGenerator codeGenerator = new MethodSecurityCodeGenerator();
+		codeGenerator.addType(resolve(AccountService.class));
+		codeGenerator.addType(resolve(AccountOwnerService.class));
+		assertThat(codeGenerator.hasSecuredTypes()).isTrue();
+		assertThat(codeGenerator.getSecuredTypeNames()).containsExactly(AccountService.class.getName());
+	}
+
+	@Test
+	public void generatedSourceMakesSameDecisionsAsAnnotationSources(@TempDir Path directory) throws Exception {
+		MethodSecurityCodeGenerator codeGenerator = new MethodSecurityCodeGenerator();
+		codeGenerator.addType(resolve(AccountService.class));
+		codeGenerator.addType(resolve(AccountOwnerService.class));
+		ClassLoader classLoader = new TestCompiler(directory).compile(codeGenerator.generateStaticMethodSecurityMetadataSource());
+		DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+		// The sources GlobalMethodSecurityConfiguration configures for prePostEnabled and securedEnabled
+		DelegatingMethodSecurityMetadataSource annotationSource = new DelegatingMethodSecurityMetadataSource(Arrays.asList(
+				new PrePostAnnotationSecurityMetadataSource(new ExpressionBasedAnnotationAttributeFactory(expressionHandler)),
+				new SecuredAnnotationSecurityMetadataSource()));
+		MethodSecurityMetadataSource generatedSource = (MethodSecurityMetadataSource) BeanUtils.instantiateClass(
+				classLoader.loadClass(MethodSecurityCodeGenerator.STATIC_METHOD_SECURITY_METADATA_SOURCE)
+						.getConstructor(DelegatingMethodSecurityMetadataSource.class), annotationSource);
+		ExpressionBasedPreInvocationAdvice advice = new ExpressionBasedPreInvocationAdvice();
+		advice.setExpressionHandler(expressionHandler);
+		Authentication[] authentications = { new TestingAuthenticationToken("alice", "secret", "ROLE_ADMIN"),
+				new TestingAuthenticationToken("bob", "secret", "account's:audit"),
+				new RememberMeAuthenticationToken("key", "carol", AuthorityUtils.createAuthorityList("account:read")),
+				new AnonymousAuthenticationToken("key", "anonymous", AuthorityUtils.createAuthorityList("ROLE_ADMIN")) };
+		for (Class<?> type : new Class<?>[] { AccountService.class, AccountOwnerService.class }) {
+			Class<?> userType = classLoader.loadClass(type.getName());
+			Object target = BeanUtils.instantiateClass(userType);
+			for (Method method : userType.getDeclaredMethods()) {
+				Collection<ConfigAttribute> generatedAttributes = generatedSource.getAttributes(method, userType);
+				Collection<ConfigAttribute> attributes = annotationSource.getAttributes(method, userType);
+				assertThat(String.valueOf(generatedAttributes)).as(method.toString()).isEqualTo(String.valueOf(attributes));
+				if (attributes.isEmpty() || !(attributes.iterator().next() instanceof PreInvocationAttribute)) {
+					continue;
+				}
+				SimpleMethodInvocation invocation = new SimpleMethodInvocation(target, method, arguments(method));
+				for (Authentication authentication : authentications) {
+					assertThat(advice.before(authentication, invocation, (PreInvocationAttribute) generatedAttributes.iterator().next()))
+							.as(method + " for " + authentication.getName())
+							.isEqualTo(advice.before(authentication, invocation, (PreInvocationAttribute) attributes.iterator().next()));
+				}
+			}
+		}
+	}
+
+	private static Object[] arguments(Method method) {
+		Object[] arguments = new Object[method.getParameterCount()];
+		for (int i = 0; i < arguments.length; i++) {
+			arguments[i] = (method.getParameterTypes()[i] == String.class ? "alice" : null);
+		}
+		return arguments;
+	}
+
+	@Test
+	public void compileExpressions() {
+		assertThat(ExpressionCompiler.compile("hasRole('USER')")).hasToString("root.hasRole(\"USER\")");
+		assertThat(ExpressionCompiler.compile(" permitAll() ")).hasToString("root.permitAll()");
+		assertThat(ExpressionCompiler.compile("isAuthenticated() AND (hasAuthority(\"a\") || !hasRole('B'))"))
+				.hasToString("root.isAuthenticated() && (root.hasAuthority(\"a\") || !root.hasRole(\"B\"))");
+		assertThat(ExpressionCompiler.compile("notAnonymous()")).isNull();
+		assertThat(ExpressionCompiler.compile("hasRole('A', 'B')")).isNull();
+		assertThat(ExpressionCompiler.compile("hasPermission(#id, 'read')")).isNull();
+		assertThat(ExpressionCompiler.compile("permitAll")).isNull();
+		assertThat(ExpressionCompiler.compile("hasRole('A') or")).isNull();
+	}
+
+	private static Type resolve(Class<?> type) {
+		return typeSystem.resolveDotted(type.getName());
+	}
+}
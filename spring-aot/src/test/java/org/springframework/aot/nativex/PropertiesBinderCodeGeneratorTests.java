@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.squareup.javapoet.JavaFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.AppProperties;
+import org.springframework.aot.nativex.fixtures.HostsProperties;
+import org.springframework.aot.nativex.fixtures.SelfValidatingProperties;
+import org.springframework.aot.nativex.fixtures.TaskProperties;
+import org.springframework.aot.nativex.fixtures.ValidatedProperties;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.BindException;
+import org.springframework.boot.context.properties.bind.BindHandler;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.handler.IgnoreTopLevelConverterNotFoundBindHandler;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.core.convert.ConverterNotFoundException;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.validation.annotation.Validated;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link PropertiesBinderCodeGenerator}.
+ */
+public class PropertiesBinderCodeGeneratorTests {
+
+	// spring-boot and spring-context for the annotations
+	private final TestTypeSystem typeSystem = TestTypeSystem.ofTestClassesAnd(ConfigurationProperties.class, Validated.class);
+
+	@Test
+	public void javaBeanPropertiesAreEligible() {
+		assertThat(PropertiesBinderCodeGenerator.checkEligibility(typeSystem.resolve(AppProperties.class))).isNull();
+	}
+
+	@Test
+	public void validatedPropertiesAreNotEligible() {
+		assertThat(PropertiesBinderCodeGenerator.checkEligibility(typeSystem.resolve(ValidatedProperties.class))).isEqualTo("is validated");
+	}
+
+	@Test
+	public void selfValidatingPropertiesAreNotEligible() {
+		assertThat(PropertiesBinderCodeGenerator.checkEligibility(typeSystem.resolve(SelfValidatingProperties.class))).isEqualTo("is a validator");
+	}
+
+	@Test
+	public void collectionPropertiesAreNotEligible() {
+		assertThat(PropertiesBinderCodeGenerator.checkEligibility(typeSystem.resolve(HostsProperties.class)))
+				.isEqualTo("property hosts has a generic type");
+	}
+
+	@Test
+	public void ineligibleTypesAreNotBound() {
+		PropertiesBinderCodeGenerator codeGenerator = new PropertiesBinderCodeGenerator();
+		assertThat(codeGenerator.addPropertiesType(typeSystem.resolve(AppProperties.class))).isTrue();
+		assertThat(codeGenerator.addPropertiesType(typeSystem.resolve(HostsProperties.class))).isFalse();
+		assertThat(codeGenerator.getBoundTypeNames()).containsExactlyInAnyOrder(AppProperties.class.getName(),
+				AppProperties.Security.class.getName(), AppProperties.Pool.class.getName());
+	}
+
+	@Test
+	public void generatedBindersBindTheProperties(@TempDir Path tempDir) throws Exception {
+		Map<String, String> properties = new LinkedHashMap<>();
+		properties.put("app.name", "demo");
+		properties.put("app.max-connections", "8");
+		properties.put("app.timeout", "5s");
+		properties.put("app.mode", "safe");
+		properties.put("app.configured", "false");
+		properties.put("app.security.roles", "admin,user");
+		properties.put("app.pool.size", "3");
+		Object app = bind(tempDir, AppProperties.class, properties);
+		assertThat(field(app, "name")).isEqualTo("demo");
+		assertThat(field(app, "maxConnections")).isEqualTo(8);
+		assertThat(field(app, "timeout")).isEqualTo(Duration.ofSeconds(5));
+		assertThat(field(app, "mode")).hasToString("SAFE");
+		assertThat(field(app, "security.roles")).isEqualTo(new String[] { "admin", "user" });
+		assertThat(field(app, "pool.size")).isEqualTo(3);
+	}
+
+	@Test
+	public void nestedPropertiesAreOnlyCreatedWhenBound(@TempDir Path tempDir) throws Exception {
+		Map<String, String> properties = new LinkedHashMap<>();
+		properties.put("app.name", "demo");
+		Object app = bind(tempDir, AppProperties.class, properties);
+		assertThat(field(app, "pool")).isNull();
+	}
+
+	@Test
+	public void valueThatFailsToConvertIsReported(@TempDir Path tempDir) throws Exception {
+		Map<String, String> properties = new LinkedHashMap<>();
+		properties.put("app.max-connections", "many");
+		assertThatThrownBy(() -> bind(tempDir, AppProperties.class, properties)).isInstanceOf(BindException.class)
+				.hasFieldOrPropertyWithValue("name", ConfigurationPropertyName.of("app.max-connections"))
+				.hasCauseInstanceOf(ConversionFailedException.class);
+	}
+
+	@Test
+	public void valueWithoutConverterIsReportedRatherThanIgnoredAtTheTopLevel(@TempDir Path tempDir) throws Exception {
+		Map<String, String> properties = new LinkedHashMap<>();
+		properties.put("task.action", "run");
+		assertThatThrownBy(() -> bind(tempDir, TaskProperties.class, properties)).isInstanceOf(BindException.class)
+				.hasFieldOrPropertyWithValue("name", ConfigurationPropertyName.of("task.action"))
+				.hasCauseInstanceOf(ConverterNotFoundException.class);
+	}
+
+	/**
+	 * Compile the binders generated for the properties type and bind a new instance of it, with the handler that
+	 * {@code ConfigurationPropertiesBinder} uses by default.
+	 */
+	private Object bind(Path tempDir, Class<?> propertiesType, Map<String, String> properties) throws Exception {
+		PropertiesBinderCodeGenerator codeGenerator = new PropertiesBinderCodeGenerator();
+		assertThat(codeGenerator.addPropertiesType(typeSystem.resolve(propertiesType))).isTrue();
+		List<JavaFile> javaFiles = new ArrayList<>(codeGenerator.generatePropertiesBinderClasses());
+		javaFiles.add(codeGenerator.generateStaticPropertiesBinders());
+		ClassLoader classLoader = new TestCompiler(tempDir).compile(javaFiles);
+		Class<?> staticPropertiesBinders = classLoader.loadClass(PropertiesBinderCodeGenerator.STATIC_PROPERTIES_BINDERS);
+		Object target = BeanUtils.instantiateClass(classLoader.loadClass(propertiesType.getName()));
+		Method isSupported = ReflectionUtils.findMethod(staticPropertiesBinders, "isSupported", Class.class);
+		assertThat(ReflectionUtils.invokeMethod(isSupported, null, target.getClass())).isEqualTo(true);
+		Method bind = ReflectionUtils.findMethod(staticPropertiesBinders, "bind", Binder.class, ConfigurationPropertyName.class,
+				BindHandler.class, Object.class);
+		String prefix = propertiesType.getAnnotation(ConfigurationProperties.class).value();
+		ReflectionUtils.invokeMethod(bind, null, new Binder(new MapConfigurationPropertySource(properties)),
+				ConfigurationPropertyName.of(prefix), new IgnoreTopLevelConverterNotFoundBindHandler(), target);
+		return target;
+	}
+
+	private static Object field(Object target, String name) {
+		return new DirectFieldAccessor(target).getPropertyValue(name);
+	}
+
+}
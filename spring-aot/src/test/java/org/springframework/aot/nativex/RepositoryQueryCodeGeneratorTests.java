@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.aot.nativex;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.Customer;
+import org.springframework.aot.nativex.fixtures.InvalidOrderRepository;
+import org.springframework.aot.nativex.fixtures.Order;
+import org.springframework.aot.nativex.fixtures.OrderRepository;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.nativex.type.Type;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link RepositoryQueryCodeGenerator}.
+ */
+public class RepositoryQueryCodeGeneratorTests {
+
+	// spring-data-commons for the repository interfaces and annotations
+	private final TestTypeSystem typeSystem = TestTypeSystem.ofTestClassesAnd(Repository.class);
+
+	@Test
+	public void repositoriesAreDetected() {
+		assertThat(RepositoryQueryCodeGenerator.isRepository(resolve(OrderRepository.class))).isTrue();
+		assertThat(RepositoryQueryCodeGenerator.isRepository(resolve(Repository.class))).isFalse();
+		assertThat(RepositoryQueryCodeGenerator.isRepository(resolve(Order.class))).isFalse();
+	}
+
+	@Test
+	public void resolvePropertyPathsAsSpringDataDoes() {
+		RepositoryQueryCodeGenerator codeGenerator = new RepositoryQueryCodeGenerator(typeSystem);
+		assertThat(codeGenerator.addRepository(resolve(OrderRepository.class))).isTrue();
+		assertThat(codeGenerator.getInvalidQueries()).isEmpty();
+		Map<String, String> propertyPaths = codeGenerator.getPropertyPaths().get(Order.class.getName());
+		assertThat(propertyPaths).containsOnly(entry("customerFirstName", "customer.firstName"),
+				entry("customerAddressZipCode", "customer.address.zipCode"),
+				entry("lineItemsProductCode", "lineItems.productCode"), entry("CustomerLastName", "customer.lastName"),
+				entry("customerFullName", "customer.fullName"), entry("customerAddressCity", "customer.address.city"));
+		propertyPaths.forEach((source, path) -> assertThat(PropertyPath.from(path, Order.class))
+				.isEqualTo(PropertyPath.from(source, Order.class)));
+		for (String methodName : new String[] { "findByCustomerFirstName", "findByCustomerAddressZipCodeAndStatusIgnoreCase",
+				"findDistinctTop3ByLineItemsProductCodeOrderByCustomerLastNameDescIdAsc", "countByCustomerFullNameContainingAllIgnoreCase",
+				"existsByStatusNotInOrCustomerAddressCityIsNull" }) {
+			new PartTree(methodName, Order.class);
+		}
+	}
+
+	@Test
+	public void reportInvalidQueries() {
+		RepositoryQueryCodeGenerator codeGenerator = new RepositoryQueryCodeGenerator(typeSystem);
+		assertThat(codeGenerator.addRepository(resolve(InvalidOrderRepository.class))).isTrue();
+		String repositoryName = InvalidOrderRepository.class.getName();
+		assertThat(codeGenerator.getInvalidQueries()).containsExactlyInAnyOrder(
+				repositoryName + ".findByCustomerFirstNme: No property firstNme found for type Customer",
+				repositoryName + ".findByStatusOrderByStatusOrderById: OrderBy must not be used more than once in a method name");
+		assertThat(codeGenerator.getPropertyPaths().get(Order.class.getName()))
+				.containsOnly(entry("lineItemsQuantity", "lineItems.quantity"));
+		assertThatExceptionOfType(PropertyReferenceException.class).isThrownBy(() -> new PartTree("findByCustomerFirstNme", Order.class));
+		assertThatIllegalArgumentException().isThrownBy(() -> new PartTree("findByStatusOrderByStatusOrderById", Order.class));
+	}
+
+	@Test
+	public void generatedPathsResolveToTheSpringDataPropertyPaths(@TempDir Path tempDir) throws Exception {
+		RepositoryQueryCodeGenerator codeGenerator = new RepositoryQueryCodeGenerator(typeSystem);
+		assertThat(codeGenerator.addRepository(resolve(OrderRepository.class))).isTrue();
+		ClassLoader classLoader = new TestCompiler(tempDir).compile(codeGenerator.generateStaticRepositoryQueries());
+		Class<?> staticRepositoryQueries = classLoader.loadClass(RepositoryQueryCodeGenerator.STATIC_REPOSITORY_QUERIES);
+		Method getPropertyPath = ReflectionUtils.findMethod(staticRepositoryQueries, "getPropertyPath", Class.class, String.class);
+		// The property references of the derived queries of OrderRepository, as PartTree gives them to PropertyPath
+		for (String source : new String[] { "customerFirstName", "customerAddressZipCode", "lineItemsProductCode",
+				"CustomerLastName", "customerFullName", "customerAddressCity" }) {
+			String path = (String) ReflectionUtils.invokeMethod(getPropertyPath, null, Order.class, source);
+			assertThat(path).as(source).isNotNull();
+			// What the PropertyPath substitution resolves
+			PropertyPath propertyPath = PropertyPath.from(path, Order.class);
+			assertThat(propertyPath).isEqualTo(PropertyPath.from(source, Order.class));
+			assertThat(propertyPath.toDotPath()).isEqualTo(PropertyPath.from(source, Order.class).toDotPath());
+		}
+		assertThat(ReflectionUtils.invokeMethod(getPropertyPath, null, Order.class, "customerPhone")).isNull();
+		assertThat(ReflectionUtils.invokeMethod(getPropertyPath, null, Customer.class, "addressCity")).isNull();
+	}
+
+	private Type resolve(Class<?> clazz) {
+		return typeSystem.resolve(clazz);
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.ArchivedInventoryController;
+import org.springframework.aot.nativex.fixtures.CustomerController;
+import org.springframework.aot.nativex.fixtures.InventoryController;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
+import org.springframework.nativex.hint.Flag;
+import org.springframework.nativex.type.Type;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.HandlerTypePredicate;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RequestMappingCodeGenerator}.
+ */
+public class RequestMappingCodeGeneratorTests {
+
+	private static TestTypeSystem typeSystem;
+
+	@BeforeAll
+	public static void setup() {
+		// spring-context and spring-web for the stereotypes and the mapping annotations
+		typeSystem = TestTypeSystem.ofTestClassesAnd(Controller.class, RestController.class);
+	}
+
+	@Test
+	public void controllersWithDeclaredMappings() {
+		RequestMappingCodeGenerator codeGenerator = new RequestMappingCodeGenerator(typeSystem);
+		codeGenerator.addType(resolve(InventoryController.class));
+		codeGenerator.addType(resolve(CustomerController.class));
+		codeGenerator.addType(resolve(ArchivedInventoryController.class));
+		assertThat(codeGenerator.hasControllers()).isTrue();
+		assertThat(codeGenerator.getControllerNames()).containsExactly(CustomerController.class.getName(),
+				InventoryController.class.getName());
+	}
+
+	@Test
+	public void generatedHandlerMappingRegistersSameMappings(@TempDir Path directory) throws Exception {
+		ClassLoader classLoader = compileStaticRequestMappings(directory);
+		Map<String, String> generatedMappings = registeredMappings(generatedHandlerMapping(classLoader), classLoader,
+				InventoryController.class, CustomerController.class);
+		assertThat(generatedMappings).isEqualTo(registeredMappings(new RequestMappingHandlerMapping(), classLoader,
+				InventoryController.class, CustomerController.class));
+		assertThat(generatedMappings.values()).anyMatch(method -> method.contains("InventoryController.search("))
+				.anyMatch(method -> method.contains("CustomerController.create("))
+				.noneMatch(method -> method.contains("InventoryController.handle("))
+				.noneMatch(method -> method.contains("InventoryController.count("));
+	}
+
+	@Test
+	public void generatedHandlerMappingIntrospectsControllersNotCovered(@TempDir Path directory) throws Exception {
+		ClassLoader classLoader = compileStaticRequestMappings(directory);
+		Map<String, String> generatedMappings = registeredMappings(generatedHandlerMapping(classLoader), classLoader,
+				ArchivedInventoryController.class);
+		assertThat(generatedMappings).isEqualTo(registeredMappings(new RequestMappingHandlerMapping(), classLoader,
+				ArchivedInventoryController.class));
+		assertThat(generatedMappings.values()).anyMatch(method -> method.contains("ArchivedInventoryController.archived("))
+				.anyMatch(method -> method.contains("InventoryController.get("));
+	}
+
+	@Test
+	public void generatedHandlerMappingAppliesPathPrefixes(@TempDir Path directory) throws Exception {
+		ClassLoader classLoader = compileStaticRequestMappings(directory);
+		RequestMappingHandlerMapping generatedHandlerMapping = generatedHandlerMapping(classLoader);
+		generatedHandlerMapping.setPathPrefixes(Collections.singletonMap("/api", HandlerTypePredicate.forAnnotation(RestController.class)));
+		RequestMappingHandlerMapping handlerMapping = new RequestMappingHandlerMapping();
+		handlerMapping.setPathPrefixes(Collections.singletonMap("/api", HandlerTypePredicate.forAnnotation(RestController.class)));
+		Map<String, String> generatedMappings = registeredMappings(generatedHandlerMapping, classLoader, InventoryController.class);
+		assertThat(generatedMappings).isEqualTo(registeredMappings(handlerMapping, classLoader, InventoryController.class));
+		assertThat(generatedMappings.keySet()).anyMatch(info -> info.contains("/api/inventory/{sku}"));
+	}
+
+	@Test
+	public void restrictReflectionToAnnotatedMethods() {
+		RequestMappingCodeGenerator codeGenerator = new RequestMappingCodeGenerator(typeSystem);
+		codeGenerator.addType(resolve(InventoryController.class));
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		ClassDescriptor classDescriptor = ClassDescriptor.of(InventoryController.class.getName());
+		classDescriptor.setFlag(Flag.allDeclaredConstructors);
+		classDescriptor.setFlag(Flag.allDeclaredMethods);
+		classDescriptor.setFlag(Flag.allPublicMethods);
+		reflectionDescriptor.add(classDescriptor);
+		assertThat(codeGenerator.restrictReflection(reflectionDescriptor)).containsExactly(InventoryController.class.getName());
+		assertThat(classDescriptor.getFlags()).containsExactly(Flag.allDeclaredConstructors);
+		assertThat(classDescriptor.contains(MethodDescriptor.of("get", new String[] { "java.lang.String" }))).isTrue();
+		assertThat(classDescriptor.contains(MethodDescriptor.of("search", new String[] { InventoryController.class.getName() + "$Filter", "int[]" }))).isTrue();
+		assertThat(classDescriptor.contains(MethodDescriptor.of("handle", new String[] { "java.lang.IllegalStateException" }))).isTrue();
+		assertThat(classDescriptor.contains(MethodDescriptor.of("count", new String[0]))).isFalse();
+	}
+
+	@Test
+	public void noControllersForInheritedMappings() {
+		RequestMappingCodeGenerator codeGenerator = new RequestMappingCodeGenerator(typeSystem);
+		codeGenerator.addType(resolve(ArchivedInventoryController.class));
+		assertThat(codeGenerator.hasControllers()).isFalse();
+	}
+
+	private static ClassLoader compileStaticRequestMappings(Path directory) throws Exception {
+		RequestMappingCodeGenerator codeGenerator = new RequestMappingCodeGenerator(typeSystem);
+		codeGenerator.addType(resolve(InventoryController.class));
+		codeGenerator.addType(resolve(CustomerController.class));
+		codeGenerator.addType(resolve(ArchivedInventoryController.class));
+		return new TestCompiler(directory).compile(codeGenerator.generateStaticRequestMappings());
+	}
+
+	private static RequestMappingHandlerMapping generatedHandlerMapping(ClassLoader classLoader) throws Exception {
+		WebMvcRegistrations registrations = (WebMvcRegistrations) BeanUtils.instantiateClass(
+				classLoader.loadClass(RequestMappingCodeGenerator.STATIC_REQUEST_MAPPINGS));
+		return registrations.getRequestMappingHandlerMapping();
+	}
+
+	// The handler methods registered for the controllers, by mapping
+	private static Map<String, String> registeredMappings(RequestMappingHandlerMapping handlerMapping, ClassLoader classLoader,
+			Class<?>... controllers) throws Exception {
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			for (Class<?> controller : controllers) {
+				context.registerBean(classLoader.loadClass(controller.getName()));
+			}
+			context.registerBean("handlerMapping", RequestMappingHandlerMapping.class, () -> handlerMapping);
+			context.refresh();
+			Map<String, String> mappings = new TreeMap<>();
+			handlerMapping.getHandlerMethods().forEach((info, handlerMethod) ->
+					mappings.put(info.toString(), handlerMethod.getBean() + " " + handlerMethod.getMethod()));
+			return mappings;
+		}
+	}
+
+	private static Type resolve(Class<?> type) {
+		return typeSystem.resolveDotted(type.getName());
+	}
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.InvoiceService;
+import org.springframework.aot.nativex.fixtures.OrderEventListener;
+import org.springframework.aot.nativex.fixtures.ReportScheduler;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.event.BuildTimeEventListenerMethodProcessor;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.nativex.BuildTimeScheduledAnnotationBeanPostProcessor;
+import org.springframework.nativex.type.Type;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import org.springframework.scheduling.config.CronTask;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTask;
+import org.springframework.scheduling.config.Task;
+import org.springframework.scheduling.config.TaskManagementConfigUtils;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ScheduledAndEventListenerMethodsCodeGenerator}.
+ */
+public class ScheduledAndEventListenerMethodsCodeGeneratorTests {
+
+	private static TestTypeSystem typeSystem;
+
+	@BeforeAll
+	public static void setup() {
+		typeSystem = TestTypeSystem.ofTestClassesAnd(Scheduled.class, TransactionalEventListener.class);
+	}
+
+	@Test
+	public void annotatedMethods() {
+		ScheduledAndEventListenerMethodsCodeGenerator codeGenerator = new ScheduledAndEventListenerMethodsCodeGenerator();
+		assertThat(codeGenerator.addType(resolve(ReportScheduler.class))).isTrue();
+		assertThat(codeGenerator.addType(resolve(OrderEventListener.class))).isTrue();
+		assertThat(codeGenerator.addType(resolve(InvoiceService.class))).isFalse();
+		assertThat(codeGenerator.getScheduledMethods()).containsOnlyKeys(ReportScheduler.class.getName());
+		assertThat(codeGenerator.getScheduledMethods().get(ReportScheduler.class.getName()))
+				.extracting(org.springframework.nativex.type.Method::getName).containsExactly("refresh", "publish");
+		assertThat(codeGenerator.getEventListenerMethods()).containsOnlyKeys(OrderEventListener.class.getName());
+		assertThat(codeGenerator.getEventListenerMethods().get(OrderEventListener.class.getName()))
+				.extracting(org.springframework.nativex.type.Method::getName).containsExactly("onOrder", "onOrders");
+	}
+
+	@Test
+	public void generatedClassReturnsAnnotatedMethods(@TempDir Path directory) throws Exception {
+		ClassLoader classLoader = compile(directory);
+		Class<?> generatedClass = classLoader.loadClass(ScheduledAndEventListenerMethodsCodeGenerator.STATIC_SCHEDULED_AND_EVENT_LISTENER_METHODS);
+		Function<Class<?>, Method[]> scheduledMethods = lookup(generatedClass, "getScheduledMethods");
+		Function<Class<?>, Method[]> eventListenerMethods = lookup(generatedClass, "getEventListenerMethods");
+		Class<?> reportScheduler = classLoader.loadClass(ReportScheduler.class.getName());
+		Class<?> orderEventListener = classLoader.loadClass(OrderEventListener.class.getName());
+		assertThat(scheduledMethods.apply(reportScheduler)).extracting(Method::getName).containsExactly("refresh", "publish");
+		assertThat(eventListenerMethods.apply(reportScheduler)).isEmpty();
+		assertThat(eventListenerMethods.apply(orderEventListener)).extracting(Method::getName).containsExactly("onOrder", "onOrders");
+		assertThat(scheduledMethods.apply(classLoader.loadClass(InvoiceService.class.getName()))).isEmpty();
+		assertThat(scheduledMethods.apply(Object.class)).isEmpty();
+		// The supertypes of a class from a package that was not scanned are unknown
+		assertThat(scheduledMethods.apply(GenericApplicationContext.class)).isNull();
+	}
+
+	@Test
+	public void buildTimeProcessorsRegisterSameTasksAndListeners(@TempDir Path directory) throws Exception {
+		ClassLoader classLoader = compile(directory);
+		Class<?> generatedClass = classLoader.loadClass(ScheduledAndEventListenerMethodsCodeGenerator.STATIC_SCHEDULED_AND_EVENT_LISTENER_METHODS);
+		Registrations generated = refresh(classLoader, generatedClass);
+		Registrations regular = refresh(classLoader, null);
+		assertThat(generated.scheduledTasks).isEqualTo(regular.scheduledTasks)
+				.containsExactly("publish 0 0 * * * *", "publish 0 30 * * * *", "refresh 60000");
+		assertThat(generated.eventListeners).isEqualTo(regular.eventListeners).hasSize(2);
+		assertThat(generated.eventListeners.get(0)).startsWith(OrderEventListener.class.getName() + ".onOrder(");
+		assertThat(generated.eventListeners.get(1)).startsWith(OrderEventListener.class.getName() + ".onOrders(");
+	}
+
+	private ClassLoader compile(Path directory) throws Exception {
+		ScheduledAndEventListenerMethodsCodeGenerator codeGenerator = new ScheduledAndEventListenerMethodsCodeGenerator();
+		for (Class<?> type : new Class<?>[] { ReportScheduler.class, OrderEventListener.class, InvoiceService.class }) {
+			codeGenerator.addType(resolve(type));
+		}
+		return new TestCompiler(directory).compile(codeGenerator.generateStaticScheduledAndEventListenerMethods());
+	}
+
+	// Refresh a context with the annotated beans, replacing the processors as BuildTimeScheduledAndEventListenersInitializer does
+	private static Registrations refresh(ClassLoader classLoader, Class<?> generatedClass) throws Exception {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.register(SchedulingConfiguration.class);
+			for (Class<?> type : new Class<?>[] { ReportScheduler.class, OrderEventListener.class, InvoiceService.class }) {
+				context.registerBean(classLoader.loadClass(type.getName()));
+			}
+			if (generatedClass != null) {
+				Function<Class<?>, Method[]> scheduledMethods = lookup(generatedClass, "getScheduledMethods");
+				Function<Class<?>, Method[]> eventListenerMethods = lookup(generatedClass, "getEventListenerMethods");
+				context.addBeanFactoryPostProcessor(beanFactory -> {
+					BeanDefinitionRegistry registry = (BeanDefinitionRegistry) beanFactory;
+					replace(registry, TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME, new RootBeanDefinition(
+							BuildTimeScheduledAnnotationBeanPostProcessor.class, () -> new BuildTimeScheduledAnnotationBeanPostProcessor(scheduledMethods)));
+					replace(registry, AnnotationConfigUtils.EVENT_LISTENER_PROCESSOR_BEAN_NAME, new RootBeanDefinition(
+							BuildTimeEventListenerMethodProcessor.class, () -> new BuildTimeEventListenerMethodProcessor(eventListenerMethods)));
+				});
+			}
+			context.refresh();
+			ScheduledAnnotationBeanPostProcessor scheduledProcessor = context.getBean(
+					TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME, ScheduledAnnotationBeanPostProcessor.class);
+			assertThat(scheduledProcessor instanceof BuildTimeScheduledAnnotationBeanPostProcessor).isEqualTo(generatedClass != null);
+			assertThat(context.getBean(AnnotationConfigUtils.EVENT_LISTENER_PROCESSOR_BEAN_NAME) instanceof BuildTimeEventListenerMethodProcessor)
+					.isEqualTo(generatedClass != null);
+			Registrations registrations = new Registrations();
+			for (ScheduledTask scheduledTask : scheduledProcessor.getScheduledTasks()) {
+				registrations.scheduledTasks.add(describe(scheduledTask.getTask()));
+			}
+			for (ApplicationListener<?> listener : context.getApplicationListeners()) {
+				if (listener instanceof ApplicationListenerMethodAdapter) {
+					registrations.eventListeners.add(((ApplicationListenerMethodAdapter) listener).getListenerId());
+				}
+			}
+			Collections.sort(registrations.scheduledTasks);
+			Collections.sort(registrations.eventListeners);
+			return registrations;
+		}
+	}
+
+	private static Function<Class<?>, Method[]> lookup(Class<?> generatedClass, String methodName) {
+		Method method = ReflectionUtils.findMethod(generatedClass, methodName, Class.class);
+		return clazz -> (Method[]) ReflectionUtils.invokeMethod(method, null, clazz);
+	}
+
+	private static void replace(BeanDefinitionRegistry registry, String beanName, RootBeanDefinition replacement) {
+		replacement.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+		registry.removeBeanDefinition(beanName);
+		registry.registerBeanDefinition(beanName, replacement);
+	}
+
+	private static String describe(Task task) {
+		Method method = ((ScheduledMethodRunnable) task.getRunnable()).getMethod();
+		String trigger = (task instanceof CronTask) ? ((CronTask) task).getExpression() : String.valueOf(((IntervalTask) task).getInterval());
+		return method.getName() + " " + trigger;
+	}
+
+	private static Type resolve(Class<?> type) {
+		return typeSystem.resolveDotted(type.getName());
+	}
+
+	static class Registrations {
+
+		final List<String> scheduledTasks = new ArrayList<>();
+
+		final List<String> eventListeners = new ArrayList<>();
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableScheduling
+	static class SchedulingConfiguration {
+
+	}
+}
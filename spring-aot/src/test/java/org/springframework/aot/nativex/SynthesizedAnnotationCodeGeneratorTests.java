@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.squareup.javapoet.JavaFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.Foo;
+import org.springframework.aot.nativex.fixtures.MappedController;
+import org.springframework.aot.nativex.fixtures.Mapping;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.annotation.SynthesizedAnnotation;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SynthesizedAnnotationCodeGenerator}.
+ */
+public class SynthesizedAnnotationCodeGeneratorTests {
+
+	// spring-core for @AliasFor
+	private final TestTypeSystem typeSystem = TestTypeSystem.ofTestClassesAnd(AliasFor.class);
+
+	@Test
+	public void annotationIsEligible() {
+		assertThat(SynthesizedAnnotationCodeGenerator.checkEligibility(typeSystem.resolve(Mapping.class))).isNull();
+	}
+
+	@Test
+	public void classIsNotEligible() {
+		assertThat(SynthesizedAnnotationCodeGenerator.checkEligibility(typeSystem.resolve(Foo.class))).isEqualTo("not an annotation type");
+	}
+
+	@Test
+	public void ineligibleTypesAreNotImplemented() {
+		SynthesizedAnnotationCodeGenerator codeGenerator = new SynthesizedAnnotationCodeGenerator();
+		assertThat(codeGenerator.addAnnotationType(typeSystem.resolve(Foo.class))).isFalse();
+		assertThat(codeGenerator.hasImplementations()).isFalse();
+	}
+
+	@Test
+	public void generatedImplementationHonorsAliases(@TempDir Path tempDir) throws Exception {
+		ClassLoader classLoader = compile(tempDir);
+		Class<? extends Annotation> mappingType = loadAnnotation(classLoader, Mapping.class);
+		Annotation mapping = synthesize(classLoader, MergedAnnotations.from(classLoader.loadClass(MappedController.class.getName())).get(mappingType));
+		assertThat(mapping).isInstanceOf(mappingType).isInstanceOf(SynthesizedAnnotation.class);
+		assertThat(mapping.getClass().getName()).isEqualTo(Mapping.class.getPackage().getName() + "._SynthesizedAnnotations$SynthesizedMapping");
+		assertThat(mapping.annotationType()).isEqualTo(mappingType);
+		assertThat(attribute(mapping, "value")).isEqualTo(new String[] { "/orders" });
+		assertThat(attribute(mapping, "path")).isEqualTo(new String[] { "/orders" });
+		assertThat(attribute(mapping, "mode")).hasToString("STRICT");
+		assertThat(attribute(mapping, "type")).isEqualTo(Integer.class);
+		assertThat(attribute(mapping, "order")).isEqualTo(2);
+		assertThat(attribute(mapping, "weight")).isEqualTo(1.0d);
+		Object[] headers = (Object[]) attribute(mapping, "headers");
+		assertThat(headers).hasSize(1);
+		assertThat(headers[0]).isInstanceOf(loadAnnotation(classLoader, Mapping.Header.class));
+		assertThat(attribute(headers[0], "name")).isEqualTo("Accept");
+	}
+
+	@Test
+	public void generatedImplementationReturnsCopiesOfArrays(@TempDir Path tempDir) throws Exception {
+		ClassLoader classLoader = compile(tempDir);
+		Class<? extends Annotation> mappingType = loadAnnotation(classLoader, Mapping.class);
+		Annotation mapping = synthesize(classLoader, MergedAnnotations.from(classLoader.loadClass(MappedController.class.getName())).get(mappingType));
+		((String[]) attribute(mapping, "value"))[0] = "/changed";
+		assertThat(attribute(mapping, "value")).isEqualTo(new String[] { "/orders" });
+	}
+
+	@Test
+	public void generatedImplementationEqualsTheSynthesizedProxy(@TempDir Path tempDir) throws Exception {
+		ClassLoader classLoader = compile(tempDir);
+		Class<? extends Annotation> mappingType = loadAnnotation(classLoader, Mapping.class);
+		MergedAnnotation<? extends Annotation> merged = MergedAnnotations.from(classLoader.loadClass(MappedController.class.getName())).get(mappingType);
+		Annotation mapping = synthesize(classLoader, merged);
+		Annotation proxy = merged.synthesize();
+		assertThat(mapping).isNotSameAs(proxy).isEqualTo(proxy);
+		assertThat(proxy).isEqualTo(mapping);
+		assertThat(mapping.hashCode()).isEqualTo(proxy.hashCode());
+		Annotation defaults = synthesize(classLoader, MergedAnnotation.of(mappingType));
+		assertThat(defaults).isNotEqualTo(mapping);
+		assertThat(defaults.hashCode()).isEqualTo(MergedAnnotation.of(mappingType).synthesize().hashCode());
+	}
+
+	@Test
+	public void otherAnnotationsAreLeftToTheProxy(@TempDir Path tempDir) throws Exception {
+		ClassLoader classLoader = compile(tempDir);
+		assertThat(synthesize(classLoader, MergedAnnotation.of(Deprecated.class))).isNull();
+	}
+
+	private ClassLoader compile(Path tempDir) throws Exception {
+		SynthesizedAnnotationCodeGenerator codeGenerator = new SynthesizedAnnotationCodeGenerator();
+		assertThat(codeGenerator.addAnnotationType(typeSystem.resolve(Mapping.class))).isTrue();
+		assertThat(codeGenerator.addAnnotationType(typeSystem.resolve(Mapping.Header.class))).isTrue();
+		List<JavaFile> javaFiles = new ArrayList<>(codeGenerator.generateSynthesizedAnnotationClasses());
+		javaFiles.add(codeGenerator.generateStaticSynthesizedAnnotations());
+		return new TestCompiler(tempDir).compile(javaFiles);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Annotation> loadAnnotation(ClassLoader classLoader, Class<? extends Annotation> type) throws ClassNotFoundException {
+		return (Class<? extends Annotation>) classLoader.loadClass(type.getName());
+	}
+
+	private static Annotation synthesize(ClassLoader classLoader, MergedAnnotation<?> annotation) throws ClassNotFoundException {
+		Class<?> staticSynthesizedAnnotations = classLoader.loadClass(SynthesizedAnnotationCodeGenerator.STATIC_SYNTHESIZED_ANNOTATIONS);
+		Method synthesize = ReflectionUtils.findMethod(staticSynthesizedAnnotations, "synthesize", MergedAnnotation.class);
+		return (Annotation) ReflectionUtils.invokeMethod(synthesize, null, annotation);
+	}
+
+	private static Object attribute(Object annotation, String name) {
+		Method method = ReflectionUtils.findMethod(annotation.getClass(), name);
+		ReflectionUtils.makeAccessible(method);
+		return ReflectionUtils.invokeMethod(method, annotation);
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.ArchivingInvoiceService;
+import org.springframework.aot.nativex.fixtures.InvoiceService;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.nativex.type.Type;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TransactionAttributeCodeGenerator}.
+ */
+public class TransactionAttributeCodeGeneratorTests {
+
+	private static TestTypeSystem typeSystem;
+
+	@BeforeAll
+	public static void setup() {
+		typeSystem = TestTypeSystem.ofTestClassesAnd(Transactional.class);
+	}
+
+	@Test
+	public void transactionalCandidates() {
+		assertThat(TransactionAttributeCodeGenerator.isTransactionalCandidate(resolve(InvoiceService.class))).isTrue();
+		assertThat(TransactionAttributeCodeGenerator.isTransactionalCandidate(resolve(ArchivingInvoiceService.class))).isTrue();
+		assertThat(TransactionAttributeCodeGenerator.isTransactionalCandidate(resolve(Transactional.class))).isFalse();
+	}
+
+	@Test
+	public void classesDeclaringTheirAnnotations() {
+		TransactionAttributeCodeGenerator codeGenerator = new TransactionAttributeCodeGenerator();
+		codeGenerator.addType(resolve(InvoiceService.class));
+		codeGenerator.addType(resolve(ArchivingInvoiceService.class));
+		assertThat(codeGenerator.hasTransactionalTypes()).isTrue();
+		assertThat(codeGenerator.getTransactionalTypeNames()).containsExactly(InvoiceService.class.getName());
+	}
+
+	@Test
+	public void generatedSourceReturnsSameAttributesAsAnnotationSource(@TempDir Path directory) throws Exception {
+		TransactionAttributeCodeGenerator codeGenerator = new TransactionAttributeCodeGenerator();
+		codeGenerator.addType(resolve(InvoiceService.class));
+		codeGenerator.addType(resolve(ArchivingInvoiceService.class));
+		ClassLoader classLoader = new TestCompiler(directory).compile(codeGenerator.generateStaticTransactionAttributeSource());
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			context.getEnvironment().getPropertySources().addFirst(
+					new MapPropertySource("test", Collections.singletonMap("invoices.timeout", "45")));
+			context.registerBean("generatedSource", TransactionAttributeSource.class, () -> (TransactionAttributeSource) BeanUtils
+					.instantiateClass(classLoader.loadClass(TransactionAttributeCodeGenerator.STATIC_TRANSACTION_ATTRIBUTE_SOURCE)));
+			context.registerBean("annotationSource", AnnotationTransactionAttributeSource.class);
+			context.refresh();
+			TransactionAttributeSource generatedSource = context.getBean("generatedSource", TransactionAttributeSource.class);
+			TransactionAttributeSource annotationSource = context.getBean("annotationSource", TransactionAttributeSource.class);
+			for (Class<?> type : new Class<?>[] { InvoiceService.class, ArchivingInvoiceService.class }) {
+				Class<?> userType = classLoader.loadClass(type.getName());
+				for (Method method : userType.getMethods()) {
+					assertThat(describe(generatedSource.getTransactionAttribute(method, userType)))
+							.as(method.toString())
+							.isEqualTo(describe(annotationSource.getTransactionAttribute(method, userType)));
+				}
+			}
+			Class<?> invoiceService = classLoader.loadClass(InvoiceService.class.getName());
+			TransactionAttribute cancel = generatedSource.getTransactionAttribute(
+					invoiceService.getMethod("cancel", String.class), invoiceService);
+			assertThat(cancel.getTimeout()).isEqualTo(45);
+			TransactionAttribute find = generatedSource.getTransactionAttribute(
+					invoiceService.getMethod("find", String.class), invoiceService);
+			assertThat(find.isReadOnly()).isTrue();
+		}
+	}
+
+	// What the transaction interceptor uses from an attribute
+	private static String describe(TransactionAttribute attribute) {
+		if (attribute == null) {
+			return "none";
+		}
+		StringBuilder description = new StringBuilder(attribute.toString())
+				.append(" timeout=").append(attribute.getTimeout())
+				.append(" labels=").append(attribute.getLabels());
+		for (Throwable ex : new Throwable[] { new IOException(), new IllegalStateException(), new IllegalArgumentException(),
+				new RuntimeException(), new Exception(), new Error() }) {
+			description.append(" ").append(ex.getClass().getSimpleName()).append("=").append(attribute.rollbackOn(ex));
+		}
+		return description.toString();
+	}
+
+	private static Type resolve(Class<?> type) {
+		return typeSystem.resolveDotted(type.getName());
+	}
+}
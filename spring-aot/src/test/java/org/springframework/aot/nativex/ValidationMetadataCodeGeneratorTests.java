@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotBlank;
+
+import org.hibernate.validator.internal.constraintvalidators.bv.EmailValidator;
+import org.hibernate.validator.internal.constraintvalidators.bv.NotBlankValidator;
+import org.hibernate.validator.internal.constraintvalidators.bv.number.bound.MaxValidatorForLong;
+import org.hibernate.validator.internal.constraintvalidators.bv.number.bound.MinValidatorForLong;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aot.TestCompiler;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.aot.nativex.fixtures.CreateOrderRequest;
+import org.springframework.aot.nativex.fixtures.Order;
+import org.springframework.aot.nativex.fixtures.OrderController;
+import org.springframework.aot.nativex.fixtures.PricingService;
+import org.springframework.aot.nativex.fixtures.ShippingDetails;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
+import org.springframework.nativex.type.Type;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ValidationMetadataCodeGenerator}.
+ */
+public class ValidationMetadataCodeGeneratorTests {
+
+	private static TestTypeSystem typeSystem;
+
+	@BeforeAll
+	public static void setup() {
+		// spring-context and spring-web for the stereotypes, validation-api and hibernate-validator for the constraints
+		typeSystem = TestTypeSystem.ofTestClassesAnd(Controller.class, RestController.class, Validator.class, EmailValidator.class);
+	}
+
+	@Test
+	public void validationCandidatesAreDetected() {
+		ValidationMetadataCodeGenerator codeGenerator = new ValidationMetadataCodeGenerator(typeSystem);
+		assertThat(codeGenerator.isValidationCandidate(resolve(OrderController.class))).isTrue();
+		assertThat(codeGenerator.isValidationCandidate(resolve(PricingService.class))).isTrue();
+		assertThat(codeGenerator.isValidationCandidate(resolve(ShippingDetails.class))).isTrue();
+		assertThat(codeGenerator.isValidationCandidate(resolve(Order.class))).isFalse();
+	}
+
+	@Test
+	public void validatedTypesFollowCascades() {
+		ValidationMetadataCodeGenerator codeGenerator = new ValidationMetadataCodeGenerator(typeSystem);
+		codeGenerator.addType(resolve(OrderController.class));
+		assertThat(codeGenerator.getValidatedTypeNames()).containsExactly(CreateOrderRequest.class.getName(),
+				ShippingDetails.class.getName());
+	}
+
+	@Test
+	public void usedConstraintsIncludeTypeAndParameterConstraints() {
+		ValidationMetadataCodeGenerator codeGenerator = new ValidationMetadataCodeGenerator(typeSystem);
+		for (Class<?> type : new Class<?>[] { OrderController.class, PricingService.class, CreateOrderRequest.class, ShippingDetails.class }) {
+			codeGenerator.addType(resolve(type));
+		}
+		assertThat(codeGenerator.getUsedConstraints()).containsOnly("javax.validation.constraints.Min",
+				"javax.validation.constraints.NotBlank", "javax.validation.constraints.NotNull",
+				"javax.validation.constraints.Pattern", "javax.validation.constraints.Size");
+	}
+
+	@Test
+	public void restrictReflectionToUsedConstraints() {
+		ValidationMetadataCodeGenerator codeGenerator = new ValidationMetadataCodeGenerator(typeSystem);
+		codeGenerator.addType(resolve(CreateOrderRequest.class));
+		codeGenerator.addType(resolve(PricingService.class));
+		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
+		for (Class<?> type : new Class<?>[] { NotBlank.class, Email.class, NotBlankValidator.class, EmailValidator.class,
+				MinValidatorForLong.class, MaxValidatorForLong.class, Validator.class }) {
+			reflectionDescriptor.add(ClassDescriptor.of(type.getName()));
+		}
+		assertThat(codeGenerator.restrictReflection(reflectionDescriptor)).containsExactly(Email.class.getName(),
+				EmailValidator.class.getName(), MaxValidatorForLong.class.getName());
+		assertThat(reflectionDescriptor.getClassDescriptors()).extracting(ClassDescriptor::getName).containsExactly(
+				NotBlank.class.getName(), NotBlankValidator.class.getName(), MinValidatorForLong.class.getName(),
+				Validator.class.getName());
+	}
+
+	@Test
+	public void generatedPostProcessorLoadsConstraintMetadataOfValidatedTypes(@TempDir Path directory) throws Exception {
+		ValidationMetadataCodeGenerator codeGenerator = new ValidationMetadataCodeGenerator(typeSystem);
+		codeGenerator.addType(resolve(OrderController.class));
+		ClassLoader classLoader = new TestCompiler(directory).compile(codeGenerator.generateStaticValidationMetadata());
+		Validator validator = Validation.byDefaultProvider().configure()
+				.messageInterpolator(new ParameterMessageInterpolator()).buildValidatorFactory().getValidator();
+		List<String> describedTypes = new ArrayList<>();
+		Validator recordingValidator = (Validator) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Validator.class },
+				(proxy, method, args) -> {
+					if (method.getName().equals("getConstraintsForClass")) {
+						describedTypes.add(((Class<?>) args[0]).getName());
+					}
+					try {
+						return method.invoke(validator, args);
+					}
+					catch (InvocationTargetException ex) {
+						throw ex.getTargetException();
+					}
+				});
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			context.getBeanFactory().addBeanPostProcessor((BeanPostProcessor) BeanUtils.instantiateClass(
+					classLoader.loadClass(ValidationMetadataCodeGenerator.STATIC_VALIDATION_METADATA)));
+			context.registerBean("validator", Validator.class, () -> recordingValidator);
+			context.registerBean("pricingService", PricingService.class);
+			context.refresh();
+			assertThat(context.getBean("validator")).isSameAs(recordingValidator);
+			assertThat(context.getBean("pricingService")).isInstanceOf(PricingService.class);
+		}
+		assertThat(describedTypes).containsExactly(CreateOrderRequest.class.getName(), ShippingDetails.class.getName());
+	}
+
+	private static Type resolve(Class<?> type) {
+		return typeSystem.resolveDotted(type.getName());
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex.fixtures;
+
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+public class CreateOrderRequest {
+
+	@NotBlank
+	private String reference;
+
+	@Valid
+	@NotNull
+	private ShippingDetails shipping;
+
+	private List<@Size(max = 10) String> tags;
+
+	public String getReference() {
+		return this.reference;
+	}
+
+	public ShippingDetails getShipping() {
+		return this.shipping;
+	}
+
+	public List<String> getTags() {
+		return this.tags;
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex.fixtures;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class CustomerController {
+
+	@GetMapping("/customers/{id}")
+	public CustomerView get(@PathVariable long id) {
+		return new CustomerView();
+	}
+
+	@PostMapping("/customers")
+	public ResponseEntity<CustomerView> create(@RequestBody CreateCustomerRequest request) {
+		return ResponseEntity.ok(new CustomerView());
+	}
+
+	@GetMapping("/customers/legacy")
+	public LegacyCustomer legacy() {
+		return new LegacyCustomer();
+	}
+}
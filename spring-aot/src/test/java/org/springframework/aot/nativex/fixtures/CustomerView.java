@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex.fixtures;
+
+public class CustomerView {
+
+	private long id;
+
+	private String name;
+
+	private PostalAddress address;
+
+	public String getName() {
+		return this.name;
+	}
+
+	public boolean isActive() {
+		return true;
+	}
+
+	public PostalAddress getAddress() {
+		return this.address;
+	}
+
+	public long getId() {
+		return this.id;
+	}
+
+	public String getURL() {
+		return "/customers/" + this.id;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex.fixtures;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/inventory")
+public class InventoryController {
+
+	@GetMapping(path = "/{sku}", name = "item")
+	public String get(@PathVariable String sku) {
+		return sku;
+	}
+
+	@RequestMapping(path = "/search", method = { RequestMethod.GET, RequestMethod.HEAD }, params = "q", produces = "application/json")
+	public List<String> search(Filter filter, int[] limits) {
+		return Collections.emptyList();
+	}
+
+	@DeleteMapping("/{sku}")
+	public void delete(@PathVariable String sku) {
+	}
+
+	@ExceptionHandler
+	public ResponseEntity<String> handle(IllegalStateException ex) {
+		return ResponseEntity.badRequest().body(ex.getMessage());
+	}
+
+	public int count() {
+		return 0;
+	}
+
+	static class Filter {
+	}
+}
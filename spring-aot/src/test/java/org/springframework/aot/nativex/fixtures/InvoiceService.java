@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex.fixtures;
+
+import java.io.IOException;
+
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional(readOnly = true)
+public class InvoiceService {
+
+	@Transactional(value = "invoices", propagation = Propagation.REQUIRES_NEW, isolation = Isolation.SERIALIZABLE,
+			timeout = 30, label = "billing", rollbackFor = IOException.class, noRollbackForClassName = "IllegalStateException")
+	public void issue(String reference, int[] lines) throws IOException {
+	}
+
+	@Transactional(timeoutString = "${invoices.timeout}", rollbackForClassName = "InvoiceException", rollbackFor = IllegalArgumentException.class)
+	public void cancel(String reference) {
+	}
+
+	public String find(String reference) {
+		return reference;
+	}
+}
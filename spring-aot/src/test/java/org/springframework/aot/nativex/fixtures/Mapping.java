@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex.fixtures;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.core.annotation.AliasFor;
+
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Mapping {
+
+	@AliasFor("path")
+	String[] value() default {};
+
+	@AliasFor("value")
+	String[] path() default {};
+
+	Mode mode() default Mode.DEFAULT;
+
+	Class<? extends Number> type() default Integer.class;
+
+	int order() default 0;
+
+	double weight() default 1.0d;
+
+	Header[] headers() default {};
+
+	enum Mode {
+		DEFAULT, STRICT
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Header {
+
+		String name();
+
+	}
+
+}
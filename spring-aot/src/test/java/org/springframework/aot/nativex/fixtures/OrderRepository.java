@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.aot.nativex.fixtures;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.repository.CrudRepository;
+
+public interface OrderRepository extends CrudRepository<Order, Long> {
+
+	List<Order> findByCustomerFirstName(String firstName);
+
+	List<Order> findByCustomerAddressZipCodeAndStatusIgnoreCase(String zipCode, String status);
+
+	List<Order> findDistinctTop3ByLineItemsProductCodeOrderByCustomerLastNameDescIdAsc(String productCode);
+
+	long countByCustomerFullNameContainingAllIgnoreCase(String fullName);
+
+	boolean existsByStatusNotInOrCustomerAddressCityIsNull(Collection<String> statuses);
+
+	@Search("status:?0")
+	List<Order> findByWhatever(String status);
+
+	default List<Order> findByDefault() {
+		return findByCustomerFirstName("default");
+	}
+}
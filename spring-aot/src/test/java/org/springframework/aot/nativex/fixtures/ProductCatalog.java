@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex.fixtures;
+
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+
+@CacheConfig(cacheNames = "products", cacheManager = "productCacheManager")
+public class ProductCatalog {
+
+	@Cacheable(key = "#reference", unless = "#result == null")
+	public String find(String reference) {
+		return reference;
+	}
+
+	@Cacheable(cacheNames = "prices", key = "#reference.toUpperCase()", sync = true)
+	public long price(String reference) {
+		return 0;
+	}
+
+	@Caching(put = @CachePut(key = "#root.methodName"), evict = @CacheEvict(cacheNames = "listings", key = "#p1"))
+	public String update(String reference, long version) {
+		return reference;
+	}
+
+	@CacheEvict(allEntries = true, beforeInvocation = true)
+	public void clear() {
+	}
+}
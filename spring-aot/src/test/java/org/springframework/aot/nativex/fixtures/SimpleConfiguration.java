@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex.fixtures;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class SimpleConfiguration {
+
+	@Bean
+	public Foo foo() {
+		return new Foo();
+	}
+
+	@Bean(name = { "bar", "barAlias" }, initMethod = "init", destroyMethod = "")
+	@Primary
+	Bar namedBar(Foo foo) {
+		return new Bar(foo);
+	}
+
+	@Bean
+	@Lazy
+	static Foo.Baz baz() {
+		return new Foo.Baz();
+	}
+
+}
@@ -18,14 +18,22 @@ package org.springframework.nativex;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.nativex.domain.init.InitializationDescriptor;
+import org.springframework.nativex.domain.provenance.ProvenanceDescriptor;
+import org.springframework.nativex.domain.provenance.ProvenanceJsonMarshaller;
+import org.springframework.nativex.domain.provenance.ProvenanceRecord;
+import org.springframework.nativex.domain.provenance.ProvenanceRecord.Kind;
 import org.springframework.nativex.domain.proxies.ProxiesDescriptor;
 import org.springframework.nativex.domain.proxies.JdkProxyDescriptor;
 import org.springframework.nativex.domain.reflect.ClassDescriptor;
 import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
 import org.springframework.nativex.domain.resources.ResourcesDescriptor;
+import org.springframework.nativex.hint.AccessBits;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 
 public class DescriptorTests {
@@ -127,4 +135,51 @@ public class DescriptorTests {
 		assertThat(a.getPatterns()).containsExactlyInAnyOrder("foo/one.json", "bar/two.json");
 	}
 
+	@Test
+	public void resourcesDescriptorExcludes() {
+		ResourcesDescriptor d = new ResourcesDescriptor();
+		d.add("aaa/bbb/*.class");
+		d.addExclude("^application\\.properties$");
+		String json = d.toJSON();
+		assertThat(json).contains("\"excludes\"");
+		ResourcesDescriptor d2 = ResourcesDescriptor.fromJSON(json);
+		assertThat(d2.getExcludes()).containsExactly("^application\\.properties$");
+		assertThat(d.toString()).isEqualTo(d2.toString());
+	}
+
+	@Test
+	public void provenanceDescriptors() {
+		ProvenanceDescriptor pd = new ProvenanceDescriptor();
+		assertThat(pd.isEmpty()).isTrue();
+		pd.add(ProvenanceRecord.of(Kind.REFLECTION, "a.b.Foo", "a.b.FooConfiguration", "[o.s.c.a.Import]",
+				Arrays.asList("a.b.FooConfiguration(FromSpringFactoriesKey)"), AccessBits.LOAD_AND_CONSTRUCT));
+		pd.add(ProvenanceRecord.of(Kind.REFLECTION, "a.b.Foo", "a.b.BarConfiguration", "analysis", null, AccessBits.CLASS));
+		pd.add(ProvenanceRecord.of(Kind.PROXY, "a.b.Foo,a.b.Bar", null, "default hints", null, AccessBits.NONE));
+		assertThat(pd.size()).isEqualTo(3);
+		assertThat(pd.getRecords(Kind.REFLECTION, "a.b.Foo")).hasSize(2);
+		assertThat(pd.getRecords(Kind.RESOURCE, "a.b.Foo")).isEmpty();
+		assertThat(pd.getRecords(Kind.PROXY)).hasSize(1);
+		assertThat(pd.getRecordsTriggeredBy("a.b.BarConfiguration")).hasSize(1);
+		assertThat(pd.getRecords(Kind.REFLECTION, "a.b.Foo").get(0).toString())
+			.contains("REFLECTION:a.b.Foo").contains("trigger=a.b.FooConfiguration").contains("FromSpringFactoriesKey");
+	}
+
+	@Test
+	public void provenanceDescriptorReadingWriting() throws Exception {
+		ProvenanceDescriptor pd = new ProvenanceDescriptor();
+		pd.add(ProvenanceRecord.of(Kind.REFLECTION, "a.b.Foo", "a.b.FooConfiguration", "[o.s.c.a.Import]",
+				Arrays.asList("a.b.FooConfiguration(FromSpringFactoriesKey)", "a.b.Foo(AtBeanReturnType)"), AccessBits.FULL_REFLECTION));
+		pd.add(ProvenanceRecord.of(Kind.RESOURCE, "a/b/Foo.class", null, "spring.components", null, AccessBits.RESOURCE));
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ProvenanceJsonMarshaller.write(pd, baos);
+		String json = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+		assertThat(json).contains("\"trigger\": \"a.b.FooConfiguration\"");
+		ProvenanceDescriptor pd2 = ProvenanceJsonMarshaller.read(json);
+		assertThat(pd2.size()).isEqualTo(2);
+		ProvenanceRecord record = pd2.getRecords(Kind.REFLECTION, "a.b.Foo").get(0);
+		assertThat(record.getReachedBy()).containsExactly("a.b.FooConfiguration(FromSpringFactoriesKey)", "a.b.Foo(AtBeanReturnType)");
+		assertThat(record.getAccessBits()).isEqualTo(AccessBits.FULL_REFLECTION);
+		assertThat(pd2.getRecords(Kind.RESOURCE, "a/b/Foo.class").get(0).getTrigger()).isNull();
+	}
+
 }
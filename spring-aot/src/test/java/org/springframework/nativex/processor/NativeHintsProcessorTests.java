@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.nativex.processor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.ClassNode;
+
+import org.springframework.nativex.type.HintCatalogue;
+import org.springframework.nativex.type.HintDeclaration;
+import org.springframework.nativex.type.Type;
+import org.springframework.nativex.type.TypeSystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link NativeHintsProcessor}.
+ */
+public class NativeHintsProcessorTests {
+
+	@TempDir
+	Path temp;
+
+	@Test
+	public void cataloguesHintAnnotationsAsInClassFile() throws Exception {
+		List<Diagnostic<? extends JavaFileObject>> diagnostics = compile("fixture.Hints",
+				"package fixture;\n" +
+				"import org.springframework.nativex.hint.*;\n" +
+				"import org.springframework.nativex.type.NativeConfiguration;\n" +
+				"@NativeHint(trigger = String.class, types = @TypeHint(types = Integer.class, access = AccessBits.CLASS), options = \"--foo\")\n" +
+				"@TypeHint(types = Long.class)\n" +
+				"@TypeHint(typeNames = \"java.lang.Short\", methods = @MethodHint(name = \"valueOf\", parameterTypes = String.class))\n" +
+				"@InitializationHint(types = Integer.class, initTime = InitializationTime.BUILD)\n" +
+				"public class Hints implements NativeConfiguration {}\n");
+		assertThat(diagnostics).isEmpty();
+		File classes = temp.resolve("classes").toFile();
+		HintCatalogue catalogue = new HintCatalogue();
+		try (InputStream is = new FileInputStream(new File(classes, HintCatalogue.CATALOGUE_LOCATION))) {
+			catalogue.read(is);
+		}
+		assertThat(catalogue.getTypenames()).containsExactly("fixture.Hints");
+		ClassNode node = new ClassNode();
+		new ClassReader(Files.readAllBytes(new File(classes, "fixture/Hints.class").toPath())).accept(node, ClassReader.SKIP_CODE);
+		assertThat(dump(catalogue.getHintAnnotations("fixture.Hints"))).isEqualTo(dump(node.visibleAnnotations));
+
+		TypeSystem typeSystem = new TypeSystem(Collections.singletonList(classes.toString()));
+		assertThat(typeSystem.getHintCatalogue().size()).isEqualTo(1);
+		Type hints = typeSystem.resolveDotted("fixture.Hints");
+		List<HintDeclaration> declarations = hints.getCompilationHints();
+		assertThat(declarations).hasSize(2);
+		assertThat(declarations.get(0).getTriggerTypename()).isEqualTo("java.lang.String");
+		assertThat(declarations.get(0).getOptions()).containsExactly("--foo");
+		assertThat(declarations.get(1).getDependantTypes()).containsOnlyKeys("java.lang.Long", "java.lang.Short");
+	}
+
+	@Test
+	public void reportsInvalidHints() throws Exception {
+		List<Diagnostic<? extends JavaFileObject>> diagnostics = compile("fixture.BadHints",
+				"package fixture;\n" +
+				"import org.springframework.nativex.hint.*;\n" +
+				"@JdkProxyHint(types = Runnable.class, typeNames = \"java.io.Serializable\")\n" +
+				"@TypeHint(types = Long.class, access = AccessBits.DECLARED_METHODS, methods = @MethodHint(name = \"<init>\"))\n" +
+				"public class BadHints {}\n");
+		List<String> errors = diagnostics.stream().filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+				.map(d -> d.getMessage(null)).collect(Collectors.toList());
+		assertThat(errors).containsExactlyInAnyOrder(
+				"[Limitation] Don't mix typeNames and explicit type references in a @JdkProxyHint",
+				"Do not include global method reflection access when specifying individual methods");
+		assertThat(new File(temp.resolve("classes").toFile(), HintCatalogue.CATALOGUE_LOCATION)).doesNotExist();
+	}
+
+	private List<Diagnostic<? extends JavaFileObject>> compile(String typename, String source) throws IOException {
+		Path sourceFile = temp.resolve("src").resolve(typename.replace('.', '/') + ".java");
+		Files.createDirectories(sourceFile.getParent());
+		Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+		File classes = temp.resolve("classes").toFile();
+		classes.mkdirs();
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+			List<String> options = new ArrayList<>(Arrays.asList("-d", classes.toString(),
+					"-classpath", System.getProperty("java.class.path"), "-implicit:none"));
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+					fileManager.getJavaFileObjects(sourceFile.toFile()));
+			task.setProcessors(Collections.singletonList(new NativeHintsProcessor()));
+			task.call();
+		}
+		return diagnostics.getDiagnostics();
+	}
+
+	private String dump(List<AnnotationNode> annotations) {
+		StringBuilder s = new StringBuilder();
+		for (AnnotationNode annotation: annotations) {
+			dump(annotation, s);
+		}
+		return s.toString();
+	}
+
+	private void dump(Object value, StringBuilder s) {
+		if (value instanceof AnnotationNode) {
+			AnnotationNode annotation = (AnnotationNode) value;
+			s.append('@').append(annotation.desc).append('(');
+			if (annotation.values != null) {
+				for (int i = 0; i < annotation.values.size(); i += 2) {
+					s.append(annotation.values.get(i)).append('=');
+					dump(annotation.values.get(i + 1), s);
+					s.append(',');
+				}
+			}
+			s.append(')');
+		} else if (value instanceof List) {
+			s.append('[');
+			for (Object element: (List<?>) value) {
+				dump(element, s);
+				s.append(',');
+			}
+			s.append(']');
+		} else if (value instanceof String[]) {
+			s.append(String.join(".", (String[]) value));
+		} else {
+			s.append(value).append(':').append(value.getClass().getSimpleName());
+		}
+	}
+
+}
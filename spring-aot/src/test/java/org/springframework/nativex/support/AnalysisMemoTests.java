@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.nativex.support;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.nativex.hint.AccessBits;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AnalysisMemo}.
+ */
+public class AnalysisMemoTests {
+
+	@Test
+	public void computesOncePerTypeAndAccess() {
+		AnalysisMemo memo = new AnalysisMemo();
+		AtomicInteger computations = new AtomicInteger();
+		RequestedConfigurationManager first = memo.get("hierarchy", "a.b.Foo", AccessBits.CLASS, () -> {
+			computations.incrementAndGet();
+			RequestedConfigurationManager rcm = new RequestedConfigurationManager();
+			rcm.requestTypeAccess("a.b.Foo", AccessBits.CLASS);
+			return rcm;
+		});
+		RequestedConfigurationManager second = memo.get("hierarchy", "a.b.Foo", AccessBits.CLASS, () -> {
+			computations.incrementAndGet();
+			return new RequestedConfigurationManager();
+		});
+		assertThat(second).isSameAs(first);
+		assertThat(computations.get()).isEqualTo(1);
+		assertThat(memo.getStatistics("hierarchy").getHits()).isEqualTo(1);
+		assertThat(memo.getStatistics("hierarchy").getMisses()).isEqualTo(1);
+	}
+
+	@Test
+	public void keyIncludesStepAndAccess() {
+		AnalysisMemo memo = new AnalysisMemo();
+		memo.get("hierarchy", "a.b.Foo", AccessBits.CLASS, () -> "class");
+		assertThat(memo.get("hierarchy", "a.b.Foo", AccessBits.FULL_REFLECTION, () -> "full")).isEqualTo("full");
+		assertThat(memo.get("@Bean methods", "a.b.Foo", AccessBits.CLASS, () -> "beans")).isEqualTo("beans");
+		assertThat(memo.size()).isEqualTo(3);
+		assertThat(memo.getStatistics()).extracting(AnalysisMemo.Statistics::getStep).containsExactly("@Bean methods", "hierarchy");
+		assertThat(memo.getStatistics("hierarchy").toString()).isEqualTo("hierarchy: 0 hits, 2 misses (0% hit rate)");
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.nativex.type.ComponentProcessor;
+import org.springframework.nativex.type.NativeContext;
+import org.springframework.nativex.type.entities.MultiLevel0;
+import org.springframework.nativex.type.entities.Order;
+import org.springframework.nativex.type.entities.SomeAnnotation;
+
+public class ComponentProcessorIndexTests {
+
+	private final TestTypeSystem typeSystem = new TestTypeSystem();
+
+	private final ComponentProcessor everything = new TestComponentProcessor(ComponentProcessor.Interest.any());
+
+	private final ComponentProcessor entities = new TestComponentProcessor(ComponentProcessor.Interest.none().classifiers("javax.persistence.Entity"));
+
+	private final ComponentProcessor someAnnotation = new TestComponentProcessor(ComponentProcessor.Interest.none()
+			.typeAnnotations("Lorg/springframework/nativex/type/entities/SomeAnnotation;"));
+
+	private final ComponentProcessor javaxAnnotations = new TestComponentProcessor(ComponentProcessor.Interest.none().typeAnnotationPrefixes("javax.annotation"));
+
+	private final ComponentProcessor deprecatedMethods = new TestComponentProcessor(ComponentProcessor.Interest.none().methodAnnotations("Ljava/lang/Deprecated;"));
+
+	private final ComponentProcessor interfaceType = new TestComponentProcessor(ComponentProcessor.Interest.none()
+			.interfaces("org/springframework/nativex/type/entities/InterfaceType"));
+
+	private final ComponentProcessorIndex index = new ComponentProcessorIndex(
+			Arrays.asList(everything, entities, someAnnotation, javaxAnnotations, deprecatedMethods, interfaceType));
+
+	@Test
+	void processorsWithoutInterestAreOfferedEverything() {
+		assertThat(index.getCandidates(typeSystem.resolve(Order.class), Collections.emptyList())).containsExactly(everything);
+	}
+
+	@Test
+	void classifiers() {
+		assertThat(index.getCandidates(typeSystem.resolve(Order.class), Collections.singletonList("javax.persistence.Entity")))
+				.containsExactly(everything, entities);
+	}
+
+	@Test
+	void typeAnnotationsIncludingMetaAnnotations() {
+		assertThat(index.getCandidates(typeSystem.resolve(Annotated.class), Collections.emptyList()))
+				.containsExactly(everything, someAnnotation, javaxAnnotations);
+		assertThat(index.getCandidates(typeSystem.resolve(SubclassOfAnnotated.class), Collections.emptyList()))
+				.containsExactly(everything, someAnnotation, javaxAnnotations);
+	}
+
+	@Test
+	void methodAnnotations() {
+		assertThat(index.getCandidates(typeSystem.resolve(WithDeprecatedMethod.class), Collections.emptyList()))
+				.containsExactly(everything, deprecatedMethods);
+	}
+
+	@Test
+	void interfaces() {
+		assertThat(index.getCandidates(typeSystem.resolve(MultiLevel0.class), Collections.emptyList()))
+				.containsExactly(everything, interfaceType);
+	}
+
+	@Test
+	void timings() {
+		index.getCandidates(typeSystem.resolve(MultiLevel0.class), Collections.emptyList());
+		index.recordTime(interfaceType, 2000000);
+		assertThat(index.getTimings()).hasSize(6).element(5).asString().contains("offered 1 components, took 2ms");
+	}
+
+	@SomeAnnotation
+	static class Annotated {
+	}
+
+	static class SubclassOfAnnotated extends Annotated {
+	}
+
+	static class WithDeprecatedMethod {
+
+		@Deprecated
+		public void old() {
+		}
+	}
+
+	static class TestComponentProcessor implements ComponentProcessor {
+
+		private final Interest interest;
+
+		TestComponentProcessor(Interest interest) {
+			this.interest = interest;
+		}
+
+		@Override
+		public Interest getInterest() {
+			return interest;
+		}
+
+		@Override
+		public boolean handle(NativeContext imageContext, String componentType, List<String> classifiers) {
+			return true;
+		}
+
+		@Override
+		public void process(NativeContext imageContext, String componentType, List<String> classifiers) {
+		}
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.nativex.AotOptions;
+import org.springframework.nativex.domain.reflect.JsonMarshaller;
+import org.springframework.nativex.support.configurations.FirstConfiguration;
+import org.springframework.nativex.support.configurations.SecondConfiguration;
+import org.springframework.nativex.support.configurations.ThirdConfiguration;
+
+/**
+ * Parallel analysis of the configurations listed in spring.factories must produce the same configuration as
+ * analyzing them one after the other, whatever the order the analyses complete in.
+ */
+public class ParallelAnalysisTests {
+
+	private static final String ENABLE_AUTO_CONFIGURATION = "org.springframework.boot.autoconfigure.EnableAutoConfiguration";
+
+	private List<String> classpath;
+
+	@BeforeEach
+	void setup(@TempDir Path factoriesDir) throws Exception {
+		// Configurations sharing imported configurations, listed in spring.factories
+		Path factories = factoriesDir.resolve("META-INF/spring.factories");
+		Files.createDirectories(factories.getParent());
+		String configurations = Stream.of(FirstConfiguration.class, SecondConfiguration.class, ThirdConfiguration.class)
+				.map(Class::getName).collect(Collectors.joining(","));
+		Files.write(factories, (ENABLE_AUTO_CONFIGURATION + "=" + configurations + "\n").getBytes(StandardCharsets.UTF_8));
+		classpath = new ArrayList<>(Arrays.asList(new File("./target/classes").toString(),
+				new File("./target/test-classes").toString(), factoriesDir.toString()));
+		for (Class<?> type : Arrays.asList(Configuration.class, Resource.class)) {
+			classpath.add(new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+		}
+	}
+
+	@Test
+	void parallelAnalysisMatchesSequentialAnalysis() throws IOException {
+		ConfigurationCollector sequential = analyze(false);
+		String reflection = reflection(sequential);
+		assertThat(reflection).contains(FirstConfiguration.class.getName(), SecondConfiguration.class.getName(),
+				ThirdConfiguration.class.getName());
+		for (int i = 0; i < 10; i++) {
+			ConfigurationCollector parallel = analyze(true);
+			assertThat(reflection(parallel)).isEqualTo(reflection);
+			assertThat(resources(parallel)).isEqualTo(resources(sequential));
+		}
+	}
+
+	private ConfigurationCollector analyze(boolean parallelAnalysis) {
+		AotOptions aotOptions = new AotOptions();
+		aotOptions.setParallelAnalysis(parallelAnalysis);
+		SpringAnalyzer analyzer = new SpringAnalyzer(new TestTypeSystem(classpath), aotOptions);
+		analyzer.analyze();
+		return analyzer.getConfigurationCollector();
+	}
+
+	private static String reflection(ConfigurationCollector collector) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JsonMarshaller.write(collector.getReflectionDescriptor(), out);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static List<String> resources(ConfigurationCollector collector) {
+		return collector.getResourcesDescriptors().getPatterns().stream().sorted().collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aot.TestTypeSystem;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.nativex.AotOptions;
+import org.springframework.nativex.domain.provenance.ProvenanceRecord;
+import org.springframework.nativex.domain.provenance.ProvenanceRecord.Kind;
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.hint.AccessBits;
+import org.springframework.nativex.hint.Flag;
+import org.springframework.nativex.support.configurations.FirstConfiguration;
+import org.springframework.nativex.support.configurations.NestedSharedConfiguration;
+import org.springframework.nativex.support.configurations.SecondConfiguration;
+import org.springframework.nativex.support.configurations.SharedConfiguration;
+
+/**
+ * With provenance recording on, every entry the analysis adds to the configuration must say where it comes from.
+ */
+public class ProvenanceRecordingTests {
+
+	private static final String ENABLE_AUTO_CONFIGURATION = "org.springframework.boot.autoconfigure.EnableAutoConfiguration";
+
+	// A spring.factories key without special handling, its values are only instantiated
+	private static final String PLUGIN_KEY = "com.example.Plugin";
+
+	private static ConfigurationCollector collector;
+
+	@BeforeAll
+	static void analyze(@TempDir Path factoriesDir) throws Exception {
+		Path factories = factoriesDir.resolve("META-INF/spring.factories");
+		Files.createDirectories(factories.getParent());
+		String content = ENABLE_AUTO_CONFIGURATION + "=" + FirstConfiguration.class.getName() + "\n"
+				+ PLUGIN_KEY + "=" + SecondConfiguration.class.getName() + "\n";
+		Files.write(factories, content.getBytes(StandardCharsets.UTF_8));
+		List<String> classpath = new ArrayList<>(Arrays.asList(new File("./target/classes").toString(),
+				new File("./target/test-classes").toString(), factoriesDir.toString()));
+		for (Class<?> type : Arrays.asList(Configuration.class, Resource.class)) {
+			classpath.add(new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+		}
+		AotOptions aotOptions = new AotOptions();
+		aotOptions.setRecordProvenance(true);
+		SpringAnalyzer analyzer = new SpringAnalyzer(new TestTypeSystem(classpath), aotOptions);
+		analyzer.analyze();
+		collector = analyzer.getConfigurationCollector();
+	}
+
+	@Test
+	void everyReflectionEntryHasProvenance() {
+		List<String> typenames = collector.getReflectionDescriptor().getClassDescriptors().stream()
+				.map(ClassDescriptor::getName).collect(Collectors.toList());
+		assertThat(typenames).contains(FirstConfiguration.class.getName(), SecondConfiguration.class.getName());
+		assertThat(typenames.stream().filter(typename -> collector.getProvenance(Kind.REFLECTION, typename).isEmpty()))
+				.isEmpty();
+	}
+
+	@Test
+	void everyResourceEntryHasProvenance() {
+		assertThat(collector.getResourcesDescriptors().getPatterns()).isNotEmpty();
+		assertThat(collector.getResourcesDescriptors().getPatterns().stream()
+				.filter(pattern -> collector.getProvenance(Kind.RESOURCE, pattern).isEmpty())).isEmpty();
+		assertThat(collector.getResourcesDescriptors().getBundles().stream()
+				.filter(bundle -> collector.getProvenance(Kind.RESOURCE, bundle).isEmpty())).isEmpty();
+	}
+
+	@Test
+	void everyProxyEntryHasProvenance() {
+		// Class proxies are checked with the reflection entries of their generated types
+		assertThat(collector.getProxyDescriptors().getProxyDescriptors().stream()
+				.filter(proxyDescriptor -> !proxyDescriptor.isClassProxy()).map(proxyDescriptor -> String.join(",", proxyDescriptor.getTypes()))
+				.filter(name -> collector.getProvenance(Kind.PROXY, name).isEmpty())).isEmpty();
+	}
+
+	@Test
+	void springFactoriesEntryNamesItsKey() {
+		List<ProvenanceRecord> records = collector.getProvenance(Kind.REFLECTION, SecondConfiguration.class.getName());
+		assertThat(records).extracting(ProvenanceRecord::getSource).contains("spring.factories " + PLUGIN_KEY);
+	}
+
+	@Test
+	void importedConfigurationIsReachedThroughImportingConfiguration() {
+		List<ProvenanceRecord> records = collector.getProvenance(Kind.REFLECTION, SharedConfiguration.class.getName());
+		assertThat(records.stream().map(ProvenanceRecord::getReachedBy).filter(reachedBy -> reachedBy.stream()
+				.anyMatch(entry -> entry.startsWith(FirstConfiguration.class.getName())))).isNotEmpty();
+	}
+
+	@Test
+	void restrictedEntryKeepsOnlyRemainingAccess() {
+		String typename = NestedSharedConfiguration.class.getName();
+		Set<Flag> flags = collector.getClassDescriptorFor(typename).getFlags();
+		if (flags != null) {
+			flags.clear();
+		}
+		collector.restrictProvenance(typename);
+		assertThat(collector.getProvenance(Kind.REFLECTION, typename)).isNotEmpty()
+				.allMatch(record -> (record.getAccessBits() & ~(AccessBits.CLASS | AccessBits.RESOURCE)) == 0);
+	}
+
+}
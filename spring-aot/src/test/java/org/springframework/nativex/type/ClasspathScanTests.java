@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.nativex.type.ClasspathScan.Scope;
+
+public class ClasspathScanTests {
+
+	private static final String ENTITIES = "org/springframework/nativex/type/entities/";
+
+	private TypeSystem typeSystem;
+
+	@BeforeEach
+	void setup() {
+		typeSystem = new TypeSystem(Collections.singletonList(new File("./target/test-classes").toString()));
+	}
+
+	@Test
+	void servesSeveralPredicatesInOnePass() {
+		AtomicInteger evaluations = new AtomicInteger();
+		ClasspathScan scan = typeSystem.newClasspathScan();
+		Supplier<List<Type>> implementors = scan.register(Scope.USER_CODE_AND_SPRING_JARS, t -> {
+			evaluations.incrementAndGet();
+			return t.isPartOfDomain("org.springframework.nativex.type.entities") && t.implementsInterface(ENTITIES + "InterfaceType");
+		});
+		Supplier<List<Type>> subclasses = scan.register(Scope.USER_CODE, t -> t.extendsClass("L" + ENTITIES + "AbstractType;"));
+		scan.run();
+		assertThat(names(implementors.get())).contains(ENTITIES + "InterfaceType", ENTITIES + "ConcreteType")
+				.doesNotContain(ENTITIES + "AbstractType");
+		assertThat(names(subclasses.get())).containsExactly(ENTITIES + "ConcreteType");
+		assertThat(evaluations.get()).isEqualTo(classCount());
+	}
+
+	@Test
+	void matchesAreTheSameTypesAsResolvedElsewhere() {
+		List<Type> matches = typeSystem.scan(t -> t.getName().equals(ENTITIES + "ConcreteType"));
+		assertThat(matches).containsExactly(typeSystem.resolveSlashed(ENTITIES + "ConcreteType"));
+	}
+
+	@Test
+	void classNamesAreCachedPerRoot() {
+		Path root = Paths.get(new File("./target/test-classes").toURI());
+		List<String> classNames = typeSystem.getClassNames(root);
+		assertThat(classNames).contains(ENTITIES + "Order");
+		assertThat(typeSystem.getClassNames(root)).isSameAs(classNames);
+	}
+
+	@Test
+	void prefilterSkipsClassesBeforeTheyAreParsed() {
+		AtomicInteger evaluations = new AtomicInteger();
+		List<Type> matches = typeSystem.scan(ConstantPoolScanner.Prefilter.anyOf("Ljavax/persistence/Entity;"), t -> {
+			evaluations.incrementAndGet();
+			return t.isAnnotated("Ljavax/persistence/Entity;");
+		});
+		assertThat(names(matches)).contains(ENTITIES + "EntityWithAnnotations").doesNotContain(ENTITIES + "NotAnEntity");
+		assertThat(evaluations.get()).isLessThan(classCount());
+	}
+
+	@Test
+	void resultsOnlyAvailableAfterRun() {
+		ClasspathScan scan = typeSystem.newClasspathScan();
+		Supplier<List<Type>> matches = scan.register(Scope.USER_CODE, t -> true);
+		assertThatIllegalStateException().isThrownBy(matches::get);
+		scan.run();
+		assertThat(matches.get()).hasSize(classCount());
+		assertThatIllegalStateException().isThrownBy(() -> scan.register(Scope.USER_CODE, t -> true));
+		assertThatIllegalStateException().isThrownBy(scan::run);
+	}
+
+	@Test
+	void predicatesAreEvaluatedOnTheCallingThreadByDefault() {
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		ClasspathScan scan = typeSystem.newClasspathScan();
+		scan.register(Scope.USER_CODE, t -> threads.add(Thread.currentThread()));
+		scan.run();
+		assertThat(threads).containsExactly(Thread.currentThread());
+	}
+
+	@Test
+	void parallelScanReportsMatchesInClasspathOrder() {
+		ClasspathScan scan = typeSystem.newClasspathScan();
+		Supplier<List<Type>> sequential = scan.register(Scope.USER_CODE, t -> t.isPartOfDomain("org.springframework.nativex.type.entities"));
+		scan.run();
+		ClasspathScan parallelScan = typeSystem.newClasspathScan();
+		Supplier<List<Type>> parallel = parallelScan.register(Scope.USER_CODE, t -> t.isPartOfDomain("org.springframework.nativex.type.entities"));
+		parallelScan.runInParallel();
+		assertThat(sequential.get()).isNotEmpty();
+		assertThat(parallel.get()).containsExactlyElementsOf(sequential.get());
+	}
+
+	private int classCount() {
+		return typeSystem.getClassNames(Paths.get(new File("./target/test-classes").toURI())).size();
+	}
+
+	private static List<String> names(List<Type> types) {
+		return types.stream().map(Type::getName).collect(Collectors.toList());
+	}
+
+}
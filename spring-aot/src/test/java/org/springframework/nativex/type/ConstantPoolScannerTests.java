@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.nativex.type.ConstantPoolScanner.Prefilter;
+import org.springframework.nativex.type.entities.EntityWithAnnotations;
+import org.springframework.nativex.type.entities.NotAnEntity;
+import org.springframework.util.StreamUtils;
+
+public class ConstantPoolScannerTests {
+
+	@Test
+	void prefilterAnyOf() throws IOException {
+		byte[] entity = bytesOf(EntityWithAnnotations.class);
+		assertThat(Prefilter.anyOf("Ljavax/persistence/Entity;").test(entity)).isTrue();
+		assertThat(Prefilter.anyOf("Ljavax/persistence/Table;", "Ljavax/persistence/GeneratedValue;").test(entity)).isTrue();
+		assertThat(Prefilter.anyOf("Ljavax/persistence/Table;").test(entity)).isFalse();
+		assertThat(Prefilter.anyOf("Ljavax/persistence/Entity;").test(bytesOf(NotAnEntity.class))).isFalse();
+	}
+
+	@Test
+	void prefilterMatchesWholeConstantsOnly() throws IOException {
+		assertThat(Prefilter.anyOf("Ljavax/persistence/Entit").test(bytesOf(EntityWithAnnotations.class))).isFalse();
+	}
+
+	@Test
+	void prefilterAllOf() throws IOException {
+		byte[] entity = bytesOf(EntityWithAnnotations.class);
+		assertThat(Prefilter.allOf("Ljavax/persistence/Entity;", "Ljavax/persistence/GeneratedValue;").test(entity)).isTrue();
+		assertThat(Prefilter.allOf("Ljavax/persistence/Entity;", "Ljavax/persistence/Table;").test(entity)).isFalse();
+	}
+
+	@Test
+	void prefilterPassesUnrecognizedBytes() {
+		assertThat(Prefilter.anyOf("Ljavax/persistence/Entity;").test(new byte[] { 1, 2, 3, 4 })).isTrue();
+	}
+
+	private static byte[] bytesOf(Class<?> clazz) throws IOException {
+		try (InputStream is = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+			return StreamUtils.copyToByteArray(is);
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.nativex.type;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.nativex.hint.NativeHint;
+import org.springframework.nativex.hint.TypeHint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link HintTriggerIndex} and {@link HintTriggerIndexGenerator}.
+ */
+class HintTriggerIndexTests {
+
+	@Test
+	void generate() {
+		TypeSystem typeSystem = new TypeSystem(Collections.singletonList(new File("./target/test-classes").toString()));
+		HintTriggerIndex index = HintTriggerIndexGenerator.generate(typeSystem,
+				Arrays.asList(TriggeredHints.class.getName(), ComputedHints.class.getName(), "a.b.Missing"));
+		assertThat(index.getProviders()).containsExactly(TriggeredHints.class.getName(), ComputedHints.class.getName());
+		assertThat(index.getTriggers(TriggeredHints.class.getName())).containsExactly("java.lang.String", "java.lang.Object");
+		assertThat(index.computesHints(TriggeredHints.class.getName())).isFalse();
+		assertThat(index.getTriggers(ComputedHints.class.getName())).isEmpty();
+		assertThat(index.computesHints(ComputedHints.class.getName())).isTrue();
+		assertThat(index.getProviders("java.lang.String")).containsExactly(TriggeredHints.class.getName());
+		assertThat(index.contains("a.b.Missing")).isFalse();
+	}
+
+	@Test
+	void writeAndRead() throws Exception {
+		HintTriggerIndex index = new HintTriggerIndex();
+		index.add("a.b.One", Arrays.asList("x.Y", "java.lang.Object"), false);
+		index.add("a.b.Two", Collections.emptyList(), true);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		index.write(baos);
+		HintTriggerIndex read = new HintTriggerIndex();
+		read.read(new ByteArrayInputStream(baos.toByteArray()));
+		assertThat(read.getProviders()).containsExactly("a.b.One", "a.b.Two");
+		assertThat(read.getTriggers()).containsExactly("x.Y", "java.lang.Object");
+		assertThat(read.getProviders("x.Y")).containsExactly("a.b.One");
+		assertThat(read.computesHints("a.b.One")).isFalse();
+		assertThat(read.computesHints("a.b.Two")).isTrue();
+	}
+
+	@NativeHint(trigger = String.class, types = @TypeHint(types = Integer.class))
+	@TypeHint(types = Long.class)
+	static class TriggeredHints implements NativeConfiguration {
+	}
+
+	static class ComputedHints implements NativeConfiguration {
+
+		@Override
+		public List<HintDeclaration> computeHints(TypeSystem typeSystem) {
+			return Collections.emptyList();
+		}
+	}
+
+}
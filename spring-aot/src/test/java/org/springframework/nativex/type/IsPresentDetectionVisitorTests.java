@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.nativex.type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.nativex.type.entities.NotAnEntity;
+import org.springframework.nativex.type.entities.PresenceCheckingLoggingType;
+import org.springframework.nativex.type.entities.PresenceCheckingType;
+import org.springframework.util.StreamUtils;
+
+public class IsPresentDetectionVisitorTests {
+
+	@Test
+	void noChecks() throws IOException {
+		assertThat(IsPresentDetectionVisitor.run(bytesOf(NotAnEntity.class))).isNull();
+		assertThat(IsPresentDetectionVisitor.analyze(bytesOf(NotAnEntity.class))).isNull();
+	}
+
+	@Test
+	void foldableChecks() throws IOException {
+		IsPresentChecks checks = IsPresentDetectionVisitor.analyze(bytesOf(PresenceCheckingType.class));
+		assertThat(checks.getTypename()).isEqualTo(PresenceCheckingType.class.getName());
+		assertThat(checks.getSuperclassName()).isEqualTo("java.lang.Object");
+		assertThat(checks.getCheckedTypes()).containsExactly("com.fasterxml.jackson.databind.ObjectMapper",
+				"com.fasterxml.jackson.core.JsonGenerator", "reactor.core.publisher.Flux");
+		assertThat(checks.getCheckedTypesByField()).containsOnlyKeys("jacksonPresent", "reactorPresent");
+		assertThat(checks.getCheckedTypesByField().get("jacksonPresent")).isEqualTo(Arrays.asList(
+				"com.fasterxml.jackson.databind.ObjectMapper", "com.fasterxml.jackson.core.JsonGenerator"));
+		assertThat(checks.getCheckedTypesByField().get("reactorPresent")).isEqualTo(Collections.singletonList(
+				"reactor.core.publisher.Flux"));
+		assertThat(checks.isFoldable()).isTrue();
+	}
+
+	@Test
+	void checksMixedWithOtherInitialization() throws IOException {
+		IsPresentChecks checks = IsPresentDetectionVisitor.analyze(bytesOf(PresenceCheckingLoggingType.class));
+		assertThat(checks.getCheckedTypes()).containsExactly("reactor.core.publisher.Flux");
+		assertThat(checks.isFoldable()).isFalse();
+		assertThat(IsPresentDetectionVisitor.run(bytesOf(PresenceCheckingLoggingType.class)))
+				.containsExactly("reactor.core.publisher.Flux");
+	}
+
+	private static byte[] bytesOf(Class<?> clazz) throws IOException {
+		try (InputStream is = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+			return StreamUtils.copyToByteArray(is);
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.nativex.type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.nativex.type.entities.DependentStaticInitializer;
+import org.springframework.nativex.type.entities.PropertyReadingInitializer;
+import org.springframework.nativex.type.entities.SafeStaticInitializer;
+
+public class StaticInitializerAnalyzerTests {
+
+	private static TypeSystem typeSystem;
+
+	@BeforeAll
+	public static void setup() {
+		typeSystem = new TypeSystem(Collections.singletonList(new File("./target/test-classes").toString()));
+	}
+
+	@Test
+	void safeStaticInitializer() {
+		assertThat(analyzer().getBlockingReason(SafeStaticInitializer.class.getName())).isNull();
+	}
+
+	@Test
+	void propertyReadInInvokedMethod() {
+		assertThat(analyzer().getBlockingReason(PropertyReadingInitializer.class.getName()))
+				.isEqualTo("reads system properties or the environment (java.lang.System.getProperty)");
+	}
+
+	@Test
+	void initializedDependency() {
+		assertThat(analyzer().getBlockingReason(DependentStaticInitializer.class.getName()))
+				.isEqualTo("initializes " + PropertyReadingInitializer.class.getName()
+						+ " that reads system properties or the environment (java.lang.System.getProperty)");
+	}
+
+	@Test
+	void dependencyInitializedAtBuildTime() {
+		StaticInitializerAnalyzer analyzer = new StaticInitializerAnalyzer(typeSystem,
+				PropertyReadingInitializer.class.getName()::equals, typename -> false);
+		assertThat(analyzer.getBlockingReason(DependentStaticInitializer.class.getName())).isNull();
+	}
+
+	@Test
+	void initializedAtRunTime() {
+		StaticInitializerAnalyzer analyzer = new StaticInitializerAnalyzer(typeSystem, typename -> false,
+				SafeStaticInitializer.class.getName()::equals);
+		assertThat(analyzer.getBlockingReason(SafeStaticInitializer.class.getName())).isEqualTo("is initialized at run time");
+	}
+
+	@Test
+	void hazards() {
+		assertThat(StaticInitializerAnalyzer.getHazard("java/lang/Thread", "start", "()V")).isEqualTo("starts a thread");
+		assertThat(StaticInitializerAnalyzer.getHazard("java/lang/Thread", "currentThread", "()Ljava/lang/Thread;")).isNull();
+		assertThat(StaticInitializerAnalyzer.getHazard("java/util/UUID", "randomUUID", "()Ljava/util/UUID;")).isEqualTo("uses randomness");
+		assertThat(StaticInitializerAnalyzer.getHazard("java/io/FileInputStream", "<init>", "(Ljava/lang/String;)V")).isEqualTo("performs I/O");
+		assertThat(StaticInitializerAnalyzer.getHazard("java/io/File", "getName", "()Ljava/lang/String;")).isNull();
+		assertThat(StaticInitializerAnalyzer.getHazard("java/time/Instant", "now", "()Ljava/time/Instant;")).isEqualTo("reads the clock");
+	}
+
+	private StaticInitializerAnalyzer analyzer() {
+		return new StaticInitializerAnalyzer(typeSystem, typename -> false, typename -> false);
+	}
+
+}
@@ -31,6 +31,14 @@ import java.util.List;
  */
 public class PrePostSecuredComponentProcessor implements ComponentProcessor {
 
+    @Override
+    public Interest getInterest() {
+        // Type.isAtPrePostSecured() also accepts types annotated with @Transactional
+        return Interest.none()
+                .methodAnnotations(Type.AtPostAuthorize, Type.AtPostFilter, Type.AtPreAuthorize, Type.AtPreFilter)
+                .typeAnnotations(Type.AtTransactional);
+    }
+
     @Override
     public boolean handle(NativeContext imageContext, String componentType, List<String> classifiers) {
         Type type = imageContext.getTypeSystem().resolveName(componentType);
@@ -102,6 +102,11 @@ public class SpringAtRepositoryComponentProcessor implements ComponentProcessor
 
 	private static final String LOG_PREFIX = "SARCP: ";
 	
+	@Override
+	public Interest getInterest() {
+		return Interest.none().typeAnnotations("Lorg/springframework/stereotype/Repository;");
+	}
+
 	@Override
 	public boolean handle(NativeContext imageContext, String key, List<String> values) {
 		Type resolvedKey = imageContext.getTypeSystem().resolveDotted(key);
@@ -56,9 +56,19 @@ public class SynthesizerComputationComponentProcessor implements ComponentProces
 		return type != null;
 	}
 
+	@Override
+	public boolean handle(NativeContext imageContext, Type componentType, List<String> classifiers) {
+		// Already resolved
+		return true;
+	}
+
 	@Override
 	public void process(NativeContext imageContext, String componentType, List<String> classifiers) {
-		Type type = imageContext.getTypeSystem().resolveName(componentType);
+		process(imageContext, imageContext.getTypeSystem().resolveName(componentType), classifiers);
+	}
+
+	@Override
+	public void process(NativeContext imageContext, Type type, List<String> classifiers) {
 		Predicate<Type> isSpringAnnotation =  anno -> anno.getDottedName().startsWith("org.springframework");
 
 		Set<Type> collector = new HashSet<>();
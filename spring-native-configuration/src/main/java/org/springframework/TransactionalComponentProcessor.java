@@ -30,9 +30,20 @@ import org.springframework.nativex.type.Type;
  */
 public class TransactionalComponentProcessor implements ComponentProcessor {
 
+	@Override
+	public Interest getInterest() {
+		return Interest.none()
+				.typeAnnotations(Type.AtTransactional, Type.AtJavaxTransactional)
+				.methodAnnotations(Type.AtTransactional, Type.AtJavaxTransactional);
+	}
+
 	@Override
 	public boolean handle(NativeContext imageContext, String componentType, List<String> classifiers) {
-		Type type = imageContext.getTypeSystem().resolveName(componentType);
+		return handle(imageContext, imageContext.getTypeSystem().resolveName(componentType), classifiers);
+	}
+
+	@Override
+	public boolean handle(NativeContext imageContext, Type type, List<String> classifiers) {
 		boolean hasTxMethods = type!=null && type.hasTransactionalMethods();
 		boolean isInteresting =  (type != null && (type.isTransactional() || hasTxMethods));
 //		if (isInteresting && !type.isInterface() && (!type.isTransactional() && hasTxMethods)) {
@@ -44,13 +55,17 @@ public class TransactionalComponentProcessor implements ComponentProcessor {
 
 	@Override
 	public void process(NativeContext imageContext, String componentType, List<String> classifiers) {
-		Type type = imageContext.getTypeSystem().resolveName(componentType);
+		process(imageContext, imageContext.getTypeSystem().resolveName(componentType), classifiers);
+	}
+
+	@Override
+	public void process(NativeContext imageContext, Type type, List<String> classifiers) {
 		List<String> transactionalInterfaces = new ArrayList<>();
 		for (Type intface: type.getInterfaces()) {
 			transactionalInterfaces.add(intface.getDottedName());
 		}
 		if (transactionalInterfaces.size()==0) {
-			imageContext.log("TransactionalComponentProcessor: unable to find interfaces to proxy on "+componentType);
+			imageContext.log("TransactionalComponentProcessor: unable to find interfaces to proxy on "+type.getDottedName());
 			return;
 		}
 		transactionalInterfaces.add("org.springframework.aop.SpringProxy");
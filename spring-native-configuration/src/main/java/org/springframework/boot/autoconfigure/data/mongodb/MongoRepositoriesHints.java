@@ -45,6 +45,7 @@ import org.springframework.nativex.domain.proxies.JdkProxyDescriptor;
 import org.springframework.nativex.hint.NativeHint;
 import org.springframework.nativex.hint.ProxyBits;
 import org.springframework.nativex.hint.TypeHint;
+import org.springframework.nativex.type.ConstantPoolScanner;
 import org.springframework.nativex.type.HintDeclaration;
 import org.springframework.nativex.type.NativeConfiguration;
 import org.springframework.nativex.type.Type;
@@ -85,7 +86,8 @@ public class MongoRepositoriesHints implements NativeConfiguration {
 			return Collections.emptyList();
 		}
 
-		List<Type> scan = typeSystem.scan(type -> !type.getFieldsWithAnnotation("Lorg/springframework/data/mongodb/core/mapping/DBRef;", false).isEmpty());
+		List<Type> scan = typeSystem.scan(ConstantPoolScanner.Prefilter.anyOf("Lorg/springframework/data/mongodb/core/mapping/DBRef;"),
+				type -> !type.getFieldsWithAnnotation("Lorg/springframework/data/mongodb/core/mapping/DBRef;", false).isEmpty());
 		List<HintDeclaration> hints = scan.stream()
 				.flatMap(type -> {
 					return type.getFieldsWithAnnotation("Lorg/springframework/data/mongodb/core/mapping/DBRef;", false)
@@ -51,6 +51,13 @@ public class JpaComponentProcessor implements ComponentProcessor {
 		this.jpaImplementation = new HibernateJpaImplementation(); // TODO: others?
 	}
 
+	@Override
+	public Interest getInterest() {
+		return Interest.none()
+				.classifiers("javax.persistence.Entity")
+				.typeAnnotationPrefixes("javax.persistence");
+	}
+
 	@Override
 	public boolean handle(NativeContext imageContext, String componentType, List<String> classifiers) {
 
@@ -183,6 +183,11 @@ public class SpringDataComponentProcessor implements ComponentProcessor {
 		}
 	}
 
+	@Override
+	public Interest getInterest() {
+		return repositoryName == null ? Interest.none() : Interest.none().classifiers(repositoryName);
+	}
+
 	@Override
 	public boolean handle(NativeContext imageContext, String key, List<String> values) {
 		return repositoryName != null && values.contains(repositoryName);
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -47,6 +48,7 @@ import org.springframework.nativex.hint.ProxyBits;
 import org.springframework.nativex.hint.JdkProxyHint;
 import org.springframework.nativex.hint.TypeHint;
 import org.springframework.nativex.type.AccessDescriptor;
+import org.springframework.nativex.type.ClasspathScan;
 import org.springframework.nativex.type.HintDeclaration;
 import org.springframework.nativex.type.Method;
 import org.springframework.nativex.type.MissingTypeException;
@@ -133,29 +135,34 @@ public class HateoasHints implements NativeConfiguration {
 			return Collections.emptyList();
 		}
 
-		Set<String> hypermediaFormats = computeConfiguredHypermediaFormats(typeSystem);
+		// Collect the candidates for all the computations below in a single pass over the classpath
+		ClasspathScan scan = typeSystem.newClasspathScan();
+		Supplier<List<Type>> hypermediaSupportTypes = scan.register(ClasspathScan.Scope.USER_CODE_AND_SPRING_JARS, HateoasHints::isHypermediaSupportEnabled);
+		Supplier<List<Type>> plugins = scan.register(ClasspathScan.Scope.USER_CODE_AND_SPRING_JARS, HateoasHints::isPlugin);
+		Supplier<List<Type>> configurationClasses = scan.register(ClasspathScan.Scope.USER_CODE_AND_SPRING_JARS, HateoasHints::isHateoasConfiguration);
+		Supplier<List<Type>> representationModels = scan.register(ClasspathScan.Scope.USER_CODE_AND_SPRING_JARS, HateoasHints::isRepresentationModel);
+		Supplier<List<Type>> entityLinks = scan.register(ClasspathScan.Scope.USER_CODE_AND_SPRING_JARS, HateoasHints::isEntityLinks);
+		Supplier<List<Type>> jacksonCandidates = scan.register(ClasspathScan.Scope.USER_CODE_AND_SPRING_JARS, this::usesJackson);
+		Supplier<List<Type>> controllers = scan.register(ClasspathScan.Scope.USER_CODE_AND_SPRING_JARS, HateoasHints::isWebControllerProxyCandidate);
+		scan.run();
+
+		Set<String> hypermediaFormats = computeConfiguredHypermediaFormats(hypermediaSupportTypes.get());
 
 		List<HintDeclaration> hints = new ArrayList<>();
-		hints.addAll(computePlugins(typeSystem));
+		hints.addAll(computePlugins(plugins.get()));
 
-		hints.addAll(computeAtConfigurationClasses(typeSystem, hypermediaFormats));
-		hints.addAll(computeRepresentationModels(typeSystem));
-		hints.addAll(computeEntityLinks(typeSystem));
-		hints.addAll(computeJacksonMappings(typeSystem, hypermediaFormats));
-		hints.addAll(computeControllerProxies(typeSystem));
+		hints.addAll(computeAtConfigurationClasses(typeSystem, configurationClasses.get(), hypermediaFormats));
+		hints.addAll(computeRepresentationModels(typeSystem, representationModels.get()));
+		hints.addAll(computeEntityLinks(typeSystem, entityLinks.get()));
+		hints.addAll(computeJacksonMappings(typeSystem, jacksonCandidates.get(), hypermediaFormats));
+		hints.addAll(computeControllerProxies(controllers.get()));
 
 		return hints;
 	}
 
-	private Set<String> computeConfiguredHypermediaFormats(TypeSystem typeSystem) {
+	private Set<String> computeConfiguredHypermediaFormats(List<Type> hypermediaSupportTypes) {
 
-		return typeSystem.scanUserCodeDirectoriesAndSpringJars(type -> {
-			try {
-				return type.isAnnotated(ENABLE_HYPERMEDIA_SUPPORT);
-			} catch (MissingTypeException e) {
-				return false;
-			}
-		})
+		return hypermediaSupportTypes.stream()
 				.flatMap(type -> {
 					try {
 						String formats = type.getAnnotationValuesInHierarchy(ENABLE_HYPERMEDIA_SUPPORT).getOrDefault("type", "");
@@ -178,7 +185,7 @@ public class HateoasHints implements NativeConfiguration {
 				.collect(Collectors.toSet());
 	}
 
-	private List<HintDeclaration> computeAtConfigurationClasses(TypeSystem typeSystem, Set<String> hypermediaFormats) {
+	private List<HintDeclaration> computeAtConfigurationClasses(TypeSystem typeSystem, List<Type> configurationClasses, Set<String> hypermediaFormats) {
 
 		return TypeProcessor.namedProcessor("HateoasHints - Configuration Classes")
 				.skipTypesMatching(type -> {
@@ -192,17 +199,17 @@ public class HateoasHints implements NativeConfiguration {
 				.skipFieldInspection()
 				.onTypeDiscovered((type, context) -> context.addReflectiveAccess(type, new AccessDescriptor(AccessBits.ALL)))
 				.use(typeSystem)
-				.toProcessTypesMatching(type -> type.isPartOfDomain("org.springframework.hateoas") && type.isAtConfiguration());
+				.toProcessTypes(ts -> configurationClasses.stream());
 	}
 
-	private List<HintDeclaration> computeEntityLinks(TypeSystem typeSystem) {
+	private List<HintDeclaration> computeEntityLinks(TypeSystem typeSystem, List<Type> entityLinks) {
 
 		return TypeProcessor.namedProcessor("HateoasHints - EntityLinks")
 				.filterAnnotations(annotation ->
 						annotation.isPartOfDomain("org.springframework"))
 				.skipTypesMatching(type -> !type.isPartOfDomain("org.springframework.hateoas"))
 				.use(typeSystem)
-				.toProcessTypesMatching(type -> type.implementsInterface(ENTITY_LINKS, true));
+				.toProcessTypes(ts -> entityLinks.stream());
 	}
 
 	/**
@@ -214,6 +221,10 @@ public class HateoasHints implements NativeConfiguration {
 	 * @return
 	 */
 	List<HintDeclaration> computeRepresentationModels(TypeSystem typeSystem) {
+		return computeRepresentationModels(typeSystem, typeSystem.scanUserCodeDirectoriesAndSpringJars(HateoasHints::isRepresentationModel).collect(Collectors.toList()));
+	}
+
+	private List<HintDeclaration> computeRepresentationModels(TypeSystem typeSystem, List<Type> representationModels) {
 
 		return TypeProcessor.namedProcessor("HateoasHints - RepresentationModel")
 				.skipTypesMatching(type -> type.isPartOfDomain("org.springframework.") || type.isPartOfDomain("com.fasterxml.jackson."))
@@ -222,28 +233,19 @@ public class HateoasHints implements NativeConfiguration {
 							annotation.isPartOfDomain("com.fasterxml.jackson.annotation");
 				})
 				.use(typeSystem)
-				.toProcessTypesMatching(type -> {
-
-					try {
-						return type.extendsClass("Lorg/springframework/hateoas/RepresentationModel;") ||
-								type.implementsInterface("org/springframework/hateoas/server/RepresentationModelProcessor", true);
-					} catch (MissingTypeException e) {
-
-					}
-					return false;
-				});
+				.toProcessTypes(ts -> representationModels.stream());
 	}
 
 	/**
 	 * Create proxies for all {@link org.springframework.stereotype.Controller} classes and the return types of their methods
 	 * annotated with {@link org.springframework.web.bind.annotation.RequestMapping}.
 	 *
-	 * @param typeSystem must not be {@literal null}.
+	 * @param controllers the candidate controller types, must not be {@literal null}.
 	 * @return never {@literal null}.
 	 */
-	List<HintDeclaration> computeControllerProxies(TypeSystem typeSystem) {
+	List<HintDeclaration> computeControllerProxies(List<Type> controllers) {
 
-		return typeSystem.scanUserCodeDirectoriesAndSpringJars(HateoasHints::isWebControllerProxyCandidate)
+		return controllers.stream()
 				.map(type -> {
 
 					HintDeclaration hint = new HintDeclaration();
@@ -258,6 +260,10 @@ public class HateoasHints implements NativeConfiguration {
 
 
 	List<HintDeclaration> computeJacksonMappings(TypeSystem typeSystem, Set<String> hypermediaFormats) {
+		return computeJacksonMappings(typeSystem, typeSystem.scanUserCodeDirectoriesAndSpringJars(this::usesJackson).collect(Collectors.toList()), hypermediaFormats);
+	}
+
+	private List<HintDeclaration> computeJacksonMappings(TypeSystem typeSystem, List<Type> jacksonCandidates, Set<String> hypermediaFormats) {
 
 		return TypeProcessor.namedProcessor("HateoasHints - Jackson Mapping Candidates")
 				.skipTypesMatching(type -> {
@@ -274,13 +280,13 @@ public class HateoasHints implements NativeConfiguration {
 				})
 				.filterAnnotations(annotation -> annotation.isPartOfDomain("com.fasterxml.jackson."))
 				.use(typeSystem)
-				.toProcessTypesMatching(this::usesJackson);
+				.toProcessTypes(ts -> jacksonCandidates.stream());
 	}
 
-	private List<HintDeclaration> computePlugins(TypeSystem typeSystem) {
+	private List<HintDeclaration> computePlugins(List<Type> plugins) {
 
 		// TODO: maybe move to PluginHints.
-		return typeSystem.scanUserCodeDirectoriesAndSpringJars(type -> type.implementsInterface("org/springframework/plugin/core/Plugin", true))
+		return plugins.stream()
 				.map(type -> {
 					HintDeclaration hint = new HintDeclaration();
 					hint.addDependantType(type.getDottedName(), new AccessDescriptor(AccessBits.FULL_REFLECTION));
@@ -288,6 +294,35 @@ public class HateoasHints implements NativeConfiguration {
 				}).collect(Collectors.toList());
 	}
 
+	private static boolean isHypermediaSupportEnabled(Type type) {
+		try {
+			return type.isAnnotated(ENABLE_HYPERMEDIA_SUPPORT);
+		} catch (MissingTypeException e) {
+			return false;
+		}
+	}
+
+	private static boolean isPlugin(Type type) {
+		return type.implementsInterface("org/springframework/plugin/core/Plugin", true);
+	}
+
+	private static boolean isHateoasConfiguration(Type type) {
+		return type.isPartOfDomain("org.springframework.hateoas") && type.isAtConfiguration();
+	}
+
+	private static boolean isEntityLinks(Type type) {
+		return type.implementsInterface(ENTITY_LINKS, true);
+	}
+
+	private static boolean isRepresentationModel(Type type) {
+		try {
+			return type.extendsClass("Lorg/springframework/hateoas/RepresentationModel;") ||
+					type.implementsInterface("org/springframework/hateoas/server/RepresentationModelProcessor", true);
+		} catch (MissingTypeException e) {
+			return false;
+		}
+	}
+
 	private static boolean isWebControllerProxyCandidate(Type type) {
 		return type.isAtController() || type.isAnnotated("Lorg/springframework/data/rest/webmvc/BasePathAwareController;");
 	}
@@ -33,9 +33,20 @@ public class KafkaComponentProcessor implements ComponentProcessor {
 
     private final Set<String> added = new HashSet<>();
 
+    @Override
+    public Interest getInterest() {
+        return Interest.none()
+                .methodAnnotations("Lorg/springframework/kafka/annotation/KafkaListener;")
+                .interfaces("org/springframework/kafka/listener/MessageListener");
+    }
+
     @Override
     public boolean handle(NativeContext imageContext, String componentType, List<String> classifiers) {
-        Type type = imageContext.getTypeSystem().resolveName(componentType);
+        return handle(imageContext, imageContext.getTypeSystem().resolveName(componentType), classifiers);
+    }
+
+    @Override
+    public boolean handle(NativeContext imageContext, Type type, List<String> classifiers) {
         if (type == null) {
             return false;
         }
@@ -38,6 +38,11 @@ public class WebComponentProcessor implements ComponentProcessor {
 
 	private Set<String> added = new HashSet<>();
 
+	@Override
+	public Interest getInterest() {
+		return Interest.none().typeAnnotations(Type.AtController);
+	}
+
 	@Override
 	public boolean handle(NativeContext imageContext, String componentType, List<String> classifiers) {
 		Type resolvedComponentType = imageContext.getTypeSystem().resolveDotted(componentType,true);
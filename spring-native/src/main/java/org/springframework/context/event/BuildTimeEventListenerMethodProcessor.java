@@ -0,0 +1,199 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.aop.framework.autoproxy.AutoProxyUtils;
+import org.springframework.aop.scope.ScopedObject;
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link EventListenerMethodProcessor} that only looks for {@code @EventListener} annotations on the methods found at
+ * build time, rather than on every method of every bean. Beans whose methods were not all seen at build time are
+ * introspected as usual.
+ * <p>The bean processing of the super class is private, so it is done here again. This class lives in the package of
+ * {@link ApplicationListenerMethodAdapter} to initialize the listeners it creates with their context and expression
+ * evaluator, like the super class does.
+ */
+public class BuildTimeEventListenerMethodProcessor extends EventListenerMethodProcessor {
+
+	private final Function<Class<?>, Method[]> eventListenerMethods;
+
+	private final EventExpressionEvaluator evaluator = new EventExpressionEvaluator();
+
+	private final Set<Class<?>> nonAnnotatedClasses = Collections.newSetFromMap(new ConcurrentHashMap<>(64));
+
+	private ConfigurableApplicationContext applicationContext;
+
+	private ConfigurableListableBeanFactory beanFactory;
+
+	private List<EventListenerFactory> eventListenerFactories;
+
+	/**
+	 * Create a new instance.
+	 * @param eventListenerMethods returns the {@code @EventListener} methods of a class and of its supertypes, or
+	 * {@code null} if they are not known
+	 */
+	public BuildTimeEventListenerMethodProcessor(Function<Class<?>, Method[]> eventListenerMethods) {
+		this.eventListenerMethods = eventListenerMethods;
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext) {
+		super.setApplicationContext(applicationContext);
+		this.applicationContext = (ConfigurableApplicationContext) applicationContext;
+	}
+
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+		Map<String, EventListenerFactory> beans = beanFactory.getBeansOfType(EventListenerFactory.class, false, false);
+		List<EventListenerFactory> factories = new ArrayList<>(beans.values());
+		AnnotationAwareOrderComparator.sort(factories);
+		this.eventListenerFactories = factories;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		ConfigurableListableBeanFactory beanFactory = this.beanFactory;
+		Assert.state(beanFactory != null, "No ConfigurableListableBeanFactory set");
+		for (String beanName : beanFactory.getBeanNamesForType(Object.class)) {
+			if (ScopedProxyUtils.isScopedTarget(beanName)) {
+				continue;
+			}
+			Class<?> type = null;
+			try {
+				type = AutoProxyUtils.determineTargetClass(beanFactory, beanName);
+			}
+			catch (Throwable ex) {
+				// An unresolvable bean type, probably from a lazy bean - let's ignore it.
+				if (logger.isDebugEnabled()) {
+					logger.debug("Could not resolve target class for bean with name '" + beanName + "'", ex);
+				}
+			}
+			if (type == null) {
+				continue;
+			}
+			if (ScopedObject.class.isAssignableFrom(type)) {
+				try {
+					Class<?> targetClass = AutoProxyUtils.determineTargetClass(beanFactory, ScopedProxyUtils.getTargetBeanName(beanName));
+					if (targetClass != null) {
+						type = targetClass;
+					}
+				}
+				catch (Throwable ex) {
+					// An invalid scoped proxy arrangement - let's ignore it.
+					if (logger.isDebugEnabled()) {
+						logger.debug("Could not resolve target bean for scoped proxy '" + beanName + "'", ex);
+					}
+				}
+			}
+			try {
+				processBean(beanName, type);
+			}
+			catch (Throwable ex) {
+				throw new BeanInitializationException("Failed to process @EventListener annotation on bean with name '" + beanName + "'", ex);
+			}
+		}
+	}
+
+	private void processBean(String beanName, Class<?> targetType) {
+		if (this.nonAnnotatedClasses.contains(targetType) || !AnnotationUtils.isCandidateClass(targetType, EventListener.class)
+				|| isSpringContainerClass(targetType)) {
+			return;
+		}
+		Map<Method, EventListener> annotatedMethods = null;
+		try {
+			annotatedMethods = findAnnotatedMethods(targetType);
+		}
+		catch (Throwable ex) {
+			// An unresolvable type in a method signature, probably from a lazy bean - let's ignore it.
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not resolve methods for bean with name '" + beanName + "'", ex);
+			}
+		}
+		if (annotatedMethods == null || annotatedMethods.isEmpty()) {
+			this.nonAnnotatedClasses.add(targetType);
+			return;
+		}
+		ConfigurableApplicationContext context = this.applicationContext;
+		Assert.state(context != null, "No ApplicationContext set");
+		List<EventListenerFactory> factories = this.eventListenerFactories;
+		Assert.state(factories != null, "EventListenerFactory List not initialized");
+		for (Method method : annotatedMethods.keySet()) {
+			for (EventListenerFactory factory : factories) {
+				if (factory.supportsMethod(method)) {
+					Method methodToUse = AopUtils.selectInvocableMethod(method, context.getType(beanName));
+					ApplicationListener<?> applicationListener = factory.createApplicationListener(beanName, targetType, methodToUse);
+					if (applicationListener instanceof ApplicationListenerMethodAdapter) {
+						((ApplicationListenerMethodAdapter) applicationListener).init(context, this.evaluator);
+					}
+					context.addApplicationListener(applicationListener);
+					break;
+				}
+			}
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug(annotatedMethods.size() + " @EventListener methods processed on bean '" + beanName + "': " + annotatedMethods);
+		}
+	}
+
+	private Map<Method, EventListener> findAnnotatedMethods(Class<?> targetType) {
+		Method[] candidates = this.eventListenerMethods.apply(targetType);
+		if (candidates == null) {
+			return MethodIntrospector.selectMethods(targetType,
+					(MethodIntrospector.MetadataLookup<EventListener>) method -> AnnotatedElementUtils.findMergedAnnotation(method, EventListener.class));
+		}
+		// A method overriding an annotated method is the one registered, once
+		Map<Method, EventListener> annotatedMethods = new LinkedHashMap<>();
+		for (Method candidate : candidates) {
+			Method method = ClassUtils.getMostSpecificMethod(candidate, targetType);
+			EventListener eventListener = AnnotatedElementUtils.findMergedAnnotation(method, EventListener.class);
+			if (eventListener != null) {
+				annotatedMethods.putIfAbsent(method, eventListener);
+			}
+		}
+		return annotatedMethods;
+	}
+
+	private static boolean isSpringContainerClass(Class<?> clazz) {
+		return (clazz.getName().startsWith("org.springframework.") && !AnnotatedElementUtils.isAnnotated(ClassUtils.getUserClass(clazz), Component.class));
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Registers the bean definitions generated at build time for user configuration classes, so that
+ * {@code ConfigurationClassPostProcessor} finds them already registered and skips parsing them.
+ * Setting {@code spring.native.build-time-bean-registration} to {@code false} falls back to
+ * parsing those classes at runtime.
+ */
+public class BuildTimeBeanRegistrationInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	private static final BuildTimeGeneratedClass generatedClass = new BuildTimeGeneratedClass(
+			"org.springframework.aot.StaticBeanRegistrations", "spring.native.build-time-bean-registration");
+
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+		if (generatedClass.isEnabled(context.getEnvironment())) {
+			context.addBeanFactoryPostProcessor(generatedClass.instantiate(context.getClassLoader(), BeanFactoryPostProcessor.class));
+		}
+	}
+
+}
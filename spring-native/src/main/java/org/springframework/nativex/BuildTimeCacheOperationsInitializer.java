@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import java.lang.reflect.Method;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Replaces the cache operation source configured by {@code @EnableCaching} with the one generated at build time, that
+ * returns the cache operations computed at build time, and registers the key generators of the keys compiled at build
+ * time. Setting {@code spring.native.build-time-cache-operations} to {@code false} keeps the annotation based source.
+ */
+public class BuildTimeCacheOperationsInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	private static final BuildTimeGeneratedClass generatedClass = new BuildTimeGeneratedClass(
+			"org.springframework.aot.StaticCacheOperationSource", "spring.native.build-time-cache-operations");
+
+	// The bean defined by ProxyCachingConfiguration
+	private static final String BEAN_NAME = "cacheOperationSource";
+
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+		if (!generatedClass.isEnabled(context.getEnvironment())) {
+			return;
+		}
+		ClassLoader classLoader = context.getClassLoader();
+		Method registerKeyGenerators = generatedClass.getStaticMethod(classLoader, "registerKeyGenerators", SingletonBeanRegistry.class);
+		context.addBeanFactoryPostProcessor(beanFactory -> ReflectionUtils.invokeMethod(registerKeyGenerators, null, beanFactory));
+		context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				// Only the operation source created with the default configuration is replaced
+				if (BEAN_NAME.equals(beanName) && bean.getClass() == AnnotationCacheOperationSource.class) {
+					return generatedClass.instantiate(classLoader, Object.class);
+				}
+				return bean;
+			}
+		});
+	}
+
+}
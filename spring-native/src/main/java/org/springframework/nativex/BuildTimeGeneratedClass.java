@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import java.lang.reflect.Method;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * A class generated at build time that replaces some processing done at runtime. It is only used when it is
+ * present, the application runs in AOT mode and the {@code spring.native.*} property of the feature is not set to
+ * {@code false}, which falls back to the regular runtime processing.
+ */
+public final class BuildTimeGeneratedClass {
+
+	private static final Log logger = LogFactory.getLog(BuildTimeGeneratedClass.class);
+
+	private final String className;
+
+	private final String enabledProperty;
+
+	private final boolean present;
+
+	/**
+	 * Create a new instance.
+	 * @param className the name of the generated class
+	 * @param enabledProperty the property that disables the use of the generated class when set to {@code false}
+	 */
+	public BuildTimeGeneratedClass(String className, String enabledProperty) {
+		this.className = className;
+		this.enabledProperty = enabledProperty;
+		this.present = isPresent(className);
+	}
+
+	/**
+	 * Return whether the generated class should be used.
+	 * @param environment the environment the property is read from
+	 */
+	public boolean isEnabled(Environment environment) {
+		if (!this.present || !AotModeDetector.isAotModeEnabled()) {
+			return false;
+		}
+		if (!environment.getProperty(this.enabledProperty, Boolean.class, true)) {
+			logger.debug(this.className + " disabled by " + this.enabledProperty + ", falling back to runtime processing");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Load the generated class.
+	 * @throws GeneratedClassNotFoundException if it cannot be loaded
+	 */
+	public Class<?> load(ClassLoader classLoader) {
+		try {
+			return ClassUtils.forName(this.className, classLoader);
+		}
+		catch (ClassNotFoundException ex) {
+			throw new GeneratedClassNotFoundException(this.className);
+		}
+	}
+
+	/**
+	 * Load and instantiate the generated class with its default constructor.
+	 * @throws GeneratedClassNotFoundException if it cannot be loaded
+	 */
+	public <T> T instantiate(ClassLoader classLoader, Class<T> type) {
+		return BeanUtils.instantiateClass(load(classLoader), type);
+	}
+
+	/**
+	 * Find a static method of the generated class.
+	 * @throws GeneratedClassNotFoundException if it cannot be loaded
+	 * @throws IllegalStateException if the method does not exist, the class was generated by another version
+	 */
+	public Method getStaticMethod(ClassLoader classLoader, String methodName, Class<?>... parameterTypes) {
+		Method method = ReflectionUtils.findMethod(load(classLoader), methodName, parameterTypes);
+		if (method == null) {
+			throw new IllegalStateException("No method " + methodName + " on " + this.className
+					+ ", was it generated by another version of the Spring AOT plugin?");
+		}
+		return method;
+	}
+
+	/**
+	 * Return whether the class is present, for checks that run when the native image is built.
+	 */
+	public static boolean isPresent(String className) {
+		return ClassUtils.isPresent(className, null);
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Registers the Jackson module generated at build time as a bean, so that the {@code ObjectMapper} configured by
+ * Spring Boot uses its serializers and deserializers for the web payload types.
+ * Setting {@code spring.native.build-time-jackson-serializers} to {@code false} falls back to the regular Jackson
+ * serializers.
+ */
+public class BuildTimeJacksonModuleInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	private static final BuildTimeGeneratedClass generatedClass = new BuildTimeGeneratedClass(
+			"org.springframework.aot.StaticJacksonModule", "spring.native.build-time-jackson-serializers");
+
+	private static final String BEAN_NAME = "staticJacksonModule";
+
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+		if (generatedClass.isEnabled(context.getEnvironment())) {
+			context.getBeanFactory().registerSingleton(BEAN_NAME, generatedClass.instantiate(context.getClassLoader(), Object.class));
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Replaces the Kafka listener bean post processor registered by {@code @EnableKafka} with the one generated at build
+ * time, that only looks for listener methods in the beans whose classes may declare listeners. Setting
+ * {@code spring.native.build-time-kafka-listeners} to {@code false} keeps the regular post processor.
+ */
+public class BuildTimeKafkaListenersInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	private static final BuildTimeGeneratedClass generatedClass = new BuildTimeGeneratedClass(
+			"org.springframework.aot.StaticKafkaListenerAnnotationBeanPostProcessor", "spring.native.build-time-kafka-listeners");
+
+	private static final String KAFKA_LISTENER_ANNOTATION_BEAN_POST_PROCESSOR = "org.springframework.kafka.annotation.KafkaListenerAnnotationBeanPostProcessor";
+
+	// The bean defined by KafkaBootstrapConfiguration
+	private static final String BEAN_NAME = "org.springframework.kafka.config.internalKafkaListenerAnnotationProcessor";
+
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+		if (!generatedClass.isEnabled(context.getEnvironment())) {
+			return;
+		}
+		Class<?> listenerProcessor = generatedClass.load(context.getClassLoader());
+		// Runs once the configuration classes have registered their bean definitions, before the post processors are created
+		context.addBeanFactoryPostProcessor(beanFactory -> {
+			if (!(beanFactory instanceof BeanDefinitionRegistry) || !beanFactory.containsBeanDefinition(BEAN_NAME)) {
+				return;
+			}
+			BeanDefinition definition = beanFactory.getBeanDefinition(BEAN_NAME);
+			// Only the post processor registered with the default configuration is replaced
+			if (KAFKA_LISTENER_ANNOTATION_BEAN_POST_PROCESSOR.equals(definition.getBeanClassName())) {
+				RootBeanDefinition replacement = new RootBeanDefinition(listenerProcessor);
+				replacement.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+				BeanDefinitionRegistry registry = (BeanDefinitionRegistry) beanFactory;
+				registry.removeBeanDefinition(BEAN_NAME);
+				registry.registerBeanDefinition(BEAN_NAME, replacement);
+			}
+		});
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import java.lang.reflect.Constructor;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Replaces the method security metadata source configured by {@code @EnableGlobalMethodSecurity} with the one
+ * generated at build time, that returns the method security attributes computed at build time and delegates to the
+ * configured sources for the other methods. Setting {@code spring.native.build-time-method-security} to
+ * {@code false} keeps the configured sources.
+ */
+public class BuildTimeMethodSecurityInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	private static final BuildTimeGeneratedClass generatedClass = new BuildTimeGeneratedClass(
+			"org.springframework.aot.StaticMethodSecurityMetadataSource", "spring.native.build-time-method-security");
+
+	private static final String DELEGATING_METHOD_SECURITY_METADATA_SOURCE = "org.springframework.security.access.method.DelegatingMethodSecurityMetadataSource";
+
+	// The bean defined by GlobalMethodSecurityConfiguration
+	private static final String BEAN_NAME = "methodSecurityMetadataSource";
+
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+		if (!generatedClass.isEnabled(context.getEnvironment())) {
+			return;
+		}
+		Class<?> delegatingMetadataSource = ClassUtils.resolveClassName(DELEGATING_METHOD_SECURITY_METADATA_SOURCE, context.getClassLoader());
+		Constructor<?> metadataSourceConstructor = ClassUtils.getConstructorIfAvailable(generatedClass.load(context.getClassLoader()), delegatingMetadataSource);
+		if (metadataSourceConstructor == null) {
+			throw new IllegalStateException("No constructor taking a " + DELEGATING_METHOD_SECURITY_METADATA_SOURCE
+					+ " on the generated metadata source, was it generated by another version of the Spring AOT plugin?");
+		}
+		context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				// Only the metadata source created with the default configuration is replaced, the generated one keeps its sources
+				if (BEAN_NAME.equals(beanName) && bean.getClass().getName().equals(DELEGATING_METHOD_SECURITY_METADATA_SOURCE)) {
+					return BeanUtils.instantiateClass(metadataSourceConstructor, bean);
+				}
+				return bean;
+			}
+		});
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Registers the {@code WebMvcRegistrations} generated at build time as a bean, so that the request mappings of the
+ * controllers read at build time are registered by the handler mapping Spring Boot configures. The registrations of
+ * the application take precedence. Setting {@code spring.native.build-time-request-mappings} to {@code false} falls
+ * back to introspecting the controllers at runtime.
+ */
+public class BuildTimeRequestMappingsInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	private static final BuildTimeGeneratedClass generatedClass = new BuildTimeGeneratedClass(
+			"org.springframework.aot.StaticRequestMappings", "spring.native.build-time-request-mappings");
+
+	private static final String WEB_MVC_REGISTRATIONS = "org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations";
+
+	private static final String BEAN_NAME = "staticRequestMappings";
+
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+		if (!generatedClass.isEnabled(context.getEnvironment())) {
+			return;
+		}
+		Object requestMappings = generatedClass.instantiate(context.getClassLoader(), Object.class);
+		// Boot only uses the registrations when there is a single bean of this type
+		context.addBeanFactoryPostProcessor(beanFactory -> {
+			Class<?> webMvcRegistrations = ClassUtils.resolveClassName(WEB_MVC_REGISTRATIONS, beanFactory.getBeanClassLoader());
+			if (beanFactory.getBeanNamesForType(webMvcRegistrations, true, false).length == 0) {
+				beanFactory.registerSingleton(BEAN_NAME, requestMappings);
+			}
+		});
+	}
+
+}
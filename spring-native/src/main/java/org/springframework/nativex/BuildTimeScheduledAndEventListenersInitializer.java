@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.BuildTimeEventListenerMethodProcessor;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Replaces the {@code @Scheduled} annotation bean post processor registered by {@code @EnableScheduling} and the
+ * {@code @EventListener} method processor registered with the annotation config processors with variants that only
+ * look at the annotated methods found at build time. Setting
+ * {@code spring.native.build-time-scheduled-and-event-listeners} to {@code false} keeps the regular processors.
+ */
+public class BuildTimeScheduledAndEventListenersInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	private static final BuildTimeGeneratedClass generatedClass = new BuildTimeGeneratedClass(
+			"org.springframework.aot.StaticScheduledAndEventListenerMethods", "spring.native.build-time-scheduled-and-event-listeners");
+
+	// The bean defined by SchedulingConfiguration
+	private static final String SCHEDULED_BEAN_NAME = "org.springframework.context.annotation.internalScheduledAnnotationProcessor";
+
+	private static final String SCHEDULED_ANNOTATION_BEAN_POST_PROCESSOR = "org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor";
+
+	private static final String SCHEDULED_FACTORY_METHOD = "scheduledAnnotationProcessor";
+
+	// The bean defined by AnnotationConfigUtils
+	private static final String EVENT_LISTENER_BEAN_NAME = "org.springframework.context.event.internalEventListenerProcessor";
+
+	private static final String EVENT_LISTENER_METHOD_PROCESSOR = "org.springframework.context.event.EventListenerMethodProcessor";
+
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+		if (!generatedClass.isEnabled(context.getEnvironment())) {
+			return;
+		}
+		Function<Class<?>, Method[]> scheduledMethods = lookup(context.getClassLoader(), "getScheduledMethods");
+		Function<Class<?>, Method[]> eventListenerMethods = lookup(context.getClassLoader(), "getEventListenerMethods");
+		// Runs once the configuration classes have registered their bean definitions, before the post processors are created
+		context.addBeanFactoryPostProcessor(beanFactory -> {
+			if (!(beanFactory instanceof BeanDefinitionRegistry)) {
+				return;
+			}
+			if (isDefaultDefinition(beanFactory, SCHEDULED_BEAN_NAME, SCHEDULED_ANNOTATION_BEAN_POST_PROCESSOR, SCHEDULED_FACTORY_METHOD)) {
+				replace((BeanDefinitionRegistry) beanFactory, SCHEDULED_BEAN_NAME, new RootBeanDefinition(BuildTimeScheduledAnnotationBeanPostProcessor.class,
+						() -> new BuildTimeScheduledAnnotationBeanPostProcessor(scheduledMethods)));
+			}
+			if (isDefaultDefinition(beanFactory, EVENT_LISTENER_BEAN_NAME, EVENT_LISTENER_METHOD_PROCESSOR, null)) {
+				replace((BeanDefinitionRegistry) beanFactory, EVENT_LISTENER_BEAN_NAME, new RootBeanDefinition(BuildTimeEventListenerMethodProcessor.class,
+						() -> new BuildTimeEventListenerMethodProcessor(eventListenerMethods)));
+			}
+		});
+	}
+
+	private static Function<Class<?>, Method[]> lookup(ClassLoader classLoader, String methodName) {
+		Method method = generatedClass.getStaticMethod(classLoader, methodName, Class.class);
+		return clazz -> (Method[]) ReflectionUtils.invokeMethod(method, null, clazz);
+	}
+
+	// Only the processors registered with the default configuration are replaced
+	private static boolean isDefaultDefinition(ConfigurableListableBeanFactory beanFactory, String beanName, String className, String factoryMethodName) {
+		if (!beanFactory.containsBeanDefinition(beanName)) {
+			return false;
+		}
+		BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+		return className.equals(definition.getBeanClassName())
+				|| (factoryMethodName != null && factoryMethodName.equals(definition.getFactoryMethodName()));
+	}
+
+	private static void replace(BeanDefinitionRegistry registry, String beanName, RootBeanDefinition replacement) {
+		replacement.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+		registry.removeBeanDefinition(beanName);
+		registry.registerBeanDefinition(beanName, replacement);
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+import org.springframework.aop.framework.AopInfrastructureBean;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link ScheduledAnnotationBeanPostProcessor} that only looks for {@code @Scheduled} annotations on the methods
+ * found at build time, rather than on every method of every bean. Beans whose methods were not all seen at build time
+ * are introspected as usual.
+ */
+public class BuildTimeScheduledAnnotationBeanPostProcessor extends ScheduledAnnotationBeanPostProcessor {
+
+	private final Function<Class<?>, Method[]> scheduledMethods;
+
+	/**
+	 * Create a new instance.
+	 * @param scheduledMethods returns the {@code @Scheduled} methods of a class and of its supertypes, or {@code null}
+	 * if they are not known
+	 */
+	public BuildTimeScheduledAnnotationBeanPostProcessor(Function<Class<?>, Method[]> scheduledMethods) {
+		this.scheduledMethods = scheduledMethods;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof AopInfrastructureBean || bean instanceof TaskScheduler || bean instanceof ScheduledExecutorService) {
+			// Ignore AOP infrastructure such as scoped proxies, as the super class does
+			return bean;
+		}
+		Class<?> targetClass = AopProxyUtils.ultimateTargetClass(bean);
+		Method[] candidates = this.scheduledMethods.apply(targetClass);
+		if (candidates == null) {
+			return super.postProcessAfterInitialization(bean, beanName);
+		}
+		// A method overriding an annotated method is the one scheduled, once
+		Set<Method> methods = new LinkedHashSet<>();
+		for (Method candidate : candidates) {
+			methods.add(ClassUtils.getMostSpecificMethod(candidate, targetClass));
+		}
+		for (Method method : methods) {
+			for (Scheduled scheduled : AnnotatedElementUtils.getMergedRepeatableAnnotations(method, Scheduled.class, Schedules.class)) {
+				processScheduled(scheduled, method, bean);
+			}
+		}
+		return bean;
+	}
+
+}
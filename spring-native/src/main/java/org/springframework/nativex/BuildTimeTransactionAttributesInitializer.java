@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Replaces the transaction attribute source configured by {@code @EnableTransactionManagement} with the one generated
+ * at build time, that returns the transaction attributes computed at build time. Setting
+ * {@code spring.native.build-time-transaction-attributes} to {@code false} keeps the annotation based one.
+ */
+public class BuildTimeTransactionAttributesInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	private static final BuildTimeGeneratedClass generatedClass = new BuildTimeGeneratedClass(
+			"org.springframework.aot.StaticTransactionAttributeSource", "spring.native.build-time-transaction-attributes");
+
+	private static final String ANNOTATION_TRANSACTION_ATTRIBUTE_SOURCE = "org.springframework.transaction.annotation.AnnotationTransactionAttributeSource";
+
+	// The bean defined by ProxyTransactionManagementConfiguration
+	private static final String BEAN_NAME = "transactionAttributeSource";
+
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+		if (!generatedClass.isEnabled(context.getEnvironment())) {
+			return;
+		}
+		ClassLoader classLoader = context.getClassLoader();
+		context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				// Only the attribute source created with the default configuration is replaced, the generated one keeps it
+				if (BEAN_NAME.equals(beanName) && bean.getClass().getName().equals(ANNOTATION_TRANSACTION_ATTRIBUTE_SOURCE)) {
+					return generatedClass.instantiate(classLoader, Object.class);
+				}
+				return bean;
+			}
+		});
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Registers the post processor generated at build time that loads the constraint metadata of the types validated
+ * by the application when a validator is created, so that their first validation does not have to.
+ * Setting {@code spring.native.build-time-validation-metadata} to {@code false} leaves the metadata to be loaded
+ * on first validation.
+ */
+public class BuildTimeValidationMetadataInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+	private static final BuildTimeGeneratedClass generatedClass = new BuildTimeGeneratedClass(
+			"org.springframework.aot.StaticValidationMetadata", "spring.native.build-time-validation-metadata");
+
+	@Override
+	public void initialize(ConfigurableApplicationContext context) {
+		if (generatedClass.isEnabled(context.getEnvironment())) {
+			context.getBeanFactory().addBeanPostProcessor(generatedClass.instantiate(context.getClassLoader(), BeanPostProcessor.class));
+		}
+	}
+
+}
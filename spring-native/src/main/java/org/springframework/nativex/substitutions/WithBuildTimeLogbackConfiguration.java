@@ -0,0 +1,30 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.substitutions;
+
+import java.util.function.BooleanSupplier;
+
+import org.springframework.nativex.BuildTimeGeneratedClass;
+
+public class WithBuildTimeLogbackConfiguration implements BooleanSupplier {
+
+	@Override
+	public boolean getAsBoolean() {
+		return BuildTimeGeneratedClass.isPresent("org.springframework.aot.StaticLogbackConfiguration");
+	}
+
+}
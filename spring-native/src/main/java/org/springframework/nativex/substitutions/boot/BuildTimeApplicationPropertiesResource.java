@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.substitutions.boot;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.origin.OriginTrackedValue;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * An application properties file whose properties were compiled at build time and which is not part of the
+ * resources of the native image. The config data loader uses the compiled properties, other readers of the
+ * resource are given them in the properties format.
+ */
+class BuildTimeApplicationPropertiesResource extends ClassPathResource {
+
+	BuildTimeApplicationPropertiesResource(String path) {
+		super(path);
+	}
+
+	@Override
+	public boolean exists() {
+		return true;
+	}
+
+	@Override
+	public boolean isReadable() {
+		return true;
+	}
+
+	@Override
+	public InputStream getInputStream() {
+		List<Map<String, ?>> documents = Target_StaticApplicationProperties.getDocuments(getPath(), this);
+		StringBuilder content = new StringBuilder();
+		for (Map<String, ?> document : documents) {
+			if (content.length() > 0) {
+				content.append("#---\n");
+			}
+			for (Map.Entry<String, ?> property : document.entrySet()) {
+				Object value = property.getValue();
+				if (value instanceof OriginTrackedValue) {
+					value = ((OriginTrackedValue) value).getValue();
+				}
+				appendEscaped(content, property.getKey(), true);
+				content.append('=');
+				appendEscaped(content, String.valueOf(value), false);
+				content.append('\n');
+			}
+		}
+		return new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	private static void appendEscaped(StringBuilder content, String text, boolean key) {
+		for (int i = 0; i < text.length(); i++) {
+			char ch = text.charAt(i);
+			switch (ch) {
+			case '\\':
+				content.append("\\\\");
+				break;
+			case '\t':
+				content.append("\\t");
+				break;
+			case '\n':
+				content.append("\\n");
+				break;
+			case '\r':
+				content.append("\\r");
+				break;
+			case '\f':
+				content.append("\\f");
+				break;
+			case ' ':
+				content.append((key || i == 0) ? "\\ " : " ");
+				break;
+			case '=':
+			case ':':
+			case '#':
+			case '!':
+				content.append(key ? "\\" : "").append(ch);
+				break;
+			default:
+				if (ch > 0xff) {
+					content.append(String.format("\\u%04x", (int) ch));
+				}
+				else {
+					content.append(ch);
+				}
+			}
+		}
+	}
+}
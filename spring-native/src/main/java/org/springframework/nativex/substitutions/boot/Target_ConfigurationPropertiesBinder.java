@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.substitutions.boot;
+
+import java.util.List;
+
+import com.oracle.svm.core.annotate.Alias;
+import com.oracle.svm.core.annotate.Substitute;
+import com.oracle.svm.core.annotate.TargetClass;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBean;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBindHandlerAdvisor;
+import org.springframework.boot.context.properties.bind.BindHandler;
+import org.springframework.boot.context.properties.bind.BindResult;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.context.ApplicationContext;
+import org.springframework.nativex.BuildTimeGeneratedClass;
+import org.springframework.nativex.substitutions.OnlyIfPresent;
+import org.springframework.nativex.substitutions.WithBuildTimePropertiesBinders;
+import org.springframework.validation.Validator;
+
+/**
+ * Delegate the binding of JavaBean style {@code @ConfigurationProperties} types to the binder code generated
+ * at build time when there is some for the type, so that they are not introspected.
+ * <p>The generated code binds the properties one by one, it is only used when no handler needs to see the whole
+ * bean: the bean is not validated, unknown and invalid fields are not checked and no
+ * {@link ConfigurationPropertiesBindHandlerAdvisor} customizes the binding.
+ */
+@TargetClass(className = "org.springframework.boot.context.properties.ConfigurationPropertiesBinder", onlyWith = { WithBuildTimePropertiesBinders.class, OnlyIfPresent.class })
+final class Target_ConfigurationPropertiesBinder {
+
+	@Alias
+	private ApplicationContext applicationContext;
+
+	@Alias
+	private <T> BindHandler getBindHandler(Bindable<T> target, ConfigurationProperties annotation) {
+		return null;
+	}
+
+	@Alias
+	private List<Validator> getValidators(Bindable<?> target) {
+		return null;
+	}
+
+	@Alias
+	private List<ConfigurationPropertiesBindHandlerAdvisor> getBindHandlerAdvisors() {
+		return null;
+	}
+
+	@Alias
+	private Binder getBinder() {
+		return null;
+	}
+
+	@Substitute
+	BindResult<?> bind(ConfigurationPropertiesBean propertiesBean) {
+		Bindable<?> target = propertiesBean.asBindTarget();
+		ConfigurationProperties annotation = propertiesBean.getAnnotation();
+		Object instance = propertiesBean.getInstance();
+		if (instance != null && isBoundPerProperty(target, annotation)
+				&& new BuildTimeGeneratedClass("org.springframework.aot.StaticPropertiesBinders",
+						"spring.native.build-time-properties-binding").isEnabled(this.applicationContext.getEnvironment())
+				&& Target_StaticPropertiesBinders.isSupported(instance.getClass())) {
+			Target_StaticPropertiesBinders.bind(getBinder(), ConfigurationPropertyName.of(annotation.prefix()),
+					getBindHandler(target, annotation), instance);
+			// The instance is bound in place, ConfigurationPropertiesBindingPostProcessor does not use the result
+			return null;
+		}
+		return getBinder().bind(annotation.prefix(), target, getBindHandler(target, annotation));
+	}
+
+	// Validation and the detection of unknown or invalid fields happen when binding the whole bean
+	private boolean isBoundPerProperty(Bindable<?> target, ConfigurationProperties annotation) {
+		return annotation.ignoreUnknownFields() && !annotation.ignoreInvalidFields()
+				&& getValidators(target).isEmpty() && getBindHandlerAdvisors().isEmpty();
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.substitutions.boot;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.oracle.svm.core.annotate.Alias;
+import com.oracle.svm.core.annotate.Substitute;
+import com.oracle.svm.core.annotate.TargetClass;
+
+import org.springframework.boot.env.OriginTrackedMapPropertySource;
+import org.springframework.boot.origin.OriginTrackedResource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.nativex.substitutions.OnlyIfPresent;
+import org.springframework.nativex.substitutions.WithBuildTimeApplicationProperties;
+
+/**
+ * Use the properties compiled at build time for the application properties files packaged with the application,
+ * so that they keep their place in the environment without being parsed at runtime. The values have the origin
+ * the file would have given them.
+ */
+@TargetClass(className = "org.springframework.boot.env.PropertiesPropertySourceLoader", onlyWith = { WithBuildTimeApplicationProperties.class, OnlyIfPresent.class })
+final class Target_PropertiesPropertySourceLoader {
+
+	@Alias
+	private List<Map<String, ?>> loadProperties(Resource resource) throws IOException {
+		return null;
+	}
+
+	@Substitute
+	public List<PropertySource<?>> load(String name, Resource resource) throws IOException {
+		Resource target = (resource instanceof OriginTrackedResource) ? ((OriginTrackedResource) resource).getResource() : resource;
+		List<Map<String, ?>> properties = null;
+		if (target instanceof ClassPathResource) {
+			properties = Target_StaticApplicationProperties.getDocuments(((ClassPathResource) target).getPath(), resource);
+		}
+		if (properties == null) {
+			properties = loadProperties(resource);
+		}
+		if (properties.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<PropertySource<?>> propertySources = new ArrayList<>(properties.size());
+		for (int i = 0; i < properties.size(); i++) {
+			String documentNumber = (properties.size() != 1) ? " (document #" + i + ")" : "";
+			propertySources.add(new OriginTrackedMapPropertySource(name + documentNumber,
+					Collections.unmodifiableMap(properties.get(i)), true));
+		}
+		return propertySources;
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.substitutions.boot;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.oracle.svm.core.annotate.Alias;
+import com.oracle.svm.core.annotate.Substitute;
+import com.oracle.svm.core.annotate.TargetClass;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.nativex.substitutions.OnlyIfPresent;
+import org.springframework.nativex.substitutions.WithBuildTimeApplicationProperties;
+
+/**
+ * Resolve the application properties files compiled at build time even when they have been removed from the
+ * resources of the native image.
+ */
+@TargetClass(className = "org.springframework.boot.context.config.StandardConfigDataLocationResolver", onlyWith = { WithBuildTimeApplicationProperties.class, OnlyIfPresent.class })
+final class Target_StandardConfigDataLocationResolver {
+
+	@Alias
+	private Target_LocationResourceLoader resourceLoader;
+
+	@Substitute
+	private List<Target_StandardConfigDataResource> resolveNonPattern(Target_StandardConfigDataReference reference) {
+		Resource resource = this.resourceLoader.getResource(reference.getResourceLocation());
+		if (!resource.exists() && resource instanceof ClassPathResource
+				&& Target_StaticApplicationProperties.contains(((ClassPathResource) resource).getPath())) {
+			resource = new BuildTimeApplicationPropertiesResource(((ClassPathResource) resource).getPath());
+		}
+		if (!resource.exists() && reference.isSkippable()) {
+			logSkippingResource(reference);
+			return Collections.emptyList();
+		}
+		return Collections.singletonList(createConfigResourceLocation(reference, resource));
+	}
+
+	@Alias
+	private void logSkippingResource(Target_StandardConfigDataReference reference) {
+	}
+
+	@Alias
+	private Target_StandardConfigDataResource createConfigResourceLocation(Target_StandardConfigDataReference reference, Resource resource) {
+		return null;
+	}
+}
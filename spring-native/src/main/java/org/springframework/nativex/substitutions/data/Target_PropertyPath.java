@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.substitutions.data;
+
+import com.oracle.svm.core.annotate.Substitute;
+import com.oracle.svm.core.annotate.TargetClass;
+
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.nativex.substitutions.OnlyIfPresent;
+import org.springframework.nativex.substitutions.WithBuildTimeRepositoryQueries;
+
+/**
+ * Resolve the property references of derived query methods with the paths resolved at build time, rather than by
+ * trying the possible splits of their camel case name.
+ */
+@TargetClass(className = "org.springframework.data.mapping.PropertyPath", onlyWith = { WithBuildTimeRepositoryQueries.class, OnlyIfPresent.class })
+final class Target_PropertyPath {
+
+	@Substitute
+	public static PropertyPath from(String source, Class<?> type) {
+		String path = Target_StaticRepositoryQueries.getPropertyPath(type, source);
+		return PropertyPath.from((path != null) ? path : source, ClassTypeInformation.from(type));
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.nativex.substitutions.framework;
+
+import java.lang.annotation.Annotation;
+
+import com.oracle.svm.core.annotate.Alias;
+import com.oracle.svm.core.annotate.Substitute;
+import com.oracle.svm.core.annotate.TargetClass;
+
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.nativex.substitutions.OnlyIfPresent;
+import org.springframework.nativex.substitutions.WithBuildTimeSynthesizedAnnotations;
+
+@TargetClass(className = "org.springframework.core.annotation.TypeMappedAnnotation", onlyWith = { WithBuildTimeSynthesizedAnnotations.class, OnlyIfPresent.class })
+final class Target_TypeMappedAnnotation<A extends Annotation> {
+
+	@Alias
+	private Object rootAttributes;
+
+	@Alias
+	public Class<A> getType() {
+		return null;
+	}
+
+	@Alias
+	private boolean isSynthesizable() {
+		return false;
+	}
+
+	@Substitute
+	@SuppressWarnings("unchecked")
+	protected A createSynthesized() {
+		if (getType().isInstance(this.rootAttributes) && !isSynthesizable()) {
+			return (A) this.rootAttributes;
+		}
+		MergedAnnotation<A> annotation = (MergedAnnotation<A>) (Object) this;
+		// Implementations generated at build time replace the JDK proxy for the annotations they were generated for
+		Annotation synthesized = Target_StaticSynthesizedAnnotations.synthesize(annotation);
+		if (synthesized != null) {
+			return (A) synthesized;
+		}
+		return Target_SynthesizedMergedAnnotationInvocationHandler.createProxy(annotation, getType());
+	}
+}
@@ -32,8 +32,9 @@ import com.oracle.svm.core.annotate.TargetClass;
 import org.springframework.nativex.substitutions.LogbackIsAround;
 import org.springframework.nativex.substitutions.OnlyIfPresent;
 import org.springframework.nativex.substitutions.RemoveXmlSupport;
+import org.springframework.nativex.substitutions.WithoutBuildTimeLogbackConfiguration;
 
-@TargetClass(className = "ch.qos.logback.classic.util.ContextInitializer", onlyWith = { OnlyIfPresent.class, LogbackIsAround.class, RemoveXmlSupport.class })
+@TargetClass(className = "ch.qos.logback.classic.util.ContextInitializer", onlyWith = { OnlyIfPresent.class, LogbackIsAround.class, RemoveXmlSupport.class, WithoutBuildTimeLogbackConfiguration.class })
 final class Target_ContextInitializer {
 
 	@Alias